@@ -1,6 +1,7 @@
 package com.labelreader.config;
 
 import com.labelreader.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -35,9 +36,13 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins:http://localhost:4200,http://localhost:80,http://localhost}")
     private String[] allowedOrigins;
 
+    // Raising the cost upgrades existing hashes as their users log in
+    @Value("${password.bcrypt.strength:10}")
+    private int bcryptStrength;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -68,6 +73,8 @@ public class SecurityConfig {
                                 .maxAgeInSeconds(31536000)
                                 .includeSubDomains(true)))
                 .authorizeHttpRequests(auth -> auth
+                        // Streaming responses are re-dispatched after the original request was authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/actuator/health", "/actuator/info", "/actuator/metrics/**", "/actuator/prometheus").permitAll()
@@ -3,11 +3,17 @@ package com.labelreader.controller;
 import com.labelreader.dto.AnalyticsDto;
 import com.labelreader.entity.User;
 import com.labelreader.repository.UserRepository;
+import com.labelreader.security.CurrentUser;
+import com.labelreader.security.UserPrincipal;
 import com.labelreader.service.AnalyticsService;
+import com.labelreader.service.DashboardStreamService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -17,20 +23,30 @@ public class AnalyticsController {
 
     private final AnalyticsService analyticsService;
     private final UserRepository userRepository;
+    private final DashboardStreamService dashboardStreamService;
 
     @GetMapping("/artist")
     public ResponseEntity<AnalyticsDto.ArtistAnalytics> getCurrentArtistAnalytics(
-            @AuthenticationPrincipal User user,
+            @CurrentUser UserPrincipal user,
             @RequestParam(required = false, defaultValue = "30") Integer days) {
 
         if (user.getUserType() != User.UserType.ARTIST) {
             return ResponseEntity.badRequest().build();
         }
 
-        AnalyticsDto.ArtistAnalytics analytics = analyticsService.getArtistAnalytics(user, days);
+        // Reference proxy: only its id is used, so no query is made for the user row
+        AnalyticsDto.ArtistAnalytics analytics = analyticsService.getArtistAnalytics(
+                userRepository.getReferenceById(user.getId()), days);
         return ResponseEntity.ok(analytics);
     }
 
+    @GetMapping(value = "/artist/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('ARTIST')")
+    public SseEmitter streamArtistAnalytics(Authentication authentication) {
+        Long artistId = (Long) authentication.getPrincipal();
+        return dashboardStreamService.subscribe(artistId);
+    }
+
     @GetMapping("/artist/{artistId}")
     public ResponseEntity<AnalyticsDto.ArtistAnalytics> getArtistAnalytics(
             @PathVariable Long artistId,
@@ -49,13 +65,14 @@ public class AnalyticsController {
 
     @GetMapping("/label")
     public ResponseEntity<AnalyticsDto.LabelAnalytics> getCurrentLabelAnalytics(
-            @AuthenticationPrincipal User user) {
+            @CurrentUser UserPrincipal user) {
 
         if (user.getUserType() != User.UserType.LABEL) {
             return ResponseEntity.badRequest().build();
         }
 
-        AnalyticsDto.LabelAnalytics analytics = analyticsService.getLabelAnalytics(user);
+        AnalyticsDto.LabelAnalytics analytics = analyticsService.getLabelAnalytics(
+                userRepository.getReferenceById(user.getId()));
         return ResponseEntity.ok(analytics);
     }
 
@@ -2,6 +2,7 @@ package com.labelreader.controller;
 
 import com.labelreader.dto.AuthResponse;
 import com.labelreader.dto.LoginRequest;
+import com.labelreader.dto.RefreshRequest;
 import com.labelreader.dto.RegisterRequest;
 import com.labelreader.service.AuthService;
 import jakarta.validation.Valid;
@@ -25,4 +26,9 @@ public class AuthController {
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        return ResponseEntity.ok(authService.refresh(request.getRefreshToken()));
+    }
 }
@@ -1,14 +1,22 @@
 package com.labelreader.controller;
 
+import com.labelreader.dto.CursorPageDto;
 import com.labelreader.dto.LabelProfileDto;
 import com.labelreader.dto.RatingDto;
 import com.labelreader.dto.RatingRequest;
+import com.labelreader.dto.SliceDto;
 import com.labelreader.dto.SubmissionDto;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.dto.UpdateLabelProfileRequest;
 import com.labelreader.entity.Submission;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
 import com.labelreader.service.DiscoveryService;
 import com.labelreader.service.LabelProfileService;
+import com.labelreader.service.PlaybackService;
 import com.labelreader.service.RatingService;
+import com.labelreader.service.SimilarTrackService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -19,14 +27,20 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/label")
 @RequiredArgsConstructor
 public class LabelController {
 
+    private static final String RECOMMENDED = "recommended";
+
     private final LabelProfileService labelProfileService;
     private final DiscoveryService discoveryService;
     private final RatingService ratingService;
+    private final PlaybackService playbackService;
+    private final SimilarTrackService similarTrackService;
 
     @GetMapping("/profile")
     public ResponseEntity<LabelProfileDto> getProfile(Authentication authentication) {
@@ -43,40 +57,90 @@ public class LabelController {
     }
 
     @GetMapping("/discover")
-    public ResponseEntity<Page<SubmissionDto>> discoverSubmissions(
+    public ResponseEntity<Page<SubmissionSummaryDto>> discoverSubmissions(
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) String status,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
-
-        Sort sort = sortDir.equalsIgnoreCase("ASC")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
-
-        Pageable pageable = PageRequest.of(page, size, sort);
+            @RequestParam(defaultValue = RECOMMENDED) String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            Authentication authentication) {
 
-        Submission.SubmissionStatus submissionStatus = null;
-        if (status != null && !status.isEmpty()) {
-            try {
-                submissionStatus = Submission.SubmissionStatus.valueOf(status);
-            } catch (IllegalArgumentException e) {
-                // Invalid status, ignore
+        Submission.SubmissionStatus submissionStatus = parseStatus(status);
+        if (RECOMMENDED.equals(sortBy)) {
+            // The feed only holds approved submissions, so other filters fall back to newest first
+            boolean unfiltered = (genre == null || genre.isEmpty())
+                    && (submissionStatus == null || submissionStatus == Submission.SubmissionStatus.APPROVED);
+            if (unfiltered) {
+                Long labelId = (Long) authentication.getPrincipal();
+                return ResponseEntity.ok(discoveryService.discoverForLabel(labelId, PageRequest.of(page, size)));
             }
+            sortBy = "createdAt";
         }
 
-        Page<SubmissionDto> submissions = discoveryService.discoverSubmissions(
+        Pageable pageable = PageRequest.of(page, size, SubmissionSort.pageSort(sortBy, sortDir));
+
+        Page<SubmissionSummaryDto> submissions = discoveryService.discoverSubmissions(
                 genre, submissionStatus, pageable);
 
         return ResponseEntity.ok(submissions);
     }
 
+    @GetMapping("/discover/slice")
+    public ResponseEntity<SliceDto<SubmissionSummaryDto>> discoverSubmissionsSlice(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        Pageable pageable = PageRequest.of(page, size, SubmissionSort.pageSort(sortBy, sortDir));
+
+        SliceDto<SubmissionSummaryDto> submissions = discoveryService.discoverSubmissionsSlice(
+                genre, parseStatus(status), pageable, includeTotal);
+
+        return ResponseEntity.ok(submissions);
+    }
+
+    @GetMapping("/discover/cursor")
+    public ResponseEntity<CursorPageDto<SubmissionSummaryDto>> discoverSubmissionsByCursor(
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "newest") String sort) {
+
+        CursorPageDto<SubmissionSummaryDto> submissions = discoveryService.discoverSubmissions(
+                genre, parseStatus(status), SubmissionSort.from(sort), cursor, Cursor.pageSize(size));
+
+        return ResponseEntity.ok(submissions);
+    }
+
     @GetMapping("/submissions/{id}")
     public ResponseEntity<SubmissionDto> getSubmission(@PathVariable Long id) {
         return ResponseEntity.ok(discoveryService.getSubmissionForReview(id));
     }
 
+    @GetMapping("/submissions/{id}/similar")
+    public ResponseEntity<List<SubmissionSummaryDto>> getSimilarSubmissions(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(similarTrackService.findSimilar(id, limit));
+    }
+
+    @PostMapping("/submissions/{id}/play")
+    public ResponseEntity<Void> recordPlay(
+            @PathVariable Long id,
+            Authentication authentication,
+            HttpServletRequest request) {
+
+        Long labelId = (Long) authentication.getPrincipal();
+        playbackService.recordPlay(id, labelId, request.getRemoteAddr());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/ratings")
     public ResponseEntity<RatingDto> rateSubmission(
             @Valid @RequestBody RatingRequest request,
@@ -115,4 +179,15 @@ public class LabelController {
 
         return ResponseEntity.ok(rating);
     }
+
+    private static Submission.SubmissionStatus parseStatus(String status) {
+        if (status != null && !status.isEmpty()) {
+            try {
+                return Submission.SubmissionStatus.valueOf(status);
+            } catch (IllegalArgumentException e) {
+                // Invalid status, ignore
+            }
+        }
+        return null;
+    }
 }
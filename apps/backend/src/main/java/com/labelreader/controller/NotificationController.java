@@ -1,15 +1,25 @@
 package com.labelreader.controller;
 
 import com.labelreader.dto.NotificationDto;
-import com.labelreader.entity.User;
+import com.labelreader.dto.NotificationIdsRequest;
+import com.labelreader.dto.SliceDto;
+import com.labelreader.push.NotificationPush;
+import com.labelreader.security.CurrentUser;
+import com.labelreader.security.UserPrincipal;
+import com.labelreader.service.NotificationPushService;
 import com.labelreader.service.NotificationService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -18,46 +28,109 @@ import org.springframework.web.bind.annotation.*;
 public class NotificationController {
 
     private final NotificationService notificationService;
+    private final NotificationPushService notificationPushService;
 
     @GetMapping
     public ResponseEntity<Page<NotificationDto>> getUserNotifications(
-            @AuthenticationPrincipal User user,
+            @CurrentUser UserPrincipal user,
             @RequestParam(required = false) Boolean unreadOnly,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
         Pageable pageable = PageRequest.of(page, size);
-        Page<NotificationDto> notifications = notificationService.getUserNotifications(user, unreadOnly, pageable);
+        Page<NotificationDto> notifications = notificationService.getUserNotifications(user.getId(), unreadOnly, pageable);
+        return ResponseEntity.ok(notifications);
+    }
+
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDto<NotificationDto>> getUserNotificationsSlice(
+            @CurrentUser UserPrincipal user,
+            @RequestParam(required = false) Boolean unreadOnly,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        Pageable pageable = PageRequest.of(page, size);
+        SliceDto<NotificationDto> notifications = notificationService.getUserNotificationsSlice(
+                user.getId(), unreadOnly, pageable, includeTotal);
         return ResponseEntity.ok(notifications);
     }
 
     @GetMapping("/unread-count")
-    public ResponseEntity<Long> getUnreadCount(@AuthenticationPrincipal User user) {
-        Long count = notificationService.getUnreadCount(user);
+    public ResponseEntity<Long> getUnreadCount(@CurrentUser UserPrincipal user) {
+        Long count = notificationService.getUnreadCount(user.getId());
         return ResponseEntity.ok(count);
     }
 
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@CurrentUser UserPrincipal user) {
+        return notificationPushService.subscribe(user.getId());
+    }
+
+    @GetMapping("/poll")
+    public DeferredResult<ResponseEntity<NotificationPush>> pollNotifications(
+            @CurrentUser UserPrincipal user,
+            @RequestParam(required = false) Long lastCount) {
+
+        return notificationPushService.poll(user.getId(), lastCount);
+    }
+
+    @GetMapping("/batch")
+    public ResponseEntity<List<NotificationDto>> getNotifications(
+            @CurrentUser UserPrincipal user,
+            @RequestParam List<Long> ids) {
+
+        return ResponseEntity.ok(notificationService.getNotifications(ids, user.getId()));
+    }
+
+    @PutMapping("/read")
+    public ResponseEntity<Integer> markAsRead(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody NotificationIdsRequest request) {
+
+        int read = notificationService.markAsRead(request.getIds(), user.getId());
+        return ResponseEntity.ok(read);
+    }
+
+    @PostMapping("/delete")
+    public ResponseEntity<Integer> deleteNotifications(
+            @CurrentUser UserPrincipal user,
+            @Valid @RequestBody NotificationIdsRequest request) {
+
+        int deleted = notificationService.deleteNotifications(request.getIds(), user.getId());
+        return ResponseEntity.ok(deleted);
+    }
+
     @PutMapping("/{id}/read")
     public ResponseEntity<NotificationDto> markAsRead(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser UserPrincipal user) {
 
-        NotificationDto notification = notificationService.markAsRead(id, user);
+        NotificationDto notification = notificationService.markAsRead(id, user.getId());
         return ResponseEntity.ok(notification);
     }
 
     @PutMapping("/read-all")
-    public ResponseEntity<Void> markAllAsRead(@AuthenticationPrincipal User user) {
-        notificationService.markAllAsRead(user);
+    public ResponseEntity<Void> markAllAsRead(@CurrentUser UserPrincipal user) {
+        notificationService.markAllAsRead(user.getId());
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/digest")
+    public ResponseEntity<Void> setEmailDigest(
+            @CurrentUser UserPrincipal user,
+            @RequestParam boolean enabled) {
+
+        notificationService.setEmailDigest(user.getId(), enabled);
         return ResponseEntity.ok().build();
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteNotification(
             @PathVariable Long id,
-            @AuthenticationPrincipal User user) {
+            @CurrentUser UserPrincipal user) {
 
-        notificationService.deleteNotification(id, user);
+        notificationService.deleteNotification(id, user.getId());
         return ResponseEntity.ok().build();
     }
 }
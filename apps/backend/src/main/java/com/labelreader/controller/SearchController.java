@@ -1,7 +1,16 @@
 package com.labelreader.controller;
 
-import com.labelreader.dto.SubmissionDto;
+import com.labelreader.dto.CursorPageDto;
+import com.labelreader.dto.FacetedSearchDto;
+import com.labelreader.dto.SliceDto;
+import com.labelreader.dto.SubmissionSummaryDto;
+import com.labelreader.dto.SuggestionDto;
+import com.labelreader.index.FacetQuery;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
 import com.labelreader.service.DiscoveryService;
+import com.labelreader.service.FacetIndexService;
+import com.labelreader.service.SuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,31 +29,86 @@ import java.util.List;
 public class SearchController {
 
     private final DiscoveryService discoveryService;
+    private final SuggestionService suggestionService;
 
     @GetMapping
-    public ResponseEntity<Page<SubmissionDto>> search(
+    public ResponseEntity<Page<SubmissionSummaryDto>> search(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) String genre,
             @RequestParam(required = false) Integer minBpm,
             @RequestParam(required = false) Integer maxBpm,
             @RequestParam(required = false) LocalDateTime startDate,
             @RequestParam(required = false) LocalDateTime endDate,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "relevance") String sortBy,
             @RequestParam(defaultValue = "DESC") String sortDirection,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Sort sort = sortBy.equals(SubmissionSort.RELEVANCE.getProperty())
+                ? Sort.by(sortBy)
+                : SubmissionSort.pageSort(sortBy, sortDirection);
+        Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<SubmissionDto> results = discoveryService.searchSubmissions(
+        Page<SubmissionSummaryDto> results = discoveryService.searchSubmissions(
                 query, genre, minBpm, maxBpm, startDate, endDate, pageable);
 
         return ResponseEntity.ok(results);
     }
 
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDto<SubmissionSummaryDto>> searchSlice(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer minBpm,
+            @RequestParam(required = false) Integer maxBpm,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(defaultValue = "relevance") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        Sort sort = sortBy.equals(SubmissionSort.RELEVANCE.getProperty())
+                ? Sort.by(sortBy)
+                : SubmissionSort.pageSort(sortBy, sortDirection);
+        Pageable pageable = PageRequest.of(page, size, sort);
+
+        SliceDto<SubmissionSummaryDto> results = discoveryService.searchSubmissionsSlice(
+                query, genre, minBpm, maxBpm, startDate, endDate, pageable, includeTotal);
+
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDto<SubmissionSummaryDto>> searchByCursor(
+            @RequestParam(required = false) String query,
+            @RequestParam(required = false) String genre,
+            @RequestParam(required = false) Integer minBpm,
+            @RequestParam(required = false) Integer maxBpm,
+            @RequestParam(required = false) LocalDateTime startDate,
+            @RequestParam(required = false) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "relevance") String sort) {
+
+        CursorPageDto<SubmissionSummaryDto> results = discoveryService.searchSubmissions(
+                query, genre, minBpm, maxBpm, startDate, endDate,
+                SubmissionSort.from(sort), cursor, Cursor.pageSize(size));
+
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(suggestionService.suggest(q, limit));
+    }
+
     @GetMapping("/filter")
-    public ResponseEntity<Page<SubmissionDto>> filter(
+    public ResponseEntity<Page<SubmissionSummaryDto>> filter(
             @RequestParam(required = false) List<String> genres,
             @RequestParam(required = false) Integer minBpm,
             @RequestParam(required = false) Integer maxBpm,
@@ -54,12 +118,74 @@ public class SearchController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
 
-        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
-        Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
+        Pageable pageable = PageRequest.of(page, size, SubmissionSort.pageSort(sortBy, sortDirection));
 
-        Page<SubmissionDto> results = discoveryService.filterSubmissions(
+        Page<SubmissionSummaryDto> results = discoveryService.filterSubmissions(
                 genres, minBpm, maxBpm, minRating, pageable);
 
         return ResponseEntity.ok(results);
     }
+
+    @GetMapping("/filter/slice")
+    public ResponseEntity<SliceDto<SubmissionSummaryDto>> filterSlice(
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(required = false) Integer minBpm,
+            @RequestParam(required = false) Integer maxBpm,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        Pageable pageable = PageRequest.of(page, size, SubmissionSort.pageSort(sortBy, sortDirection));
+
+        SliceDto<SubmissionSummaryDto> results = discoveryService.filterSubmissionsSlice(
+                genres, minBpm, maxBpm, minRating, pageable, includeTotal);
+
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/filter/cursor")
+    public ResponseEntity<CursorPageDto<SubmissionSummaryDto>> filterByCursor(
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(required = false) Integer minBpm,
+            @RequestParam(required = false) Integer maxBpm,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "newest") String sort) {
+
+        CursorPageDto<SubmissionSummaryDto> results = discoveryService.filterSubmissions(
+                genres, minBpm, maxBpm, minRating, SubmissionSort.from(sort), cursor, Cursor.pageSize(size));
+
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<FacetedSearchDto> facets(
+            @RequestParam(required = false) List<String> genres,
+            @RequestParam(required = false) List<String> subGenres,
+            @RequestParam(required = false) List<String> keySignatures,
+            @RequestParam(required = false) Integer minBpm,
+            @RequestParam(required = false) Integer maxBpm,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Pageable pageable = PageRequest.of(page, size, FacetIndexService.sort(sortBy, sortDirection));
+
+        FacetQuery query = FacetQuery.builder()
+                .genres(genres)
+                .subGenres(subGenres)
+                .keySignatures(keySignatures)
+                .minBpm(minBpm)
+                .maxBpm(maxBpm)
+                .minRating(minRating)
+                .build();
+
+        return ResponseEntity.ok(discoveryService.facetedSearch(query, pageable));
+    }
 }
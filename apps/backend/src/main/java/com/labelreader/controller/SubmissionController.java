@@ -1,14 +1,18 @@
 package com.labelreader.controller;
 
+import com.labelreader.dto.CursorPageDto;
+import com.labelreader.dto.SliceDto;
 import com.labelreader.dto.SubmissionDto;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.dto.SubmissionRequest;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
 import com.labelreader.service.SubmissionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -40,7 +44,7 @@ public class SubmissionController {
     }
 
     @GetMapping
-    public ResponseEntity<Page<SubmissionDto>> getSubmissions(
+    public ResponseEntity<Page<SubmissionSummaryDto>> getSubmissions(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
@@ -48,12 +52,38 @@ public class SubmissionController {
             Authentication authentication) {
 
         Long artistId = (Long) authentication.getPrincipal();
-        Sort sort = sortDir.equalsIgnoreCase("ASC")
-                ? Sort.by(sortBy).ascending()
-                : Sort.by(sortBy).descending();
+        Pageable pageable = PageRequest.of(page, size, SubmissionSort.pageSort(sortBy, sortDir));
+        Page<SubmissionSummaryDto> submissions = submissionService.getArtistSubmissions(artistId, pageable);
 
-        Pageable pageable = PageRequest.of(page, size, sort);
-        Page<SubmissionDto> submissions = submissionService.getArtistSubmissions(artistId, pageable);
+        return ResponseEntity.ok(submissions);
+    }
+
+    @GetMapping("/slice")
+    public ResponseEntity<SliceDto<SubmissionSummaryDto>> getSubmissionsSlice(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            Authentication authentication) {
+
+        Long artistId = (Long) authentication.getPrincipal();
+        Pageable pageable = PageRequest.of(page, size, SubmissionSort.pageSort(sortBy, sortDir));
+        SliceDto<SubmissionSummaryDto> submissions = submissionService.getArtistSubmissionsSlice(artistId, pageable, includeTotal);
+
+        return ResponseEntity.ok(submissions);
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDto<SubmissionSummaryDto>> getSubmissionsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "newest") String sort,
+            Authentication authentication) {
+
+        Long artistId = (Long) authentication.getPrincipal();
+        CursorPageDto<SubmissionSummaryDto> submissions = submissionService.getArtistSubmissions(
+                artistId, SubmissionSort.from(sort), cursor, Cursor.pageSize(size));
 
         return ResponseEntity.ok(submissions);
     }
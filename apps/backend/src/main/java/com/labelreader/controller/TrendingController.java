@@ -0,0 +1,26 @@
+package com.labelreader.controller;
+
+import com.labelreader.dto.TrendingSubmissionDto;
+import com.labelreader.service.TrendingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/public/trending")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class TrendingController {
+
+    private final TrendingService trendingService;
+
+    @GetMapping
+    public ResponseEntity<List<TrendingSubmissionDto>> getTrending(
+            @RequestParam(required = false) String genre,
+            @RequestParam(defaultValue = "10") int k) {
+
+        return ResponseEntity.ok(trendingService.getTrending(genre, k));
+    }
+}
@@ -0,0 +1,63 @@
+package com.labelreader.datasource;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Polls each replica's replication status. A replica that cannot be reached,
+ * is not replicating, or lags further than the threshold stops receiving
+ * reads until it catches up; reads fall back to the primary meanwhile.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReplicaHealthChecker {
+
+    private final ReplicaRoutingDataSource routingDataSource;
+
+    @Value("${datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Value("${datasource.replica.check-timeout-seconds:2}")
+    private int checkTimeoutSeconds;
+
+    @Scheduled(fixedDelayString = "${datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (ReplicaRoutingDataSource.Replica replica : routingDataSource.getReplicas()) {
+            check(replica);
+        }
+    }
+
+    void check(ReplicaRoutingDataSource.Replica replica) {
+        try (Connection connection = replica.getDataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(checkTimeoutSeconds);
+            Long lag = null;
+            try (ResultSet status = statement.executeQuery("SHOW REPLICA STATUS")) {
+                if (status.next()) {
+                    long seconds = status.getLong("Seconds_Behind_Source");
+                    lag = status.wasNull() ? null : seconds;
+                }
+            }
+            if (replica.update(lag, maxLagSeconds)) {
+                if (replica.isHealthy()) {
+                    log.info("Replica {} is back in rotation with {}s lag", replica.getName(), lag);
+                } else {
+                    log.warn("Replica {} taken out of rotation, lag {}s", replica.getName(), lag);
+                }
+            }
+        } catch (SQLException e) {
+            if (replica.markDown()) {
+                log.warn("Replica {} taken out of rotation: {}", replica.getName(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.labelreader.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a healthy replica, round
+ * robin, and everything else to the primary. A user who committed a write is
+ * pinned to the primary for a short window so they read their own changes.
+ * <p>
+ * Only read-only transactions declared by application code are eligible,
+ * recognised by the transaction name (the declaring class and method)
+ * starting with one of the configured prefixes. Spring Data repositories are
+ * read-only by default, so a bare repository call would otherwise start a
+ * read-only transaction of its own and read possibly stale data from a
+ * replica, for example the user lookup right after registration at login.
+ * <p>
+ * The routing key is read when a connection is fetched, so this must sit
+ * behind a {@code LazyConnectionDataSourceProxy}; otherwise the connection is
+ * taken before the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final List<String> replicaTransactionPrefixes;
+    private final Cache<Long, Boolean> recentWriters;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            Map<String, DataSource> replicaDataSources,
+            Duration stickyWindow,
+            List<String> replicaTransactionPrefixes,
+            MeterRegistry meterRegistry) {
+
+        this.meterRegistry = meterRegistry;
+        this.replicaTransactionPrefixes = List.copyOf(replicaTransactionPrefixes);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .maximumSize(100_000)
+                .build();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicaDataSources.forEach((name, dataSource) -> {
+            Replica replica = new Replica(name, dataSource);
+            replicas.add(replica);
+            targets.put(name, dataSource);
+
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagSeconds)
+                    .description("Replication lag in seconds, NaN when unknown")
+                    .baseUnit("seconds")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica receives read-only traffic")
+                    .tag("replica", name)
+                    .register(meterRegistry);
+        });
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Pins the user to the primary for the sticky window.
+     */
+    public void recordWrite(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        recordWrite(userId);
+                    }
+                });
+            }
+            return route(PRIMARY, "write");
+        }
+        if (!isDeclaredForReplica(TransactionSynchronizationManager.getCurrentTransactionName())) {
+            return route(PRIMARY, "undeclared");
+        }
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            return route(PRIMARY, "sticky");
+        }
+
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                return route(replica.name, "read");
+            }
+        }
+        return route(PRIMARY, "fallback");
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean isDeclaredForReplica(String transactionName) {
+        if (transactionName == null) {
+            return false;
+        }
+        for (String prefix : replicaTransactionPrefixes) {
+            if (transactionName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String route(String target, String reason) {
+        meterRegistry.counter("datasource.routing", "target", target, "reason", reason).increment();
+        return target;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return userId;
+        }
+        return null;
+    }
+
+    public static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public DataSource getDataSource() {
+            return dataSource;
+        }
+
+        public boolean isHealthy() {
+            return healthy;
+        }
+
+        public double getLagSeconds() {
+            return lagSeconds;
+        }
+
+        /**
+         * Records a health check; a null lag means replication is not running.
+         * Returns whether the replica changed between healthy and unhealthy.
+         */
+        boolean update(Long lag, long maxLagSeconds) {
+            lagSeconds = lag != null ? lag : Double.NaN;
+            boolean nowHealthy = lag != null && lag <= maxLagSeconds;
+            boolean changed = nowHealthy != healthy;
+            healthy = nowHealthy;
+            return changed;
+        }
+
+        boolean markDown() {
+            lagSeconds = Double.NaN;
+            boolean changed = healthy;
+            healthy = false;
+            return changed;
+        }
+    }
+}
@@ -5,7 +5,9 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -82,4 +84,20 @@ public class AnalyticsDto {
         private List<TopSubmission> topRatedSubmissions;
         private List<TopSubmission> mostPlayedSubmissions;
     }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DashboardDelta {
+        private String type;
+        private Long submissionId;
+        private String title;
+        private Integer playCount;
+        private Integer rating;
+        private BigDecimal averageRating;
+        private Integer totalRatings;
+        private Boolean newRating;
+        private LocalDateTime occurredAt;
+    }
 }
@@ -0,0 +1,21 @@
+package com.labelreader.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedSearchDto {
+    private List<SubmissionSummaryDto> content;
+    private int page;
+    private int size;
+    private long totalElements;
+    private Map<String, Map<String, Integer>> facets;
+}
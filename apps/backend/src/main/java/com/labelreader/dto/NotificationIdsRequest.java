@@ -0,0 +1,12 @@
+package com.labelreader.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class NotificationIdsRequest {
+    @NotEmpty(message = "Notification ids are required")
+    private List<Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.labelreader.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SliceDto<T> {
+    private List<T> content;
+    private int page;
+    private int size;
+    private boolean hasNext;
+    // Only set when requested; may lag behind writes by the count cache TTL
+    private Long approximateTotal;
+}
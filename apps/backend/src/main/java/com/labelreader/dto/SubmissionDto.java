@@ -1,5 +1,6 @@
 package com.labelreader.dto;
 
+import com.labelreader.entity.Submission;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -31,6 +32,35 @@ public class SubmissionDto {
     private Integer playCount;
     private BigDecimal averageRating;
     private Integer totalRatings;
+    private Long duplicateOfId;
+    private Double duplicateSimilarity;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+
+    public static SubmissionDto fromEntity(Submission submission) {
+        return SubmissionDto.builder()
+                .id(submission.getId())
+                .artistId(submission.getArtistId())
+                .title(submission.getTitle())
+                .artistName(submission.getArtistName())
+                .genre(submission.getGenre())
+                .subGenre(submission.getSubGenre())
+                .bpm(submission.getBpm())
+                .keySignature(submission.getKeySignature())
+                .filePath(submission.getFilePath())
+                .fileSizeBytes(submission.getFileSizeBytes())
+                .durationSeconds(submission.getDurationSeconds())
+                .description(submission.getDescription())
+                .lyrics(submission.getLyrics())
+                .isPublished(submission.getIsPublished())
+                .submissionStatus(submission.getSubmissionStatus().name())
+                .playCount(submission.getPlayCount())
+                .averageRating(submission.getAverageRating())
+                .totalRatings(submission.getTotalRatings())
+                .duplicateOfId(submission.getDuplicateOfId())
+                .duplicateSimilarity(submission.getDuplicateSimilarity())
+                .createdAt(submission.getCreatedAt())
+                .updatedAt(submission.getUpdatedAt())
+                .build();
+    }
 }
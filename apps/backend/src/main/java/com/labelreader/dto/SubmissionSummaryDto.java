@@ -0,0 +1,41 @@
+package com.labelreader.dto;
+
+import com.labelreader.entity.Submission;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Card view of a submission for list endpoints. It is built directly by JPQL
+ * constructor expressions, so field order and types must match
+ * {@code SubmissionRepository.SUMMARY_FIELDS}. Lyrics, file details and
+ * waveform data are only served by the single-submission endpoints, and the
+ * description is cut to a short snippet.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionSummaryDto {
+    public static final int DESCRIPTION_SNIPPET_LENGTH = 160;
+
+    private Long id;
+    private Long artistId;
+    private String title;
+    private String artistName;
+    private String genre;
+    private String subGenre;
+    private Integer bpm;
+    private String keySignature;
+    private Integer durationSeconds;
+    private String description;
+    private Submission.SubmissionStatus submissionStatus;
+    private Integer playCount;
+    private BigDecimal averageRating;
+    private Integer totalRatings;
+    private LocalDateTime createdAt;
+}
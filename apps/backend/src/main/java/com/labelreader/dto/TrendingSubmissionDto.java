@@ -0,0 +1,18 @@
+package com.labelreader.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendingSubmissionDto {
+    private Long id;
+    private String title;
+    private String artistName;
+    private String genre;
+    private Double score;
+}
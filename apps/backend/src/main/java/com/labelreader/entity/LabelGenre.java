@@ -0,0 +1,37 @@
+package com.labelreader.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One genre a label wants to hear, so labels can be looked up by genre
+ * without reading every profile.
+ */
+@Entity
+@Table(name = "label_genres",
+        uniqueConstraints = @UniqueConstraint(name = "uk_label_genre", columnNames = {"user_id", "genre_key"}),
+        indexes = @Index(name = "idx_genre_key", columnList = "genre_key"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LabelGenre {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // As the label entered it
+    @Column(nullable = false, length = 100)
+    private String genre;
+
+    // Trimmed and lower-cased, for matching
+    @Column(name = "genre_key", nullable = false, length = 100)
+    private String genreKey;
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@Table(name = "notifications", indexes = {
+        @Index(name = "idx_user_is_read", columnList = "user_id, is_read"),
+        @Index(name = "idx_created_at", columnList = "created_at")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -41,6 +44,11 @@ public class Notification {
     @Builder.Default
     private Boolean isRead = false;
 
+    // Waiting to go out in the user's next digest email
+    @Column(name = "email_pending", nullable = false)
+    @Builder.Default
+    private Boolean emailPending = false;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -53,6 +61,7 @@ public class Notification {
         NEW_RATING,
         SIGNING_REQUEST,
         REQUEST_RESPONSE,
+        NEW_SUBMISSION,
         SYSTEM
     }
 }
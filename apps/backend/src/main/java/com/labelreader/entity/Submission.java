@@ -9,7 +9,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "submissions")
+@Table(name = "submissions", indexes = {
+        @Index(name = "idx_status_created_id", columnList = "submission_status, created_at, id"),
+        @Index(name = "idx_status_rating_id", columnList = "submission_status, average_rating, id"),
+        @Index(name = "idx_status_plays_id", columnList = "submission_status, play_count, id"),
+        @Index(name = "idx_genre_status_created_id", columnList = "genre, submission_status, created_at, id"),
+        @Index(name = "idx_artist_created_id", columnList = "artist_id, created_at, id"),
+        @Index(name = "idx_updated_id", columnList = "updated_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -81,6 +88,13 @@ public class Submission {
     @Column(name = "total_ratings")
     private Integer totalRatings = 0;
 
+    // Earlier submission whose audio this one matches, set by fingerprinting
+    @Column(name = "duplicate_of_id")
+    private Long duplicateOfId;
+
+    @Column(name = "duplicate_similarity")
+    private Double duplicateSimilarity;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,34 @@
+package com.labelreader.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Acoustic fingerprint of a submission's audio, kept apart from the
+ * submission row so list queries never read it.
+ */
+@Entity
+@Table(name = "submission_fingerprints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmissionFingerprint {
+
+    @Id
+    @Column(name = "submission_id")
+    private Long submissionId;
+
+    @Column(nullable = false, length = 64)
+    private byte[] fingerprint;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -57,6 +57,11 @@ public class User {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bundle notification emails into a periodic digest instead of one email each
+    @Column(name = "email_digest")
+    @Builder.Default
+    private Boolean emailDigest = false;
+
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
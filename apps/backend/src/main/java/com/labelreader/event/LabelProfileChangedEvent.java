@@ -0,0 +1,12 @@
+package com.labelreader.event;
+
+import com.labelreader.entity.LabelProfile;
+import lombok.Value;
+
+/**
+ * Published after a label profile has been created or its details updated.
+ */
+@Value
+public class LabelProfileChangedEvent {
+    LabelProfile profile;
+}
@@ -0,0 +1,14 @@
+package com.labelreader.event;
+
+import com.labelreader.dto.NotificationDto;
+import lombok.Value;
+
+/**
+ * Published when a user's notifications change: one is created, read or
+ * deleted. Carries the notification only when it was just created.
+ */
+@Value
+public class NotificationChangedEvent {
+    Long userId;
+    NotificationDto created;
+}
@@ -0,0 +1,60 @@
+package com.labelreader.event;
+
+import com.labelreader.entity.Submission;
+import lombok.Value;
+
+/**
+ * Published whenever a submission is created, updated or deleted so that
+ * in-memory read models can stay in sync with the database.
+ */
+@Value
+public class SubmissionChangedEvent {
+    Submission submission;
+    ChangeType changeType;
+
+    /**
+     * Status the submission had before this change; null when it was just
+     * created.
+     */
+    Submission.SubmissionStatus previousStatus;
+
+    /**
+     * Genre the submission had before this change; null when it was just
+     * created.
+     */
+    String previousGenre;
+
+    public SubmissionChangedEvent(Submission submission, ChangeType changeType,
+                                  Submission.SubmissionStatus previousStatus, String previousGenre) {
+        this.submission = submission;
+        this.changeType = changeType;
+        this.previousStatus = previousStatus;
+        this.previousGenre = previousGenre;
+    }
+
+    /**
+     * For changes that leave the genre as it is.
+     */
+    public SubmissionChangedEvent(Submission submission, ChangeType changeType,
+                                  Submission.SubmissionStatus previousStatus) {
+        this(submission, changeType, previousStatus,
+                changeType == ChangeType.CREATED ? null : submission.getGenre());
+    }
+
+    /**
+     * For changes that leave the status and genre as they are.
+     */
+    public SubmissionChangedEvent(Submission submission, ChangeType changeType) {
+        this(submission, changeType, changeType == ChangeType.CREATED ? null : submission.getSubmissionStatus());
+    }
+
+    public boolean isNewlyApproved() {
+        return changeType != ChangeType.DELETED
+                && submission.getSubmissionStatus() == Submission.SubmissionStatus.APPROVED
+                && previousStatus != Submission.SubmissionStatus.APPROVED;
+    }
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,16 @@
+package com.labelreader.event;
+
+import com.labelreader.entity.Submission;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published after a play has been recorded for a submission.
+ */
+@Value
+public class SubmissionPlayedEvent {
+    Submission submission;
+    Long userId;
+    LocalDateTime playedAt;
+}
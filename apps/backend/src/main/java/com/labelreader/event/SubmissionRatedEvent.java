@@ -0,0 +1,17 @@
+package com.labelreader.event;
+
+import com.labelreader.entity.Submission;
+import lombok.Value;
+
+/**
+ * Published after a label has created or updated a rating. The submission
+ * already carries the recalculated average rating and rating count.
+ */
+@Value
+public class SubmissionRatedEvent {
+    Submission submission;
+    Long labelId;
+    Integer rating;
+    Boolean isInterested;
+    boolean newRating;
+}
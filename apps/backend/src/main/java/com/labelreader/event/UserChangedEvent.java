@@ -0,0 +1,12 @@
+package com.labelreader.event;
+
+import lombok.Value;
+
+/**
+ * Published after a user's account or profile details change so that cached
+ * copies of the user can be dropped.
+ */
+@Value
+public class UserChangedEvent {
+    Long userId;
+}
@@ -0,0 +1,240 @@
+package com.labelreader.index;
+
+import java.util.Arrays;
+
+/**
+ * Compact acoustic fingerprint of a whole track, robust to re-encoding.
+ * <p>
+ * The mono signal at {@link #SAMPLE_RATE} is trimmed of leading and trailing
+ * silence and split into {@link #SEGMENTS} equal parts. Each part gets the
+ * mean log energy of {@link #BANDS} logarithmically spaced bands between 250
+ * and 2500 Hz. A bit per segment and neighbouring band pair records whether
+ * the energy difference between the two bands is above its median over the
+ * track. Differences of log energies ignore gain, and removing the per-pair
+ * median removes the overall spectral tilt, so different tracks disagree on
+ * about half the bits while encodes of one track disagree on few. Since the
+ * segments are relative to the track's length, small offsets from encoder
+ * padding barely move them.
+ */
+public final class AudioFingerprint {
+
+    public static final int SAMPLE_RATE = 5512;
+    public static final int SEGMENTS = 32;
+    public static final int BANDS = 17;
+    public static final int BITS = SEGMENTS * (BANDS - 1);
+    public static final int WORDS = BITS / Long.SIZE;
+
+    private static final int FRAME = 2048;
+    private static final int HOP = FRAME / 2;
+    // At least a frame per segment, about 12 seconds
+    private static final int MIN_SPAN = SEGMENTS * FRAME;
+    private static final double MIN_FREQUENCY = 250;
+    private static final double MAX_FREQUENCY = 2500;
+    // Samples below this fraction of the peak count as silence when trimming
+    private static final float SILENCE = 0.01f;
+
+    private static final int[] BAND_EDGES = new int[BANDS + 1];
+    private static final double[] WINDOW = new double[FRAME];
+    private static final double[] COS = new double[FRAME / 2];
+    private static final double[] SIN = new double[FRAME / 2];
+
+    static {
+        for (int i = 0; i <= BANDS; i++) {
+            double frequency = MIN_FREQUENCY * Math.pow(MAX_FREQUENCY / MIN_FREQUENCY, i / (double) BANDS);
+            BAND_EDGES[i] = (int) Math.round(frequency * FRAME / SAMPLE_RATE);
+        }
+        for (int i = 0; i < FRAME; i++) {
+            WINDOW[i] = 0.5 - 0.5 * Math.cos(2 * Math.PI * i / FRAME);
+        }
+        for (int i = 0; i < FRAME / 2; i++) {
+            COS[i] = Math.cos(2 * Math.PI * i / FRAME);
+            SIN[i] = -Math.sin(2 * Math.PI * i / FRAME);
+        }
+    }
+
+    private AudioFingerprint() {
+    }
+
+    /**
+     * Fingerprint of the first {@code length} mono samples at
+     * {@link #SAMPLE_RATE}, or null when less than about 12 seconds of sound
+     * remain after trimming silence.
+     */
+    public static long[] compute(float[] samples, int length) {
+        float peak = 0;
+        for (int i = 0; i < length; i++) {
+            peak = Math.max(peak, Math.abs(samples[i]));
+        }
+        if (peak == 0) {
+            return null;
+        }
+        int start = 0;
+        while (Math.abs(samples[start]) < peak * SILENCE) {
+            start++;
+        }
+        int end = length;
+        while (Math.abs(samples[end - 1]) < peak * SILENCE) {
+            end--;
+        }
+        int span = end - start;
+        if (span < MIN_SPAN) {
+            return null;
+        }
+
+        double[][] energy = new double[SEGMENTS][BANDS];
+        int[] frames = new int[SEGMENTS];
+        double[] real = new double[FRAME];
+        double[] imaginary = new double[FRAME];
+        for (int offset = start; offset + FRAME <= end; offset += HOP) {
+            int segment = (int) ((offset - start + FRAME / 2L) * SEGMENTS / span);
+            for (int i = 0; i < FRAME; i++) {
+                real[i] = samples[offset + i] * WINDOW[i];
+            }
+            Arrays.fill(imaginary, 0);
+            fft(real, imaginary);
+            for (int band = 0; band < BANDS; band++) {
+                double sum = 0;
+                for (int bin = BAND_EDGES[band]; bin < BAND_EDGES[band + 1]; bin++) {
+                    sum += real[bin] * real[bin] + imaginary[bin] * imaginary[bin];
+                }
+                energy[segment][band] += sum;
+            }
+            frames[segment]++;
+        }
+
+        double[][] slopes = new double[BANDS - 1][SEGMENTS];
+        for (int segment = 0; segment < SEGMENTS; segment++) {
+            for (int band = 0; band < BANDS - 1; band++) {
+                double low = Math.log(energy[segment][band] / frames[segment] + 1e-12);
+                double high = Math.log(energy[segment][band + 1] / frames[segment] + 1e-12);
+                slopes[band][segment] = low - high;
+            }
+        }
+
+        long[] fingerprint = new long[WORDS];
+        for (int band = 0; band < BANDS - 1; band++) {
+            double median = median(slopes[band]);
+            for (int segment = 0; segment < SEGMENTS; segment++) {
+                if (slopes[band][segment] > median) {
+                    int bit = segment * (BANDS - 1) + band;
+                    fingerprint[bit / Long.SIZE] |= 1L << (bit % Long.SIZE);
+                }
+            }
+        }
+        return fingerprint;
+    }
+
+    public static int distance(long[] a, long[] b) {
+        int distance = 0;
+        for (int i = 0; i < a.length; i++) {
+            distance += Long.bitCount(a[i] ^ b[i]);
+        }
+        return distance;
+    }
+
+    /**
+     * Share of matching bits, 1.0 for identical fingerprints and about 0.5
+     * for unrelated tracks.
+     */
+    public static double similarity(int distance) {
+        return 1 - distance / (double) BITS;
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return (sorted[sorted.length / 2 - 1] + sorted[sorted.length / 2]) / 2;
+    }
+
+    /**
+     * In-place iterative radix-2 FFT of one frame.
+     */
+    private static void fft(double[] real, double[] imaginary) {
+        for (int i = 1, j = 0; i < FRAME; i++) {
+            int bit = FRAME >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double swap = real[i];
+                real[i] = real[j];
+                real[j] = swap;
+                swap = imaginary[i];
+                imaginary[i] = imaginary[j];
+                imaginary[j] = swap;
+            }
+        }
+        for (int size = 2; size <= FRAME; size <<= 1) {
+            int half = size / 2;
+            int step = FRAME / size;
+            for (int i = 0; i < FRAME; i += size) {
+                for (int k = 0; k < half; k++) {
+                    double cos = COS[k * step];
+                    double sin = SIN[k * step];
+                    int a = i + k;
+                    int b = a + half;
+                    double re = real[b] * cos - imaginary[b] * sin;
+                    double im = real[b] * sin + imaginary[b] * cos;
+                    real[b] = real[a] - re;
+                    imaginary[b] = imaginary[a] - im;
+                    real[a] += re;
+                    imaginary[a] += im;
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects mono samples at any rate of at least {@link #SAMPLE_RATE} and
+     * averages them down to it, keeping at most {@code maxSeconds} of audio.
+     */
+    public static final class Downsampler {
+        private final double step;
+        private final int capacity;
+        private float[] samples;
+        private int length;
+        private double position;
+        private double sum;
+        private int count;
+
+        public Downsampler(float sourceRate, int maxSeconds) {
+            if (sourceRate < SAMPLE_RATE) {
+                throw new IllegalArgumentException("Sample rate " + sourceRate + " is below " + SAMPLE_RATE);
+            }
+            this.step = sourceRate / SAMPLE_RATE;
+            this.capacity = SAMPLE_RATE * maxSeconds;
+            this.samples = new float[Math.min(capacity, SAMPLE_RATE * 60)];
+        }
+
+        public void add(float sample) {
+            if (isFull()) {
+                return;
+            }
+            sum += sample;
+            count++;
+            position++;
+            if (position >= step) {
+                position -= step;
+                if (length == samples.length) {
+                    samples = Arrays.copyOf(samples, Math.min(capacity, samples.length * 2));
+                }
+                samples[length++] = (float) (sum / count);
+                sum = 0;
+                count = 0;
+            }
+        }
+
+        public boolean isFull() {
+            return length >= capacity;
+        }
+
+        public float[] samples() {
+            return samples;
+        }
+
+        public int length() {
+            return length;
+        }
+    }
+}
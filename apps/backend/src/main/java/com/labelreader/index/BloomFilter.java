@@ -0,0 +1,82 @@
+package com.labelreader.index;
+
+/**
+ * Fixed size Bloom filter over byte keys. Answers "definitely absent" or
+ * "possibly present"; the share of false positives stays near the target
+ * rate as long as no more than the expected number of keys is added.
+ * Entries cannot be removed, so holders rebuild the filter to drop them.
+ * Not thread-safe; callers guard access.
+ */
+public class BloomFilter {
+
+    private static final long SEED_1 = 0x9E3779B97F4A7C15L;
+    private static final long SEED_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+    private long size;
+
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid filter parameters");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedEntries * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = new long[(int) Math.max(1, (optimalBits + Long.SIZE - 1) / Long.SIZE)];
+        this.bitCount = (long) bits.length * Long.SIZE;
+        this.hashes = Math.max(1, (int) Math.round((double) bitCount / expectedEntries * ln2));
+    }
+
+    public void add(byte[] key) {
+        long h1 = hash(key, SEED_1);
+        long h2 = hash(key, SEED_2);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+    }
+
+    public boolean mightContain(byte[] key) {
+        long h1 = hash(key, SEED_1);
+        long h2 = hash(key, SEED_2);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Keys added, counting repeats.
+     */
+    public long size() {
+        return size;
+    }
+
+    public int getHashes() {
+        return hashes;
+    }
+
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    // FNV-1a over the key followed by the MurmurHash3 finalizer
+    private static long hash(byte[] key, long seed) {
+        long h = seed;
+        for (byte b : key) {
+            h ^= b & 0xff;
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,397 @@
+package com.labelreader.index;
+
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Compressed-bitmap index over submission attributes. Every facet value owns a
+ * {@link RoaringBitmap} of submission ids, so filters are evaluated as bitmap
+ * OR within a facet and AND across facets, and facet counts are intersection
+ * cardinalities against the same result. BPM and rating are numeric, so they
+ * are bucketed instead; range filters take whole buckets and check the
+ * members of the boundary buckets exactly.
+ * <p>
+ * Not thread-safe; callers guard access.
+ */
+public class FacetBitmapIndex {
+
+    public enum Facet {
+        GENRE, SUB_GENRE, KEY_SIGNATURE, BPM, RATING
+    }
+
+    public enum SortKey {
+        ID, RATING, BPM, PLAY_COUNT
+    }
+
+    private static final int BPM_FACET_WIDTH = 10;
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Facet, Map<String, RoaringBitmap>> terms = new EnumMap<>(Facet.class);
+    private final Map<Facet, Map<String, String>> displayNames = new EnumMap<>(Facet.class);
+    // BPM bucketed by BPM_FACET_WIDTH, keyed by bucket number
+    private final NavigableMap<Integer, RoaringBitmap> bpmBuckets = new TreeMap<>();
+    // Average ratings bucketed by tenths of a star
+    private final NavigableMap<Integer, RoaringBitmap> ratingTenths = new TreeMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+
+    public FacetBitmapIndex() {
+        for (Facet facet : List.of(Facet.GENRE, Facet.SUB_GENRE, Facet.KEY_SIGNATURE)) {
+            terms.put(facet, new HashMap<>());
+            displayNames.put(facet, new HashMap<>());
+        }
+    }
+
+    public void upsert(Document document) {
+        remove(document.getId());
+        int id = document.getId();
+        documents.put(id, document);
+        all.add(id);
+
+        addTerm(Facet.GENRE, document.getGenre(), id);
+        addTerm(Facet.SUB_GENRE, document.getSubGenre(), id);
+        addTerm(Facet.KEY_SIGNATURE, document.getKeySignature(), id);
+        if (document.getBpm() != null) {
+            bpmBuckets.computeIfAbsent(bpmBucket(document.getBpm()), b -> new RoaringBitmap()).add(id);
+        }
+        ratingTenths.computeIfAbsent(ratingBucket(document.getAverageRating()), r -> new RoaringBitmap()).add(id);
+    }
+
+    public void remove(int id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        all.remove(id);
+
+        removeTerm(Facet.GENRE, document.getGenre(), id);
+        removeTerm(Facet.SUB_GENRE, document.getSubGenre(), id);
+        removeTerm(Facet.KEY_SIGNATURE, document.getKeySignature(), id);
+        if (document.getBpm() != null) {
+            removeFrom(bpmBuckets, bpmBucket(document.getBpm()), id);
+        }
+        removeFrom(ratingTenths, ratingBucket(document.getAverageRating()), id);
+    }
+
+    public Document get(int id) {
+        return documents.get(id);
+    }
+
+    public int size() {
+        return all.getCardinality();
+    }
+
+    public void clear() {
+        all.clear();
+        terms.values().forEach(Map::clear);
+        displayNames.values().forEach(Map::clear);
+        bpmBuckets.clear();
+        ratingTenths.clear();
+        documents.clear();
+    }
+
+    public RoaringBitmap evaluate(FacetQuery query) {
+        return evaluate(query, null);
+    }
+
+    /**
+     * Evaluates the query, ignoring the constraint on {@code excluded} so that
+     * multi-select facets can report counts for their alternative values.
+     */
+    public RoaringBitmap evaluate(FacetQuery query, Facet excluded) {
+        RoaringBitmap result = all.clone();
+        if (excluded != Facet.GENRE && !isEmpty(query.getGenres())) {
+            result.and(union(Facet.GENRE, query.getGenres()));
+        }
+        if (excluded != Facet.SUB_GENRE && !isEmpty(query.getSubGenres())) {
+            result.and(union(Facet.SUB_GENRE, query.getSubGenres()));
+        }
+        if (excluded != Facet.KEY_SIGNATURE && !isEmpty(query.getKeySignatures())) {
+            result.and(union(Facet.KEY_SIGNATURE, query.getKeySignatures()));
+        }
+        if (excluded != Facet.BPM && (query.getMinBpm() != null || query.getMaxBpm() != null)) {
+            int min = query.getMinBpm() != null ? query.getMinBpm() : Integer.MIN_VALUE;
+            int max = query.getMaxBpm() != null ? query.getMaxBpm() : Integer.MAX_VALUE;
+            result.and(bpmBetween(min, max));
+        }
+        if (excluded != Facet.RATING && query.getMinRating() != null) {
+            result.and(ratingAtLeast(query.getMinRating()));
+        }
+        return result;
+    }
+
+    /**
+     * Facet counts for the query. Each facet is counted against the result of
+     * all the other constraints.
+     */
+    public Map<Facet, Map<String, Integer>> facetCounts(FacetQuery query) {
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        for (Facet facet : List.of(Facet.GENRE, Facet.SUB_GENRE, Facet.KEY_SIGNATURE)) {
+            RoaringBitmap base = evaluate(query, facet);
+            Map<String, Integer> facetCounts = new LinkedHashMap<>();
+            for (Map.Entry<String, RoaringBitmap> entry : terms.get(facet).entrySet()) {
+                int count = RoaringBitmap.andCardinality(entry.getValue(), base);
+                if (count > 0) {
+                    facetCounts.put(displayNames.get(facet).get(entry.getKey()), count);
+                }
+            }
+            counts.put(facet, facetCounts);
+        }
+
+        RoaringBitmap bpmBase = evaluate(query, Facet.BPM);
+        Map<String, Integer> bpmCounts = new LinkedHashMap<>();
+        for (Map.Entry<Integer, RoaringBitmap> entry : bpmBuckets.entrySet()) {
+            int count = RoaringBitmap.andCardinality(entry.getValue(), bpmBase);
+            if (count > 0) {
+                int lower = entry.getKey() * BPM_FACET_WIDTH;
+                bpmCounts.put(lower + "-" + (lower + BPM_FACET_WIDTH - 1), count);
+            }
+        }
+        counts.put(Facet.BPM, bpmCounts);
+
+        RoaringBitmap ratingBase = evaluate(query, Facet.RATING);
+        Map<String, Integer> ratingCounts = new LinkedHashMap<>();
+        for (Map.Entry<Integer, RoaringBitmap> entry : ratingTenths.entrySet()) {
+            int count = RoaringBitmap.andCardinality(entry.getValue(), ratingBase);
+            if (count > 0) {
+                int stars = Math.min(4, entry.getKey() / 10);
+                ratingCounts.merge(stars + "-" + (stars + 1), count, Integer::sum);
+            }
+        }
+        counts.put(Facet.RATING, ratingCounts);
+        return counts;
+    }
+
+    /**
+     * Returns one page of matching ids. {@link SortKey#ID} follows insertion
+     * order, which for identity keys is creation order.
+     */
+    public List<Integer> page(RoaringBitmap matches, SortKey sortKey, boolean ascending, long offset, int size) {
+        if (offset >= matches.getCardinality() || size <= 0) {
+            return new ArrayList<>();
+        }
+        List<Integer> page = new ArrayList<>(size);
+
+        if (sortKey == SortKey.ID) {
+            IntIterator iterator = ascending ? matches.getIntIterator() : matches.getReverseIntIterator();
+            long skipped = 0;
+            while (iterator.hasNext() && page.size() < size) {
+                int id = iterator.next();
+                if (skipped++ >= offset) {
+                    page.add(id);
+                }
+            }
+            return page;
+        }
+
+        Comparator<Integer> order = Comparator.comparingDouble((Integer id) -> sortValue(documents.get(id), sortKey))
+                .thenComparingInt(id -> id);
+        if (!ascending) {
+            order = order.reversed();
+        }
+
+        // Bounded heap keeps only offset + size candidates, worst first
+        int limit = (int) Math.min(Integer.MAX_VALUE, offset + size);
+        PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(limit, matches.getCardinality()) + 1, order.reversed());
+        IntIterator iterator = matches.getIntIterator();
+        while (iterator.hasNext()) {
+            heap.offer(iterator.next());
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<Integer> sorted = new ArrayList<>(heap);
+        sorted.sort(order);
+        return new ArrayList<>(sorted.subList((int) Math.min(offset, sorted.size()), sorted.size()));
+    }
+
+    private void addTerm(Facet facet, String value, int id) {
+        String key = normalize(value);
+        if (key == null) {
+            return;
+        }
+        terms.get(facet).computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+        displayNames.get(facet).putIfAbsent(key, value.trim());
+    }
+
+    private void removeTerm(Facet facet, String value, int id) {
+        String key = normalize(value);
+        if (key == null) {
+            return;
+        }
+        RoaringBitmap bitmap = terms.get(facet).get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                terms.get(facet).remove(key);
+                displayNames.get(facet).remove(key);
+            }
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+        RoaringBitmap bitmap = bitmaps.get(key);
+        if (bitmap != null) {
+            bitmap.remove(id);
+            if (bitmap.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private RoaringBitmap union(Facet facet, Collection<String> values) {
+        Map<String, RoaringBitmap> facetTerms = terms.get(facet);
+        List<RoaringBitmap> bitmaps = new ArrayList<>(values.size());
+        for (String value : values) {
+            RoaringBitmap bitmap = facetTerms.get(normalize(value));
+            if (bitmap != null) {
+                bitmaps.add(bitmap);
+            }
+        }
+        return union(bitmaps);
+    }
+
+    private static RoaringBitmap union(Collection<RoaringBitmap> bitmaps) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (RoaringBitmap bitmap : bitmaps) {
+            result.or(bitmap);
+        }
+        return result;
+    }
+
+    private RoaringBitmap bpmBetween(int min, int max) {
+        if (min > max) {
+            return new RoaringBitmap();
+        }
+        int low = bpmBucket(min);
+        int high = bpmBucket(max);
+        RoaringBitmap result = union(bpmBuckets.subMap(low, false, high, false).values());
+
+        // The boundary buckets may straddle the range, so check their members exactly
+        for (int bucket : low == high ? List.of(low) : List.of(low, high)) {
+            RoaringBitmap boundaryBucket = bpmBuckets.get(bucket);
+            if (boundaryBucket == null) {
+                continue;
+            }
+            IntIterator iterator = boundaryBucket.getIntIterator();
+            while (iterator.hasNext()) {
+                int id = iterator.next();
+                int bpm = documents.get(id).getBpm();
+                if (bpm >= min && bpm <= max) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private RoaringBitmap ratingAtLeast(double minRating) {
+        int boundary = ratingBucket(minRating);
+        RoaringBitmap result = union(ratingTenths.tailMap(boundary, false).values());
+
+        // The boundary bucket spans a tenth of a star, so check its members exactly
+        RoaringBitmap boundaryBucket = ratingTenths.get(boundary);
+        if (boundaryBucket != null) {
+            IntIterator iterator = boundaryBucket.getIntIterator();
+            while (iterator.hasNext()) {
+                int id = iterator.next();
+                if (documents.get(id).getAverageRating() >= minRating) {
+                    result.add(id);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static double sortValue(Document document, SortKey sortKey) {
+        switch (sortKey) {
+            case RATING:
+                return document.getAverageRating();
+            case BPM:
+                return document.getBpm() != null ? document.getBpm() : 0;
+            case PLAY_COUNT:
+                return document.getPlayCount();
+            default:
+                return document.getId();
+        }
+    }
+
+    private static int bpmBucket(int bpm) {
+        return Math.floorDiv(bpm, BPM_FACET_WIDTH);
+    }
+
+    private static int ratingBucket(double rating) {
+        return (int) Math.floor(Math.max(0, rating) * 10 + 1e-9);
+    }
+
+    private static boolean isEmpty(Collection<String> values) {
+        return values == null || values.isEmpty();
+    }
+
+    private static String normalize(String value) {
+        return value != null && !value.isBlank() ? value.trim().toLowerCase() : null;
+    }
+
+    /**
+     * Indexed attributes of a single approved submission.
+     */
+    public static final class Document {
+        private final int id;
+        private final String genre;
+        private final String subGenre;
+        private final String keySignature;
+        private final Integer bpm;
+        private final double averageRating;
+        private final int playCount;
+
+        public Document(int id, String genre, String subGenre, String keySignature,
+                        Integer bpm, double averageRating, int playCount) {
+            this.id = id;
+            this.genre = genre;
+            this.subGenre = subGenre;
+            this.keySignature = keySignature;
+            this.bpm = bpm;
+            this.averageRating = averageRating;
+            this.playCount = playCount;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getGenre() {
+            return genre;
+        }
+
+        public String getSubGenre() {
+            return subGenre;
+        }
+
+        public String getKeySignature() {
+            return keySignature;
+        }
+
+        public Integer getBpm() {
+            return bpm;
+        }
+
+        public double getAverageRating() {
+            return averageRating;
+        }
+
+        public int getPlayCount() {
+            return playCount;
+        }
+    }
+}
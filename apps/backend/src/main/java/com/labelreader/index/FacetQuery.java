@@ -0,0 +1,21 @@
+package com.labelreader.index;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Collection;
+
+/**
+ * Filter over the facet index. Values within one facet are OR-ed, facets are
+ * AND-ed together; empty or null values do not restrict the result.
+ */
+@Value
+@Builder
+public class FacetQuery {
+    Collection<String> genres;
+    Collection<String> subGenres;
+    Collection<String> keySignatures;
+    Integer minBpm;
+    Integer maxBpm;
+    Double minRating;
+}
@@ -0,0 +1,224 @@
+package com.labelreader.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Locality sensitive hashing index for Hamming-distance lookups over fixed
+ * length bit fingerprints. Each of the tables keys a fingerprint by a fixed
+ * random sample of its bits, so two fingerprints differing in a small share
+ * of bits very likely agree on every sampled bit in at least one table.
+ * Fingerprints sharing a bucket with the query are then compared exactly.
+ * <p>
+ * With {@code keyBits} sampled bits per table, fingerprints at bit error
+ * rate {@code p} meet in a given table with probability
+ * {@code (1 - p)^keyBits}; more tables raise recall, more key bits shrink
+ * buckets. Not thread-safe; callers guard access.
+ */
+public class FingerprintIndex {
+
+    private final int words;
+    private final int[][] samples;
+    private final int[][][] buckets;
+    private final int[][] bucketSizes;
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private long[] ids = new long[1024];
+    private long[] fingerprints;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    /**
+     * @param words   length of each fingerprint in 64 bit words
+     * @param tables  number of hash tables
+     * @param keyBits bits sampled per table, at most 24
+     */
+    public FingerprintIndex(int words, int tables, int keyBits, long seed) {
+        if (words <= 0 || tables <= 0 || keyBits <= 0 || keyBits > 24 || keyBits > words * Long.SIZE) {
+            throw new IllegalArgumentException("Invalid index parameters");
+        }
+        this.words = words;
+        this.samples = new int[tables][];
+        this.buckets = new int[tables][1 << keyBits][];
+        this.bucketSizes = new int[tables][1 << keyBits];
+        this.fingerprints = new long[ids.length * words];
+
+        Random random = new Random(seed);
+        int[] positions = new int[words * Long.SIZE];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        for (int table = 0; table < tables; table++) {
+            // Partial Fisher-Yates shuffle: distinct bit positions per table
+            for (int i = 0; i < keyBits; i++) {
+                int j = i + random.nextInt(positions.length - i);
+                int swap = positions[i];
+                positions[i] = positions[j];
+                positions[j] = swap;
+            }
+            samples[table] = Arrays.copyOf(positions, keyBits);
+        }
+    }
+
+    /**
+     * Adds the fingerprint or replaces the one stored for the id.
+     */
+    public void add(long id, long[] fingerprint) {
+        if (fingerprint.length != words) {
+            throw new IllegalArgumentException("Expected " + words + " words but got " + fingerprint.length);
+        }
+        remove(id);
+
+        int slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+        if (slot == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            fingerprints = Arrays.copyOf(fingerprints, ids.length * words);
+        }
+        ids[slot] = id;
+        System.arraycopy(fingerprint, 0, fingerprints, slot * words, words);
+        slots.put(id, slot);
+
+        for (int table = 0; table < samples.length; table++) {
+            int key = key(fingerprints, slot * words, table);
+            int[] bucket = buckets[table][key];
+            int size = bucketSizes[table][key];
+            if (bucket == null) {
+                bucket = new int[2];
+            } else if (size == bucket.length) {
+                bucket = Arrays.copyOf(bucket, size * 2);
+            }
+            bucket[size] = slot;
+            buckets[table][key] = bucket;
+            bucketSizes[table][key] = size + 1;
+        }
+    }
+
+    public boolean remove(long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        for (int table = 0; table < samples.length; table++) {
+            int key = key(fingerprints, slot * words, table);
+            int[] bucket = buckets[table][key];
+            int size = bucketSizes[table][key];
+            for (int i = 0; i < size; i++) {
+                if (bucket[i] == slot) {
+                    bucket[i] = bucket[size - 1];
+                    bucketSizes[table][key] = size - 1;
+                    break;
+                }
+            }
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Fingerprints within {@code maxDistance} differing bits of the query,
+     * nearest first. Matches that share no bucket with the query are missed.
+     */
+    public List<Match> search(long[] query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        for (int table = 0; table < samples.length; table++) {
+            int key = key(query, 0, table);
+            int[] bucket = buckets[table][key];
+            int size = bucketSizes[table][key];
+            for (int i = 0; i < size; i++) {
+                int slot = bucket[i];
+                int distance = distance(query, slot);
+                if (distance <= maxDistance && !contains(matches, ids[slot])) {
+                    matches.add(new Match(ids[slot], distance));
+                }
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance));
+        return matches;
+    }
+
+    /**
+     * Brute force scan over every fingerprint; the reference for recall checks.
+     */
+    public List<Match> searchExact(long[] query, int maxDistance) {
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<Long, Integer> entry : slots.entrySet()) {
+            int distance = distance(query, entry.getValue());
+            if (distance <= maxDistance) {
+                matches.add(new Match(entry.getKey(), distance));
+            }
+        }
+        matches.sort(Comparator.comparingInt(Match::getDistance));
+        return matches;
+    }
+
+    public boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public void clear() {
+        slots.clear();
+        freeCount = 0;
+        slotCount = 0;
+        for (int[] sizes : bucketSizes) {
+            Arrays.fill(sizes, 0);
+        }
+    }
+
+    private int key(long[] fingerprint, int offset, int table) {
+        int key = 0;
+        for (int position : samples[table]) {
+            long word = fingerprint[offset + position / Long.SIZE];
+            key = (key << 1) | (int) ((word >>> (position % Long.SIZE)) & 1);
+        }
+        return key;
+    }
+
+    private int distance(long[] query, int slot) {
+        int offset = slot * words;
+        int distance = 0;
+        for (int i = 0; i < words; i++) {
+            distance += Long.bitCount(query[i] ^ fingerprints[offset + i]);
+        }
+        return distance;
+    }
+
+    private static boolean contains(List<Match> matches, long id) {
+        for (Match match : matches) {
+            if (match.id == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static final class Match {
+        private final long id;
+        private final int distance;
+
+        public Match(long id, int distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public int getDistance() {
+            return distance;
+        }
+    }
+}
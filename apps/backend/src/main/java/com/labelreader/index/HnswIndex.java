@@ -0,0 +1,390 @@
+package com.labelreader.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Approximate nearest neighbour index over fixed length vectors using a
+ * hierarchical navigable small world graph (Malkov and Yashunin). Each vector
+ * lives on layer 0 and, with exponentially falling probability, on higher
+ * layers; a query descends greedily through the sparse upper layers and then
+ * runs a bounded best-first search on layer 0.
+ * <p>
+ * Removing or replacing a vector only marks its node deleted, so the graph
+ * stays navigable; deleted nodes are skipped in results and dropped for good
+ * by {@link #compact()}. Distances are squared Euclidean. Not thread-safe;
+ * callers guard access.
+ */
+public class HnswIndex {
+
+    private static final Comparator<Candidate> NEAREST_FIRST = Comparator.comparingDouble(c -> c.distance);
+    private static final int MAX_LEVEL = 16;
+
+    private final int dimensions;
+    private final int maxLinks;
+    private final int maxLinksLayer0;
+    private final int efConstruction;
+    private final double levelFactor;
+    private final Random random;
+
+    private final List<Node> nodes = new ArrayList<>();
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int entryPoint = -1;
+    private int topLevel = -1;
+    private int deleted;
+
+    /**
+     * @param m              links per node on the upper layers; layer 0 allows twice as many
+     * @param efConstruction candidate list size while linking a new node
+     */
+    public HnswIndex(int dimensions, int m, int efConstruction, long seed) {
+        if (dimensions <= 0 || m < 2 || efConstruction <= 0) {
+            throw new IllegalArgumentException("Invalid index parameters");
+        }
+        this.dimensions = dimensions;
+        this.maxLinks = m;
+        this.maxLinksLayer0 = 2 * m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.levelFactor = 1.0 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Adds the vector or replaces the one stored for the id. An unchanged
+     * vector is a no-op.
+     */
+    public void add(long id, float[] vector) {
+        if (vector.length != dimensions) {
+            throw new IllegalArgumentException("Expected " + dimensions + " dimensions but got " + vector.length);
+        }
+        Integer existing = slots.get(id);
+        if (existing != null) {
+            Node old = nodes.get(existing);
+            if (Arrays.equals(old.vector, vector)) {
+                return;
+            }
+            old.deleted = true;
+            deleted++;
+        }
+
+        int slot = nodes.size();
+        int level = randomLevel();
+        Node node = new Node(id, vector.clone(), level);
+        nodes.add(node);
+        slots.put(id, slot);
+
+        if (entryPoint < 0) {
+            entryPoint = slot;
+            topLevel = level;
+            return;
+        }
+
+        int current = entryPoint;
+        for (int layer = topLevel; layer > level; layer--) {
+            current = greedy(node.vector, current, layer);
+        }
+        for (int layer = Math.min(level, topLevel); layer >= 0; layer--) {
+            List<Candidate> candidates = searchLayer(node.vector, current, efConstruction, layer);
+            for (Candidate neighbour : selectNeighbours(candidates, maxLinks)) {
+                node.link(layer, neighbour.slot);
+                linkBack(neighbour.slot, slot, layer);
+            }
+            current = candidates.get(0).slot;
+        }
+
+        if (level > topLevel) {
+            topLevel = level;
+            entryPoint = slot;
+        }
+    }
+
+    public boolean remove(long id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return false;
+        }
+        nodes.get(slot).deleted = true;
+        deleted++;
+        return true;
+    }
+
+    /**
+     * Returns up to {@code k} live vectors closest to the query, nearest first.
+     * A larger {@code ef} explores more of the graph for better recall.
+     */
+    public List<Neighbour> search(float[] query, int k, int ef) {
+        if (entryPoint < 0 || k <= 0) {
+            return List.of();
+        }
+        int current = entryPoint;
+        for (int layer = topLevel; layer > 0; layer--) {
+            current = greedy(query, current, layer);
+        }
+        List<Neighbour> result = new ArrayList<>(k);
+        for (Candidate candidate : searchLayer(query, current, Math.max(ef, k), 0)) {
+            Node node = nodes.get(candidate.slot);
+            if (!node.deleted) {
+                result.add(new Neighbour(node.id, candidate.distance));
+                if (result.size() == k) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Brute force scan over every live vector; the reference for recall checks.
+     */
+    public List<Neighbour> searchExact(float[] query, int k) {
+        if (k <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Candidate> nearest = new PriorityQueue<>(NEAREST_FIRST.reversed());
+        for (int slot = 0; slot < nodes.size(); slot++) {
+            Node node = nodes.get(slot);
+            if (node.deleted) {
+                continue;
+            }
+            double distance = distance(query, node.vector);
+            if (nearest.size() < k) {
+                nearest.add(new Candidate(slot, distance));
+            } else if (distance < nearest.peek().distance) {
+                nearest.poll();
+                nearest.add(new Candidate(slot, distance));
+            }
+        }
+        List<Candidate> sorted = new ArrayList<>(nearest);
+        sorted.sort(NEAREST_FIRST);
+        List<Neighbour> result = new ArrayList<>(sorted.size());
+        for (Candidate candidate : sorted) {
+            result.add(new Neighbour(nodes.get(candidate.slot).id, candidate.distance));
+        }
+        return result;
+    }
+
+    public float[] vector(long id) {
+        Integer slot = slots.get(id);
+        return slot != null ? nodes.get(slot).vector.clone() : null;
+    }
+
+    public boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    public int deletedCount() {
+        return deleted;
+    }
+
+    /**
+     * Rebuilds the graph from the live vectors, dropping deleted nodes.
+     */
+    public void compact() {
+        List<Node> live = new ArrayList<>(slots.size());
+        for (Node node : nodes) {
+            if (!node.deleted) {
+                live.add(node);
+            }
+        }
+        clear();
+        for (Node node : live) {
+            add(node.id, node.vector);
+        }
+    }
+
+    public void clear() {
+        nodes.clear();
+        slots.clear();
+        entryPoint = -1;
+        topLevel = -1;
+        deleted = 0;
+    }
+
+    static double distance(float[] a, float[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            double diff = a[i] - b[i];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1.0 - random.nextDouble()) * levelFactor;
+        return (int) Math.min(level, MAX_LEVEL);
+    }
+
+    private int greedy(float[] query, int start, int layer) {
+        int current = start;
+        double currentDistance = distance(query, nodes.get(current).vector);
+        boolean moved = true;
+        while (moved) {
+            moved = false;
+            Node node = nodes.get(current);
+            for (int i = 0; i < node.counts[layer]; i++) {
+                int neighbour = node.links[layer][i];
+                double d = distance(query, nodes.get(neighbour).vector);
+                if (d < currentDistance) {
+                    current = neighbour;
+                    currentDistance = d;
+                    moved = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Best-first search of one layer. Returns at most {@code ef} nodes, deleted
+     * ones included, nearest first.
+     */
+    private List<Candidate> searchLayer(float[] query, int start, int ef, int layer) {
+        BitSet visited = new BitSet(nodes.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(NEAREST_FIRST);
+        PriorityQueue<Candidate> results = new PriorityQueue<>(NEAREST_FIRST.reversed());
+
+        Candidate first = new Candidate(start, distance(query, nodes.get(start).vector));
+        visited.set(start);
+        candidates.add(first);
+        results.add(first);
+
+        while (!candidates.isEmpty()) {
+            Candidate closest = candidates.poll();
+            if (results.size() >= ef && closest.distance > results.peek().distance) {
+                break;
+            }
+            Node node = nodes.get(closest.slot);
+            for (int i = 0; i < node.counts[layer]; i++) {
+                int neighbour = node.links[layer][i];
+                if (visited.get(neighbour)) {
+                    continue;
+                }
+                visited.set(neighbour);
+                double d = distance(query, nodes.get(neighbour).vector);
+                if (results.size() < ef || d < results.peek().distance) {
+                    Candidate candidate = new Candidate(neighbour, d);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> sorted = new ArrayList<>(results);
+        sorted.sort(NEAREST_FIRST);
+        return sorted;
+    }
+
+    /**
+     * Neighbour selection heuristic: a candidate is skipped when it is closer
+     * to an already selected neighbour than to the base point, which spreads
+     * links across clusters. Skipped candidates fill any remaining room.
+     */
+    private List<Candidate> selectNeighbours(List<Candidate> sortedCandidates, int limit) {
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> skipped = new ArrayList<>();
+        for (Candidate candidate : sortedCandidates) {
+            if (selected.size() == limit) {
+                break;
+            }
+            float[] vector = nodes.get(candidate.slot).vector;
+            boolean diverse = true;
+            for (Candidate chosen : selected) {
+                if (distance(vector, nodes.get(chosen.slot).vector) < candidate.distance) {
+                    diverse = false;
+                    break;
+                }
+            }
+            (diverse ? selected : skipped).add(candidate);
+        }
+        for (int i = 0; i < skipped.size() && selected.size() < limit; i++) {
+            selected.add(skipped.get(i));
+        }
+        return selected;
+    }
+
+    private void linkBack(int slot, int newSlot, int layer) {
+        Node node = nodes.get(slot);
+        int limit = layer == 0 ? maxLinksLayer0 : maxLinks;
+        if (node.counts[layer] < limit) {
+            node.link(layer, newSlot);
+            return;
+        }
+
+        List<Candidate> candidates = new ArrayList<>(limit + 1);
+        for (int i = 0; i < node.counts[layer]; i++) {
+            int neighbour = node.links[layer][i];
+            candidates.add(new Candidate(neighbour, distance(node.vector, nodes.get(neighbour).vector)));
+        }
+        candidates.add(new Candidate(newSlot, distance(node.vector, nodes.get(newSlot).vector)));
+        candidates.sort(NEAREST_FIRST);
+
+        node.counts[layer] = 0;
+        for (Candidate kept : selectNeighbours(candidates, limit)) {
+            node.link(layer, kept.slot);
+        }
+    }
+
+    private final class Node {
+        private final long id;
+        private final float[] vector;
+        private final int[][] links;
+        private final int[] counts;
+        private boolean deleted;
+
+        private Node(long id, float[] vector, int level) {
+            this.id = id;
+            this.vector = vector;
+            this.links = new int[level + 1][];
+            this.counts = new int[level + 1];
+            for (int layer = 0; layer <= level; layer++) {
+                links[layer] = new int[layer == 0 ? maxLinksLayer0 : maxLinks];
+            }
+        }
+
+        private void link(int layer, int slot) {
+            links[layer][counts[layer]++] = slot;
+        }
+    }
+
+    private static final class Candidate {
+        private final int slot;
+        private final double distance;
+
+        private Candidate(int slot, double distance) {
+            this.slot = slot;
+            this.distance = distance;
+        }
+    }
+
+    public static final class Neighbour {
+        private final long id;
+        private final double distance;
+
+        public Neighbour(long id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+    }
+}
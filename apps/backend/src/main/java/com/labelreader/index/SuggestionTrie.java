@@ -0,0 +1,388 @@
+package com.labelreader.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Prefix index for typeahead. Every entry is reachable through its full
+ * normalized text and through each later word, and every trie node caches the
+ * best {@code cacheSize} entries below it, so a lookup is a walk down the
+ * prefix followed by a copy of that cache.
+ * <p>
+ * The number of entries is capped; once full, a new entry only gets in by
+ * evicting the lowest weighted one. Not thread-safe; callers guard access.
+ */
+public class SuggestionTrie {
+
+    private static final Comparator<Entry> BY_WEIGHT = Comparator
+            .comparingDouble(Entry::getWeight).reversed()
+            .thenComparing(Entry::getType)
+            .thenComparingLong(Entry::getId);
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    // Rough per-object sizes on a 64-bit JVM with compressed oops
+    private static final int NODE_BYTES = 40;
+    private static final int SLOT_BYTES = 6;
+    private static final int ENTRY_BYTES = 96;
+
+    private final int maxEntries;
+    private final int cacheSize;
+    private final int maxKeyLength;
+
+    private final Node root = new Node();
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> byWeight = new TreeSet<>(BY_WEIGHT);
+    private int nodeCount = 1;
+    private long slotCount;
+
+    public SuggestionTrie(int maxEntries, int cacheSize, int maxKeyLength) {
+        if (maxEntries <= 0 || cacheSize <= 0 || maxKeyLength <= 0) {
+            throw new IllegalArgumentException("Limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.cacheSize = cacheSize;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * Adds the entry or replaces its text and weight. Returns false if the trie
+     * is full and the entry does not outweigh the current lowest entry.
+     */
+    public boolean put(String type, long id, String text, double weight) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            remove(type, id);
+            return false;
+        }
+
+        String key = key(type, id);
+        Entry existing = entries.get(key);
+        if (existing != null && existing.text.equals(text)) {
+            byWeight.remove(existing);
+            existing.weight = weight;
+            byWeight.add(existing);
+            for (String path : existing.paths) {
+                refresh(path);
+            }
+            return true;
+        }
+        if (existing != null) {
+            remove(type, id);
+        } else if (entries.size() >= maxEntries) {
+            Entry lowest = byWeight.last();
+            if (lowest.weight >= weight) {
+                return false;
+            }
+            remove(lowest.type, lowest.id);
+        }
+
+        Entry entry = new Entry(type, id, text, weight, paths(normalized));
+        entries.put(key, entry);
+        byWeight.add(entry);
+        for (String path : entry.paths) {
+            insert(path, entry);
+        }
+        return true;
+    }
+
+    public boolean remove(String type, long id) {
+        Entry entry = entries.remove(key(type, id));
+        if (entry == null) {
+            return false;
+        }
+        byWeight.remove(entry);
+        for (String path : entry.paths) {
+            delete(path, entry);
+        }
+        return true;
+    }
+
+    public Entry get(String type, long id) {
+        return entries.get(key(type, id));
+    }
+
+    /**
+     * Returns up to {@code limit} entries whose text, or one of its words,
+     * starts with the prefix, highest weight first.
+     */
+    public List<Entry> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Node node = root;
+        for (int i = 0; i < normalized.length() && i < maxKeyLength && node != null; i++) {
+            node = node.child(normalized.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        int size = Math.min(limit, node.top.length);
+        return Arrays.asList(Arrays.copyOf(node.top, size));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public long estimatedBytes() {
+        return (long) nodeCount * NODE_BYTES + slotCount * SLOT_BYTES + (long) entries.size() * ENTRY_BYTES;
+    }
+
+    public void clear() {
+        root.labels = NO_LABELS;
+        root.children = NO_CHILDREN;
+        root.terminals = NO_ENTRIES;
+        root.top = NO_ENTRIES;
+        entries.clear();
+        byWeight.clear();
+        nodeCount = 1;
+        slotCount = 0;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase();
+        StringBuilder normalized = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(c);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private List<String> paths(String normalized) {
+        List<String> paths = new ArrayList<>();
+        paths.add(truncate(normalized));
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            String suffix = truncate(normalized.substring(i + 1));
+            if (!paths.contains(suffix)) {
+                paths.add(suffix);
+            }
+        }
+        return paths;
+    }
+
+    private String truncate(String path) {
+        return path.length() > maxKeyLength ? path.substring(0, maxKeyLength) : path;
+    }
+
+    private void insert(String path, Entry entry) {
+        Node[] trail = new Node[path.length() + 1];
+        Node node = root;
+        trail[0] = node;
+        for (int i = 0; i < path.length(); i++) {
+            Node child = node.child(path.charAt(i));
+            if (child == null) {
+                child = node.addChild(path.charAt(i));
+                nodeCount++;
+                slotCount++;
+            }
+            node = child;
+            trail[i + 1] = node;
+        }
+        node.terminals = append(node.terminals, entry);
+        slotCount++;
+        for (int i = trail.length - 1; i >= 0; i--) {
+            recompute(trail[i]);
+        }
+    }
+
+    private void delete(String path, Entry entry) {
+        Node[] trail = walk(path);
+        if (trail == null) {
+            return;
+        }
+        Node leaf = trail[trail.length - 1];
+        leaf.terminals = without(leaf.terminals, entry);
+        slotCount--;
+        for (int i = trail.length - 1; i >= 0; i--) {
+            Node node = trail[i];
+            if (i > 0 && node.terminals.length == 0 && node.children.length == 0) {
+                trail[i - 1].removeChild(path.charAt(i - 1));
+                nodeCount--;
+                slotCount -= 1 + node.top.length;
+                continue;
+            }
+            recompute(node);
+        }
+    }
+
+    private void refresh(String path) {
+        Node[] trail = walk(path);
+        if (trail == null) {
+            return;
+        }
+        for (int i = trail.length - 1; i >= 0; i--) {
+            recompute(trail[i]);
+        }
+    }
+
+    private Node[] walk(String path) {
+        Node[] trail = new Node[path.length() + 1];
+        Node node = root;
+        trail[0] = node;
+        for (int i = 0; i < path.length(); i++) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return null;
+            }
+            trail[i + 1] = node;
+        }
+        return trail;
+    }
+
+    /**
+     * Rebuilds a node's cache from its own entries and its children's caches.
+     */
+    private void recompute(Node node) {
+        List<Entry> candidates = new ArrayList<>(Arrays.asList(node.terminals));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(child.top));
+        }
+        candidates.sort(BY_WEIGHT);
+
+        List<Entry> top = new ArrayList<>(Math.min(cacheSize, candidates.size()));
+        for (Entry candidate : candidates) {
+            if (top.size() == cacheSize) {
+                break;
+            }
+            // The same entry can be reachable through several of its words
+            if (top.contains(candidate)) {
+                continue;
+            }
+            top.add(candidate);
+        }
+        slotCount += top.size() - node.top.length;
+        node.top = top.toArray(NO_ENTRIES);
+    }
+
+    private static Entry[] append(Entry[] array, Entry entry) {
+        Entry[] result = Arrays.copyOf(array, array.length + 1);
+        result[array.length] = entry;
+        return result;
+    }
+
+    private static Entry[] without(Entry[] array, Entry entry) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == entry) {
+                Entry[] result = new Entry[array.length - 1];
+                System.arraycopy(array, 0, result, 0, i);
+                System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+                return result;
+            }
+        }
+        return array;
+    }
+
+    private static String key(String type, long id) {
+        return type + ':' + id;
+    }
+
+    /**
+     * Children are kept in parallel arrays sorted by label, which is far
+     * smaller than a map per node and fast enough for the short fan-out of text.
+     */
+    private static final class Node {
+        private char[] labels = NO_LABELS;
+        private Node[] children = NO_CHILDREN;
+        private Entry[] terminals = NO_ENTRIES;
+        private Entry[] top = NO_ENTRIES;
+
+        private Node child(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            return index >= 0 ? children[index] : null;
+        }
+
+        private Node addChild(char label) {
+            int insertAt = -Arrays.binarySearch(labels, label) - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            Node child = new Node();
+            newLabels[insertAt] = label;
+            newChildren[insertAt] = child;
+            labels = newLabels;
+            children = newChildren;
+            return child;
+        }
+
+        private void removeChild(char label) {
+            int index = Arrays.binarySearch(labels, label);
+            if (index < 0) {
+                return;
+            }
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            labels = newLabels;
+            children = newChildren;
+        }
+    }
+
+    public static final class Entry {
+        private final String type;
+        private final long id;
+        private final String text;
+        private final List<String> paths;
+        private double weight;
+
+        private Entry(String type, long id, String text, double weight, List<String> paths) {
+            this.type = type;
+            this.id = id;
+            this.text = text;
+            this.weight = weight;
+            this.paths = paths;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public double getWeight() {
+            return weight;
+        }
+    }
+}
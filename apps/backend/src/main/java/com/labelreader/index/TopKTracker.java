@@ -0,0 +1,109 @@
+package com.labelreader.index;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Bounded set of the highest scoring ids. Offers are O(log capacity) and
+ * reading the first k entries is O(k). Not thread-safe; callers guard access.
+ */
+public class TopKTracker {
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingDouble(Ranked::getScore).reversed()
+            .thenComparingLong(Ranked::getId);
+
+    private final int capacity;
+    private final TreeSet<Ranked> ranked = new TreeSet<>(ORDER);
+    private final Map<Long, Ranked> members = new HashMap<>();
+
+    public TopKTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    public void offer(long id, double score) {
+        Ranked existing = members.remove(id);
+        if (existing != null) {
+            ranked.remove(existing);
+        }
+
+        if (ranked.size() < capacity || score > ranked.last().getScore()) {
+            Ranked entry = new Ranked(id, score);
+            ranked.add(entry);
+            members.put(id, entry);
+
+            if (ranked.size() > capacity) {
+                Ranked evicted = ranked.pollLast();
+                members.remove(evicted.getId());
+            }
+        }
+    }
+
+    /**
+     * Removes the id and reports whether it was one of the tracked entries.
+     */
+    public boolean remove(long id) {
+        Ranked existing = members.remove(id);
+        if (existing == null) {
+            return false;
+        }
+        ranked.remove(existing);
+        return true;
+    }
+
+    public List<Ranked> top(int k) {
+        List<Ranked> result = new ArrayList<>(Math.min(k, ranked.size()));
+        Iterator<Ranked> iterator = ranked.iterator();
+        while (iterator.hasNext() && result.size() < k) {
+            result.add(iterator.next());
+        }
+        return result;
+    }
+
+    public boolean contains(long id) {
+        return members.containsKey(id);
+    }
+
+    public boolean isFull() {
+        return ranked.size() >= capacity;
+    }
+
+    public int size() {
+        return ranked.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        ranked.clear();
+        members.clear();
+    }
+
+    public static final class Ranked {
+        private final long id;
+        private final double score;
+
+        Ranked(long id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.labelreader.index;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Turns submission metadata into the fixed length vector stored in the
+ * similarity index. Each feature group is scaled by a weight so that squared
+ * Euclidean distance reflects how much a difference matters to a listener:
+ * genre dominates, then sub-genre and tempo, then key, rating and audio.
+ * <p>
+ * Genres have no trained embedding, so each normalized name is hashed to a
+ * fixed random unit vector; equal genres coincide and different ones sit at a
+ * similar distance from each other. The sub-genre vector is mixed with its
+ * genre so sub-genres of one genre stay closer together. Keys are placed on
+ * the circle of fifths, with minor keys at their relative major, so related
+ * keys are neighbours. Missing values map to the neutral centre of their group.
+ */
+public final class TrackFeatures {
+
+    private static final int GENRE_DIMENSIONS = 8;
+
+    static final double GENRE_WEIGHT = 1.0;
+    static final double SUB_GENRE_WEIGHT = 0.6;
+    static final double TEMPO_WEIGHT = 0.8;
+    static final double KEY_WEIGHT = 0.5;
+    static final double MODE_WEIGHT = 0.2;
+    static final double RATING_WEIGHT = 0.3;
+    static final double AUDIO_WEIGHT = 0.4;
+
+    private static final int GENRE = 0;
+    private static final int SUB_GENRE = GENRE + GENRE_DIMENSIONS;
+    private static final int TEMPO = SUB_GENRE + GENRE_DIMENSIONS;
+    private static final int KEY = TEMPO + 1;
+    private static final int MODE = KEY + 2;
+    private static final int RATING = MODE + 1;
+    private static final int ENERGY = RATING + 1;
+    private static final int DYNAMICS = ENERGY + 1;
+
+    public static final int DIMENSIONS = DYNAMICS + 1;
+
+    // Pitch classes of the natural notes A to G
+    private static final int[] NATURAL_PITCH = {9, 11, 0, 2, 4, 5, 7};
+
+    private TrackFeatures() {
+    }
+
+    /**
+     * @param averageRating 0 to 5, or null when unrated
+     * @param energy        mean loudness scaled to 0..1, or null when not analyzed
+     * @param dynamics      loudness spread scaled to 0..1, or null when not analyzed
+     */
+    public static float[] vector(
+            String genre,
+            String subGenre,
+            Integer bpm,
+            String keySignature,
+            Double averageRating,
+            Double energy,
+            Double dynamics) {
+
+        float[] vector = new float[DIMENSIONS];
+
+        double[] genreEmbedding = embedding(genre);
+        double[] subGenreEmbedding = embedding(subGenre);
+        for (int i = 0; i < GENRE_DIMENSIONS; i++) {
+            vector[GENRE + i] = (float) (GENRE_WEIGHT * genreEmbedding[i]);
+            double mixed = 0.5 * subGenreEmbedding[i] + 0.5 * genreEmbedding[i];
+            vector[SUB_GENRE + i] = (float) (SUB_GENRE_WEIGHT * mixed);
+        }
+
+        if (bpm != null && bpm > 0) {
+            // Octaves around 120 BPM, so 60 and 240 are equally far from 120
+            double octaves = Math.log(bpm / 120.0) / Math.log(2);
+            vector[TEMPO] = (float) (TEMPO_WEIGHT * Math.max(-2, Math.min(2, octaves)));
+        }
+
+        int fifths = circleOfFifths(keySignature);
+        if (fifths >= 0) {
+            double angle = fifths * Math.PI / 6;
+            vector[KEY] = (float) (KEY_WEIGHT * Math.cos(angle));
+            vector[KEY + 1] = (float) (KEY_WEIGHT * Math.sin(angle));
+            vector[MODE] = (float) (MODE_WEIGHT * (isMinor(keySignature) ? -1 : 1));
+        }
+
+        if (averageRating != null && averageRating > 0) {
+            vector[RATING] = (float) (RATING_WEIGHT * (averageRating / 5.0 - 0.5) * 2);
+        }
+        if (energy != null) {
+            vector[ENERGY] = (float) (AUDIO_WEIGHT * (clamp(energy) - 0.5) * 2);
+        }
+        if (dynamics != null) {
+            vector[DYNAMICS] = (float) (AUDIO_WEIGHT * (clamp(dynamics) - 0.5) * 2);
+        }
+        return vector;
+    }
+
+    /**
+     * Position 0 to 11 on the circle of fifths with C at 0, or -1 when the key
+     * cannot be parsed. Accepts forms like "C", "F#", "Bb major", "Am", "C# minor".
+     */
+    static int circleOfFifths(String keySignature) {
+        int pitch = pitchClass(keySignature);
+        if (pitch < 0) {
+            return -1;
+        }
+        if (isMinor(keySignature)) {
+            pitch = (pitch + 3) % 12;
+        }
+        return pitch * 7 % 12;
+    }
+
+    private static int pitchClass(String keySignature) {
+        if (keySignature == null || keySignature.isBlank()) {
+            return -1;
+        }
+        String key = keySignature.trim();
+        char note = Character.toUpperCase(key.charAt(0));
+        if (note < 'A' || note > 'G') {
+            return -1;
+        }
+        int pitch = NATURAL_PITCH[note - 'A'];
+        if (key.length() > 1) {
+            char accidental = key.charAt(1);
+            if (accidental == '#' || accidental == '\u266F') {
+                pitch++;
+            } else if (accidental == 'b' || accidental == '\u266D') {
+                pitch--;
+            }
+        }
+        return Math.floorMod(pitch, 12);
+    }
+
+    private static boolean isMinor(String keySignature) {
+        String rest = keySignature.trim().substring(1).replaceFirst("^[#b\u266F\u266D]", "").trim().toLowerCase(Locale.ROOT);
+        return rest.startsWith("m") && !rest.startsWith("maj");
+    }
+
+    private static double[] embedding(String name) {
+        double[] embedding = new double[GENRE_DIMENSIONS];
+        String normalized = SuggestionTrie.normalize(name);
+        if (normalized.isEmpty()) {
+            return embedding;
+        }
+        SplittableRandom random = new SplittableRandom(normalized.hashCode());
+        double norm = 0;
+        for (int i = 0; i < GENRE_DIMENSIONS; i++) {
+            embedding[i] = random.nextGaussian();
+            norm += embedding[i] * embedding[i];
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < GENRE_DIMENSIONS; i++) {
+            embedding[i] /= norm;
+        }
+        return embedding;
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+}
@@ -0,0 +1,79 @@
+package com.labelreader.pagination;
+
+import com.labelreader.dto.SubmissionSummaryDto;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position: the sort order, the sort key of the last row on the
+ * previous page and that row's id.
+ */
+public final class Cursor {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    private final SubmissionSort sort;
+    private final String key;
+    private final long id;
+
+    public Cursor(SubmissionSort sort, String key, long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    public SubmissionSort getSort() {
+        return sort;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    public static Cursor after(SubmissionSort sort, SubmissionSummaryDto last) {
+        return new Cursor(sort, sort.keyOf(last), last.getId());
+    }
+
+    public String encode() {
+        String raw = sort.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor issued for the given sort order. A blank token means the
+     * first page and returns null.
+     */
+    public static Cursor decode(String token, SubmissionSort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int first = raw.indexOf(SEPARATOR);
+            int last = raw.lastIndexOf(SEPARATOR);
+            SubmissionSort sort = SubmissionSort.valueOf(raw.substring(0, first));
+            if (sort != expectedSort || first == last) {
+                throw new IllegalArgumentException("Cursor does not match sort");
+            }
+            String key = raw.substring(first + 1, last);
+            // Fail fast on tampered keys rather than in the query
+            sort.parseKey(key);
+            return new Cursor(sort, key, Long.parseLong(raw.substring(last + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.labelreader.pagination;
+
+import com.labelreader.dto.SubmissionSummaryDto;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sort orders accepted by the submission list endpoints. Each database order
+ * is backed by a composite index ending in the id, which also serves as the
+ * tie-breaker for keyset pagination.
+ */
+public enum SubmissionSort {
+    NEWEST("createdAt", Sort.Direction.DESC),
+    OLDEST("createdAt", Sort.Direction.ASC),
+    TOP_RATED("averageRating", Sort.Direction.DESC),
+    MOST_PLAYED("playCount", Sort.Direction.DESC),
+    /** Only available from the search index. */
+    RELEVANCE("relevance", Sort.Direction.DESC);
+
+    private static final List<String> PAGE_SORT_PROPERTIES = List.of("createdAt", "averageRating", "playCount");
+
+    private final String property;
+    private final Sort.Direction direction;
+
+    SubmissionSort(String property, Sort.Direction direction) {
+        this.property = property;
+        this.direction = direction;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Sort.Direction getDirection() {
+        return direction;
+    }
+
+    public boolean isDescending() {
+        return direction == Sort.Direction.DESC;
+    }
+
+    /**
+     * Sort key of the submission as written into a cursor.
+     */
+    public String keyOf(SubmissionSummaryDto submission) {
+        switch (this) {
+            case TOP_RATED:
+                return String.valueOf(submission.getAverageRating() != null ? submission.getAverageRating() : BigDecimal.ZERO);
+            case MOST_PLAYED:
+                return String.valueOf(submission.getPlayCount() != null ? submission.getPlayCount() : 0);
+            case RELEVANCE:
+                throw new IllegalStateException("Relevance keys come from the search index");
+            default:
+                return submission.getCreatedAt().toString();
+        }
+    }
+
+    /**
+     * Parses a cursor key back into the column type compared by the keyset query.
+     */
+    public Comparable<?> parseKey(String key) {
+        switch (this) {
+            case TOP_RATED:
+                return new BigDecimal(key);
+            case MOST_PLAYED:
+                return Integer.valueOf(key);
+            case RELEVANCE:
+                return Float.valueOf(key);
+            default:
+                return LocalDateTime.parse(key);
+        }
+    }
+
+    public static SubmissionSort from(String value) {
+        try {
+            return valueOf(value.trim().replace('-', '_').toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + value);
+        }
+    }
+
+    /**
+     * Validates the sortBy parameter of the page-number endpoints against the
+     * indexed columns and adds the id as a stable tie-breaker.
+     */
+    public static Sort pageSort(String sortBy, String sortDir) {
+        if (!PAGE_SORT_PROPERTIES.contains(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported sortBy: " + sortBy + ", expected one of " + String.join(", ", PAGE_SORT_PROPERTIES));
+        }
+        Sort.Direction direction = "ASC".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+}
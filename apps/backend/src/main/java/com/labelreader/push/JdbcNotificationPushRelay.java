@@ -0,0 +1,181 @@
+package com.labelreader.push;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Relays pushes between instances through a shared table. Every push is
+ * appended as a row, and every node tails the table, handing rows to its own
+ * connections. That costs each node one indexed query per poll interval
+ * however many users are connected, where polling clients cost one count per
+ * user every few seconds.
+ * <p>
+ * Ids are allocated at insert but become visible at commit, so a row can
+ * appear behind one with a higher id. Each poll therefore re-reads the rows
+ * created within the lookback window and skips the ids it already
+ * delivered. The window has to cover commit delays and clock skew between
+ * nodes. Rows are purged once every node has had time to read them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "notification.push.relay", havingValue = "jdbc")
+public class JdbcNotificationPushRelay implements NotificationPushRelay {
+
+    static final String TABLE = "notification_push_events";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Counter errors;
+
+    @Value("${notification.push.relay.poll-interval-ms:500}")
+    private long pollIntervalMs;
+
+    @Value("${notification.push.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.push.relay.retention-seconds:300}")
+    private long retentionSeconds;
+
+    @Value("${notification.push.relay.lookback-ms:10000}")
+    private long lookbackMs;
+
+    private volatile Consumer<NotificationPush> listener = push -> { };
+    private ScheduledExecutorService poller;
+    // Ids delivered within the lookback window, with their creation time
+    private final Map<Long, Long> delivered = new HashMap<>();
+
+    public JdbcNotificationPushRelay(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.errors = Counter.builder("notification.push.relay.errors")
+                .description("Pushes that could not be written to or read from the relay table")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Same definition as docker/init.sql
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "payload TEXT NOT NULL, "
+                + "created_at BIGINT NOT NULL, "
+                + "INDEX idx_created_at (created_at))");
+        // Pushes from before this node started are not ours to deliver
+        jdbcTemplate.query("SELECT id, created_at FROM " + TABLE + " WHERE created_at >= ?",
+                rs -> {
+                    delivered.put(rs.getLong("id"), rs.getLong("created_at"));
+                },
+                System.currentTimeMillis() - lookbackMs);
+
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-push-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    @Override
+    public void publish(NotificationPush push) {
+        try {
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (payload, created_at) VALUES (?, ?)",
+                    objectMapper.writeValueAsString(push), System.currentTimeMillis());
+        } catch (JsonProcessingException | DataAccessException e) {
+            errors.increment();
+            log.warn("Relaying notification push for user {} failed: {}", push.getUserId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<NotificationPush> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean isLocalOnly() {
+        return false;
+    }
+
+    void poll() {
+        long since = System.currentTimeMillis() - lookbackMs;
+        try {
+            long afterId = 0;
+            List<Row> rows;
+            do {
+                rows = jdbcTemplate.query(
+                        "SELECT id, payload, created_at FROM " + TABLE
+                                + " WHERE created_at >= ? AND id > ? ORDER BY id LIMIT ?",
+                        (rs, rowNum) -> new Row(rs.getLong("id"), rs.getString("payload"), rs.getLong("created_at")),
+                        since, afterId, batchSize);
+                for (Row row : rows) {
+                    afterId = row.id;
+                    if (delivered.putIfAbsent(row.id, row.createdAt) == null) {
+                        deliver(row.payload);
+                    }
+                }
+            } while (rows.size() == batchSize);
+            delivered.values().removeIf(createdAt -> createdAt < since);
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("Reading relayed notification pushes failed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Delivering relayed notification pushes failed", e);
+        }
+    }
+
+    private void deliver(String payload) {
+        try {
+            listener.accept(objectMapper.readValue(payload, NotificationPush.class));
+        } catch (JsonProcessingException e) {
+            errors.increment();
+            log.warn("Skipping unreadable notification push: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.push.relay.purge-interval-ms:60000}")
+    public void purge() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(retentionSeconds);
+        try {
+            int purged = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE created_at < ?", cutoff);
+            log.debug("Purged {} relayed notification pushes", purged);
+        } catch (DataAccessException e) {
+            log.warn("Purging relayed notification pushes failed: {}", e.getMessage());
+        }
+    }
+
+    private static final class Row {
+        private final long id;
+        private final String payload;
+        private final long createdAt;
+
+        private Row(long id, String payload, long createdAt) {
+            this.id = id;
+            this.payload = payload;
+            this.createdAt = createdAt;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.labelreader.push;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Delivers pushes straight to this node's connections. Enough for a single
+ * instance.
+ */
+@Component
+@ConditionalOnProperty(name = "notification.push.relay", havingValue = "local", matchIfMissing = true)
+public class LocalNotificationPushRelay implements NotificationPushRelay {
+
+    private volatile Consumer<NotificationPush> listener = push -> { };
+
+    @Override
+    public void publish(NotificationPush push) {
+        listener.accept(push);
+    }
+
+    @Override
+    public void subscribe(Consumer<NotificationPush> listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public boolean isLocalOnly() {
+        return true;
+    }
+}
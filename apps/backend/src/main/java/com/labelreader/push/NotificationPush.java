@@ -0,0 +1,24 @@
+package com.labelreader.push;
+
+import com.labelreader.dto.NotificationDto;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What a connected client is sent when its notifications change: the new
+ * notification, if one was created, and the unread count afterwards.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationPush {
+
+    public static final String TYPE_NOTIFICATION = "notification";
+    public static final String TYPE_UNREAD = "unread";
+
+    private String type;
+    private Long userId;
+    private NotificationDto notification;
+    private long unreadCount;
+}
@@ -0,0 +1,24 @@
+package com.labelreader.push;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries pushes from the node where a notification changed to the node
+ * holding the user's connection.
+ */
+public interface NotificationPushRelay {
+
+    void publish(NotificationPush push);
+
+    /**
+     * Registers the callback that hands relayed pushes to this node's
+     * connections.
+     */
+    void subscribe(Consumer<NotificationPush> listener);
+
+    /**
+     * Whether pushes only ever reach this node, so there is no point
+     * publishing one for a user with no connection here.
+     */
+    boolean isLocalOnly();
+}
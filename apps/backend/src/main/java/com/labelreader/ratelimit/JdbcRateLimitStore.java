@@ -0,0 +1,132 @@
+package com.labelreader.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buckets shared by every node through a database table, so limits hold
+ * however many instances serve a client. Each take locks the bucket's row
+ * for the length of a short transaction, refills it from the time elapsed
+ * since it was last touched and writes it back. Idle rows are purged on a
+ * schedule. When the database is unavailable requests are let through
+ * rather than failed.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    static final String TABLE = "rate_limit_buckets";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RateLimitProperties properties;
+    private final Counter errors;
+    private volatile long size;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.errors = Counter.builder("ratelimit.backend.errors")
+                .description("Rate limit checks let through because the bucket table was unavailable")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void init() {
+        // Same definition as docker/init.sql; purgeIdle() relies on the index
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "bucket_key VARCHAR(191) PRIMARY KEY, "
+                + "tokens DOUBLE NOT NULL, "
+                + "refilled_at BIGINT NOT NULL, "
+                + "INDEX idx_refilled_at (refilled_at))");
+    }
+
+    @Override
+    public Result tryConsume(String key, RateLimitProperties.Policy policy) {
+        try {
+            try {
+                return transactionTemplate.execute(status -> consume(key, policy));
+            } catch (DuplicateKeyException | ConcurrencyFailureException e) {
+                // Another node created the bucket at the same moment; it exists now
+                return transactionTemplate.execute(status -> consume(key, policy));
+            }
+        } catch (DataAccessException e) {
+            errors.increment();
+            log.warn("Rate limit check for {} failed, allowing request: {}", key, e.getMessage());
+            return new Result(true, policy.getCapacity(), 0);
+        }
+    }
+
+    private Result consume(String key, RateLimitProperties.Policy policy) {
+        long now = System.currentTimeMillis();
+        List<double[]> rows = jdbcTemplate.query(
+                "SELECT tokens, refilled_at FROM " + TABLE + " WHERE bucket_key = ? FOR UPDATE",
+                (rs, rowNum) -> new double[]{rs.getDouble("tokens"), rs.getLong("refilled_at")},
+                key);
+
+        if (rows.isEmpty()) {
+            double tokens = policy.getCapacity() - 1;
+            jdbcTemplate.update("INSERT INTO " + TABLE + " (bucket_key, tokens, refilled_at) VALUES (?, ?, ?)",
+                    key, tokens, now);
+            return new Result(true, (long) tokens, 0);
+        }
+
+        double tokens = refill(rows.get(0)[0], now - (long) rows.get(0)[1], policy);
+        boolean allowed = tokens >= 1;
+        if (allowed) {
+            tokens -= 1;
+        }
+        jdbcTemplate.update("UPDATE " + TABLE + " SET tokens = ?, refilled_at = ? WHERE bucket_key = ?",
+                tokens, now, key);
+        return new Result(allowed, (long) tokens, allowed ? 0 : millisUntilToken(tokens, policy));
+    }
+
+    static double refill(double tokens, long elapsedMillis, RateLimitProperties.Policy policy) {
+        double periodMillis = TimeUnit.SECONDS.toMillis(policy.getPeriodSeconds());
+        double refilled = tokens + Math.max(elapsedMillis, 0) * policy.getCapacity() / periodMillis;
+        return Math.min(refilled, policy.getCapacity());
+    }
+
+    static long millisUntilToken(double tokens, RateLimitProperties.Policy policy) {
+        double periodMillis = TimeUnit.SECONDS.toMillis(policy.getPeriodSeconds());
+        return (long) Math.ceil((1 - tokens) * periodMillis / policy.getCapacity());
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(properties.getIdleTimeoutMinutes());
+        try {
+            int purged = jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE refilled_at < ?", cutoff);
+            Long remaining = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class);
+            size = remaining == null ? 0 : remaining;
+            log.debug("Purged {} idle rate limit buckets, {} remain", purged, size);
+        } catch (DataAccessException e) {
+            log.warn("Purging idle rate limit buckets failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Row count as of the last purge.
+     */
+    @Override
+    public long size() {
+        return size;
+    }
+}
@@ -0,0 +1,48 @@
+package com.labelreader.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory buckets for a single node, bounded in count and dropped once
+ * idle so memory stays flat however many clients have been seen.
+ */
+@Component
+@ConditionalOnProperty(name = "rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimitStore implements RateLimitStore {
+
+    private final Cache<String, Bucket> buckets;
+
+    public LocalRateLimitStore(RateLimitProperties properties) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterAccess(Duration.ofMinutes(properties.getIdleTimeoutMinutes()))
+                .build();
+    }
+
+    @Override
+    public Result tryConsume(String key, RateLimitProperties.Policy policy) {
+        Bucket bucket = buckets.get(key, k -> Bucket.builder()
+                .addLimit(Bandwidth.classic(policy.getCapacity(),
+                        Refill.greedy(policy.getCapacity(), policy.getPeriod())))
+                .build());
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        return new Result(probe.isConsumed(), probe.getRemainingTokens(),
+                TimeUnit.NANOSECONDS.toMillis(probe.getNanosToWaitForRefill()));
+    }
+
+    @Override
+    public long size() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
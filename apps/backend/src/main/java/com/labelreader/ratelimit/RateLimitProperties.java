@@ -0,0 +1,51 @@
+package com.labelreader.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limit policies by route. The first policy whose pattern matches the
+ * request path applies; requests matching none are not limited. Each client
+ * gets its own bucket per policy.
+ */
+@Data
+@Component
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * {@code local} keeps buckets in memory per node, {@code jdbc} shares
+     * them across nodes through the database.
+     */
+    private String backend = "local";
+
+    /**
+     * Upper bound on buckets held in memory by the local backend.
+     */
+    private long maxKeys = 100_000;
+
+    /**
+     * Buckets untouched for this long are dropped. Should be at least the
+     * longest policy period, since a bucket idle that long is full anyway.
+     */
+    private long idleTimeoutMinutes = 10;
+
+    private List<Policy> policies = new ArrayList<>();
+
+    @Data
+    public static class Policy {
+        private String name;
+        private String pattern;
+        private long capacity;
+        private long periodSeconds = 60;
+
+        public Duration getPeriod() {
+            return Duration.ofSeconds(periodSeconds);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.labelreader.ratelimit;
+
+/**
+ * Token buckets keyed by client and policy. Each bucket holds up to the
+ * policy's capacity and refills continuously over its period.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Takes one token from the bucket for the key, creating a full bucket on
+     * first use.
+     */
+    Result tryConsume(String key, RateLimitProperties.Policy policy);
+
+    /**
+     * Buckets currently tracked, possibly approximate.
+     */
+    long size();
+
+    final class Result {
+        private final boolean allowed;
+        private final long remaining;
+        private final long retryAfterMillis;
+
+        public Result(boolean allowed, long remaining, long retryAfterMillis) {
+            this.allowed = allowed;
+            this.remaining = remaining;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        public long getRemaining() {
+            return remaining;
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+}
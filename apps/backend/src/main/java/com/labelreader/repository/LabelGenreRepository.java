@@ -0,0 +1,29 @@
+package com.labelreader.repository;
+
+import com.labelreader.entity.LabelGenre;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LabelGenreRepository extends JpaRepository<LabelGenre, Long> {
+
+    List<LabelGenre> findByUserIdOrderByIdAsc(Long userId);
+
+    List<LabelGenre> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT DISTINCT g.userId FROM LabelGenre g")
+    List<Long> findUserIds();
+
+    @Query("SELECT g.userId FROM LabelGenre g WHERE g.genreKey = :genreKey")
+    List<Long> findUserIdsByGenreKey(@Param("genreKey") String genreKey);
+
+    @Modifying
+    @Query("DELETE FROM LabelGenre g WHERE g.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+}
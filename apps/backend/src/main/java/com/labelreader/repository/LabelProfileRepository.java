@@ -4,9 +4,12 @@ import com.labelreader.entity.LabelProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface LabelProfileRepository extends JpaRepository<LabelProfile, Long> {
     Optional<LabelProfile> findByUserId(Long userId);
+
+    List<LabelProfile> findByGenresInterestedIsNotNull();
 }
@@ -0,0 +1,61 @@
+package com.labelreader.repository;
+
+import com.labelreader.entity.NotificationCounter;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationCounterRepository extends JpaRepository<NotificationCounter, Long> {
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = GREATEST(unread_count + :delta, 0) " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int addToUnread(@Param("userId") Long userId, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = GREATEST(unread_count + :delta, 0) " +
+            "WHERE user_id IN (:userIds)", nativeQuery = true)
+    int addToUnreadForUsers(@Param("userIds") Collection<Long> userIds, @Param("delta") long delta);
+
+    /**
+     * Creates the counter from the real count, which already includes this
+     * transaction's own changes. If another transaction created it first the
+     * delta is applied to theirs instead.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_counters (user_id, unread_count) " +
+            "SELECT :userId, COUNT(*) FROM notifications WHERE user_id = :userId AND is_read = false " +
+            "ON DUPLICATE KEY UPDATE unread_count = GREATEST(notification_counters.unread_count + :delta, 0)",
+            nativeQuery = true)
+    int initialize(@Param("userId") Long userId, @Param("delta") long delta);
+
+    /**
+     * Sets the counter to the real count, which already includes this
+     * transaction's own changes.
+     */
+    @Modifying
+    @Query(value = "UPDATE notification_counters SET unread_count = " +
+            "(SELECT COUNT(*) FROM notifications WHERE user_id = :userId AND is_read = false) " +
+            "WHERE user_id = :userId", nativeQuery = true)
+    int recountUnread(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE NotificationCounter c SET c.unreadCount = :unreadCount WHERE c.userId = :userId")
+    int setUnread(@Param("userId") Long userId, @Param("unreadCount") long unreadCount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM NotificationCounter c WHERE c.userId = :userId")
+    Optional<NotificationCounter> lockByUserId(@Param("userId") Long userId);
+
+    List<NotificationCounter> findByUserIdGreaterThanOrderByUserIdAsc(Long userId, Pageable pageable);
+}
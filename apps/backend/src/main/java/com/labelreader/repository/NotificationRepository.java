@@ -1,24 +1,102 @@
 package com.labelreader.repository;
 
 import com.labelreader.entity.Notification;
-import com.labelreader.entity.User;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    Page<Notification> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
+    Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    Page<Notification> findByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, Boolean isRead, Pageable pageable);
+
+    Slice<Notification> findSliceByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
+
+    Slice<Notification> findSliceByUserIdAndIsReadOrderByCreatedAtDesc(Long userId, Boolean isRead, Pageable pageable);
+
+    Long countByUserIdAndIsRead(Long userId, Boolean isRead);
+
+    long countByUserId(Long userId);
+
+    Optional<Notification> findByIdAndUserId(Long id, Long userId);
+
+    List<Notification> findByIdInAndUserIdOrderByCreatedAtDesc(Collection<Long> ids, Long userId);
+
+    // Ownership is part of the condition, so other users' ids are simply not matched
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true " +
+           "WHERE n.id IN :ids AND n.user.id = :userId AND n.isRead = false")
+    int markAsReadForUser(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids AND n.user.id = :userId")
+    int deleteForUser(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllAsReadForUser(@Param("userId") Long userId);
+
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n " +
+           "WHERE n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.emailPending = true ORDER BY n.createdAt ASC")
+    List<Notification> lockEmailPending(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.emailPending = false WHERE n.id IN :ids")
+    int clearEmailPending(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Notification n SET n.emailPending = true WHERE n.id IN :ids")
+    int restoreEmailPending(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT MAX(id) FROM notifications WHERE created_at < :cutoff", nativeQuery = true)
+    Long findMaxIdCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query(value = "SELECT id FROM notifications WHERE id > :afterId AND id <= :maxId " +
+            "AND is_read = true AND created_at < :cutoff ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Long> findReadIdsCreatedBefore(
+            @Param("afterId") long afterId,
+            @Param("maxId") long maxId,
+            @Param("cutoff") LocalDateTime cutoff,
+            @Param("limit") int limit);
+
+    @Query(value = "SELECT user_id FROM notifications GROUP BY user_id HAVING COUNT(*) > :limit", nativeQuery = true)
+    List<Long> findUserIdsWithMoreThan(@Param("limit") long limit);
 
-    Page<Notification> findByUserAndIsReadOrderByCreatedAtDesc(User user, Boolean isRead, Pageable pageable);
+    /**
+     * The newest id beyond the {@code keep} most recent notifications of the user.
+     */
+    @Query(value = "SELECT id FROM notifications WHERE user_id = :userId ORDER BY id DESC LIMIT 1 OFFSET :keep",
+            nativeQuery = true)
+    Long findIdBeyondNewest(@Param("userId") Long userId, @Param("keep") long keep);
 
-    Long countByUserAndIsRead(User user, Boolean isRead);
+    @Query("SELECT n.id, n.isRead FROM Notification n WHERE n.user.id = :userId AND n.id <= :maxId ORDER BY n.id")
+    List<Object[]> findIdsAndReadUpTo(
+            @Param("userId") Long userId,
+            @Param("maxId") Long maxId,
+            Pageable pageable);
 
     @Modifying
-    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user = :user AND n.isRead = false")
-    void markAllAsReadForUser(User user);
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,49 @@
+package com.labelreader.repository;
+
+import com.labelreader.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks up to {@code limit} due events, skipping rows another node has
+     * locked, so concurrent relays never claim the same event.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE status = 'PENDING' AND available_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :leaseUntil WHERE e.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.id = :id")
+    int deleteHandled(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.attempts = :attempts, e.availableAt = :retryAt, e.lastError = :error WHERE e.id = :id")
+    int scheduleRetry(
+            @Param("id") Long id,
+            @Param("attempts") int attempts,
+            @Param("retryAt") LocalDateTime retryAt,
+            @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEvent e SET e.status = com.labelreader.entity.OutboxEvent.Status.DEAD, "
+            + "e.attempts = :attempts, e.lastError = :error WHERE e.id = :id")
+    int markDead(@Param("id") Long id, @Param("attempts") int attempts, @Param("error") String error);
+}
@@ -20,11 +20,11 @@ public interface PlayHistoryRepository extends JpaRepository<PlayHistory, Long>
            "ORDER BY DATE(ph.playedAt)")
     List<Object[]> countPlaysByDateForArtist(User artist, LocalDateTime startDate);
 
-    @Query("SELECT s, COUNT(ph) as playCount " +
+    @Query("SELECT s.id, s.title, s.artistName, s.averageRating, s.totalRatings, COUNT(ph) as playCount " +
            "FROM PlayHistory ph " +
            "JOIN ph.submission s " +
            "WHERE s.user = :artist " +
-           "GROUP BY s " +
+           "GROUP BY s.id, s.title, s.artistName, s.averageRating, s.totalRatings " +
            "ORDER BY COUNT(ph) DESC")
     List<Object[]> findTopSubmissionsByArtist(User artist, org.springframework.data.domain.Pageable pageable);
 
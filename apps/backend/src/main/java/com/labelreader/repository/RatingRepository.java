@@ -1,7 +1,7 @@
 package com.labelreader.repository;
 
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.entity.Rating;
-import com.labelreader.entity.Submission;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -28,6 +28,11 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     @Query("SELECT s.genre, COUNT(r) FROM Rating r JOIN Submission s ON r.submissionId = s.id WHERE r.labelId = :labelId GROUP BY s.genre")
     List<Object[]> countRatingsByGenreForLabel(@Param("labelId") Long labelId);
 
-    @Query("SELECT s FROM Rating r JOIN Submission s ON r.submissionId = s.id WHERE r.labelId = :labelId ORDER BY r.createdAt DESC")
-    List<Submission> findRecentlyRatedSubmissionsByLabel(@Param("labelId") Long labelId, Pageable pageable);
+    @Query("SELECT new com.labelreader.dto.SubmissionSummaryDto(" + SubmissionRepository.SUMMARY_FIELDS + ") " +
+           "FROM Rating r JOIN Submission s ON r.submissionId = s.id WHERE r.labelId = :labelId ORDER BY r.createdAt DESC")
+    List<SubmissionSummaryDto> findRecentlyRatedSubmissionsByLabel(@Param("labelId") Long labelId, Pageable pageable);
+
+    @Query("SELECT r.submissionId, s.genre, s.subGenre, r.rating, r.isInterested " +
+           "FROM Rating r JOIN Submission s ON r.submissionId = s.id WHERE r.labelId = :labelId")
+    List<Object[]> findFeedSignalsByLabelId(@Param("labelId") Long labelId);
 }
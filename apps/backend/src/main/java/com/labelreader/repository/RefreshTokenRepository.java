@@ -0,0 +1,42 @@
+package com.labelreader.repository;
+
+import com.labelreader.entity.RefreshToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    boolean existsByTokenHash(String tokenHash);
+
+    boolean existsByTokenHashAndRevokedAtIsNotNull(String tokenHash);
+
+    List<RefreshToken> findByIdGreaterThanAndRevokedAtIsNotNullAndExpiresAtAfterOrderByIdAsc(
+            Long id, LocalDateTime now, Pageable pageable);
+
+    long countByRevokedAtIsNotNullAndExpiresAtAfter(LocalDateTime now);
+
+    @Query("SELECT t.tokenHash FROM RefreshToken t WHERE t.userId = :userId AND t.revokedAt IS NULL AND t.expiresAt > :now")
+    List<String> findActiveTokenHashes(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.tokenHash = :tokenHash AND t.revokedAt IS NULL AND t.expiresAt > :now")
+    int revoke(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revokedAt = :now WHERE t.userId = :userId AND t.revokedAt IS NULL")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM refresh_tokens WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
@@ -0,0 +1,24 @@
+package com.labelreader.repository;
+
+import com.labelreader.entity.Submission;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Optional filters for keyset submission queries. Null fields are not applied.
+ */
+@Value
+@Builder
+public class SubmissionCriteria {
+    Long artistId;
+    Submission.SubmissionStatus status;
+    Collection<String> genres;
+    Integer minBpm;
+    Integer maxBpm;
+    Double minRating;
+    LocalDateTime startDate;
+    LocalDateTime endDate;
+}
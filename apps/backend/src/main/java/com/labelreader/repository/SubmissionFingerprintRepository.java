@@ -0,0 +1,24 @@
+package com.labelreader.repository;
+
+import com.labelreader.entity.SubmissionFingerprint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SubmissionFingerprintRepository extends JpaRepository<SubmissionFingerprint, Long> {
+
+    List<SubmissionFingerprint> findBySubmissionIdGreaterThanOrderBySubmissionIdAsc(Long submissionId, Pageable pageable);
+
+    /**
+     * Id and file path of submissions that have no fingerprint yet, in id order.
+     */
+    @Query(value = "SELECT s.id, s.file_path FROM submissions s " +
+            "LEFT JOIN submission_fingerprints f ON f.submission_id = s.id " +
+            "WHERE f.submission_id IS NULL AND s.id > :afterId ORDER BY s.id LIMIT :limit", nativeQuery = true)
+    List<Object[]> findMissingAfter(@Param("afterId") long afterId, @Param("limit") int limit);
+}
@@ -0,0 +1,16 @@
+package com.labelreader.repository;
+
+import com.labelreader.dto.SubmissionSummaryDto;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
+
+import java.util.List;
+
+public interface SubmissionKeysetRepository {
+
+    /**
+     * Returns up to {@code limit} submissions matching the criteria that sort
+     * strictly after the cursor, or from the start when the cursor is null.
+     */
+    List<SubmissionSummaryDto> findPage(SubmissionCriteria criteria, SubmissionSort sort, Cursor after, int limit);
+}
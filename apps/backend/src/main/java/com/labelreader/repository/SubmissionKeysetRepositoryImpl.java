@@ -0,0 +1,109 @@
+package com.labelreader.repository;
+
+import com.labelreader.dto.SubmissionSummaryDto;
+import com.labelreader.entity.Submission;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+class SubmissionKeysetRepositoryImpl implements SubmissionKeysetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<SubmissionSummaryDto> findPage(SubmissionCriteria criteria, SubmissionSort sort, Cursor after, int limit) {
+        if (sort == SubmissionSort.RELEVANCE) {
+            throw new IllegalArgumentException("Relevance order is only available from the search index");
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SubmissionSummaryDto> query = cb.createQuery(SubmissionSummaryDto.class);
+        Root<Submission> root = query.from(Submission.class);
+        List<Predicate> predicates = filters(cb, root, criteria);
+
+        Expression key = root.get(sort.getProperty());
+        Expression<Long> id = root.get("id");
+        if (after != null) {
+            Comparable value = sort.parseKey(after.getKey());
+            // (key, id) < (lastKey, lastId) for descending orders, > for ascending
+            predicates.add(sort.isDescending()
+                    ? cb.or(cb.lessThan(key, value), cb.and(cb.equal(key, value), cb.lessThan(id, after.getId())))
+                    : cb.or(cb.greaterThan(key, value), cb.and(cb.equal(key, value), cb.greaterThan(id, after.getId()))));
+        }
+
+        List<Order> orders = sort.isDescending()
+                ? List.of(cb.desc(key), cb.desc(id))
+                : List.of(cb.asc(key), cb.asc(id));
+        query.select(summary(cb, root)).where(predicates.toArray(new Predicate[0])).orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Same columns as {@link SubmissionRepository#SUMMARY_FIELDS}.
+     */
+    private static CompoundSelection<SubmissionSummaryDto> summary(CriteriaBuilder cb, Root<Submission> root) {
+        return cb.construct(SubmissionSummaryDto.class,
+                root.get("id"),
+                root.get("artistId"),
+                root.get("title"),
+                root.get("artistName"),
+                root.get("genre"),
+                root.get("subGenre"),
+                root.get("bpm"),
+                root.get("keySignature"),
+                root.get("durationSeconds"),
+                cb.substring(root.get("description"), 1, SubmissionSummaryDto.DESCRIPTION_SNIPPET_LENGTH),
+                root.get("submissionStatus"),
+                root.get("playCount"),
+                root.get("averageRating"),
+                root.get("totalRatings"),
+                root.get("createdAt"));
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<Submission> root, SubmissionCriteria criteria) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getArtistId() != null) {
+            predicates.add(cb.equal(root.get("artistId"), criteria.getArtistId()));
+        }
+        if (criteria.getStatus() != null) {
+            predicates.add(cb.equal(root.get("submissionStatus"), criteria.getStatus()));
+        }
+        if (criteria.getGenres() != null && !criteria.getGenres().isEmpty()) {
+            predicates.add(root.<String>get("genre").in(criteria.getGenres()));
+        }
+        if (criteria.getMinBpm() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<Integer>get("bpm"), criteria.getMinBpm()));
+        }
+        if (criteria.getMaxBpm() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.<Integer>get("bpm"), criteria.getMaxBpm()));
+        }
+        if (criteria.getMinRating() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<BigDecimal>get("averageRating"), BigDecimal.valueOf(criteria.getMinRating())));
+        }
+        if (criteria.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.<LocalDateTime>get("createdAt"), criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("createdAt"), criteria.getEndDate()));
+        }
+        return predicates;
+    }
+}
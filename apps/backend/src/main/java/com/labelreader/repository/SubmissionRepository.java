@@ -1,34 +1,185 @@
 package com.labelreader.repository;
 
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.entity.Submission;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface SubmissionRepository extends JpaRepository<Submission, Long> {
-    Page<Submission> findByArtistId(Long artistId, Pageable pageable);
+public interface SubmissionRepository extends JpaRepository<Submission, Long>, SubmissionKeysetRepository {
 
-    List<Submission> findByArtistId(Long artistId);
+    /**
+     * Card columns in {@link SubmissionSummaryDto} constructor order. TEXT and
+     * JSON columns are left out apart from a short description prefix.
+     */
+    String SUMMARY_FIELDS = "s.id, s.artistId, s.title, s.artistName, s.genre, s.subGenre, s.bpm, " +
+           "s.keySignature, s.durationSeconds, SUBSTRING(s.description, 1, " +
+           SubmissionSummaryDto.DESCRIPTION_SNIPPET_LENGTH + "), s.submissionStatus, s.playCount, " +
+           "s.averageRating, s.totalRatings, s.createdAt";
 
-    Page<Submission> findBySubmissionStatus(Submission.SubmissionStatus status, Pageable pageable);
+    String SUMMARY_SELECT = "SELECT new com.labelreader.dto.SubmissionSummaryDto(" + SUMMARY_FIELDS + ") " +
+           "FROM Submission s ";
 
-    @Query(value = "SELECT * FROM submissions WHERE " +
-           "MATCH(title, artist_name, description) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
+    String SEARCH_CONDITIONS = "MATCH(title, artist_name, description) AGAINST (:query IN NATURAL LANGUAGE MODE) " +
            "AND (:genre IS NULL OR genre = :genre) " +
            "AND (:minBpm IS NULL OR bpm >= :minBpm) " +
            "AND (:maxBpm IS NULL OR bpm <= :maxBpm) " +
            "AND (:startDate IS NULL OR created_at >= :startDate) " +
            "AND (:endDate IS NULL OR created_at <= :endDate) " +
-           "AND submission_status = 'APPROVED'",
+           "AND submission_status = 'APPROVED'";
+
+    String FILTER_CONDITIONS = "(:genres IS NULL OR s.genre IN :genres) " +
+           "AND (:minBpm IS NULL OR s.bpm >= :minBpm) " +
+           "AND (:maxBpm IS NULL OR s.bpm <= :maxBpm) " +
+           "AND (:minRating IS NULL OR s.averageRating >= :minRating) " +
+           "AND s.submissionStatus = 'APPROVED'";
+
+    Page<Submission> findByArtistId(Long artistId, Pageable pageable);
+
+    List<Submission> findByArtistId(Long artistId);
+
+    Page<Submission> findBySubmissionStatus(Submission.SubmissionStatus status, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE s.artistId = :artistId",
+           countQuery = "SELECT COUNT(s) FROM Submission s WHERE s.artistId = :artistId")
+    Page<SubmissionSummaryDto> findSummariesByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.artistId = :artistId")
+    Slice<SubmissionSummaryDto> findSummarySliceByArtistId(@Param("artistId") Long artistId, Pageable pageable);
+
+    long countByArtistId(Long artistId);
+
+    /*
+     * Discover queries come in one variant per filter combination instead of
+     * "(:param IS NULL OR ...)" catch-alls, so each can seek on
+     * idx_genre_status_created_id or idx_status_created_id. The genre column
+     * uses a case-insensitive collation, so plain equality still matches
+     * regardless of case without wrapping the column in a function.
+     */
+    String BY_GENRE_AND_STATUS = "WHERE s.genre = :genre AND s.submissionStatus = :status";
+
+    String BY_GENRE = "WHERE s.genre = :genre";
+
+    String BY_STATUS = "WHERE s.submissionStatus = :status";
+
+    default Page<SubmissionSummaryDto> findSummaries(
+            String genre, Submission.SubmissionStatus status, Pageable pageable) {
+        if (genre != null) {
+            return status != null
+                    ? findSummariesByGenreAndStatus(genre, status, pageable)
+                    : findSummariesByGenre(genre, pageable);
+        }
+        return status != null ? findSummariesByStatus(status, pageable) : findAllSummaries(pageable);
+    }
+
+    default Slice<SubmissionSummaryDto> findSummarySlice(
+            String genre, Submission.SubmissionStatus status, Pageable pageable) {
+        if (genre != null) {
+            return status != null
+                    ? findSummarySliceByGenreAndStatus(genre, status, pageable)
+                    : findSummarySliceByGenre(genre, pageable);
+        }
+        return status != null ? findSummarySliceByStatus(status, pageable) : findAllSummarySlice(pageable);
+    }
+
+    default Page<Long> findSummaryIds(String genre, Submission.SubmissionStatus status, Pageable pageable) {
+        if (genre != null) {
+            return status != null
+                    ? findSummaryIdsByGenreAndStatus(genre, status, pageable)
+                    : findSummaryIdsByGenre(genre, pageable);
+        }
+        return status != null ? findSummaryIdsByStatus(status, pageable) : findAllSummaryIds(pageable);
+    }
+
+    default long countSummaries(String genre, Submission.SubmissionStatus status) {
+        if (genre != null) {
+            return status != null ? countSummariesByGenreAndStatus(genre, status) : countSummariesByGenre(genre);
+        }
+        return status != null ? countSummariesByStatus(status) : count();
+    }
+
+    @Query(value = SUMMARY_SELECT + BY_GENRE_AND_STATUS,
+           countQuery = "SELECT COUNT(s) FROM Submission s " + BY_GENRE_AND_STATUS)
+    Page<SubmissionSummaryDto> findSummariesByGenreAndStatus(
+            @Param("genre") String genre,
+            @Param("status") Submission.SubmissionStatus status,
+            Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + BY_GENRE,
+           countQuery = "SELECT COUNT(s) FROM Submission s " + BY_GENRE)
+    Page<SubmissionSummaryDto> findSummariesByGenre(@Param("genre") String genre, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + BY_STATUS,
+           countQuery = "SELECT COUNT(s) FROM Submission s " + BY_STATUS)
+    Page<SubmissionSummaryDto> findSummariesByStatus(
+            @Param("status") Submission.SubmissionStatus status, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT, countQuery = "SELECT COUNT(s) FROM Submission s")
+    Page<SubmissionSummaryDto> findAllSummaries(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + BY_GENRE_AND_STATUS)
+    Slice<SubmissionSummaryDto> findSummarySliceByGenreAndStatus(
+            @Param("genre") String genre,
+            @Param("status") Submission.SubmissionStatus status,
+            Pageable pageable);
+
+    @Query(SUMMARY_SELECT + BY_GENRE)
+    Slice<SubmissionSummaryDto> findSummarySliceByGenre(@Param("genre") String genre, Pageable pageable);
+
+    @Query(SUMMARY_SELECT + BY_STATUS)
+    Slice<SubmissionSummaryDto> findSummarySliceByStatus(
+            @Param("status") Submission.SubmissionStatus status, Pageable pageable);
+
+    @Query(SUMMARY_SELECT)
+    Slice<SubmissionSummaryDto> findAllSummarySlice(Pageable pageable);
+
+    @Query(value = "SELECT s.id FROM Submission s " + BY_GENRE_AND_STATUS,
+           countQuery = "SELECT COUNT(s) FROM Submission s " + BY_GENRE_AND_STATUS)
+    Page<Long> findSummaryIdsByGenreAndStatus(
+            @Param("genre") String genre,
+            @Param("status") Submission.SubmissionStatus status,
+            Pageable pageable);
+
+    @Query(value = "SELECT s.id FROM Submission s " + BY_GENRE,
+           countQuery = "SELECT COUNT(s) FROM Submission s " + BY_GENRE)
+    Page<Long> findSummaryIdsByGenre(@Param("genre") String genre, Pageable pageable);
+
+    @Query(value = "SELECT s.id FROM Submission s " + BY_STATUS,
+           countQuery = "SELECT COUNT(s) FROM Submission s " + BY_STATUS)
+    Page<Long> findSummaryIdsByStatus(@Param("status") Submission.SubmissionStatus status, Pageable pageable);
+
+    @Query(value = "SELECT s.id FROM Submission s", countQuery = "SELECT COUNT(s) FROM Submission s")
+    Page<Long> findAllSummaryIds(Pageable pageable);
+
+    @Query("SELECT COUNT(s) FROM Submission s " + BY_GENRE_AND_STATUS)
+    long countSummariesByGenreAndStatus(
+            @Param("genre") String genre,
+            @Param("status") Submission.SubmissionStatus status);
+
+    @Query("SELECT COUNT(s) FROM Submission s " + BY_GENRE)
+    long countSummariesByGenre(@Param("genre") String genre);
+
+    @Query("SELECT COUNT(s) FROM Submission s " + BY_STATUS)
+    long countSummariesByStatus(@Param("status") Submission.SubmissionStatus status);
+
+    @Query(SUMMARY_SELECT + "WHERE s.id IN :ids")
+    List<SubmissionSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT id FROM submissions WHERE " + SEARCH_CONDITIONS,
+           countQuery = "SELECT COUNT(*) FROM submissions WHERE " + SEARCH_CONDITIONS,
            nativeQuery = true)
-    Page<Submission> searchSubmissions(
+    Page<Long> searchSubmissionIds(
             @Param("query") String query,
             @Param("genre") String genre,
             @Param("minBpm") Integer minBpm,
@@ -37,25 +188,113 @@ public interface SubmissionRepository extends JpaRepository<Submission, Long> {
             @Param("endDate") LocalDateTime endDate,
             Pageable pageable);
 
-    @Query("SELECT s FROM Submission s WHERE " +
-           "(:genres IS NULL OR s.genre IN :genres) " +
-           "AND (:minBpm IS NULL OR s.bpm >= :minBpm) " +
-           "AND (:maxBpm IS NULL OR s.bpm <= :maxBpm) " +
-           "AND (:minRating IS NULL OR s.averageRating >= :minRating) " +
-           "AND s.submissionStatus = 'APPROVED'")
-    Page<Submission> findByFilters(
-            @Param("genres") java.util.List<String> genres,
+    @Query(value = "SELECT id FROM submissions WHERE " + SEARCH_CONDITIONS, nativeQuery = true)
+    Slice<Long> searchSubmissionIdsSlice(
+            @Param("query") String query,
+            @Param("genre") String genre,
+            @Param("minBpm") Integer minBpm,
+            @Param("maxBpm") Integer maxBpm,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM submissions WHERE " + SEARCH_CONDITIONS, nativeQuery = true)
+    long countSearchSubmissions(
+            @Param("query") String query,
+            @Param("genre") String genre,
+            @Param("minBpm") Integer minBpm,
+            @Param("maxBpm") Integer maxBpm,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate);
+
+    @Query(value = SUMMARY_SELECT + "WHERE " + FILTER_CONDITIONS,
+           countQuery = "SELECT COUNT(s) FROM Submission s WHERE " + FILTER_CONDITIONS)
+    Page<SubmissionSummaryDto> findSummariesByFilters(
+            @Param("genres") List<String> genres,
             @Param("minBpm") Integer minBpm,
             @Param("maxBpm") Integer maxBpm,
             @Param("minRating") Double minRating,
             Pageable pageable);
 
+    @Query(value = "SELECT s.id FROM Submission s WHERE " + FILTER_CONDITIONS,
+           countQuery = "SELECT COUNT(s) FROM Submission s WHERE " + FILTER_CONDITIONS)
+    Page<Long> findIdsByFilters(
+            @Param("genres") List<String> genres,
+            @Param("minBpm") Integer minBpm,
+            @Param("maxBpm") Integer maxBpm,
+            @Param("minRating") Double minRating,
+            Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE " + FILTER_CONDITIONS)
+    Slice<SubmissionSummaryDto> findSummarySliceByFilters(
+            @Param("genres") List<String> genres,
+            @Param("minBpm") Integer minBpm,
+            @Param("maxBpm") Integer maxBpm,
+            @Param("minRating") Double minRating,
+            Pageable pageable);
+
+    @Query("SELECT COUNT(s) FROM Submission s WHERE " + FILTER_CONDITIONS)
+    long countByFilters(
+            @Param("genres") List<String> genres,
+            @Param("minBpm") Integer minBpm,
+            @Param("maxBpm") Integer maxBpm,
+            @Param("minRating") Double minRating);
+
     @Query("SELECT s.genre, COUNT(s) FROM Submission s WHERE s.genre IS NOT NULL GROUP BY s.genre")
     List<Object[]> countByGenre();
 
-    @Query("SELECT s FROM Submission s WHERE s.submissionStatus = 'APPROVED' ORDER BY s.averageRating DESC, s.totalRatings DESC")
-    List<Submission> findTopRatedSubmissions(Pageable pageable);
+    @Query("SELECT COUNT(s), AVG(CASE WHEN s.averageRating > 0 THEN s.averageRating END), " +
+           "COALESCE(SUM(s.totalRatings), 0) FROM Submission s WHERE s.artistId = :artistId")
+    List<Object[]> findRatingTotalsByArtistId(@Param("artistId") Long artistId);
+
+    @Query(SUMMARY_SELECT + "WHERE s.submissionStatus = 'APPROVED' ORDER BY s.averageRating DESC, s.totalRatings DESC")
+    List<SubmissionSummaryDto> findTopRatedSubmissions(Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE s.submissionStatus = 'APPROVED' ORDER BY s.playCount DESC")
+    List<SubmissionSummaryDto> findMostPlayedSubmissions(Pageable pageable);
+
+    List<Submission> findBySubmissionStatusAndIdGreaterThanOrderByIdAsc(
+            Submission.SubmissionStatus status, Long id, Pageable pageable);
+
+    @Query("SELECT s FROM Submission s WHERE s.updatedAt > :updatedAt " +
+           "OR (s.updatedAt = :updatedAt AND s.id > :afterId) ORDER BY s.updatedAt ASC, s.id ASC")
+    List<Submission> findUpdatedSince(
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Query("SELECT s.id, s.genre, s.subGenre, s.keySignature, s.bpm, s.averageRating, s.playCount " +
+           "FROM Submission s WHERE s.submissionStatus = 'APPROVED'")
+    List<Object[]> findApprovedFacetRows();
+
+    @Query("SELECT s.id, s.genre, s.subGenre, s.bpm, s.keySignature, s.averageRating, s.totalRatings, " +
+           "s.waveformData FROM Submission s WHERE s.submissionStatus = 'APPROVED' AND s.id > :afterId " +
+           "ORDER BY s.id ASC")
+    List<Object[]> findApprovedFeatureRows(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT s.id, s.genre, s.subGenre, s.averageRating, s.playCount, s.createdAt " +
+           "FROM Submission s WHERE s.submissionStatus = 'APPROVED'")
+    List<Object[]> findApprovedFeedRows();
+
+    /**
+     * Adds a play in one statement, so concurrent plays cannot overwrite each
+     * other's count. Loaded submissions are detached; read the count back
+     * with {@link #findPlayCount}.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Submission s SET s.playCount = COALESCE(s.playCount, 0) + 1, s.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE s.id = :id")
+    int incrementPlayCount(@Param("id") Long id);
+
+    @Query("SELECT s.playCount FROM Submission s WHERE s.id = :id")
+    Integer findPlayCount(@Param("id") Long id);
 
-    @Query("SELECT s FROM Submission s WHERE s.submissionStatus = 'APPROVED' ORDER BY s.playCount DESC")
-    List<Submission> findMostPlayedSubmissions(Pageable pageable);
+    @Modifying
+    @Transactional
+    @Query("UPDATE Submission s SET s.duplicateOfId = :duplicateOfId, s.duplicateSimilarity = :similarity " +
+           "WHERE s.id = :id")
+    int flagDuplicate(
+            @Param("id") Long id,
+            @Param("duplicateOfId") Long duplicateOfId,
+            @Param("similarity") Double similarity);
 }
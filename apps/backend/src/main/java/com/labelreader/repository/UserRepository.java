@@ -2,6 +2,7 @@ package com.labelreader.repository;
 
 import com.labelreader.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,4 +17,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.userType = :userType")
     Long countByUserType(@Param("userType") User.UserType userType);
+
+    @Modifying
+    @Query("UPDATE User u SET u.emailDigest = :emailDigest WHERE u.id = :userId")
+    int updateEmailDigest(@Param("userId") Long userId, @Param("emailDigest") boolean emailDigest);
 }
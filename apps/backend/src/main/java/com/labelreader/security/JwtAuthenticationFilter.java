@@ -5,6 +5,7 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,6 +16,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 import java.util.Collections;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -36,36 +38,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String token = authHeader.substring(7);
 
-        try {
-            System.out.println("DEBUG: Validating token for: " + request.getRequestURI());
-            boolean isValid = jwtUtil.isTokenValid(token);
-            boolean isExpired = jwtUtil.isTokenExpired(token);
-            System.out.println("DEBUG: Token valid: " + isValid + ", expired: " + isExpired);
-
-            if (isValid && !isExpired) {
-                Long userId = jwtUtil.extractUserId(token);
-                String email = jwtUtil.extractEmail(token);
-                String userType = jwtUtil.extractUserType(token);
-                System.out.println("DEBUG: userId=" + userId + ", email=" + email + ", userType=" + userType);
-
-                SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + userType);
-                System.out.println("DEBUG: Creating authority: " + authority.getAuthority());
-
-                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                        userId,
-                        null,
-                        Collections.singletonList(authority));
-
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                System.out.println("DEBUG: Authentication set successfully with authorities: " + authentication.getAuthorities());
-                System.out.println("DEBUG: Is authenticated: " + authentication.isAuthenticated());
-            } else {
-                System.out.println("DEBUG: Token validation failed or expired");
-            }
-        } catch (Exception e) {
-            System.out.println("DEBUG: Exception during token validation: " + e.getMessage());
-            e.printStackTrace();
+        JwtUtil.AccessToken accessToken = jwtUtil.authenticate(token);
+        if (accessToken != null) {
+            SimpleGrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + accessToken.getUserType());
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                    accessToken.getUserId(),
+                    null,
+                    Collections.singletonList(authority));
+
+            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+        } else {
+            log.debug("Rejected bearer token for {}", request.getRequestURI());
         }
 
         filterChain.doFilter(request, response);
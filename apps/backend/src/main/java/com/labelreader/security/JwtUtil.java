@@ -1,17 +1,32 @@
 package com.labelreader.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
+@RequiredArgsConstructor
 public class JwtUtil {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
@@ -21,8 +36,42 @@ public class JwtUtil {
     @Value("${jwt.refresh-token-expiration}")
     private Long refreshTokenExpiration;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    @Value("${jwt.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    // Built once; both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, AccessToken> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfter(new Expiry<String, AccessToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, AccessToken token, long currentTime) {
+                        long remainingMillis = token.getExpiresAt() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, AccessToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, AccessToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt-verified-tokens");
     }
 
     public String generateAccessToken(Long userId, String email, String userType) {
@@ -32,37 +81,86 @@ public class JwtUtil {
                 .claim("userType", userType)
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + accessTokenExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
     public String generateRefreshToken(Long userId) {
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(userId.toString())
+                .claim("type", "refresh")
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + refreshTokenExpiration))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    /**
+     * Verifies an access token and returns its claims, or null when the token
+     * is malformed, forged, expired or not an access token. Verified tokens
+     * are cached by hash until they expire, so a client sending the same
+     * token again skips the signature check and JSON parsing.
+     */
+    public AccessToken authenticate(String token) {
+        String key = sha256(token);
+        AccessToken cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached.getExpiresAt() > System.currentTimeMillis() ? cached : null;
+        }
+
+        AccessToken verified = verify(token);
+        if (verified != null) {
+            verifiedTokens.put(key, verified);
+        }
+        return verified;
     }
 
-    public Long extractUserId(String token) {
-        return Long.parseLong(extractClaims(token).getSubject());
+    /**
+     * Parses and verifies the token once, without the cache.
+     */
+    public AccessToken verify(String token) {
+        Claims claims;
+        try {
+            claims = extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        String userType = claims.get("userType", String.class);
+        if (userType == null || claims.getExpiration() == null) {
+            // Refresh tokens carry no user type and must not authenticate requests
+            return null;
+        }
+        return new AccessToken(
+                Long.parseLong(claims.getSubject()),
+                claims.get("email", String.class),
+                userType,
+                claims.getExpiration().getTime());
+    }
+
+    /**
+     * Verifies a refresh token and returns its claims, or null when it is
+     * invalid, expired or not a refresh token. Says nothing about revocation.
+     */
+    public Claims verifyRefreshToken(String token) {
+        try {
+            Claims claims = extractClaims(token);
+            return "refresh".equals(claims.get("type", String.class)) ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
-    public String extractEmail(String token) {
-        return extractClaims(token).get("email", String.class);
+    public long getRefreshTokenExpiration() {
+        return refreshTokenExpiration;
     }
 
-    public String extractUserType(String token) {
-        return extractClaims(token).get("userType", String.class);
+    public Claims extractClaims(String token) {
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    public Long extractUserId(String token) {
+        return Long.parseLong(extractClaims(token).getSubject());
     }
 
     public boolean isTokenValid(String token) {
@@ -74,11 +172,45 @@ public class JwtUtil {
         }
     }
 
-    public boolean isTokenExpired(String token) {
+    /**
+     * Hex SHA-256 of a token, for storing or keying tokens without keeping them.
+     */
+    public static String sha256(String token) {
         try {
-            return extractClaims(token).getExpiration().before(new Date());
-        } catch (JwtException e) {
-            return true;
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public static final class AccessToken {
+        private final Long userId;
+        private final String email;
+        private final String userType;
+        private final long expiresAt;
+
+        public AccessToken(Long userId, String email, String userType, long expiresAt) {
+            this.userId = userId;
+            this.email = email;
+            this.userType = userType;
+            this.expiresAt = expiresAt;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public String getUserType() {
+            return userType;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
         }
     }
 }
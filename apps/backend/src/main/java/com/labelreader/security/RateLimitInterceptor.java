@@ -1,63 +1,95 @@
 package com.labelreader.security;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Refill;
+import com.labelreader.ratelimit.RateLimitProperties;
+import com.labelreader.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class RateLimitInterceptor implements HandlerInterceptor {
 
-    private final Map<String, Bucket> cache = new ConcurrentHashMap<>();
+    private final RateLimitStore store;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final List<PathPattern> patterns = new ArrayList<>();
+    private final Map<String, Counter> rejections = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (RateLimitProperties.Policy policy : properties.getPolicies()) {
+            patterns.add(PathPatternParser.defaultInstance.parse(policy.getPattern()));
+            rejections.put(policy.getName(), Counter.builder("ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("policy", policy.getName())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("ratelimit.keys", store, RateLimitStore::size)
+                .description("Rate limit buckets tracked")
+                .tag("backend", properties.getBackend())
+                .register(meterRegistry);
+    }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        String key = getClientKey(request);
-        Bucket bucket = cache.computeIfAbsent(key, k -> createBucket(request));
+        RateLimitProperties.Policy policy = matchPolicy(request);
+        if (policy == null) {
+            return true;
+        }
 
-        if (bucket.tryConsume(1)) {
+        String key = policy.getName() + ":" + getClientKey(request);
+        RateLimitStore.Result result = store.tryConsume(key, policy);
+        response.setHeader("X-Rate-Limit-Remaining", String.valueOf(result.getRemaining()));
+
+        if (result.isAllowed()) {
             return true;
         } else {
             log.warn("Rate limit exceeded for client: {}", key);
+            rejections.get(policy.getName()).increment();
             response.setStatus(429);
-            response.setHeader("X-Rate-Limit-Retry-After-Seconds", "60");
+            response.setHeader("X-Rate-Limit-Retry-After-Seconds",
+                    String.valueOf(Math.max(1, (result.getRetryAfterMillis() + 999) / 1000)));
             return false;
         }
     }
 
-    private String getClientKey(HttpServletRequest request) {
-        String ip = request.getRemoteAddr();
-        String authHeader = request.getHeader("Authorization");
-
-        // Use user token if available, otherwise use IP
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return "user:" + authHeader.substring(7, Math.min(authHeader.length(), 20));
+    private RateLimitProperties.Policy matchPolicy(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        PathContainer container = PathContainer.parsePath(path);
+        for (int i = 0; i < patterns.size(); i++) {
+            if (patterns.get(i).matches(container)) {
+                return properties.getPolicies().get(i);
+            }
         }
-        return "ip:" + ip;
+        return null;
     }
 
-    private Bucket createBucket(HttpServletRequest request) {
-        String path = request.getRequestURI();
-
-        // Stricter limits for authentication endpoints
-        if (path.contains("/api/auth/")) {
-            return Bucket.builder()
-                    .addLimit(Bandwidth.classic(10, Refill.intervally(10, Duration.ofMinutes(1))))
-                    .build();
+    private String getClientKey(HttpServletRequest request) {
+        // The JWT filter has already run; authenticated requests carry the user id as principal
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Long userId) {
+            return "user:" + userId;
         }
-
-        // Standard limits for other endpoints
-        return Bucket.builder()
-                .addLimit(Bandwidth.classic(100, Refill.intervally(100, Duration.ofMinutes(1))))
-                .build();
+        return "ip:" + request.getRemoteAddr();
     }
 }
@@ -0,0 +1,56 @@
+package com.labelreader.security;
+
+import com.labelreader.entity.User;
+
+/**
+ * Immutable snapshot of the fields request handling needs about the
+ * authenticated user, safe to cache and share between threads.
+ */
+public final class UserPrincipal {
+
+    private final Long id;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final User.UserType userType;
+    private final boolean active;
+
+    public UserPrincipal(Long id, String email, String firstName, String lastName,
+                         User.UserType userType, boolean active) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.userType = userType;
+        this.active = active;
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                user.getUserType(), !Boolean.FALSE.equals(user.getIsActive()));
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public User.UserType getUserType() {
+        return userType;
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+}
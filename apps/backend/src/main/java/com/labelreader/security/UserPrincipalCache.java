@@ -0,0 +1,65 @@
+package com.labelreader.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.labelreader.event.UserChangedEvent;
+import com.labelreader.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Resolves the user id carried by an access token to a {@link UserPrincipal}
+ * without a database round trip on every request. Snapshots are dropped when
+ * the user changes and otherwise live for a short TTL, which bounds how long
+ * a change made outside the application goes unnoticed.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserPrincipalCache {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${principal.cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${principal.cache.max-entries:10000}")
+    private long maxEntries;
+
+    private Cache<Long, UserPrincipal> cache;
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "user-principals");
+    }
+
+    /**
+     * The user's snapshot, or null when no such user exists.
+     */
+    public UserPrincipal get(Long userId) {
+        return cache.get(userId, id -> userRepository.findById(id)
+                .map(UserPrincipal::from)
+                .orElse(null));
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.getUserId());
+    }
+}
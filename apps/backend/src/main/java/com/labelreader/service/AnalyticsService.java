@@ -1,7 +1,7 @@
 package com.labelreader.service;
 
 import com.labelreader.dto.AnalyticsDto;
-import com.labelreader.entity.Submission;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.entity.User;
 import com.labelreader.repository.PlayHistoryRepository;
 import com.labelreader.repository.RatingRepository;
@@ -10,6 +10,7 @@ import com.labelreader.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class AnalyticsService {
 
     private final PlayHistoryRepository playHistoryRepository;
@@ -32,21 +34,15 @@ public class AnalyticsService {
         if (days == null) days = 30;
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
 
-        List<Submission> submissions = submissionRepository.findByArtistId(artist.getId());
-        Long totalSubmissions = (long) submissions.size();
+        // Aggregated in the database instead of loading every submission row
+        Object[] ratingTotals = submissionRepository.findRatingTotalsByArtistId(artist.getId()).get(0);
+        Long totalSubmissions = (Long) ratingTotals[0];
 
         Long totalPlays = playHistoryRepository.countTotalPlaysByArtist(artist);
 
-        Double averageRating = submissions.stream()
-                .map(s -> s.getAverageRating() != null ? s.getAverageRating().doubleValue() : 0.0)
-                .filter(r -> r > 0)
-                .mapToDouble(Double::doubleValue)
-                .average()
-                .orElse(0.0);
+        Double averageRating = ratingTotals[1] != null ? ((Number) ratingTotals[1]).doubleValue() : 0.0;
 
-        Integer totalRatings = submissions.stream()
-                .mapToInt(s -> s.getTotalRatings() != null ? s.getTotalRatings() : 0)
-                .sum();
+        Integer totalRatings = ((Number) ratingTotals[2]).intValue();
 
         // For now, we don't have a SigningRequest entity, so we'll return 0
         Integer signingRequests = 0;
@@ -61,18 +57,14 @@ public class AnalyticsService {
 
         List<Object[]> topSubmissionsData = playHistoryRepository.findTopSubmissionsByArtist(artist, PageRequest.of(0, 5));
         List<AnalyticsDto.TopSubmission> topSubmissions = topSubmissionsData.stream()
-                .map(row -> {
-                    Submission sub = (Submission) row[0];
-                    Long playCount = (Long) row[1];
-                    return AnalyticsDto.TopSubmission.builder()
-                            .id(sub.getId())
-                            .title(sub.getTitle())
-                            .artistName(sub.getArtistName())
-                            .playCount(playCount)
-                            .averageRating(sub.getAverageRating() != null ? sub.getAverageRating().doubleValue() : null)
-                            .totalRatings(sub.getTotalRatings())
-                            .build();
-                })
+                .map(row -> AnalyticsDto.TopSubmission.builder()
+                        .id((Long) row[0])
+                        .title((String) row[1])
+                        .artistName((String) row[2])
+                        .playCount((Long) row[5])
+                        .averageRating(row[3] != null ? ((BigDecimal) row[3]).doubleValue() : null)
+                        .totalRatings((Integer) row[4])
+                        .build())
                 .collect(Collectors.toList());
 
         return AnalyticsDto.ArtistAnalytics.builder()
@@ -100,16 +92,9 @@ public class AnalyticsService {
                         row -> (Long) row[1]
                 ));
 
-        List<Submission> recentlyReviewedSubmissions = ratingRepository.findRecentlyRatedSubmissionsByLabel(label.getId(), PageRequest.of(0, 5));
+        List<SubmissionSummaryDto> recentlyReviewedSubmissions = ratingRepository.findRecentlyRatedSubmissionsByLabel(label.getId(), PageRequest.of(0, 5));
         List<AnalyticsDto.TopSubmission> recentlyReviewed = recentlyReviewedSubmissions.stream()
-                .map(sub -> AnalyticsDto.TopSubmission.builder()
-                        .id(sub.getId())
-                        .title(sub.getTitle())
-                        .artistName(sub.getArtistName())
-                        .playCount(sub.getPlayCount() != null ? sub.getPlayCount().longValue() : 0L)
-                        .averageRating(sub.getAverageRating() != null ? sub.getAverageRating().doubleValue() : null)
-                        .totalRatings(sub.getTotalRatings())
-                        .build())
+                .map(this::toTopSubmission)
                 .collect(Collectors.toList());
 
         return AnalyticsDto.LabelAnalytics.builder()
@@ -143,28 +128,14 @@ public class AnalyticsService {
                         .build())
                 .collect(Collectors.toList());
 
-        List<Submission> topRated = submissionRepository.findTopRatedSubmissions(PageRequest.of(0, 10));
+        List<SubmissionSummaryDto> topRated = submissionRepository.findTopRatedSubmissions(PageRequest.of(0, 10));
         List<AnalyticsDto.TopSubmission> topRatedSubmissions = topRated.stream()
-                .map(sub -> AnalyticsDto.TopSubmission.builder()
-                        .id(sub.getId())
-                        .title(sub.getTitle())
-                        .artistName(sub.getArtistName())
-                        .playCount(sub.getPlayCount() != null ? sub.getPlayCount().longValue() : 0L)
-                        .averageRating(sub.getAverageRating() != null ? sub.getAverageRating().doubleValue() : null)
-                        .totalRatings(sub.getTotalRatings())
-                        .build())
+                .map(this::toTopSubmission)
                 .collect(Collectors.toList());
 
-        List<Submission> mostPlayed = submissionRepository.findMostPlayedSubmissions(PageRequest.of(0, 10));
+        List<SubmissionSummaryDto> mostPlayed = submissionRepository.findMostPlayedSubmissions(PageRequest.of(0, 10));
         List<AnalyticsDto.TopSubmission> mostPlayedSubmissions = mostPlayed.stream()
-                .map(sub -> AnalyticsDto.TopSubmission.builder()
-                        .id(sub.getId())
-                        .title(sub.getTitle())
-                        .artistName(sub.getArtistName())
-                        .playCount(sub.getPlayCount() != null ? sub.getPlayCount().longValue() : 0L)
-                        .averageRating(sub.getAverageRating() != null ? sub.getAverageRating().doubleValue() : null)
-                        .totalRatings(sub.getTotalRatings())
-                        .build())
+                .map(this::toTopSubmission)
                 .collect(Collectors.toList());
 
         return AnalyticsDto.PlatformAnalytics.builder()
@@ -177,4 +148,15 @@ public class AnalyticsService {
                 .mostPlayedSubmissions(mostPlayedSubmissions)
                 .build();
     }
+
+    private AnalyticsDto.TopSubmission toTopSubmission(SubmissionSummaryDto sub) {
+        return AnalyticsDto.TopSubmission.builder()
+                .id(sub.getId())
+                .title(sub.getTitle())
+                .artistName(sub.getArtistName())
+                .playCount(sub.getPlayCount() != null ? sub.getPlayCount().longValue() : 0L)
+                .averageRating(sub.getAverageRating() != null ? sub.getAverageRating().doubleValue() : null)
+                .totalRatings(sub.getTotalRatings())
+                .build();
+    }
 }
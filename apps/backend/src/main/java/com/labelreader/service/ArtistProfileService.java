@@ -4,9 +4,11 @@ import com.labelreader.dto.ArtistProfileDto;
 import com.labelreader.dto.UpdateArtistProfileRequest;
 import com.labelreader.entity.ArtistProfile;
 import com.labelreader.entity.User;
+import com.labelreader.event.UserChangedEvent;
 import com.labelreader.repository.ArtistProfileRepository;
 import com.labelreader.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +18,7 @@ public class ArtistProfileService {
 
     private final ArtistProfileRepository artistProfileRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ArtistProfileDto getProfile(Long userId) {
         ArtistProfile profile = artistProfileRepository.findByUserId(userId)
@@ -51,6 +54,7 @@ public class ArtistProfileService {
 
         artistProfileRepository.save(profile);
         userRepository.save(user);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
 
         return mapToDto(profile);
     }
@@ -1,11 +1,13 @@
 package com.labelreader.service;
 
 import com.labelreader.dto.ArtistStatsDto;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.entity.ArtistProfile;
 import com.labelreader.entity.Submission;
 import com.labelreader.repository.ArtistProfileRepository;
 import com.labelreader.repository.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -23,7 +25,8 @@ public class ArtistStatsService {
         ArtistProfile profile = artistProfileRepository.findByUserId(userId)
                 .orElseThrow(() -> new RuntimeException("Artist profile not found"));
 
-        List<Submission> submissions = submissionRepository.findByArtistId(userId, null).getContent();
+        List<SubmissionSummaryDto> submissions = submissionRepository.findSummariesByArtistId(userId, Pageable.unpaged())
+                .getContent();
 
         int pendingCount = (int) submissions.stream()
                 .filter(s -> s.getSubmissionStatus() == Submission.SubmissionStatus.PENDING)
@@ -38,7 +41,7 @@ public class ArtistStatsService {
                 .count();
 
         BigDecimal avgRating = submissions.stream()
-                .map(Submission::getAverageRating)
+                .map(SubmissionSummaryDto::getAverageRating)
                 .filter(rating -> rating != null && rating.compareTo(BigDecimal.ZERO) > 0)
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
                 .divide(BigDecimal.valueOf(Math.max(1, submissions.size())), 2, RoundingMode.HALF_UP);
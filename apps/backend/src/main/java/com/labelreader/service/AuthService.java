@@ -6,36 +6,69 @@ import com.labelreader.dto.RegisterRequest;
 import com.labelreader.entity.ArtistProfile;
 import com.labelreader.entity.LabelProfile;
 import com.labelreader.entity.User;
+import com.labelreader.event.LabelProfileChangedEvent;
 import com.labelreader.repository.ArtistProfileRepository;
 import com.labelreader.repository.LabelProfileRepository;
 import com.labelreader.repository.UserRepository;
 import com.labelreader.security.JwtUtil;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import com.labelreader.security.PasswordHasher;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
-@RequiredArgsConstructor
 public class AuthService {
 
     private final UserRepository userRepository;
     private final ArtistProfileRepository artistProfileRepository;
     private final LabelProfileRepository labelProfileRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
+    private final RefreshTokenService refreshTokenService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    public AuthService(UserRepository userRepository,
+                       ArtistProfileRepository artistProfileRepository,
+                       LabelProfileRepository labelProfileRepository,
+                       PasswordHasher passwordHasher,
+                       JwtUtil jwtUtil,
+                       RefreshTokenService refreshTokenService,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.artistProfileRepository = artistProfileRepository;
+        this.labelProfileRepository = labelProfileRepository;
+        this.passwordHasher = passwordHasher;
+        this.jwtUtil = jwtUtil;
+        this.refreshTokenService = refreshTokenService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Hashes the password before the transaction starts, so a registration
+     * waiting on the hashing pool does not hold a database connection.
+     */
     public AuthResponse register(RegisterRequest request) {
         // Check if email already exists
         if (userRepository.existsByEmail(request.getEmail())) {
             throw new RuntimeException("Email already registered");
         }
 
+        String passwordHash = passwordHasher.encode(request.getPassword());
+        return transactionTemplate.execute(status -> persist(request, passwordHash));
+    }
+
+    private AuthResponse persist(RegisterRequest request, String passwordHash) {
         // Create user
         User user = User.builder()
                 .email(request.getEmail())
-                .passwordHash(passwordEncoder.encode(request.getPassword()))
+                .passwordHash(passwordHash)
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .userType(User.UserType.valueOf(request.getUserType()))
@@ -65,30 +98,17 @@ public class AuthService {
                     .totalSigned(0)
                     .build();
             labelProfileRepository.save(profile);
+            eventPublisher.publishEvent(new LabelProfileChangedEvent(profile));
         }
 
-        // Generate tokens
-        String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getUserType().name());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
-
-        return AuthResponse.builder()
-                .accessToken(accessToken)
-                .refreshToken(refreshToken)
-                .user(AuthResponse.UserDto.builder()
-                        .id(user.getId())
-                        .email(user.getEmail())
-                        .firstName(user.getFirstName())
-                        .lastName(user.getLastName())
-                        .userType(user.getUserType().name())
-                        .build())
-                .build();
+        return issueTokens(user);
     }
 
     public AuthResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPasswordHash())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPasswordHash())) {
             throw new RuntimeException("Invalid credentials");
         }
 
@@ -96,9 +116,42 @@ public class AuthService {
             throw new RuntimeException("Account is deactivated");
         }
 
-        // Generate tokens
+        rehashIfNeeded(user, request.getPassword());
+        return issueTokens(user);
+    }
+
+    /**
+     * Upgrades a hash made with an older cost factor while the plain password
+     * is at hand. Skipped when the hashing pool is busy; a later login retries.
+     */
+    private void rehashIfNeeded(User user, String rawPassword) {
+        if (!passwordHasher.needsRehash(user.getPasswordHash())) {
+            return;
+        }
+        try {
+            user.setPasswordHash(passwordHasher.encode(rawPassword));
+            userRepository.save(user);
+        } catch (ResponseStatusException e) {
+            // Keep the old hash for now
+        }
+    }
+
+    /**
+     * Exchanges a refresh token for a new access and refresh token pair. The
+     * presented token is revoked even when the exchange is refused.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public AuthResponse refresh(String refreshToken) {
+        Long userId = refreshTokenService.redeem(refreshToken);
+        User user = userRepository.findById(userId)
+                .filter(User::getIsActive)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token"));
+        return issueTokens(user);
+    }
+
+    private AuthResponse issueTokens(User user) {
         String accessToken = jwtUtil.generateAccessToken(user.getId(), user.getEmail(), user.getUserType().name());
-        String refreshToken = jwtUtil.generateRefreshToken(user.getId());
+        String refreshToken = refreshTokenService.issue(user.getId());
 
         return AuthResponse.builder()
                 .accessToken(accessToken)
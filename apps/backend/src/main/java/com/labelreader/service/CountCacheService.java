@@ -0,0 +1,86 @@
+package com.labelreader.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Short-lived cache of list totals keyed by the normalized filter parameters,
+ * so slice responses can report an approximate total without running a
+ * {@code COUNT(*)} for every page. The cache is size bounded, so a full cache
+ * evicts its least useful entries one at a time rather than dropping them all.
+ */
+@Service
+public class CountCacheService {
+
+    @Value("${list.count-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    @Value("${list.count-cache.max-entries:10000}")
+    private long maxEntries;
+
+    private Cache<String, Long> counts;
+
+    @PostConstruct
+    public void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Returns the cached total for the scope and filter parameters, given as
+     * alternating names and values, running the counter only when there is no
+     * fresh entry. Null and blank values are ignored, strings are compared
+     * case-insensitively and collections regardless of order. Concurrent
+     * misses on the same key share a single count.
+     */
+    public long count(String scope, LongSupplier counter, Object... params) {
+        return counts.get(key(scope, params), key -> counter.getAsLong());
+    }
+
+    long size() {
+        counts.cleanUp();
+        return counts.estimatedSize();
+    }
+
+    static String key(String scope, Object... params) {
+        if (params.length % 2 != 0) {
+            throw new IllegalArgumentException("Parameters must be name and value pairs");
+        }
+        Map<String, String> normalized = new TreeMap<>();
+        for (int i = 0; i < params.length; i += 2) {
+            String text = normalize(params[i + 1]);
+            if (!text.isEmpty()) {
+                normalized.put(params[i].toString(), text);
+            }
+        }
+        return scope + normalized;
+    }
+
+    private static String normalize(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof Collection<?> values) {
+            return values.stream()
+                    .map(CountCacheService::normalize)
+                    .filter(text -> !text.isEmpty())
+                    .sorted()
+                    .distinct()
+                    .collect(Collectors.joining(","));
+        }
+        return value.toString().trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,249 @@
+package com.labelreader.service;
+
+import com.labelreader.dto.AnalyticsDto;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionPlayedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes incremental analytics deltas to connected artist dashboards over
+ * Server-Sent Events. Deltas are derived from in-process domain events, so an
+ * open dashboard no longer has to re-poll the analytics queries.
+ * <p>
+ * Each connection has a bounded buffer; all connections are drained by a small
+ * shared scheduler pool that also sends heartbeats.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DashboardStreamService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${dashboard.stream.max-connections:1000}")
+    private int maxConnections;
+
+    @Value("${dashboard.stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${dashboard.stream.buffer-size:100}")
+    private int bufferSize;
+
+    @Value("${dashboard.stream.dispatcher-threads:2}")
+    private int dispatcherThreads;
+
+    @Value("${dashboard.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${dashboard.stream.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    private final Map<Long, Set<Connection>> connectionsByArtist = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private ScheduledExecutorService dispatcher;
+    private Counter deltasSent;
+    private Counter overflowDisconnects;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        dispatcher = Executors.newScheduledThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "dashboard-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        Gauge.builder("dashboard.stream.connections", totalConnections, AtomicInteger::get)
+                .description("Open artist dashboard SSE connections")
+                .register(meterRegistry);
+        deltasSent = meterRegistry.counter("dashboard.stream.deltas.sent");
+        overflowDisconnects = meterRegistry.counter("dashboard.stream.overflow.disconnects");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        connectionsByArtist.values().forEach(connections -> connections.forEach(c -> c.emitter.complete()));
+        connectionsByArtist.clear();
+    }
+
+    public SseEmitter subscribe(Long artistId) {
+        if (totalConnections.incrementAndGet() > maxConnections) {
+            totalConnections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Dashboard stream capacity reached");
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Connection connection = new Connection(artistId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        // Check the per-user cap and add in one step so concurrent subscribes cannot both pass it
+        boolean[] added = {false};
+        connectionsByArtist.compute(artistId, (id, connections) -> {
+            Set<Connection> set = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                added[0] = set.add(connection);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            totalConnections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many dashboard streams for this user");
+        }
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+
+        enqueue(connection, SseEmitter.event().name("connected").data(Map.of("artistId", artistId)));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionPlayed(SubmissionPlayedEvent event) {
+        Submission submission = event.getSubmission();
+        publish(submission.getArtistId(), AnalyticsDto.DashboardDelta.builder()
+                .type("play")
+                .submissionId(submission.getId())
+                .title(submission.getTitle())
+                .playCount(submission.getPlayCount())
+                .occurredAt(event.getPlayedAt() != null ? event.getPlayedAt() : LocalDateTime.now())
+                .build());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRated(SubmissionRatedEvent event) {
+        Submission submission = event.getSubmission();
+        publish(submission.getArtistId(), AnalyticsDto.DashboardDelta.builder()
+                .type("rating")
+                .submissionId(submission.getId())
+                .title(submission.getTitle())
+                .rating(event.getRating())
+                .averageRating(submission.getAverageRating())
+                .totalRatings(submission.getTotalRatings())
+                .newRating(event.isNewRating())
+                .occurredAt(LocalDateTime.now())
+                .build());
+    }
+
+    int getConnectionCount() {
+        return totalConnections.get();
+    }
+
+    private void publish(Long artistId, AnalyticsDto.DashboardDelta delta) {
+        Set<Connection> connections = connectionsByArtist.get(artistId);
+        if (connections == null || connections.isEmpty()) {
+            return;
+        }
+        for (Connection connection : connections) {
+            enqueue(connection, SseEmitter.event().name(delta.getType()).data(delta));
+        }
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.buffer.offer(event)) {
+            // The client is not keeping up; drop it so it reconnects and reloads a fresh snapshot
+            overflowDisconnects.increment();
+            log.debug("Dashboard stream buffer overflow for artist {}", connection.artistId);
+            close(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.closed.get() && (event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+                deltasSent.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(connection);
+        } finally {
+            connection.draining.set(false);
+            if (!connection.closed.get() && !connection.buffer.isEmpty()) {
+                scheduleDrain(connection);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Connection> connections : connectionsByArtist.values()) {
+            for (Connection connection : connections) {
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        if (unregister(connection)) {
+            connection.emitter.complete();
+        }
+    }
+
+    private boolean unregister(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        totalConnections.decrementAndGet();
+        connection.buffer.clear();
+        connectionsByArtist.computeIfPresent(connection.artistId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        return true;
+    }
+
+    private static final class Connection {
+        private final Long artistId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Long artistId, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> buffer) {
+            this.artistId = artistId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
@@ -1,42 +1,83 @@
 package com.labelreader.service;
 
+import com.labelreader.dto.CursorPageDto;
+import com.labelreader.dto.FacetedSearchDto;
+import com.labelreader.dto.SliceDto;
 import com.labelreader.dto.SubmissionDto;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.entity.Submission;
+import com.labelreader.index.FacetQuery;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
+import com.labelreader.repository.SubmissionCriteria;
 import com.labelreader.repository.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class DiscoveryService {
 
     private final SubmissionRepository submissionRepository;
+    private final FacetIndexService facetIndexService;
+    private final SearchIndexService searchIndexService;
+    private final CountCacheService countCacheService;
+    private final LabelFeedService labelFeedService;
+    private final QueryResultCache queryResultCache;
 
-    public Page<SubmissionDto> discoverSubmissions(
+    public Page<SubmissionSummaryDto> discoverSubmissions(
             String genre,
             Submission.SubmissionStatus status,
             Pageable pageable) {
 
-        Page<Submission> submissions;
+        boolean hasGenre = genre != null && !genre.isEmpty();
+        if (hasGenre && status == Submission.SubmissionStatus.APPROVED && facetIndexService.isReady()) {
+            return filterSubmissions(List.of(genre), null, null, null, pageable);
+        }
+
+        String genreFilter = hasGenre ? genre : null;
+        QueryResultCache.Entry ids = queryResultCache.get(
+                pageKey("discover", pageable, "genre", genreFilter, "status", status),
+                List.of(QueryResultCache.tag(genreFilter, status)),
+                () -> toEntry(submissionRepository.findSummaryIds(genreFilter, status, pageable)));
+        return toPage(ids, pageable);
+    }
 
-        if (genre != null && !genre.isEmpty()) {
-            // Filter by genre (you can enhance this with custom query)
-            submissions = submissionRepository.findAll(pageable);
-        } else if (status != null) {
-            submissions = submissionRepository.findBySubmissionStatus(status, pageable);
-        } else {
-            submissions = submissionRepository.findAll(pageable);
+    /**
+     * The label's personalized feed of approved submissions it has not rated,
+     * best match first. Newest approved submissions stand in until the feed
+     * catalog has loaded.
+     */
+    public Page<SubmissionSummaryDto> discoverForLabel(Long labelId, Pageable pageable) {
+        if (!labelFeedService.isReady()) {
+            return submissionRepository.findSummaries(null, Submission.SubmissionStatus.APPROVED,
+                    PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                            SubmissionSort.pageSort("createdAt", "DESC")));
         }
 
-        return submissions.map(this::mapToDto);
+        LabelFeedService.Result result = labelFeedService.page(labelId, pageable.getOffset(), pageable.getPageSize());
+        return new PageImpl<>(hydrate(result.getIds()), pageable, result.getTotal());
     }
 
-    public Page<SubmissionDto> searchSubmissions(
+    public Page<SubmissionSummaryDto> searchSubmissions(
             String query,
             String genre,
             Integer minBpm,
@@ -45,54 +86,306 @@ public class DiscoveryService {
             LocalDateTime endDate,
             Pageable pageable) {
 
-        Page<Submission> submissions = submissionRepository.searchSubmissions(
-                query, genre, minBpm, maxBpm, startDate, endDate, pageable);
-
-        return submissions.map(this::mapToDto);
+        QueryResultCache.Entry ids = queryResultCache.get(
+                pageKey("search", pageable, "query", query, "genre", genre, "minBpm", minBpm, "maxBpm", maxBpm,
+                        "startDate", startDate, "endDate", endDate),
+                List.of(QueryResultCache.tag(genre, Submission.SubmissionStatus.APPROVED)),
+                () -> {
+                    if (searchIndexService.isReady()) {
+                        SearchIndexService.Result result = searchIndexService.search(
+                                query, genre, minBpm, maxBpm, startDate, endDate, pageable);
+                        return new QueryResultCache.Entry(result.getIds(), result.getTotal());
+                    }
+                    return toEntry(submissionRepository.searchSubmissionIds(
+                            query, genre, minBpm, maxBpm, startDate, endDate, nativeSearchPage(pageable)));
+                });
+        return toPage(ids, pageable);
     }
 
-    public Page<SubmissionDto> filterSubmissions(
+    public Page<SubmissionSummaryDto> filterSubmissions(
             List<String> genres,
             Integer minBpm,
             Integer maxBpm,
             Double minRating,
             Pageable pageable) {
 
-        Page<Submission> submissions = submissionRepository.findByFilters(
+        List<String> tags = genres == null || genres.isEmpty()
+                ? List.of(QueryResultCache.tag(null, Submission.SubmissionStatus.APPROVED))
+                : genres.stream()
+                        .map(genre -> QueryResultCache.tag(genre, Submission.SubmissionStatus.APPROVED))
+                        .distinct()
+                        .collect(Collectors.toList());
+
+        QueryResultCache.Entry ids = queryResultCache.get(
+                pageKey("filter", pageable, "genres", genres, "minBpm", minBpm, "maxBpm", maxBpm,
+                        "minRating", minRating),
+                tags,
+                () -> {
+                    if (!facetIndexService.isReady()) {
+                        return toEntry(submissionRepository.findIdsByFilters(
+                                genres, minBpm, maxBpm, minRating, pageable));
+                    }
+                    FacetQuery query = FacetQuery.builder()
+                            .genres(genres)
+                            .minBpm(minBpm)
+                            .maxBpm(maxBpm)
+                            .minRating(minRating)
+                            .build();
+                    FacetIndexService.Result result = facetIndexService.search(query, pageable, false);
+                    return new QueryResultCache.Entry(result.getIds(), result.getTotal());
+                });
+        return toPage(ids, pageable);
+    }
+
+    public SliceDto<SubmissionSummaryDto> discoverSubmissionsSlice(
+            String genre,
+            Submission.SubmissionStatus status,
+            Pageable pageable,
+            boolean includeTotal) {
+
+        boolean hasGenre = genre != null && !genre.isEmpty();
+        if (hasGenre && status == Submission.SubmissionStatus.APPROVED && facetIndexService.isReady()) {
+            return filterSubmissionsSlice(List.of(genre), null, null, null, pageable, includeTotal);
+        }
+
+        String genreFilter = hasGenre ? genre : null;
+        Slice<SubmissionSummaryDto> submissions = submissionRepository.findSummarySlice(genreFilter, status, pageable);
+
+        Long total = includeTotal
+                ? countCacheService.count("discover",
+                        () -> submissionRepository.countSummaries(genreFilter, status),
+                        "genre", genre, "status", status)
+                : null;
+        return toSliceDto(submissions.getContent(), pageable, submissions.hasNext(), total);
+    }
+
+    public SliceDto<SubmissionSummaryDto> searchSubmissionsSlice(
+            String query,
+            String genre,
+            Integer minBpm,
+            Integer maxBpm,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Pageable pageable,
+            boolean includeTotal) {
+
+        if (searchIndexService.isReady()) {
+            // The index counts hits cheaply, so its total is exact
+            SearchIndexService.Result result = searchIndexService.search(
+                    query, genre, minBpm, maxBpm, startDate, endDate, pageable);
+            boolean hasNext = pageable.getOffset() + pageable.getPageSize() < result.getTotal();
+            return toSliceDto(hydrate(result.getIds()), pageable, hasNext, includeTotal ? result.getTotal() : null);
+        }
+
+        Slice<Long> ids = submissionRepository.searchSubmissionIdsSlice(
+                query, genre, minBpm, maxBpm, startDate, endDate, nativeSearchPage(pageable));
+
+        Long total = includeTotal
+                ? countCacheService.count("search",
+                        () -> submissionRepository.countSearchSubmissions(query, genre, minBpm, maxBpm, startDate, endDate),
+                        "query", query, "genre", genre, "minBpm", minBpm, "maxBpm", maxBpm,
+                        "startDate", startDate, "endDate", endDate)
+                : null;
+        return toSliceDto(hydrate(ids.getContent()), pageable, ids.hasNext(), total);
+    }
+
+    public SliceDto<SubmissionSummaryDto> filterSubmissionsSlice(
+            List<String> genres,
+            Integer minBpm,
+            Integer maxBpm,
+            Double minRating,
+            Pageable pageable,
+            boolean includeTotal) {
+
+        if (facetIndexService.isReady()) {
+            FacetQuery query = FacetQuery.builder()
+                    .genres(genres)
+                    .minBpm(minBpm)
+                    .maxBpm(maxBpm)
+                    .minRating(minRating)
+                    .build();
+            FacetIndexService.Result result = facetIndexService.search(query, pageable, false);
+            boolean hasNext = pageable.getOffset() + pageable.getPageSize() < result.getTotal();
+            return toSliceDto(hydrate(result.getIds()), pageable, hasNext, includeTotal ? result.getTotal() : null);
+        }
+
+        Slice<SubmissionSummaryDto> submissions = submissionRepository.findSummarySliceByFilters(
                 genres, minBpm, maxBpm, minRating, pageable);
 
-        return submissions.map(this::mapToDto);
+        Long total = includeTotal
+                ? countCacheService.count("filter",
+                        () -> submissionRepository.countByFilters(genres, minBpm, maxBpm, minRating),
+                        "genres", genres, "minBpm", minBpm, "maxBpm", maxBpm, "minRating", minRating)
+                : null;
+        return toSliceDto(submissions.getContent(), pageable, submissions.hasNext(), total);
+    }
+
+    public CursorPageDto<SubmissionSummaryDto> discoverSubmissions(
+            String genre,
+            Submission.SubmissionStatus status,
+            SubmissionSort sort,
+            String cursor,
+            int size) {
+
+        SubmissionCriteria criteria = SubmissionCriteria.builder()
+                .genres(genre != null && !genre.isEmpty() ? List.of(genre) : null)
+                .status(status)
+                .build();
+        return keysetPage(criteria, sort, cursor, size);
+    }
+
+    public CursorPageDto<SubmissionSummaryDto> filterSubmissions(
+            List<String> genres,
+            Integer minBpm,
+            Integer maxBpm,
+            Double minRating,
+            SubmissionSort sort,
+            String cursor,
+            int size) {
+
+        SubmissionCriteria criteria = SubmissionCriteria.builder()
+                .status(Submission.SubmissionStatus.APPROVED)
+                .genres(genres)
+                .minBpm(minBpm)
+                .maxBpm(maxBpm)
+                .minRating(minRating)
+                .build();
+        return keysetPage(criteria, sort, cursor, size);
+    }
+
+    public CursorPageDto<SubmissionSummaryDto> searchSubmissions(
+            String query,
+            String genre,
+            Integer minBpm,
+            Integer maxBpm,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            SubmissionSort sort,
+            String cursor,
+            int size) {
+
+        if (!searchIndexService.isReady()) {
+            throw new IndexLoadingException("Search index is still loading");
+        }
+
+        SearchIndexService.Result result = searchIndexService.searchAfter(
+                query, genre, minBpm, maxBpm, startDate, endDate, sort, Cursor.decode(cursor, sort), size + 1);
+
+        boolean hasNext = result.getIds().size() > size;
+        List<Long> ids = hasNext ? result.getIds().subList(0, size) : result.getIds();
+        return CursorPageDto.<SubmissionSummaryDto>builder()
+                .content(hydrate(ids))
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext
+                        ? new Cursor(sort, result.getKeys().get(size - 1), ids.get(size - 1)).encode()
+                        : null)
+                .build();
+    }
+
+    public FacetedSearchDto facetedSearch(FacetQuery query, Pageable pageable) {
+        if (!facetIndexService.isReady()) {
+            throw new IndexLoadingException("Facet index is still loading");
+        }
+
+        FacetIndexService.Result result = facetIndexService.search(query, pageable, true);
+        return FacetedSearchDto.builder()
+                .content(hydrate(result.getIds()))
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .totalElements(result.getTotal())
+                .facets(result.getFacets())
+                .build();
     }
 
     public SubmissionDto getSubmissionForReview(Long submissionId) {
         Submission submission = submissionRepository.findById(submissionId)
                 .orElseThrow(() -> new RuntimeException("Submission not found"));
 
-        return mapToDto(submission);
-    }
-
-    private SubmissionDto mapToDto(Submission submission) {
-        return SubmissionDto.builder()
-                .id(submission.getId())
-                .artistId(submission.getArtistId())
-                .title(submission.getTitle())
-                .artistName(submission.getArtistName())
-                .genre(submission.getGenre())
-                .subGenre(submission.getSubGenre())
-                .bpm(submission.getBpm())
-                .keySignature(submission.getKeySignature())
-                .filePath(submission.getFilePath())
-                .fileSizeBytes(submission.getFileSizeBytes())
-                .durationSeconds(submission.getDurationSeconds())
-                .description(submission.getDescription())
-                .lyrics(submission.getLyrics())
-                .isPublished(submission.getIsPublished())
-                .submissionStatus(submission.getSubmissionStatus().name())
-                .playCount(submission.getPlayCount())
-                .averageRating(submission.getAverageRating())
-                .totalRatings(submission.getTotalRatings())
-                .createdAt(submission.getCreatedAt())
-                .updatedAt(submission.getUpdatedAt())
+        return SubmissionDto.fromEntity(submission);
+    }
+
+    private SliceDto<SubmissionSummaryDto> toSliceDto(
+            List<SubmissionSummaryDto> content, Pageable pageable, boolean hasNext, Long approximateTotal) {
+
+        return SliceDto.<SubmissionSummaryDto>builder()
+                .content(content)
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .hasNext(hasNext)
+                .approximateTotal(approximateTotal)
                 .build();
     }
+
+    private CursorPageDto<SubmissionSummaryDto> keysetPage(
+            SubmissionCriteria criteria, SubmissionSort sort, String cursor, int size) {
+
+        if (sort == SubmissionSort.RELEVANCE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Relevance order requires a search query");
+        }
+        List<SubmissionSummaryDto> rows = submissionRepository.findPage(
+                criteria, sort, Cursor.decode(cursor, sort), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<SubmissionSummaryDto> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDto.<SubmissionSummaryDto>builder()
+                .content(page)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? Cursor.after(sort, page.get(page.size() - 1)).encode() : null)
+                .build();
+    }
+
+    /**
+     * Cache key for one page of a list query: the normalized filters plus the
+     * page number, size and sort.
+     */
+    private static String pageKey(String scope, Pageable pageable, Object... params) {
+        Object[] keyParams = Arrays.copyOf(params, params.length + 6);
+        keyParams[params.length] = "page";
+        keyParams[params.length + 1] = pageable.getPageNumber();
+        keyParams[params.length + 2] = "size";
+        keyParams[params.length + 3] = pageable.getPageSize();
+        keyParams[params.length + 4] = "sort";
+        keyParams[params.length + 5] = pageable.getSort();
+        return CountCacheService.key(scope, keyParams);
+    }
+
+    private static QueryResultCache.Entry toEntry(Page<Long> ids) {
+        return new QueryResultCache.Entry(ids.getContent(), ids.getTotalElements());
+    }
+
+    private Page<SubmissionSummaryDto> toPage(QueryResultCache.Entry ids, Pageable pageable) {
+        return new PageImpl<>(hydrate(ids.getIds()), pageable, ids.getTotal());
+    }
+
+    private List<SubmissionSummaryDto> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Only the card columns of the requested page are loaded from the database
+        Map<Long, SubmissionSummaryDto> byId = submissionRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(SubmissionSummaryDto::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The MySQL fallback is a native query, so sort properties are mapped to
+     * column names. Relevance only exists in the search index; newest first
+     * stands in for it.
+     */
+    private static Pageable nativeSearchPage(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> !order.getProperty().equals("relevance"))
+                .map(order -> order.withProperty(
+                        order.getProperty().replaceAll("([a-z])([A-Z])", "$1_$2").toLowerCase()))
+                .collect(Collectors.toList());
+        Sort sort = orders.isEmpty()
+                ? Sort.by(Sort.Order.desc("created_at"), Sort.Order.desc("id"))
+                : Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
 }
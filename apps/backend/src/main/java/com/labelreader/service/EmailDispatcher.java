@@ -0,0 +1,231 @@
+package com.labelreader.service;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.Refill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends mail over a small pool of long-lived SMTP connections. Messages are
+ * queued; each connection thread takes whatever has accumulated, up to a
+ * batch, and sends it over its open transport, so a burst costs one
+ * handshake per connection instead of one per message. Connections are
+ * closed after sitting idle and reopened on demand. Sends are paced by a
+ * token bucket shared by all connections to stay within the relay's limits.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EmailDispatcher {
+
+    private final JavaMailSenderImpl mailSender;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${email.dispatcher.connections:2}")
+    private int connections;
+
+    @Value("${email.dispatcher.batch-size:20}")
+    private int batchSize;
+
+    @Value("${email.dispatcher.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${email.dispatcher.idle-timeout-seconds:30}")
+    private long idleTimeoutSeconds;
+
+    @Value("${email.dispatcher.rate-per-second:10}")
+    private long ratePerSecond;
+
+    @Value("${email.dispatcher.send-timeout-seconds:60}")
+    private long sendTimeoutSeconds;
+
+    private BlockingQueue<Pending> queue;
+    private ExecutorService senders;
+    private Bucket rate;
+    private Timer sendTimer;
+    private Counter connectionsOpened;
+    private Counter failures;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        rate = Bucket.builder()
+                .addLimit(Bandwidth.classic(ratePerSecond, Refill.greedy(ratePerSecond, Duration.ofSeconds(1))))
+                .build();
+
+        sendTimer = Timer.builder("email.send")
+                .description("Time to hand one message to the SMTP relay")
+                .register(meterRegistry);
+        connectionsOpened = Counter.builder("email.connections.opened")
+                .description("SMTP connections opened")
+                .register(meterRegistry);
+        failures = Counter.builder("email.failed")
+                .description("Messages the SMTP relay did not accept")
+                .register(meterRegistry);
+        Gauge.builder("email.queue.size", queue, BlockingQueue::size)
+                .description("Messages waiting for an SMTP connection")
+                .register(meterRegistry);
+
+        running = true;
+        AtomicInteger threadNumber = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "smtp-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < connections; i++) {
+            senders.execute(this::runConnection);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        senders.shutdownNow();
+    }
+
+    /**
+     * Queues the message and waits until the relay has accepted it.
+     *
+     * @throws MailSendException when the queue is full, the relay rejects
+     *                           the message or it is not sent in time
+     */
+    public void send(SimpleMailMessage message) {
+        Pending pending = new Pending(message);
+        if (!queue.offer(pending)) {
+            throw new MailSendException("Email queue is full");
+        }
+        try {
+            pending.result.get(sendTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof MailSendException mailSendException
+                    ? mailSendException
+                    : new MailSendException("Sending failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new MailSendException("Timed out waiting for the SMTP relay");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while sending");
+        }
+    }
+
+    private void runConnection() {
+        Transport transport = null;
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                Pending first = queue.poll(idleTimeoutSeconds, TimeUnit.SECONDS);
+                if (first == null) {
+                    transport = close(transport);
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                transport = sendBatch(transport, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(new MailSendException("Email dispatcher stopped"));
+            }
+            close(transport);
+        }
+    }
+
+    private Transport sendBatch(Transport transport, List<Pending> batch) throws InterruptedException {
+        for (Pending pending : batch) {
+            rate.asBlocking().consume(1);
+            long start = System.nanoTime();
+            try {
+                MimeMessage mimeMessage = toMime(pending.message);
+                try {
+                    transport = connected(transport);
+                    transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                } catch (MessagingException e) {
+                    if (transport != null && transport.isConnected()) {
+                        throw e;
+                    }
+                    // The relay dropped an idle connection; reconnect once
+                    transport = connected(close(transport));
+                    transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+                }
+                sendTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                pending.result.complete(null);
+            } catch (MessagingException | RuntimeException e) {
+                failures.increment();
+                pending.result.completeExceptionally(new MailSendException("SMTP relay rejected message", e));
+            }
+        }
+        return transport;
+    }
+
+    private Transport connected(Transport transport) throws MessagingException {
+        if (transport != null && transport.isConnected()) {
+            return transport;
+        }
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport opened = mailSender.getSession().getTransport(protocol);
+        opened.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        connectionsOpened.increment();
+        return opened;
+    }
+
+    private MimeMessage toMime(SimpleMailMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        message.copyTo(new MimeMailMessage(mimeMessage));
+        mimeMessage.saveChanges();
+        return mimeMessage;
+    }
+
+    private static Transport close(Transport transport) {
+        if (transport != null) {
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Closing SMTP connection failed: {}", e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private static final class Pending {
+        private final SimpleMailMessage message;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Pending(SimpleMailMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -1,19 +1,20 @@
 package com.labelreader.service;
 
+import com.labelreader.entity.Notification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final EmailDispatcher emailDispatcher;
 
     @Value("${spring.mail.username:noreply@labelreader.com}")
     private String fromEmail;
@@ -21,29 +22,54 @@ public class EmailService {
     @Value("${app.base-url:http://localhost:4200}")
     private String baseUrl;
 
-    @Async
+    /**
+     * Sends synchronously and throws on failure, so the outbox relay can retry.
+     */
     public void sendNotificationEmail(String toEmail, String title, String message, String linkUrl) {
-        try {
-            SimpleMailMessage mailMessage = new SimpleMailMessage();
-            mailMessage.setFrom(fromEmail);
-            mailMessage.setTo(toEmail);
-            mailMessage.setSubject("LabelReader - " + title);
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setFrom(fromEmail);
+        mailMessage.setTo(toEmail);
+        mailMessage.setSubject("LabelReader - " + title);
 
-            String body = message + "\n\n";
-            if (linkUrl != null && !linkUrl.isEmpty()) {
-                body += "View details: " + baseUrl + linkUrl + "\n\n";
-            }
-            body += "---\nThis is an automated notification from LabelReader.";
+        String body = message + "\n\n";
+        if (linkUrl != null && !linkUrl.isEmpty()) {
+            body += "View details: " + baseUrl + linkUrl + "\n\n";
+        }
+        body += "---\nThis is an automated notification from LabelReader.";
 
-            mailMessage.setText(body);
-            mailSender.send(mailMessage);
-            log.info("Email sent successfully to {}", toEmail);
-        } catch (Exception e) {
-            log.error("Failed to send email to {}: {}", toEmail, e.getMessage());
+        mailMessage.setText(body);
+        emailDispatcher.send(mailMessage);
+        log.info("Email sent successfully to {}", toEmail);
+    }
+
+    /**
+     * One email summarizing several notifications. Throws on failure like
+     * {@link #sendNotificationEmail}.
+     */
+    public void sendDigestEmail(String toEmail, List<Notification> notifications) {
+        SimpleMailMessage mailMessage = new SimpleMailMessage();
+        mailMessage.setFrom(fromEmail);
+        mailMessage.setTo(toEmail);
+        mailMessage.setSubject(notifications.size() == 1
+                ? "LabelReader - " + notifications.get(0).getTitle()
+                : "LabelReader - " + notifications.size() + " new notifications");
+
+        StringBuilder body = new StringBuilder();
+        for (Notification notification : notifications) {
+            body.append(notification.getTitle()).append("\n")
+                    .append(notification.getMessage()).append("\n");
+            if (notification.getLinkUrl() != null && !notification.getLinkUrl().isEmpty()) {
+                body.append("View details: ").append(baseUrl).append(notification.getLinkUrl()).append("\n");
+            }
+            body.append("\n");
         }
+        body.append("---\nThis is an automated notification digest from LabelReader.");
+
+        mailMessage.setText(body.toString());
+        emailDispatcher.send(mailMessage);
+        log.info("Digest of {} notifications sent to {}", notifications.size(), toEmail);
     }
 
-    @Async
     public void sendWelcomeEmail(String toEmail, String userName) {
         try {
             SimpleMailMessage mailMessage = new SimpleMailMessage();
@@ -58,7 +84,7 @@ public class EmailService {
                     "The LabelReader Team";
 
             mailMessage.setText(body);
-            mailSender.send(mailMessage);
+            emailDispatcher.send(mailMessage);
             log.info("Welcome email sent to {}", toEmail);
         } catch (Exception e) {
             log.error("Failed to send welcome email to {}: {}", toEmail, e.getMessage());
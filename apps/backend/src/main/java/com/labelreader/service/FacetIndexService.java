@@ -0,0 +1,263 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.event.SubmissionPlayedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import com.labelreader.index.FacetBitmapIndex;
+import com.labelreader.index.FacetQuery;
+import com.labelreader.repository.SubmissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the {@link FacetBitmapIndex} over approved submissions in sync with
+ * submission, rating and play events, and answers filter queries with the ids
+ * of a single page plus facet counts.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FacetIndexService {
+
+    private static final List<String> SORT_PROPERTIES = List.of("createdAt", "averageRating", "bpm", "playCount");
+
+    private final SubmissionRepository submissionRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final FacetBitmapIndex index = new FacetBitmapIndex();
+    private volatile boolean ready;
+    // Changes seen while a rebuild reads its snapshot, replayed on top of it; null values are removals
+    private Map<Integer, FacetBitmapIndex.Document> changedDuringRebuild;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        List<Object[]> rows;
+        try {
+            rows = submissionRepository.findApprovedFacetRows();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            for (Object[] row : rows) {
+                index.upsert(new FacetBitmapIndex.Document(
+                        Math.toIntExact((Long) row[0]),
+                        (String) row[1],
+                        (String) row[2],
+                        (String) row[3],
+                        (Integer) row[4],
+                        toDouble((BigDecimal) row[5]),
+                        row[6] != null ? (Integer) row[6] : 0));
+            }
+            changedDuringRebuild.forEach(this::apply);
+            changedDuringRebuild = null;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Facet index built with {} submissions in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        if (event.getChangeType() == SubmissionChangedEvent.ChangeType.DELETED) {
+            remove(event.getSubmission().getId());
+        } else {
+            update(event.getSubmission());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRated(SubmissionRatedEvent event) {
+        update(event.getSubmission());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionPlayed(SubmissionPlayedEvent event) {
+        update(event.getSubmission());
+    }
+
+    /**
+     * Validates the sortBy parameter of the facet endpoint against the orders
+     * the bitmap index can page by.
+     */
+    public static Sort sort(String sortBy, String sortDir) {
+        if (!SORT_PROPERTIES.contains(sortBy)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Unsupported sortBy: " + sortBy + ", expected one of " + String.join(", ", SORT_PROPERTIES));
+        }
+        Sort.Direction direction = "ASC".equalsIgnoreCase(sortDir) ? Sort.Direction.ASC : Sort.Direction.DESC;
+        return Sort.by(direction, sortBy);
+    }
+
+    public Result search(FacetQuery query, Pageable pageable, boolean withFacets) {
+        FacetBitmapIndex.SortKey sortKey = FacetBitmapIndex.SortKey.ID;
+        boolean ascending = false;
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(null);
+        if (order != null) {
+            sortKey = toSortKey(order.getProperty());
+            ascending = order.isAscending();
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = index.evaluate(query);
+            List<Integer> ids = index.page(matches, sortKey, ascending, pageable.getOffset(), pageable.getPageSize());
+
+            List<Long> pageIds = new ArrayList<>(ids.size());
+            ids.forEach(id -> pageIds.add(id.longValue()));
+
+            Map<String, Map<String, Integer>> facets = null;
+            if (withFacets) {
+                facets = new LinkedHashMap<>();
+                for (Map.Entry<FacetBitmapIndex.Facet, Map<String, Integer>> entry : index.facetCounts(query).entrySet()) {
+                    facets.put(toFacetName(entry.getKey()), entry.getValue());
+                }
+            }
+            return new Result(pageIds, matches.getCardinality(), facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Submission submission) {
+        if (submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+            remove(submission.getId());
+            return;
+        }
+
+        FacetBitmapIndex.Document document = new FacetBitmapIndex.Document(
+                Math.toIntExact(submission.getId()),
+                submission.getGenre(),
+                submission.getSubGenre(),
+                submission.getKeySignature(),
+                submission.getBpm(),
+                toDouble(submission.getAverageRating()),
+                submission.getPlayCount() != null ? submission.getPlayCount() : 0);
+
+        record(document.getId(), document);
+    }
+
+    private void remove(Long submissionId) {
+        record(Math.toIntExact(submissionId), null);
+    }
+
+    private void record(int id, FacetBitmapIndex.Document document) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(id, document);
+            }
+            apply(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(int id, FacetBitmapIndex.Document document) {
+        if (document != null) {
+            index.upsert(document);
+        } else {
+            index.remove(id);
+        }
+    }
+
+    private static FacetBitmapIndex.SortKey toSortKey(String property) {
+        switch (property) {
+            case "averageRating":
+                return FacetBitmapIndex.SortKey.RATING;
+            case "bpm":
+                return FacetBitmapIndex.SortKey.BPM;
+            case "playCount":
+                return FacetBitmapIndex.SortKey.PLAY_COUNT;
+            case "createdAt":
+            case "id":
+                // Identity ids increase with createdAt, so id order stands in for creation order
+                return FacetBitmapIndex.SortKey.ID;
+            default:
+                throw new IllegalArgumentException("Unsupported facet sort: " + property);
+        }
+    }
+
+    private static String toFacetName(FacetBitmapIndex.Facet facet) {
+        switch (facet) {
+            case SUB_GENRE:
+                return "subGenre";
+            case KEY_SIGNATURE:
+                return "keySignature";
+            case BPM:
+                return "bpm";
+            case RATING:
+                return "rating";
+            default:
+                return "genre";
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0.0;
+    }
+
+    public static final class Result {
+        private final List<Long> ids;
+        private final long total;
+        private final Map<String, Map<String, Integer>> facets;
+
+        Result(List<Long> ids, long total, Map<String, Map<String, Integer>> facets) {
+            this.ids = ids;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public Map<String, Map<String, Integer>> getFacets() {
+            return facets;
+        }
+    }
+}
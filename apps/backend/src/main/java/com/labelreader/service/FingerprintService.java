@@ -0,0 +1,317 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.entity.SubmissionFingerprint;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.index.AudioFingerprint;
+import com.labelreader.index.FingerprintIndex;
+import com.labelreader.repository.SubmissionFingerprintRepository;
+import com.labelreader.repository.SubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Near-duplicate detection for uploads. After a submission is created its
+ * audio is decoded in the background, reduced to an {@link AudioFingerprint}
+ * and looked up in an in-memory {@link FingerprintIndex} of every earlier
+ * submission; a close enough match is recorded on the submission for
+ * reviewers. Fingerprints are stored so the index can be rebuilt at startup
+ * without decoding the catalog again.
+ * <p>
+ * Uploads wait in a bounded queue; when it is full the upload is skipped and
+ * left to the backfill, which fingerprints every submission still missing a
+ * stored fingerprint after each startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FingerprintService {
+
+    private final SubmissionRepository submissionRepository;
+    private final SubmissionFingerprintRepository fingerprintRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${file.upload.path:./uploads}")
+    private String uploadPath;
+
+    @Value("${fingerprint.threads:2}")
+    private int threads;
+
+    @Value("${fingerprint.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${fingerprint.tables:20}")
+    private int tables;
+
+    @Value("${fingerprint.key-bits:16}")
+    private int keyBits;
+
+    @Value("${fingerprint.max-distance:64}")
+    private int maxDistance;
+
+    @Value("${fingerprint.max-seconds:900}")
+    private int maxSeconds;
+
+    @Value("${fingerprint.batch-size:1000}")
+    private int batchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private FingerprintIndex index;
+    private ThreadPoolExecutor executor;
+    private Timer extractTimer;
+    private Timer lookupTimer;
+    private Counter duplicatesFound;
+    private Counter rejected;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        index = new FingerprintIndex(AudioFingerprint.WORDS, tables, keyBits, 42L);
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "fingerprint-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+
+        extractTimer = Timer.builder("fingerprint.extract")
+                .description("Decoding and fingerprinting uploaded audio")
+                .register(meterRegistry);
+        lookupTimer = Timer.builder("fingerprint.lookup")
+                .description("Near-duplicate lookups in the fingerprint index")
+                .register(meterRegistry);
+        duplicatesFound = meterRegistry.counter("fingerprint.duplicates");
+        rejected = Counter.builder("fingerprint.rejected")
+                .description("Uploads left to the backfill because the fingerprint queue was full")
+                .register(meterRegistry);
+        Gauge.builder("fingerprint.queue.size", executor, pool -> pool.getQueue().size())
+                .description("Uploads waiting to be fingerprinted")
+                .register(meterRegistry);
+        Gauge.builder("fingerprint.index.size", this, service -> service.size())
+                .description("Fingerprints in the duplicate index")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            long lastId = 0;
+            List<SubmissionFingerprint> batch;
+            do {
+                batch = fingerprintRepository.findBySubmissionIdGreaterThanOrderBySubmissionIdAsc(
+                        lastId, PageRequest.of(0, batchSize));
+                for (SubmissionFingerprint row : batch) {
+                    index.add(row.getSubmissionId(), fromBytes(row.getFingerprint()));
+                    lastId = row.getSubmissionId();
+                }
+            } while (batch.size() == batchSize);
+            ready = true;
+            log.info("Fingerprint index built with {} submissions in {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Uploads skipped while the queue was full, or while the node was down, have no stored fingerprint
+        Thread backfill = new Thread(this::backfill, "fingerprint-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * Fingerprints every submission without a stored fingerprint, one at a
+     * time so it never competes with uploads for more than one core.
+     */
+    void backfill() {
+        long start = System.currentTimeMillis();
+        int ingested = 0;
+        long lastId = 0;
+        List<Object[]> batch;
+        do {
+            batch = fingerprintRepository.findMissingAfter(lastId, batchSize);
+            for (Object[] row : batch) {
+                lastId = ((Number) row[0]).longValue();
+                ingest(lastId, (String) row[1]);
+                ingested++;
+            }
+        } while (batch.size() == batchSize && !Thread.currentThread().isInterrupted());
+        if (ingested > 0) {
+            log.info("Fingerprint backfill went through {} submissions in {} ms",
+                    ingested, System.currentTimeMillis() - start);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        Submission submission = event.getSubmission();
+        Long submissionId = submission.getId();
+        if (event.getChangeType() == SubmissionChangedEvent.ChangeType.CREATED) {
+            String filePath = submission.getFilePath();
+            try {
+                executor.execute(() -> ingest(submissionId, filePath));
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                log.warn("Fingerprint queue full, submission {} is left to the next backfill", submissionId);
+            }
+        } else if (event.getChangeType() == SubmissionChangedEvent.ChangeType.DELETED) {
+            try {
+                executor.execute(() -> delete(submissionId));
+            } catch (RejectedExecutionException e) {
+                // Removal is cheap and must not be lost, so do it here
+                delete(submissionId);
+            }
+        }
+    }
+
+    /**
+     * Decodes the file and returns its fingerprint, or null when the format
+     * cannot be decoded or the audio is too short.
+     */
+    public long[] fingerprint(Path file) {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(file.toFile())) {
+            AudioFormat sourceFormat = source.getFormat();
+            int channels = sourceFormat.getChannels();
+            AudioFormat pcm = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, sourceFormat.getSampleRate(),
+                    16, channels, channels * 2, sourceFormat.getSampleRate(), false);
+
+            try (AudioInputStream decoded = AudioSystem.getAudioInputStream(pcm, source)) {
+                AudioFingerprint.Downsampler downsampler =
+                        new AudioFingerprint.Downsampler(pcm.getSampleRate(), maxSeconds);
+                byte[] buffer = new byte[pcm.getFrameSize() * 4096];
+                ByteBuffer samples = ByteBuffer.wrap(buffer).order(ByteOrder.LITTLE_ENDIAN);
+                int read;
+                while (!downsampler.isFull() && (read = decoded.readNBytes(buffer, 0, buffer.length)) > 0) {
+                    for (int frame = 0; frame < read / pcm.getFrameSize(); frame++) {
+                        // Down-mix to mono
+                        int sum = 0;
+                        for (int channel = 0; channel < channels; channel++) {
+                            sum += samples.getShort((frame * channels + channel) * 2);
+                        }
+                        downsampler.add(sum / (channels * 32768f));
+                    }
+                }
+                return AudioFingerprint.compute(downsampler.samples(), downsampler.length());
+            }
+        } catch (UnsupportedAudioFileException | IOException | IllegalArgumentException e) {
+            log.warn("Could not fingerprint {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    void ingest(Long submissionId, String filePath) {
+        try {
+            long[] fingerprint = extractTimer.record(() -> fingerprint(Paths.get(uploadPath).resolve(filePath)));
+            if (fingerprint == null) {
+                return;
+            }
+            fingerprintRepository.save(SubmissionFingerprint.builder()
+                    .submissionId(submissionId)
+                    .fingerprint(toBytes(fingerprint))
+                    .build());
+
+            FingerprintIndex.Match duplicate;
+            lock.writeLock().lock();
+            try {
+                // Only earlier submissions count, which matters when the backfill ingests out of upload order
+                duplicate = lookupTimer.record(() -> index.search(fingerprint, maxDistance).stream()
+                        .filter(match -> match.getId() < submissionId)
+                        .findFirst()
+                        .orElse(null));
+                index.add(submissionId, fingerprint);
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            if (duplicate != null) {
+                double similarity = AudioFingerprint.similarity(duplicate.getDistance());
+                submissionRepository.flagDuplicate(submissionId, duplicate.getId(), similarity);
+                duplicatesFound.increment();
+                log.info("Submission {} matches submission {} with similarity {}",
+                        submissionId, duplicate.getId(), String.format("%.3f", similarity));
+            }
+        } catch (RuntimeException e) {
+            log.error("Fingerprinting submission {} failed", submissionId, e);
+        }
+    }
+
+    private void delete(Long submissionId) {
+        lock.writeLock().lock();
+        try {
+            index.remove(submissionId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (fingerprintRepository.existsById(submissionId)) {
+            fingerprintRepository.deleteById(submissionId);
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static byte[] toBytes(long[] fingerprint) {
+        ByteBuffer buffer = ByteBuffer.allocate(fingerprint.length * Long.BYTES);
+        for (long word : fingerprint) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    static long[] fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] fingerprint = new long[bytes.length / Long.BYTES];
+        for (int i = 0; i < fingerprint.length; i++) {
+            fingerprint[i] = buffer.getLong();
+        }
+        return fingerprint;
+    }
+}
@@ -0,0 +1,356 @@
+package com.labelreader.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labelreader.entity.LabelGenre;
+import com.labelreader.entity.LabelProfile;
+import com.labelreader.entity.Notification;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.NotificationChangedEvent;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.repository.LabelGenreRepository;
+import com.labelreader.repository.LabelProfileRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps the genres each label is interested in as rows of
+ * {@code label_genres} and, in memory, as an inverted index from genre to
+ * labels. Profile reads take a label's genres from memory instead of parsing
+ * the profile's JSON, and a newly approved submission is announced to every
+ * interested label with one multi-row insert per batch.
+ * <p>
+ * The index is loaded at startup, after copying over interests still held
+ * only in the legacy JSON column, and updated when a change commits. Labels
+ * changed while it loads are re-read afterwards.
+ */
+@Slf4j
+@Service
+public class GenreSubscriptionService {
+
+    private final LabelGenreRepository labelGenreRepository;
+    private final LabelProfileRepository labelProfileRepository;
+    private final UnreadCountService unreadCountService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate newTransaction;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${genre.index.batch-size:1000}")
+    private int loadBatchSize;
+
+    @Value("${genre.fanout.batch-size:500}")
+    private int fanOutBatchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Set<Long>> labelsByGenre = new HashMap<>();
+    private Map<Long, List<String>> genresByLabel = new HashMap<>();
+    private Set<Long> changedDuringLoad;
+    private Counter announced;
+
+    public GenreSubscriptionService(LabelGenreRepository labelGenreRepository,
+                                    LabelProfileRepository labelProfileRepository,
+                                    UnreadCountService unreadCountService,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    ObjectMapper objectMapper,
+                                    MeterRegistry meterRegistry) {
+        this.labelGenreRepository = labelGenreRepository;
+        this.labelProfileRepository = labelProfileRepository;
+        this.unreadCountService = unreadCountService;
+        this.jdbcTemplate = jdbcTemplate;
+        // Announcements run after the submission's transaction has committed
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        announced = Counter.builder("genre.fanout.notifications")
+                .description("Notifications created to announce new submissions to interested labels")
+                .register(meterRegistry);
+        Gauge.builder("genre.index.genres", this, service -> service.genreCount())
+                .description("Genres with at least one interested label")
+                .register(meterRegistry);
+    }
+
+    public static String genreKey(String genre) {
+        return genre != null && !genre.isBlank() ? genre.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        int copied = copyLegacyInterests();
+
+        Map<String, Set<Long>> byGenre = new HashMap<>();
+        Map<Long, List<String>> byLabel = new HashMap<>();
+        long lastId = 0;
+        List<LabelGenre> batch;
+        do {
+            batch = labelGenreRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, loadBatchSize));
+            for (LabelGenre row : batch) {
+                byGenre.computeIfAbsent(row.getGenreKey(), key -> new HashSet<>()).add(row.getUserId());
+                byLabel.computeIfAbsent(row.getUserId(), key -> new ArrayList<>()).add(row.getGenre());
+                lastId = row.getId();
+            }
+        } while (batch.size() == loadBatchSize);
+
+        Set<Long> changed;
+        lock.writeLock().lock();
+        try {
+            labelsByGenre = byGenre;
+            genresByLabel = byLabel;
+            changed = changedDuringLoad;
+            changedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        for (Long labelId : changed) {
+            reindex(labelId, labelGenreRepository.findByUserIdOrderByIdAsc(labelId).stream()
+                    .map(LabelGenre::getGenre)
+                    .toList());
+        }
+        log.info("Genre subscriptions loaded: {} labels, {} genres ({} copied from profiles) in {} ms",
+                byLabel.size(), byGenre.size(), copied, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Fills {@code label_genres} for profiles whose interests so far only
+     * exist as JSON.
+     */
+    private int copyLegacyInterests() {
+        Set<Long> indexed = new HashSet<>(labelGenreRepository.findUserIds());
+        int copied = 0;
+        for (LabelProfile profile : labelProfileRepository.findByGenresInterestedIsNotNull()) {
+            if (indexed.contains(profile.getUserId()) || profile.getGenresInterested().isBlank()) {
+                continue;
+            }
+            try {
+                List<String> genres = objectMapper.readValue(profile.getGenresInterested(),
+                        new TypeReference<List<String>>() {
+                        });
+                if (!genres.isEmpty()) {
+                    newTransaction.executeWithoutResult(status -> replace(profile.getUserId(), genres));
+                    copied++;
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable genre interests of label {}", profile.getUserId());
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * The label's genres as it entered them.
+     */
+    public List<String> getGenres(Long labelId) {
+        lock.readLock().lock();
+        try {
+            List<String> genres = genresByLabel.get(labelId);
+            return genres != null ? List.copyOf(genres) : List.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The label's genres normalized with {@link #genreKey}.
+     */
+    public Set<String> getGenreKeys(Long labelId) {
+        Set<String> keys = new HashSet<>();
+        for (String genre : getGenres(labelId)) {
+            keys.add(genreKey(genre));
+        }
+        return keys;
+    }
+
+    public Set<Long> getInterestedLabels(String genre) {
+        String key = genreKey(genre);
+        if (key == null) {
+            return Set.of();
+        }
+        lock.readLock().lock();
+        try {
+            Set<Long> labels = labelsByGenre.get(key);
+            return labels != null ? Set.copyOf(labels) : Set.of();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the label's genres within the caller's transaction; the index
+     * follows once it commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void replace(Long labelId, List<String> genres) {
+        Map<String, String> byKey = new LinkedHashMap<>();
+        for (String genre : genres) {
+            String key = genreKey(genre);
+            if (key != null && key.length() <= 100) {
+                byKey.putIfAbsent(key, genre.trim());
+            }
+        }
+
+        labelGenreRepository.deleteByUserId(labelId);
+        labelGenreRepository.flush();
+        List<LabelGenre> rows = new ArrayList<>(byKey.size());
+        byKey.forEach((key, genre) -> rows.add(LabelGenre.builder()
+                .userId(labelId)
+                .genre(genre)
+                .genreKey(key)
+                .build()));
+        labelGenreRepository.saveAll(rows);
+
+        List<String> kept = List.copyOf(byKey.values());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reindex(labelId, kept);
+            }
+        });
+    }
+
+    /**
+     * Announces a submission to interested labels when it becomes approved.
+     * Later edits to an approved submission are not announced again.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        if (event.isNewlyApproved()) {
+            announce(event.getSubmission());
+        }
+    }
+
+    int announce(Submission submission) {
+        List<Long> labels = new ArrayList<>(getInterestedLabels(submission.getGenre()));
+        if (labels.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(labels);
+
+        String title = "New " + submission.getGenre().trim() + " submission";
+        String message = submission.getArtistName() + " - " + submission.getTitle();
+        String linkUrl = "/label/submissions/" + submission.getId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int created = 0;
+        for (int from = 0; from < labels.size(); from += fanOutBatchSize) {
+            List<Long> batch = labels.subList(from, Math.min(from + fanOutBatchSize, labels.size()));
+            Integer inserted = newTransaction.execute(status -> {
+                int rows = insertNotifications(batch, title, message, linkUrl, now);
+                unreadCountService.incrementAll(batch);
+                for (Long labelId : batch) {
+                    eventPublisher.publishEvent(new NotificationChangedEvent(labelId, null));
+                }
+                return rows;
+            });
+            created += inserted != null ? inserted : 0;
+        }
+        announced.increment(created);
+        log.debug("Announced submission {} to {} labels", submission.getId(), created);
+        return created;
+    }
+
+    private int insertNotifications(List<Long> labelIds, String title, String message, String linkUrl,
+                                    Timestamp createdAt) {
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO notifications (user_id, type, title, message, link_url, is_read, email_pending, created_at) VALUES ");
+        List<Object> args = new ArrayList<>(labelIds.size() * 6);
+        for (int i = 0; i < labelIds.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?, false, false, ?)");
+            args.add(labelIds.get(i));
+            args.add(Notification.NotificationType.NEW_SUBMISSION.name());
+            args.add(title);
+            args.add(message);
+            args.add(linkUrl);
+            args.add(createdAt);
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private void reindex(Long labelId, List<String> genres) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringLoad != null) {
+                changedDuringLoad.add(labelId);
+            }
+            List<String> previous = genresByLabel.remove(labelId);
+            if (previous != null) {
+                for (String genre : previous) {
+                    String key = genreKey(genre);
+                    Set<Long> labels = labelsByGenre.get(key);
+                    if (labels != null) {
+                        labels.remove(labelId);
+                        if (labels.isEmpty()) {
+                            labelsByGenre.remove(key);
+                        }
+                    }
+                }
+            }
+            if (!genres.isEmpty()) {
+                genresByLabel.put(labelId, genres);
+                for (String genre : genres) {
+                    labelsByGenre.computeIfAbsent(genreKey(genre), key -> new HashSet<>()).add(labelId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int genreCount() {
+        lock.readLock().lock();
+        try {
+            return labelsByGenre.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.labelreader.service;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * 503 for queries only an in-memory index can answer while that index is
+ * still loading. Retry-After tells the client when to try again.
+ */
+public class IndexLoadingException extends ResponseStatusException {
+
+    static final long RETRY_AFTER_SECONDS = 5;
+
+    public IndexLoadingException(String reason) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, reason);
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+        return headers;
+    }
+}
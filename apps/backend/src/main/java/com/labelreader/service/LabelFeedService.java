@@ -0,0 +1,515 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.event.LabelProfileChangedEvent;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.event.SubmissionPlayedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import com.labelreader.index.TopKTracker;
+import com.labelreader.repository.RatingRepository;
+import com.labelreader.repository.SubmissionRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Materializes a ranked discovery feed per active label. Approved submissions
+ * are kept in an in-memory catalog, and each label that opens discovery gets a
+ * bounded {@link TopKTracker} of the submissions it has not rated yet, scored
+ * by its declared genre interests, the genres it rated well or marked as
+ * interesting, and overall quality, popularity and freshness.
+ * <p>
+ * Feeds are updated in place from submission and rating events, so serving a
+ * page is a walk over the first entries of the tracker. A feed is rebuilt from
+ * the catalog when its label's history changes in a way that cannot be applied
+ * incrementally, when it has been drained below the requested page, and after
+ * {@code feed.max-age-minutes} so freshness stays current. Idle feeds are
+ * dropped.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LabelFeedService {
+
+    private static final double INTEREST_WEIGHT = 3.0;
+    private static final double GENRE_AFFINITY_WEIGHT = 2.0;
+    private static final double SUB_GENRE_AFFINITY_WEIGHT = 1.0;
+    private static final double QUALITY_WEIGHT = 1.0;
+    private static final double POPULARITY_WEIGHT = 0.5;
+    private static final double FRESHNESS_WEIGHT = 1.5;
+
+    // Affinities are shrunk towards zero until a genre has a few ratings
+    private static final double AFFINITY_PRIOR = 2.0;
+    private static final double POPULARITY_SCALE = Math.log1p(1000);
+
+    private final SubmissionRepository submissionRepository;
+    private final RatingRepository ratingRepository;
+    private final GenreSubscriptionService genreSubscriptionService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${feed.capacity:500}")
+    private int capacity;
+
+    @Value("${feed.max-labels:1000}")
+    private int maxLabels;
+
+    @Value("${feed.idle-minutes:60}")
+    private long idleMinutes;
+
+    @Value("${feed.max-age-minutes:30}")
+    private long maxAgeMinutes;
+
+    @Value("${feed.freshness-half-life-days:14}")
+    private double freshnessHalfLifeDays;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Item> catalog = new HashMap<>();
+    private final Map<String, Set<Long>> byGenre = new HashMap<>();
+    private final Map<String, Set<Long>> bySubGenre = new HashMap<>();
+    private final Map<Long, Feed> feeds = new HashMap<>();
+    // Bumped on every rating or profile change so a feed built from stale signals is discarded
+    private final Map<Long, Long> signalVersions = new ConcurrentHashMap<>();
+    private Counter rebuilds;
+    private volatile boolean ready;
+
+    @PostConstruct
+    public void init() {
+        rebuilds = Counter.builder("feed.rebuilds")
+                .description("Label feeds materialized from the catalog")
+                .register(meterRegistry);
+        Gauge.builder("feed.labels", this, LabelFeedService::activeFeeds)
+                .description("Labels with a materialized discovery feed")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCatalog() {
+        long start = System.currentTimeMillis();
+        List<Object[]> rows = submissionRepository.findApprovedFeedRows();
+
+        lock.writeLock().lock();
+        try {
+            catalog.clear();
+            byGenre.clear();
+            bySubGenre.clear();
+            feeds.clear();
+            for (Object[] row : rows) {
+                putItem(new Item(
+                        (Long) row[0],
+                        normalize((String) row[1]),
+                        normalize((String) row[2]),
+                        toDouble((BigDecimal) row[3]),
+                        row[4] != null ? (Integer) row[4] : 0,
+                        toEpochSecond((LocalDateTime) row[5])));
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Feed catalog loaded with {} submissions in {} ms", rows.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns the ids of one page of the label's feed, building the feed first
+     * if the label has none or it is stale.
+     */
+    public Result page(Long labelId, long offset, int size) {
+        int needed = (int) Math.min(capacity, offset + size);
+        long now = System.currentTimeMillis();
+
+        lock.readLock().lock();
+        try {
+            Feed feed = feeds.get(labelId);
+            if (feed != null && feed.isUsable(needed, now, maxAgeMinutes)) {
+                feed.lastAccess = now;
+                return feed.page(offset, size);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Feed feed = build(labelId);
+        lock.readLock().lock();
+        try {
+            return feed.page(offset, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        Submission submission = event.getSubmission();
+        lock.writeLock().lock();
+        try {
+            if (event.getChangeType() == SubmissionChangedEvent.ChangeType.DELETED
+                    || submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+                removeItem(submission.getId());
+                return;
+            }
+            Item item = putItem(toItem(submission));
+            for (Feed feed : feeds.values()) {
+                feed.offer(item);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRated(SubmissionRatedEvent event) {
+        Submission submission = event.getSubmission();
+        signalVersions.merge(event.getLabelId(), 1L, Long::sum);
+
+        lock.writeLock().lock();
+        try {
+            if (submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+                removeItem(submission.getId());
+                return;
+            }
+            Item item = putItem(toItem(submission));
+
+            Feed own = feeds.get(event.getLabelId());
+            if (own != null) {
+                own.markReviewed(item.id);
+                if (event.isNewRating()) {
+                    own.learn(item, event.getRating(), event.getIsInterested());
+                    reofferGenres(own, item);
+                } else {
+                    // The previous rating is not known, so its signal cannot be replaced in place
+                    own.dirty = true;
+                }
+            }
+            // The average rating changed, which moves the track in every other feed
+            for (Feed feed : feeds.values()) {
+                if (feed != own) {
+                    feed.offer(item);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionPlayed(SubmissionPlayedEvent event) {
+        // Plays only nudge popularity; feeds pick the new count up on their next rebuild
+        lock.writeLock().lock();
+        try {
+            Item item = catalog.get(event.getSubmission().getId());
+            if (item != null) {
+                item.plays = event.getSubmission().getPlayCount() != null ? event.getSubmission().getPlayCount() : 0;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLabelProfileChanged(LabelProfileChangedEvent event) {
+        Long labelId = event.getProfile().getUserId();
+        signalVersions.merge(labelId, 1L, Long::sum);
+        lock.writeLock().lock();
+        try {
+            Feed feed = feeds.get(labelId);
+            if (feed != null) {
+                feed.dirty = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${feed.eviction-interval-ms:60000}")
+    public void evictIdleFeeds() {
+        long cutoff = System.currentTimeMillis() - idleMinutes * 60_000;
+        lock.writeLock().lock();
+        try {
+            feeds.values().removeIf(feed -> feed.lastAccess < cutoff);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static double score(Item item, Set<String> interests, Map<String, double[]> affinities,
+                                long nowEpochSecond, double halfLifeDays) {
+        double score = 0;
+        if (item.genre != null && interests.contains(item.genre)) {
+            score += INTEREST_WEIGHT;
+        }
+        score += GENRE_AFFINITY_WEIGHT * affinity(affinities, "g:" + item.genre);
+        score += SUB_GENRE_AFFINITY_WEIGHT * affinity(affinities, "s:" + item.subGenre);
+        score += QUALITY_WEIGHT * item.rating / 5.0;
+        score += POPULARITY_WEIGHT * Math.min(1.0, Math.log1p(item.plays) / POPULARITY_SCALE);
+        double ageDays = Math.max(0, nowEpochSecond - item.createdAt) / 86_400.0;
+        score += FRESHNESS_WEIGHT * Math.pow(0.5, ageDays / halfLifeDays);
+        return score;
+    }
+
+    private Feed build(Long labelId) {
+        // Signals are read outside the lock; a rating that lands meanwhile bumps the version
+        Long version = signalVersions.get(labelId);
+        Set<String> interests = loadInterests(labelId);
+        List<Object[]> ratings = ratingRepository.findFeedSignalsByLabelId(labelId);
+
+        lock.writeLock().lock();
+        try {
+            Feed feed = new Feed(capacity, interests, System.currentTimeMillis() / 1000, freshnessHalfLifeDays);
+            for (Object[] row : ratings) {
+                Long submissionId = (Long) row[0];
+                feed.reviewed.add(submissionId);
+                feed.learn(normalize((String) row[1]), normalize((String) row[2]), (Integer) row[3], (Boolean) row[4]);
+            }
+            for (Item item : catalog.values()) {
+                feed.offer(item);
+            }
+            feed.dirty = !Objects.equals(version, signalVersions.get(labelId));
+
+            if (!feeds.containsKey(labelId) && feeds.size() >= maxLabels) {
+                evictLeastRecentlyUsed();
+            }
+            feeds.put(labelId, feed);
+            rebuilds.increment();
+            return feed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Set<String> loadInterests(Long labelId) {
+        return genreSubscriptionService.getGenreKeys(labelId);
+    }
+
+    /**
+     * A new rating only moves the affinity of the rated genre and sub-genre, so
+     * only submissions sharing one of them need to be scored again.
+     */
+    private void reofferGenres(Feed feed, Item rated) {
+        for (Long id : byGenre.getOrDefault(rated.genre, Collections.emptySet())) {
+            feed.offer(catalog.get(id));
+        }
+        for (Long id : bySubGenre.getOrDefault(rated.subGenre, Collections.emptySet())) {
+            feed.offer(catalog.get(id));
+        }
+    }
+
+    private Item putItem(Item item) {
+        removeItem(item.id);
+        catalog.put(item.id, item);
+        if (item.genre != null) {
+            byGenre.computeIfAbsent(item.genre, key -> new HashSet<>()).add(item.id);
+        }
+        if (item.subGenre != null) {
+            bySubGenre.computeIfAbsent(item.subGenre, key -> new HashSet<>()).add(item.id);
+        }
+        return item;
+    }
+
+    private void removeItem(Long id) {
+        Item existing = catalog.remove(id);
+        if (existing == null) {
+            return;
+        }
+        removeFromIndex(byGenre, existing.genre, id);
+        removeFromIndex(bySubGenre, existing.subGenre, id);
+        for (Feed feed : feeds.values()) {
+            feed.ranked.remove(id);
+        }
+    }
+
+    private static void removeFromIndex(Map<String, Set<Long>> index, String key, Long id) {
+        Set<Long> ids = key != null ? index.get(key) : null;
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Long oldest = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<Long, Feed> entry : feeds.entrySet()) {
+            if (entry.getValue().lastAccess < oldestAccess) {
+                oldest = entry.getKey();
+                oldestAccess = entry.getValue().lastAccess;
+            }
+        }
+        if (oldest != null) {
+            feeds.remove(oldest);
+        }
+    }
+
+    private double activeFeeds() {
+        lock.readLock().lock();
+        try {
+            return feeds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Item toItem(Submission submission) {
+        return new Item(
+                submission.getId(),
+                normalize(submission.getGenre()),
+                normalize(submission.getSubGenre()),
+                toDouble(submission.getAverageRating()),
+                submission.getPlayCount() != null ? submission.getPlayCount() : 0,
+                toEpochSecond(submission.getCreatedAt()));
+    }
+
+    private static double affinity(Map<String, double[]> affinities, String key) {
+        double[] sumAndCount = affinities.get(key);
+        return sumAndCount != null ? sumAndCount[0] / (sumAndCount[1] + AFFINITY_PRIOR) : 0;
+    }
+
+    private static String normalize(String genre) {
+        return genre != null && !genre.isBlank() ? genre.trim().toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : 0;
+    }
+
+    private static long toEpochSecond(LocalDateTime value) {
+        return value != null ? value.toEpochSecond(ZoneOffset.UTC) : 0;
+    }
+
+    private static final class Item {
+        private final long id;
+        private final String genre;
+        private final String subGenre;
+        private final double rating;
+        private int plays;
+        private final long createdAt;
+
+        Item(long id, String genre, String subGenre, double rating, int plays, long createdAt) {
+            this.id = id;
+            this.genre = genre;
+            this.subGenre = subGenre;
+            this.rating = rating;
+            this.plays = plays;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static final class Feed {
+        private final TopKTracker ranked;
+        private final Set<String> interests;
+        private final Map<String, double[]> affinities = new HashMap<>();
+        private final Set<Long> reviewed = new HashSet<>();
+        private final long builtAt;
+        private final double halfLifeDays;
+        private volatile long lastAccess;
+        private boolean truncated;
+        private boolean dirty;
+
+        private Feed(int capacity, Set<String> interests, long builtAt, double halfLifeDays) {
+            this.ranked = new TopKTracker(capacity);
+            this.interests = interests;
+            this.builtAt = builtAt;
+            this.halfLifeDays = halfLifeDays;
+            this.lastAccess = System.currentTimeMillis();
+        }
+
+        private boolean isUsable(int needed, long now, long maxAgeMinutes) {
+            if (dirty || now - builtAt * 1000 > maxAgeMinutes * 60_000) {
+                return false;
+            }
+            // A drained feed may have dropped candidates that now belong on the page
+            return ranked.size() >= needed || !truncated;
+        }
+
+        private void offer(Item item) {
+            if (item == null || reviewed.contains(item.id)) {
+                return;
+            }
+            if (ranked.isFull() && !ranked.contains(item.id)) {
+                truncated = true;
+            }
+            // Freshness is measured from the build time so scores in one feed stay comparable
+            ranked.offer(item.id, score(item, interests, affinities, builtAt, halfLifeDays));
+        }
+
+        private void markReviewed(long submissionId) {
+            reviewed.add(submissionId);
+            ranked.remove(submissionId);
+        }
+
+        private void learn(Item item, Integer rating, Boolean interested) {
+            learn(item.genre, item.subGenre, rating, interested);
+        }
+
+        /**
+         * A 1 to 5 rating maps to -1..1 and marking interest adds 1.
+         */
+        private void learn(String genre, String subGenre, Integer rating, Boolean interested) {
+            double signal = (rating != null ? (rating - 3) / 2.0 : 0) + (Boolean.TRUE.equals(interested) ? 1 : 0);
+            if (genre != null) {
+                double[] sumAndCount = affinities.computeIfAbsent("g:" + genre, key -> new double[2]);
+                sumAndCount[0] += signal;
+                sumAndCount[1]++;
+            }
+            if (subGenre != null) {
+                double[] sumAndCount = affinities.computeIfAbsent("s:" + subGenre, key -> new double[2]);
+                sumAndCount[0] += signal;
+                sumAndCount[1]++;
+            }
+        }
+
+        private Result page(long offset, int size) {
+            List<TopKTracker.Ranked> top = ranked.top((int) Math.min(Integer.MAX_VALUE, offset + size));
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = (int) Math.min(offset, top.size()); i < top.size(); i++) {
+                ids.add(top.get(i).getId());
+            }
+            return new Result(ids, ranked.size());
+        }
+    }
+
+    public static final class Result {
+        private final List<Long> ids;
+        private final long total;
+
+        Result(List<Long> ids, long total) {
+            this.ids = ids;
+            this.total = total;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
@@ -1,19 +1,20 @@
 package com.labelreader.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.labelreader.dto.LabelProfileDto;
 import com.labelreader.dto.UpdateLabelProfileRequest;
 import com.labelreader.entity.LabelProfile;
 import com.labelreader.entity.User;
+import com.labelreader.event.LabelProfileChangedEvent;
+import com.labelreader.event.UserChangedEvent;
 import com.labelreader.repository.LabelProfileRepository;
 import com.labelreader.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
 import java.util.List;
 
 @Service
@@ -23,6 +24,8 @@ public class LabelProfileService {
     private final LabelProfileRepository labelProfileRepository;
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final GenreSubscriptionService genreSubscriptionService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public LabelProfileDto getProfile(Long userId) {
         LabelProfile profile = labelProfileRepository.findByUserId(userId)
@@ -45,7 +48,8 @@ public class LabelProfileService {
         profile.setWebsiteUrl(request.getWebsiteUrl());
         profile.setCountry(request.getCountry());
 
-        // Convert genres list to JSON string
+        // Convert genres list to JSON string, kept alongside the genre rows for older readers
+        List<String> genres = genreSubscriptionService.getGenres(userId);
         if (request.getGenresInterested() != null) {
             try {
                 String genresJson = objectMapper.writeValueAsString(request.getGenresInterested());
@@ -53,6 +57,8 @@ public class LabelProfileService {
             } catch (JsonProcessingException e) {
                 throw new RuntimeException("Error processing genres", e);
             }
+            genreSubscriptionService.replace(userId, request.getGenresInterested());
+            genres = request.getGenresInterested();
         }
 
         // Update user info
@@ -65,23 +71,18 @@ public class LabelProfileService {
 
         labelProfileRepository.save(profile);
         userRepository.save(user);
+        eventPublisher.publishEvent(new LabelProfileChangedEvent(profile));
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId()));
 
-        return mapToDto(profile);
+        // The genre index only follows once this transaction commits
+        return mapToDto(profile, genres);
     }
 
     private LabelProfileDto mapToDto(LabelProfile profile) {
-        List<String> genres = new ArrayList<>();
-        if (profile.getGenresInterested() != null && !profile.getGenresInterested().isEmpty()) {
-            try {
-                genres = objectMapper.readValue(
-                        profile.getGenresInterested(),
-                        new TypeReference<List<String>>() {
-                        });
-            } catch (JsonProcessingException e) {
-                // Return empty list if parsing fails
-            }
-        }
+        return mapToDto(profile, genreSubscriptionService.getGenres(profile.getUserId()));
+    }
 
+    private LabelProfileDto mapToDto(LabelProfile profile, List<String> genres) {
         return LabelProfileDto.builder()
                 .id(profile.getId())
                 .userId(profile.getUserId())
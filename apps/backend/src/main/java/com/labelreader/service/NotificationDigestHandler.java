@@ -0,0 +1,83 @@
+package com.labelreader.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labelreader.entity.Notification;
+import com.labelreader.entity.User;
+import com.labelreader.repository.NotificationRepository;
+import com.labelreader.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Sends one email covering every notification a digest user has pending.
+ * An event is recorded, due at the end of the digest window, for each
+ * notification. A handler claims the pending rows under a row lock and
+ * clears their flag before sending, so when several events for the same
+ * user run at once only one of them gets the rows and the others find
+ * nothing left to send. If the send fails the rows are handed back and the
+ * event is retried.
+ */
+@Component
+public class NotificationDigestHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "notification.digest";
+
+    private final NotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public NotificationDigestHandler(NotificationRepository notificationRepository, UserRepository userRepository,
+                                     EmailService emailService, ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        Long userId = objectMapper.readValue(payload, Payload.class).getUserId();
+        List<Notification> claimed = transactionTemplate.execute(status -> {
+            List<Notification> pending = notificationRepository.lockEmailPending(userId);
+            if (!pending.isEmpty()) {
+                notificationRepository.clearEmailPending(pending.stream().map(Notification::getId).toList());
+            }
+            return pending;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+        User user = userRepository.findById(userId).orElse(null);
+        if (user == null) {
+            return;
+        }
+        try {
+            emailService.sendDigestEmail(user.getEmail(), claimed);
+        } catch (RuntimeException e) {
+            notificationRepository.restoreEmailPending(claimed.stream().map(Notification::getId).toList());
+            throw e;
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Payload {
+        private Long userId;
+    }
+}
@@ -0,0 +1,42 @@
+package com.labelreader.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends the email that accompanies an important notification.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationEmailHandler implements OutboxHandler {
+
+    public static final String EVENT_TYPE = "notification.email";
+
+    private final EmailService emailService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public String getEventType() {
+        return EVENT_TYPE;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        Payload email = objectMapper.readValue(payload, Payload.class);
+        emailService.sendNotificationEmail(email.getTo(), email.getTitle(), email.getMessage(), email.getLinkUrl());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Payload {
+        private String to;
+        private String title;
+        private String message;
+        private String linkUrl;
+    }
+}
@@ -0,0 +1,313 @@
+package com.labelreader.service;
+
+import com.labelreader.event.NotificationChangedEvent;
+import com.labelreader.push.NotificationPush;
+import com.labelreader.push.NotificationPushRelay;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes new notifications and unread count changes to signed-in users, so
+ * the client no longer polls the unread count. Clients hold a Server-Sent
+ * Events stream, or where that is not possible a long poll that is answered
+ * as soon as something changes.
+ * <p>
+ * Changes are handed to a {@link NotificationPushRelay}, which brings them to
+ * whichever node holds the user's connection. Each stream has a bounded
+ * buffer drained by a small shared pool that also sends heartbeats.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NotificationPushService {
+
+    private final NotificationPushRelay relay;
+    private final UnreadCountService unreadCountService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.push.max-connections:10000}")
+    private int maxConnections;
+
+    @Value("${notification.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${notification.push.buffer-size:50}")
+    private int bufferSize;
+
+    @Value("${notification.push.dispatcher-threads:2}")
+    private int dispatcherThreads;
+
+    @Value("${notification.push.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    @Value("${notification.push.timeout-minutes:30}")
+    private long timeoutMinutes;
+
+    @Value("${notification.push.long-poll-timeout-seconds:30}")
+    private long longPollTimeoutSeconds;
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, Set<DeferredResult<ResponseEntity<NotificationPush>>>> waitersByUser = new ConcurrentHashMap<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger totalWaiters = new AtomicInteger();
+    private ScheduledExecutorService dispatcher;
+    private Counter pushesSent;
+    private Counter overflowDisconnects;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        dispatcher = Executors.newScheduledThreadPool(dispatcherThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-push-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+
+        Gauge.builder("notification.push.connections", totalConnections, AtomicInteger::get)
+                .description("Open notification SSE connections")
+                .register(meterRegistry);
+        Gauge.builder("notification.push.waiters", totalWaiters, AtomicInteger::get)
+                .description("Notification long polls waiting for a change")
+                .register(meterRegistry);
+        pushesSent = meterRegistry.counter("notification.push.sent");
+        overflowDisconnects = meterRegistry.counter("notification.push.overflow.disconnects");
+
+        relay.subscribe(this::deliver);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        connectionsByUser.values().forEach(connections -> connections.forEach(c -> c.emitter.complete()));
+        connectionsByUser.clear();
+    }
+
+    /**
+     * Opens a stream that starts with the current unread count.
+     */
+    public SseEmitter subscribe(Long userId) {
+        if (totalConnections.incrementAndGet() > maxConnections) {
+            totalConnections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Notification stream capacity reached");
+        }
+
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(timeoutMinutes));
+        Connection connection = new Connection(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        boolean[] added = {false};
+        connectionsByUser.compute(userId, (id, connections) -> {
+            Set<Connection> set = connections != null ? connections : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                added[0] = set.add(connection);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            totalConnections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many notification streams for this user");
+        }
+        emitter.onCompletion(() -> unregister(connection));
+        emitter.onTimeout(() -> unregister(connection));
+        emitter.onError(e -> unregister(connection));
+
+        NotificationPush current = unreadPush(userId);
+        enqueue(connection, SseEmitter.event().name(current.getType()).data(current));
+        return emitter;
+    }
+
+    /**
+     * Long poll for clients that cannot hold a stream. Answers at once when
+     * the unread count no longer matches {@code lastCount}, otherwise with
+     * the next change, or with 204 when none comes before the timeout.
+     */
+    public DeferredResult<ResponseEntity<NotificationPush>> poll(Long userId, Long lastCount) {
+        DeferredResult<ResponseEntity<NotificationPush>> result = new DeferredResult<>(
+                TimeUnit.SECONDS.toMillis(longPollTimeoutSeconds), ResponseEntity.noContent().build());
+
+        boolean[] added = {false};
+        waitersByUser.compute(userId, (id, waiters) -> {
+            Set<DeferredResult<ResponseEntity<NotificationPush>>> set =
+                    waiters != null ? waiters : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                added[0] = set.add(result);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many notification polls for this user");
+        }
+        totalWaiters.incrementAndGet();
+        result.onCompletion(() -> removeWaiter(userId, result));
+
+        // Registered before the count is read, so a change in between is not missed
+        if (lastCount != null) {
+            NotificationPush current = unreadPush(userId);
+            if (current.getUnreadCount() != lastCount) {
+                result.setResult(ResponseEntity.ok(current));
+            }
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotificationChanged(NotificationChangedEvent event) {
+        Long userId = event.getUserId();
+        if (relay.isLocalOnly() && !isConnected(userId)) {
+            return;
+        }
+        long unreadCount = unreadCountService.get(userId);
+        relay.publish(event.getCreated() != null
+                ? new NotificationPush(NotificationPush.TYPE_NOTIFICATION, userId, event.getCreated(), unreadCount)
+                : new NotificationPush(NotificationPush.TYPE_UNREAD, userId, null, unreadCount));
+    }
+
+    int getConnectionCount() {
+        return totalConnections.get();
+    }
+
+    boolean isConnected(Long userId) {
+        return connectionsByUser.containsKey(userId) || waitersByUser.containsKey(userId);
+    }
+
+    /**
+     * Hands a change to this node's streams and long polls for the user.
+     */
+    void deliver(NotificationPush push) {
+        Set<DeferredResult<ResponseEntity<NotificationPush>>> waiters = waitersByUser.get(push.getUserId());
+        if (waiters != null) {
+            for (DeferredResult<ResponseEntity<NotificationPush>> waiter : waiters) {
+                if (waiter.setResult(ResponseEntity.ok(push))) {
+                    pushesSent.increment();
+                }
+            }
+        }
+        Set<Connection> connections = connectionsByUser.get(push.getUserId());
+        if (connections != null) {
+            for (Connection connection : connections) {
+                enqueue(connection, SseEmitter.event().name(push.getType()).data(push));
+            }
+        }
+    }
+
+    private NotificationPush unreadPush(Long userId) {
+        return new NotificationPush(NotificationPush.TYPE_UNREAD, userId, null,
+                unreadCountService.get(userId));
+    }
+
+    private void removeWaiter(Long userId, DeferredResult<ResponseEntity<NotificationPush>> result) {
+        waitersByUser.computeIfPresent(userId, (id, waiters) -> {
+            if (waiters.remove(result)) {
+                totalWaiters.decrementAndGet();
+            }
+            return waiters.isEmpty() ? null : waiters;
+        });
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        if (connection.closed.get()) {
+            return;
+        }
+        if (!connection.buffer.offer(event)) {
+            // The client is not keeping up; drop it so it reconnects and reloads the count
+            overflowDisconnects.increment();
+            log.debug("Notification stream buffer overflow for user {}", connection.userId);
+            close(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (connection.draining.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(connection));
+            } catch (RejectedExecutionException e) {
+                connection.draining.set(false);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while (!connection.closed.get() && (event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+                pushesSent.increment();
+            }
+        } catch (IOException | IllegalStateException e) {
+            close(connection);
+        } finally {
+            connection.draining.set(false);
+            if (!connection.closed.get() && !connection.buffer.isEmpty()) {
+                scheduleDrain(connection);
+            }
+        }
+    }
+
+    private void sendHeartbeats() {
+        for (Set<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        if (unregister(connection)) {
+            connection.emitter.complete();
+        }
+    }
+
+    private boolean unregister(Connection connection) {
+        if (!connection.closed.compareAndSet(false, true)) {
+            return false;
+        }
+        totalConnections.decrementAndGet();
+        connection.buffer.clear();
+        connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+            connections.remove(connection);
+            return connections.isEmpty() ? null : connections;
+        });
+        return true;
+    }
+
+    private static final class Connection {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Connection(Long userId, SseEmitter emitter, Queue<SseEmitter.SseEventBuilder> buffer) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+    }
+}
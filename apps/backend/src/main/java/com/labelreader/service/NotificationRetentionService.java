@@ -0,0 +1,188 @@
+package com.labelreader.service;
+
+import com.labelreader.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the notifications table from growing without bound. Read
+ * notifications older than the retention period are deleted, and each user's
+ * history is capped at the most recent notifications.
+ * <p>
+ * Rows are found by walking the primary key and deleted in small batches,
+ * each in its own short transaction with a pause in between, so no lock is
+ * held for long and replicas keep up. The job runs on its own thread so the
+ * pauses do not hold up other scheduled work.
+ */
+@Slf4j
+@Service
+public class NotificationRetentionService {
+
+    private final NotificationRepository notificationRepository;
+    private final UnreadCountService unreadCountService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    // 0 keeps read notifications forever
+    @Value("${notification.retention.read-days:90}")
+    private int readDays;
+
+    // 0 leaves history uncapped
+    @Value("${notification.retention.max-per-user:1000}")
+    private long maxPerUser;
+
+    @Value("${notification.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${notification.retention.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${notification.retention.interval-ms:3600000}")
+    private long intervalMs;
+
+    private ScheduledExecutorService scheduler;
+    private Counter purgedByAge;
+    private Counter purgedByCap;
+    private Timer batchTimer;
+
+    public NotificationRetentionService(NotificationRepository notificationRepository,
+                                        UnreadCountService unreadCountService,
+                                        PlatformTransactionManager transactionManager,
+                                        MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.unreadCountService = unreadCountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-retention");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purgedByAge = purgedCounter("age");
+        purgedByCap = purgedCounter("cap");
+        batchTimer = Timer.builder("notification.retention.batch")
+                .description("Time to delete one batch of notifications")
+                .register(meterRegistry);
+    }
+
+    private Counter purgedCounter(String reason) {
+        return Counter.builder("notification.retention.purged")
+                .description("Notifications deleted by the retention job")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::purge, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void purge() {
+        long start = System.currentTimeMillis();
+        try {
+            long byAge = readDays > 0 ? purgeReadBefore(LocalDateTime.now().minusDays(readDays)) : 0;
+            long byCap = maxPerUser > 0 ? purgeBeyondCap() : 0;
+            if (byAge + byCap > 0) {
+                log.info("Purged {} old read and {} over-cap notifications in {} ms",
+                        byAge, byCap, System.currentTimeMillis() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Notification retention run failed", e);
+        }
+    }
+
+    long purgeReadBefore(LocalDateTime cutoff) throws InterruptedException {
+        Long maxId = notificationRepository.findMaxIdCreatedBefore(cutoff);
+        if (maxId == null) {
+            return 0;
+        }
+        long purged = 0;
+        long afterId = 0;
+        List<Long> ids;
+        do {
+            ids = notificationRepository.findReadIdsCreatedBefore(afterId, maxId, cutoff, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            afterId = ids.get(ids.size() - 1);
+            List<Long> batch = ids;
+            int deleted = batchTimer.record(() -> transactionTemplate.execute(
+                    status -> notificationRepository.deleteByIds(batch)));
+            purgedByAge.increment(deleted);
+            purged += deleted;
+            pause();
+        } while (ids.size() == batchSize);
+        return purged;
+    }
+
+    long purgeBeyondCap() throws InterruptedException {
+        long purged = 0;
+        for (Long userId : notificationRepository.findUserIdsWithMoreThan(maxPerUser)) {
+            Long maxId = notificationRepository.findIdBeyondNewest(userId, maxPerUser);
+            if (maxId == null) {
+                continue;
+            }
+            int deleted;
+            do {
+                deleted = batchTimer.record(() -> transactionTemplate.execute(status -> deleteOldest(userId, maxId)));
+                purgedByCap.increment(deleted);
+                purged += deleted;
+                pause();
+            } while (deleted == batchSize);
+        }
+        return purged;
+    }
+
+    private int deleteOldest(Long userId, Long maxId) {
+        List<Object[]> rows = notificationRepository.findIdsAndReadUpTo(userId, maxId, PageRequest.of(0, batchSize));
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(rows.size());
+        long unread = 0;
+        for (Object[] row : rows) {
+            ids.add((Long) row[0]);
+            if (!Boolean.TRUE.equals(row[1])) {
+                unread++;
+            }
+        }
+        int deleted = notificationRepository.deleteByIds(ids);
+        unreadCountService.adjust(userId, -unread);
+        return deleted;
+    }
+
+    private void pause() throws InterruptedException {
+        if (pauseMs > 0) {
+            Thread.sleep(pauseMs);
+        }
+    }
+}
@@ -1,65 +1,156 @@
 package com.labelreader.service;
 
 import com.labelreader.dto.NotificationDto;
+import com.labelreader.dto.SliceDto;
 import com.labelreader.entity.Notification;
 import com.labelreader.entity.User;
+import com.labelreader.event.NotificationChangedEvent;
 import com.labelreader.repository.NotificationRepository;
-import jakarta.transaction.Transactional;
+import com.labelreader.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
 
     private final NotificationRepository notificationRepository;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
+    private final UserRepository userRepository;
+    private final CountCacheService countCacheService;
+    private final UnreadCountService unreadCountService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${email.digest.window-minutes:15}")
+    private long digestWindowMinutes;
 
-    public Page<NotificationDto> getUserNotifications(User user, Boolean unreadOnly, Pageable pageable) {
+    @Value("${notification.batch.max-ids:500}")
+    private int maxBatchIds;
+
+    @Transactional(readOnly = true)
+    public Page<NotificationDto> getUserNotifications(Long userId, Boolean unreadOnly, Pageable pageable) {
         Page<Notification> notifications;
         if (unreadOnly != null && unreadOnly) {
-            notifications = notificationRepository.findByUserAndIsReadOrderByCreatedAtDesc(user, false, pageable);
+            notifications = notificationRepository.findByUserIdAndIsReadOrderByCreatedAtDesc(userId, false, pageable);
         } else {
-            notifications = notificationRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+            notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
         }
         return notifications.map(NotificationDto::fromEntity);
     }
 
-    public Long getUnreadCount(User user) {
-        return notificationRepository.countByUserAndIsRead(user, false);
+    @Transactional(readOnly = true)
+    public SliceDto<NotificationDto> getUserNotificationsSlice(
+            Long userId, Boolean unreadOnly, Pageable pageable, boolean includeTotal) {
+
+        boolean unread = unreadOnly != null && unreadOnly;
+        Slice<NotificationDto> notifications = (unread
+                ? notificationRepository.findSliceByUserIdAndIsReadOrderByCreatedAtDesc(userId, false, pageable)
+                : notificationRepository.findSliceByUserIdOrderByCreatedAtDesc(userId, pageable))
+                .map(NotificationDto::fromEntity);
+
+        Long total = null;
+        if (includeTotal) {
+            total = unread
+                    ? unreadCountService.get(userId)
+                    : countCacheService.count("notifications",
+                            () -> notificationRepository.countByUserId(userId),
+                            "userId", userId, "unreadOnly", false);
+        }
+
+        return SliceDto.<NotificationDto>builder()
+                .content(notifications.getContent())
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .hasNext(notifications.hasNext())
+                .approximateTotal(total)
+                .build();
     }
 
-    public NotificationDto markAsRead(Long notificationId, User user) {
-        Notification notification = notificationRepository.findById(notificationId)
+    public Long getUnreadCount(Long userId) {
+        return unreadCountService.get(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<NotificationDto> getNotifications(List<Long> notificationIds, Long userId) {
+        checkBatchSize(notificationIds);
+        return notificationRepository.findByIdInAndUserIdOrderByCreatedAtDesc(notificationIds, userId).stream()
+                .map(NotificationDto::fromEntity)
+                .toList();
+    }
+
+    @Transactional
+    public NotificationDto markAsRead(Long notificationId, Long userId) {
+        markAsRead(List.of(notificationId), userId);
+        return notificationRepository.findByIdAndUserId(notificationId, userId)
+                .map(NotificationDto::fromEntity)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
+    }
 
-        if (!notification.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized");
+    /**
+     * Marks the user's notifications among the ids as read; ids of other
+     * users' notifications are ignored. Returns how many were unread.
+     */
+    @Transactional
+    public int markAsRead(List<Long> notificationIds, Long userId) {
+        checkBatchSize(notificationIds);
+        // Conditional, so a notification read twice at once is only counted once
+        int read = notificationRepository.markAsReadForUser(notificationIds, userId);
+        if (read > 0) {
+            unreadCountService.adjust(userId, -read);
+            eventPublisher.publishEvent(new NotificationChangedEvent(userId, null));
         }
-
-        notification.setIsRead(true);
-        notification = notificationRepository.save(notification);
-        return NotificationDto.fromEntity(notification);
+        return read;
     }
 
     @Transactional
-    public void markAllAsRead(User user) {
-        notificationRepository.markAllAsReadForUser(user);
+    public void markAllAsRead(Long userId) {
+        int read = notificationRepository.markAllAsReadForUser(userId);
+        unreadCountService.adjust(userId, -read);
+        eventPublisher.publishEvent(new NotificationChangedEvent(userId, null));
     }
 
-    public void deleteNotification(Long notificationId, User user) {
-        Notification notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new RuntimeException("Notification not found"));
+    @Transactional
+    public void deleteNotification(Long notificationId, Long userId) {
+        if (deleteNotifications(List.of(notificationId), userId) == 0) {
+            throw new RuntimeException("Notification not found");
+        }
+    }
 
-        if (!notification.getUser().getId().equals(user.getId())) {
-            throw new RuntimeException("Unauthorized");
+    /**
+     * Deletes the user's notifications among the ids; ids of other users'
+     * notifications are ignored. Returns how many were deleted.
+     */
+    @Transactional
+    public int deleteNotifications(List<Long> notificationIds, Long userId) {
+        checkBatchSize(notificationIds);
+        int deleted = notificationRepository.deleteForUser(notificationIds, userId);
+        if (deleted > 0) {
+            // The delete does not say how many were unread, so recount what is left
+            unreadCountService.recount(userId);
+            eventPublisher.publishEvent(new NotificationChangedEvent(userId, null));
         }
+        return deleted;
+    }
 
-        notificationRepository.delete(notification);
+    private void checkBatchSize(List<Long> notificationIds) {
+        if (notificationIds.size() > maxBatchIds) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "At most " + maxBatchIds + " notifications can be handled at once");
+        }
     }
 
+    @Transactional
     public void createNotification(User user, Notification.NotificationType type, String title, String message, String linkUrl) {
         Notification notification = Notification.builder()
                 .user(user)
@@ -70,13 +161,28 @@ public class NotificationService {
                 .isRead(false)
                 .build();
 
+        // Email important events once this transaction commits, or in the next digest
+        boolean important = type == Notification.NotificationType.NEW_RATING ||
+            type == Notification.NotificationType.SIGNING_REQUEST ||
+            type == Notification.NotificationType.REQUEST_RESPONSE;
+        boolean digest = important && Boolean.TRUE.equals(user.getEmailDigest());
+        notification.setEmailPending(digest);
+
         notificationRepository.save(notification);
+        unreadCountService.adjust(user.getId(), 1);
+        eventPublisher.publishEvent(new NotificationChangedEvent(user.getId(), NotificationDto.fromEntity(notification)));
 
-        // Send email notification for important events
-        if (type == Notification.NotificationType.NEW_RATING ||
-            type == Notification.NotificationType.SIGNING_REQUEST ||
-            type == Notification.NotificationType.REQUEST_RESPONSE) {
-            emailService.sendNotificationEmail(user.getEmail(), title, message, linkUrl);
+        if (digest) {
+            outboxService.enqueue(NotificationDigestHandler.EVENT_TYPE,
+                    new NotificationDigestHandler.Payload(user.getId()), Duration.ofMinutes(digestWindowMinutes));
+        } else if (important) {
+            outboxService.enqueue(NotificationEmailHandler.EVENT_TYPE,
+                    new NotificationEmailHandler.Payload(user.getEmail(), title, message, linkUrl));
         }
     }
+
+    @Transactional
+    public void setEmailDigest(Long userId, boolean enabled) {
+        userRepository.updateEmailDigest(userId, enabled);
+    }
 }
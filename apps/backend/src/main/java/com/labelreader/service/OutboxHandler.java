@@ -0,0 +1,12 @@
+package com.labelreader.service;
+
+/**
+ * Carries out outbox events of one type. Throwing makes the relay retry the
+ * event later; handlers must therefore tolerate running more than once.
+ */
+public interface OutboxHandler {
+
+    String getEventType();
+
+    void handle(String payload) throws Exception;
+}
@@ -0,0 +1,214 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.OutboxEvent;
+import com.labelreader.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the outbox in the background. Each pass claims a batch of due
+ * events with {@code FOR UPDATE SKIP LOCKED} and leases them for a while, so
+ * any number of nodes can relay side by side without handling an event
+ * twice. Handled events are deleted; failures are retried with exponential
+ * backoff and dead-lettered after the last attempt. An event whose node dies
+ * mid-batch becomes claimable again when its lease runs out.
+ */
+@Slf4j
+@Service
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, OutboxHandler> handlers = new HashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${outbox.relay.poll-interval-ms:5000}")
+    private long pollIntervalMs;
+
+    @Value("${outbox.relay.batch-size:50}")
+    private int batchSize;
+
+    @Value("${outbox.relay.threads:4}")
+    private int threads;
+
+    @Value("${outbox.relay.lease-seconds:300}")
+    private long leaseSeconds;
+
+    @Value("${outbox.retry.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${outbox.retry.initial-backoff-seconds:30}")
+    private long initialBackoffSeconds;
+
+    @Value("${outbox.retry.max-backoff-seconds:3600}")
+    private long maxBackoffSeconds;
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile boolean started;
+    private Timer dispatchTimer;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, PlatformTransactionManager transactionManager,
+                       List<OutboxHandler> handlers, MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        for (OutboxHandler handler : handlers) {
+            if (this.handlers.put(handler.getEventType(), handler) != null) {
+                throw new IllegalStateException("Duplicate outbox handler for " + handler.getEventType());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "outbox-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatchTimer = Timer.builder("outbox.dispatch")
+                .description("Time to handle one outbox event")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        started = true;
+        scheduler.scheduleWithFixedDelay(this::drain, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Starts a pass now instead of at the next poll; calls made while one is
+     * already queued are folded into it.
+     */
+    public void wakeUp() {
+        if (started && wakeUpPending.compareAndSet(false, true)) {
+            scheduler.execute(() -> {
+                wakeUpPending.set(false);
+                drain();
+            });
+        }
+    }
+
+    void drain() {
+        try {
+            List<OutboxEvent> batch;
+            do {
+                batch = claim();
+                List<Callable<Void>> tasks = new ArrayList<>(batch.size());
+                for (OutboxEvent event : batch) {
+                    tasks.add(() -> {
+                        dispatch(event);
+                        return null;
+                    });
+                }
+                workers.invokeAll(tasks);
+            } while (batch.size() == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Never let an exception escape, it would cancel the schedule
+            log.error("Outbox relay pass failed", e);
+        }
+    }
+
+    private List<OutboxEvent> claim() {
+        return transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> events = outboxEventRepository.lockDue(now, batchSize);
+            if (!events.isEmpty()) {
+                outboxEventRepository.lease(events.stream().map(OutboxEvent::getId).toList(),
+                        now.plusSeconds(leaseSeconds));
+            }
+            return events;
+        });
+    }
+
+    void dispatch(OutboxEvent event) {
+        int attempts = event.getAttempts() + 1;
+        try {
+            OutboxHandler handler = handlers.get(event.getEventType());
+            if (handler == null) {
+                throw new IllegalStateException("No handler for outbox event type " + event.getEventType());
+            }
+            dispatchTimer.recordCallable(() -> {
+                handler.handle(event.getPayload());
+                return null;
+            });
+            outboxEventRepository.deleteHandled(event.getId());
+            outcome(event, "handled").increment();
+        } catch (Exception e) {
+            String error = abbreviate(e.toString());
+            if (attempts >= maxAttempts) {
+                outboxEventRepository.markDead(event.getId(), attempts, error);
+                outcome(event, "dead").increment();
+                log.error("Outbox event {} ({}) dead-lettered after {} attempts: {}",
+                        event.getId(), event.getEventType(), attempts, error);
+            } else {
+                Duration delay = backoff(attempts, initialBackoffSeconds, maxBackoffSeconds);
+                outboxEventRepository.scheduleRetry(event.getId(), attempts, LocalDateTime.now().plus(delay), error);
+                outcome(event, "retried").increment();
+                log.warn("Outbox event {} ({}) failed attempt {}, retrying in {}s: {}",
+                        event.getId(), event.getEventType(), attempts, delay.toSeconds(), error);
+            }
+        }
+    }
+
+    private Counter outcome(OutboxEvent event, String outcome) {
+        return Counter.builder("outbox.events")
+                .description("Outbox events by outcome")
+                .tag("type", event.getEventType())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Delay before the next attempt: doubling from the initial backoff, capped.
+     */
+    static Duration backoff(int attempts, long initialSeconds, long maxSeconds) {
+        int doublings = Math.min(attempts - 1, 30);
+        return Duration.ofSeconds(Math.min(maxSeconds, initialSeconds << doublings));
+    }
+
+    private static String abbreviate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+}
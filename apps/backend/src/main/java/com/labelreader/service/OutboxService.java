@@ -0,0 +1,62 @@
+package com.labelreader.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labelreader.entity.OutboxEvent;
+import com.labelreader.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Records side effects in the caller's transaction, so they happen if and
+ * only if its changes commit. The relay is nudged after commit so events
+ * usually go out at once rather than on the next poll.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxRelay outboxRelay;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Object payload) {
+        enqueue(eventType, payload, Duration.ZERO);
+    }
+
+    /**
+     * Records an event that becomes due only after the delay.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String eventType, Object payload, Duration delay) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload cannot be serialized", e);
+        }
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(eventType)
+                .payload(json)
+                .availableAt(LocalDateTime.now().plus(delay))
+                .build());
+
+        if (!delay.isZero()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                outboxRelay.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,88 @@
+package com.labelreader.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.labelreader.entity.PlayHistory;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionPlayedEvent;
+import com.labelreader.repository.PlayHistoryRepository;
+import com.labelreader.repository.SubmissionRepository;
+import com.labelreader.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+@Service
+@RequiredArgsConstructor
+public class PlaybackService {
+
+    private final PlayHistoryRepository playHistoryRepository;
+    private final SubmissionRepository submissionRepository;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${playback.dedupe-window-seconds:30}")
+    private long dedupeWindowSeconds;
+
+    @Value("${playback.dedupe-max-entries:100000}")
+    private long dedupeMaxEntries;
+
+    // Plays recorded within the window, keyed by listener and submission
+    private Cache<String, Boolean> recentPlays;
+
+    @PostConstruct
+    public void init() {
+        recentPlays = Caffeine.newBuilder()
+                .maximumSize(dedupeMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(dedupeWindowSeconds))
+                .build();
+    }
+
+    /**
+     * Records a play unless the same user, or the same IP address for
+     * anonymous listeners, already played the submission within the dedupe
+     * window. Returns whether the play was counted. The window is claimed
+     * up front so concurrent duplicates are refused, and released again if
+     * the play rolls back.
+     */
+    @Transactional
+    public boolean recordPlay(Long submissionId, Long userId, String ipAddress) {
+        Submission submission = submissionRepository.findById(submissionId)
+                .orElseThrow(() -> new RuntimeException("Submission not found"));
+
+        String listener = userId != null ? "user:" + userId : "ip:" + ipAddress;
+        String key = listener + ":" + submissionId;
+        if (recentPlays.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    recentPlays.invalidate(key);
+                }
+            }
+        });
+
+        PlayHistory play = PlayHistory.builder()
+                .submission(submission)
+                .user(userId != null ? userRepository.getReferenceById(userId) : null)
+                .ipAddress(ipAddress)
+                .build();
+        play = playHistoryRepository.save(play);
+
+        submissionRepository.incrementPlayCount(submissionId);
+        // The increment detached the submission, so this only updates the copy handed to listeners
+        submission.setPlayCount(submissionRepository.findPlayCount(submissionId));
+
+        eventPublisher.publishEvent(new SubmissionPlayedEvent(submission, userId, play.getPlayedAt()));
+        return true;
+    }
+}
@@ -0,0 +1,223 @@
+package com.labelreader.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Local cache of list query results. Entries hold only the ids of one page and
+ * the total, keyed by the normalized query parameters, and carry tags naming
+ * the genre and status they were filtered by so that a submission write evicts
+ * only the lists it can appear in. Concurrent misses for the same key share a
+ * single load.
+ * <p>
+ * Rating and play changes do not invalidate; orders by rating or plays may lag
+ * by up to the TTL.
+ */
+@Service
+@RequiredArgsConstructor
+public class QueryResultCache {
+
+    static final String ANY = "*";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${list.result-cache.max-entries:10000}")
+    private long maxEntries;
+
+    @Value("${list.result-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private Cache<String, Entry> cache;
+    private final ConcurrentHashMap<String, Set<String>> keysByTag = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<Entry>> loading = new ConcurrentHashMap<>();
+    // Bumped by every invalidation so a load that raced with one is not kept
+    private final AtomicLong generation = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .executor(Runnable::run)
+                .removalListener((String key, Entry entry, RemovalCause cause) -> untag(key, entry))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "query-results");
+    }
+
+    /**
+     * Returns the cached page for the key, or runs the loader once for all
+     * concurrent callers and caches its result under the given tags.
+     */
+    public Entry get(String key, Collection<String> tags, Supplier<Entry> loader) {
+        Entry cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Entry> pending = new CompletableFuture<>();
+        CompletableFuture<Entry> inFlight = loading.putIfAbsent(key, pending);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            long startGeneration = generation.get();
+            Entry result = loader.get();
+            Entry loaded = new Entry(result.ids, result.total, tags);
+            cache.put(key, loaded);
+            // Tags go on after the put, whose removal listener untags a replaced entry
+            for (String tag : loaded.tags) {
+                keysByTag.computeIfAbsent(tag, t -> ConcurrentHashMap.newKeySet()).add(key);
+            }
+            if (generation.get() != startGeneration) {
+                cache.invalidate(key);
+            }
+            pending.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, pending);
+        }
+    }
+
+    /**
+     * Evicts every entry carrying one of the tags.
+     */
+    public void invalidate(Collection<String> tags) {
+        generation.incrementAndGet();
+        for (String tag : tags) {
+            Set<String> keys = keysByTag.remove(tag);
+            if (keys != null) {
+                cache.invalidateAll(keys);
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+        keysByTag.clear();
+    }
+
+    /**
+     * Evicts the lists the submission can appear in. An update may have moved
+     * it between statuses, so every status of its genre goes, and between
+     * genres, so the lists of its previous genre go as well.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        Submission submission = event.getSubmission();
+        List<String> genres = new ArrayList<>(2);
+        genres.add(submission.getGenre());
+        if (event.getPreviousGenre() != null) {
+            genres.add(event.getPreviousGenre());
+        }
+
+        Set<String> tags = new HashSet<>();
+        tags.add(tag(null, null));
+        for (String genre : genres) {
+            tags.add(tag(genre, null));
+        }
+        if (event.getChangeType() == SubmissionChangedEvent.ChangeType.UPDATED) {
+            for (Submission.SubmissionStatus status : Submission.SubmissionStatus.values()) {
+                tags.add(tag(null, status));
+                for (String genre : genres) {
+                    tags.add(tag(genre, status));
+                }
+            }
+        } else {
+            tags.add(tag(null, submission.getSubmissionStatus()));
+            for (String genre : genres) {
+                tags.add(tag(genre, submission.getSubmissionStatus()));
+            }
+        }
+        invalidate(tags);
+    }
+
+    /**
+     * Tag for lists filtered by genre and status; null means unfiltered.
+     */
+    public static String tag(String genre, Object status) {
+        String genreTag = genre != null && !genre.isBlank() ? genre.trim().toLowerCase() : ANY;
+        String statusTag = status != null ? status.toString() : ANY;
+        return genreTag + "|" + statusTag;
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    private void untag(String key, Entry entry) {
+        if (key == null || entry == null || cache.asMap().containsKey(key)) {
+            // A newer entry under the same key already holds these tags
+            return;
+        }
+        for (String tag : entry.tags) {
+            Set<String> keys = keysByTag.get(tag);
+            if (keys != null) {
+                keys.remove(key);
+            }
+        }
+    }
+
+    private static Entry await(CompletableFuture<Entry> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public static final class Entry {
+        private final List<Long> ids;
+        private final long total;
+        private final Collection<String> tags;
+
+        public Entry(List<Long> ids, long total) {
+            this(ids, total, List.of());
+        }
+
+        private Entry(List<Long> ids, long total, Collection<String> tags) {
+            this.ids = List.copyOf(ids);
+            this.total = total;
+            this.tags = List.copyOf(tags);
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+    }
+}
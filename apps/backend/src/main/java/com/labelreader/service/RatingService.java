@@ -5,10 +5,12 @@ import com.labelreader.dto.RatingRequest;
 import com.labelreader.entity.LabelProfile;
 import com.labelreader.entity.Rating;
 import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionRatedEvent;
 import com.labelreader.repository.LabelProfileRepository;
 import com.labelreader.repository.RatingRepository;
 import com.labelreader.repository.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -24,6 +26,7 @@ public class RatingService {
     private final RatingRepository ratingRepository;
     private final SubmissionRepository submissionRepository;
     private final LabelProfileRepository labelProfileRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public RatingDto rateSubmission(Long submissionId, Long labelId, RatingRequest request) {
@@ -48,7 +51,7 @@ public class RatingService {
         rating = ratingRepository.save(rating);
 
         // Update submission average rating
-        updateSubmissionAverageRating(submissionId);
+        submission = updateSubmissionAverageRating(submissionId);
 
         // Update label profile review count
         if (isNewRating) {
@@ -58,6 +61,9 @@ public class RatingService {
             });
         }
 
+        eventPublisher.publishEvent(new SubmissionRatedEvent(
+                submission, labelId, rating.getRating(), rating.getIsInterested(), isNewRating));
+
         return mapToDto(rating);
     }
 
@@ -73,7 +79,7 @@ public class RatingService {
         return rating != null ? mapToDto(rating) : null;
     }
 
-    private void updateSubmissionAverageRating(Long submissionId) {
+    private Submission updateSubmissionAverageRating(Long submissionId) {
         Double avgRating = ratingRepository.calculateAverageRating(submissionId);
         Integer totalRatings = ratingRepository.countBySubmissionId(submissionId);
 
@@ -87,6 +93,7 @@ public class RatingService {
         submission.setTotalRatings(totalRatings);
 
         submissionRepository.save(submission);
+        return submission;
     }
 
     private RatingDto mapToDto(Rating rating) {
@@ -0,0 +1,329 @@
+package com.labelreader.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.labelreader.entity.RefreshToken;
+import com.labelreader.index.BloomFilter;
+import com.labelreader.repository.RefreshTokenRepository;
+import com.labelreader.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Issues, rotates and revokes refresh tokens. Each refresh exchanges the
+ * presented token for a new one and revokes the old; presenting a revoked
+ * token again means it leaked, so every live token of that user is revoked.
+ * <p>
+ * Revocation checks are answered in memory: a Bloom filter of revoked token
+ * hashes clears almost every token that was never revoked, and a bounded set
+ * confirms the rest. Only hashes the set has dropped fall through to the
+ * database. Both are rebuilt from the table at startup and after expired
+ * rows are purged. Tokens revoked on another node are still caught by the
+ * conditional update that revokes the presented token.
+ * <p>
+ * Every refresh revokes a token, so the filter holds roughly refresh rate
+ * times token lifetime entries. It is sized from the live count with room to
+ * grow, and rebuilt larger once more keys were added than it was sized for,
+ * before its false positive rate climbs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtUtil jwtUtil;
+    private final MeterRegistry meterRegistry;
+
+    // Minimum the filter is sized for; a larger live count wins
+    @Value("${refresh-token.revocation.expected-entries:100000}")
+    private long expectedRevocations;
+
+    @Value("${refresh-token.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${refresh-token.revocation.max-cached:100000}")
+    private long maxCachedRevocations;
+
+    @Value("${refresh-token.batch-size:1000}")
+    private int batchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private BloomFilter revokedFilter;
+    // Keys the current filter was sized for
+    private long revokedCapacity;
+    private Cache<String, Boolean> revokedHashes;
+    private List<String> revokedDuringRebuild;
+    private Counter clearChecks;
+    private Counter revokedChecks;
+    private Counter databaseChecks;
+    private Counter reuseDetected;
+
+    @PostConstruct
+    public void init() {
+        revokedCapacity = expectedRevocations;
+        revokedFilter = new BloomFilter(revokedCapacity, falsePositiveRate);
+        revokedHashes = newRevokedSet();
+
+        clearChecks = revocationCheckCounter("clear");
+        revokedChecks = revocationCheckCounter("revoked");
+        databaseChecks = revocationCheckCounter("database");
+        reuseDetected = Counter.builder("auth.refresh.reuse")
+                .description("Revoked refresh tokens presented again")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revoked.cached", this, service -> service.cachedRevocations())
+                .description("Revoked refresh token hashes held in memory")
+                .register(meterRegistry);
+        Gauge.builder("auth.refresh.revoked.filter.load", this, service -> service.filterLoad())
+                .description("Keys in the revocation filter relative to what it was sized for")
+                .register(meterRegistry);
+    }
+
+    private Counter revocationCheckCounter(String result) {
+        return Counter.builder("auth.refresh.revocation.checks")
+                .description("Refresh token revocation checks by where they were answered")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Cache<String, Boolean> newRevokedSet() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxCachedRevocations)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            revokedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // Room for the revocations until the next rebuild
+        long capacity = Math.max(expectedRevocations,
+                refreshTokenRepository.countByRevokedAtIsNotNullAndExpiresAtAfter(now) * 2);
+        BloomFilter filter = new BloomFilter(capacity, falsePositiveRate);
+        Cache<String, Boolean> hashes = newRevokedSet();
+        long lastId = 0;
+        List<RefreshToken> batch;
+        do {
+            batch = refreshTokenRepository.findByIdGreaterThanAndRevokedAtIsNotNullAndExpiresAtAfterOrderByIdAsc(
+                    lastId, now, PageRequest.of(0, batchSize));
+            for (RefreshToken token : batch) {
+                filter.add(bytes(token.getTokenHash()));
+                hashes.put(token.getTokenHash(), Boolean.TRUE);
+                lastId = token.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        lock.writeLock().lock();
+        try {
+            // Revocations made while the table was being read
+            for (String hash : revokedDuringRebuild) {
+                filter.add(bytes(hash));
+                hashes.put(hash, Boolean.TRUE);
+            }
+            revokedDuringRebuild = null;
+            revokedFilter = filter;
+            revokedCapacity = capacity;
+            revokedHashes = hashes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Refresh token revocations loaded: {} into a filter sized for {} in {} ms",
+                filter.size(), capacity, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Rebuilds the revocation filter once it holds more keys than it was
+     * sized for, which resizes it from the live count.
+     */
+    @Scheduled(fixedDelayString = "${refresh-token.revocation.resize-check-interval-ms:60000}",
+            initialDelayString = "${refresh-token.revocation.resize-check-interval-ms:60000}")
+    public void resizeIfFull() {
+        if (filterLoad() > 1.0) {
+            log.info("Revocation filter holds more keys than it was sized for; rebuilding");
+            rebuild();
+        }
+    }
+
+    /**
+     * Issues a refresh token for the user and records its hash.
+     */
+    public String issue(Long userId) {
+        String token = jwtUtil.generateRefreshToken(userId);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userId(userId)
+                .tokenHash(JwtUtil.sha256(token))
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtUtil.getRefreshTokenExpiration())))
+                .build());
+        return token;
+    }
+
+    /**
+     * Revokes the presented token and returns the user it was issued to, so
+     * the caller can issue a replacement. Fails with 401 when the token is
+     * invalid, expired, unknown or already revoked.
+     */
+    @Transactional(noRollbackFor = ResponseStatusException.class)
+    public Long redeem(String token) {
+        Claims claims = jwtUtil.verifyRefreshToken(token);
+        if (claims == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        Long userId = Long.parseLong(claims.getSubject());
+        String hash = JwtUtil.sha256(token);
+
+        if (isRevoked(hash)) {
+            revokeAllForReuse(userId);
+        }
+        if (refreshTokenRepository.revoke(hash, LocalDateTime.now()) == 0) {
+            if (refreshTokenRepository.existsByTokenHash(hash)) {
+                // Revoked by another node or concurrently
+                revokeAllForReuse(userId);
+            }
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid refresh token");
+        }
+        afterCommit(List.of(hash));
+        return userId;
+    }
+
+    /**
+     * Revokes every live refresh token of the user.
+     */
+    @Transactional
+    public void revokeAll(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> hashes = refreshTokenRepository.findActiveTokenHashes(userId, now);
+        refreshTokenRepository.revokeAllForUser(userId, now);
+        afterCommit(hashes);
+    }
+
+    private void revokeAllForReuse(Long userId) {
+        reuseDetected.increment();
+        log.warn("Revoked refresh token reused for user {}; revoking all their tokens", userId);
+        revokeAll(userId);
+        throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token has been revoked");
+    }
+
+    boolean isRevoked(String hash) {
+        lock.readLock().lock();
+        try {
+            if (!revokedFilter.mightContain(bytes(hash))) {
+                clearChecks.increment();
+                return false;
+            }
+            if (revokedHashes.getIfPresent(hash) != null) {
+                revokedChecks.increment();
+                return true;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        databaseChecks.increment();
+        return refreshTokenRepository.existsByTokenHashAndRevokedAtIsNotNull(hash);
+    }
+
+    /**
+     * Deletes expired tokens in batches, then rebuilds the revocation filter
+     * so their hashes stop taking up room in it.
+     */
+    @Scheduled(fixedDelayString = "${refresh-token.cleanup-interval-ms:3600000}",
+            initialDelayString = "${refresh-token.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = refreshTokenRepository.deleteExpired(now, batchSize);
+            purged += deleted;
+        } while (deleted == batchSize);
+
+        if (purged > 0) {
+            log.info("Purged {} expired refresh tokens", purged);
+            rebuild();
+        }
+    }
+
+    private void afterCommit(Collection<String> hashes) {
+        if (hashes.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    markRevoked(hashes);
+                }
+            });
+        } else {
+            markRevoked(hashes);
+        }
+    }
+
+    private void markRevoked(Collection<String> hashes) {
+        lock.writeLock().lock();
+        try {
+            for (String hash : hashes) {
+                revokedFilter.add(bytes(hash));
+                revokedHashes.put(hash, Boolean.TRUE);
+                if (revokedDuringRebuild != null) {
+                    revokedDuringRebuild.add(hash);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    double filterLoad() {
+        lock.readLock().lock();
+        try {
+            return (double) revokedFilter.size() / revokedCapacity;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long cachedRevocations() {
+        lock.readLock().lock();
+        try {
+            return revokedHashes.estimatedSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static byte[] bytes(String hash) {
+        return hash.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,610 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
+import com.labelreader.repository.SubmissionRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoubleDocValuesField;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Embedded Lucene index over approved submissions. Documents are updated
+ * near-real-time from submission events and become searchable after the next
+ * searcher refresh. Ranking uses Lucene's default BM25 similarity, with exact,
+ * prefix and fuzzy matches per query term.
+ * <p>
+ * Events only cover changes made while the index is open, so a catch-up pass
+ * also re-indexes every submission whose {@code updated_at} is at or after a
+ * high-water mark kept in the index's commit data. It runs when the index
+ * opens, picking up rows written while the node was down, and periodically
+ * after that, which also refreshes rating and play count sort values that
+ * change without a submission event.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    private static final String SCHEMA_VERSION_KEY = "schemaVersion";
+    private static final String SCHEMA_VERSION = "3";
+    private static final String UPDATED_THROUGH_KEY = "updatedThrough";
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String ARTIST_NAME = "artistName";
+    private static final String DESCRIPTION = "description";
+    private static final String LYRICS = "lyrics";
+    private static final String GENRE = "genre";
+    private static final String GENRE_EXACT = "genreExact";
+    private static final String BPM = "bpm";
+    private static final String CREATED_AT = "createdAt";
+    private static final String AVERAGE_RATING = "averageRating";
+    private static final String PLAY_COUNT = "playCount";
+
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            TITLE, 3.0f,
+            ARTIST_NAME, 2.5f,
+            GENRE, 1.5f,
+            DESCRIPTION, 1.0f,
+            LYRICS, 0.5f);
+
+    private final SubmissionRepository submissionRepository;
+
+    @Value("${search.index-path:./data/search-index}")
+    private String indexPath;
+
+    @Value("${search.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Value("${search.bulk-batch-size:500}")
+    private int bulkBatchSize;
+
+    @Value("${search.bulk-threads:4}")
+    private int bulkThreads;
+
+    @Value("${search.catch-up-overlap-seconds:60}")
+    private long catchUpOverlapSeconds;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private volatile boolean ready;
+    private LocalDateTime updatedThrough;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void open() throws IOException {
+        directory = FSDirectory.open(Paths.get(indexPath));
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+
+        String mark = commitData(UPDATED_THROUGH_KEY);
+        updatedThrough = mark != null ? LocalDateTime.parse(mark) : null;
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0
+                || !SCHEMA_VERSION.equals(commitData(SCHEMA_VERSION_KEY)) || updatedThrough == null) {
+            rebuild();
+        } else {
+            catchUp();
+        }
+        ready = true;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Re-indexes every approved submission from the database. Batches are read
+     * sequentially by id and converted and added to the writer in parallel.
+     */
+    public synchronized int rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        LocalDateTime startedAt = LocalDateTime.now();
+        writer.deleteAll();
+
+        ExecutorService executor = Executors.newFixedThreadPool(bulkThreads);
+        List<Future<Integer>> batches = new ArrayList<>();
+        try {
+            long lastId = 0;
+            while (true) {
+                List<Submission> batch = submissionRepository.findBySubmissionStatusAndIdGreaterThanOrderByIdAsc(
+                        Submission.SubmissionStatus.APPROVED, lastId, PageRequest.of(0, bulkBatchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                lastId = batch.get(batch.size() - 1).getId();
+                batches.add(executor.submit(() -> {
+                    List<Document> documents = new ArrayList<>(batch.size());
+                    for (Submission submission : batch) {
+                        documents.add(toDocument(submission));
+                    }
+                    writer.addDocuments(documents);
+                    return documents.size();
+                }));
+            }
+
+            int indexed = 0;
+            for (Future<Integer> future : batches) {
+                indexed += future.get();
+            }
+            updatedThrough = startedAt.minusSeconds(catchUpOverlapSeconds);
+            commitWithMark();
+            searcherManager.maybeRefresh();
+            log.info("Search index rebuilt with {} submissions in {} ms", indexed, System.currentTimeMillis() - start);
+            return indexed;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Search index rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Search index rebuild failed", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Re-indexes submissions updated since the high-water mark, in batches
+     * ordered by update time and id, then moves the mark up to when the pass
+     * started. The mark trails by an overlap so rows whose transactions
+     * committed after a later-stamped row are not skipped; re-indexing a row
+     * twice is harmless. Hard-deleted rows are not seen here and are only
+     * removed by their event or the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${search.catch-up-interval-ms:300000}",
+               initialDelayString = "${search.catch-up-interval-ms:300000}")
+    public synchronized void catchUp() {
+        if (writer == null || updatedThrough == null) {
+            return;
+        }
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            LocalDateTime afterUpdatedAt = updatedThrough;
+            long afterId = 0;
+            int indexed = 0;
+            while (true) {
+                List<Submission> batch = submissionRepository.findUpdatedSince(
+                        afterUpdatedAt, afterId, PageRequest.of(0, bulkBatchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (Submission submission : batch) {
+                    apply(submission, submission.getSubmissionStatus() == Submission.SubmissionStatus.APPROVED);
+                }
+                Submission last = batch.get(batch.size() - 1);
+                afterUpdatedAt = last.getUpdatedAt();
+                afterId = last.getId();
+                indexed += batch.size();
+            }
+            LocalDateTime mark = startedAt.minusSeconds(catchUpOverlapSeconds);
+            if (mark.isAfter(updatedThrough)) {
+                updatedThrough = mark;
+            }
+            commitWithMark();
+            searcherManager.maybeRefresh();
+            if (indexed > 0) {
+                log.info("Search index caught up on {} submissions updated since the last pass", indexed);
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Search index catch-up failed: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        if (writer == null) {
+            // The catch-up pass run by open() picks the change up from updated_at
+            return;
+        }
+        Submission submission = event.getSubmission();
+        try {
+            apply(submission, event.getChangeType() != SubmissionChangedEvent.ChangeType.DELETED
+                    && submission.getSubmissionStatus() == Submission.SubmissionStatus.APPROVED);
+        } catch (IOException e) {
+            log.error("Failed to update search index for submission {}: {}", submission.getId(), e.getMessage());
+        }
+    }
+
+    private void apply(Submission submission, boolean indexed) throws IOException {
+        Term idTerm = new Term(ID, String.valueOf(submission.getId()));
+        if (indexed) {
+            writer.updateDocument(idTerm, toDocument(submission));
+        } else {
+            writer.deleteDocuments(idTerm);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (searcherManager == null) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to refresh search index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:60000}")
+    public void commit() {
+        if (writer == null || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (IOException e) {
+            log.error("Failed to commit search index: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        ready = false;
+        if (searcherManager != null) {
+            searcherManager.close();
+        }
+        if (writer != null) {
+            writer.close();
+        }
+        if (directory != null) {
+            directory.close();
+        }
+    }
+
+    public Result search(
+            String queryText,
+            String genre,
+            Integer minBpm,
+            Integer maxBpm,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            Pageable pageable) {
+
+        Query query = buildQuery(queryText, genre, minBpm, maxBpm, startDate, endDate);
+        Sort sort = toSort(pageable);
+        int limit = (int) Math.min(Integer.MAX_VALUE, pageable.getOffset() + pageable.getPageSize());
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = sort != null ? searcher.search(query, limit, sort) : searcher.search(query, limit);
+            int total = searcher.count(query);
+
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> ids = new ArrayList<>(pageable.getPageSize());
+            ScoreDoc[] hits = topDocs.scoreDocs;
+            for (int i = (int) pageable.getOffset(); i < hits.length; i++) {
+                ids.add(Long.parseLong(storedFields.document(hits[i].doc).get(ID)));
+            }
+            return new Result(ids, total);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release index searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Keyset variant of {@link #search}: returns up to {@code limit} hits after
+     * the cursor without counting the total, so deep pages cost the same as
+     * the first. Only relevance and creation date orders are indexed.
+     */
+    public Result searchAfter(
+            String queryText,
+            String genre,
+            Integer minBpm,
+            Integer maxBpm,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            SubmissionSort sort,
+            Cursor after,
+            int limit) {
+
+        Query query = buildQuery(queryText, genre, minBpm, maxBpm, startDate, endDate);
+        Sort luceneSort = toKeysetSort(sort);
+
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.searchAfter(toFieldDoc(sort, after), query, limit, luceneSort, true);
+
+            StoredFields storedFields = searcher.storedFields();
+            List<Long> ids = new ArrayList<>(topDocs.scoreDocs.length);
+            List<String> keys = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc hit : topDocs.scoreDocs) {
+                ids.add(Long.parseLong(storedFields.document(hit.doc).get(ID)));
+                keys.add(toCursorKey(sort, ((FieldDoc) hit).fields[0]));
+            }
+            return new Result(ids, -1, keys);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release index searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    Query buildQuery(
+            String queryText,
+            String genre,
+            Integer minBpm,
+            Integer maxBpm,
+            LocalDateTime startDate,
+            LocalDateTime endDate) {
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        List<String> terms = analyze(queryText);
+        if (terms.isEmpty()) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+        for (int i = 0; i < terms.size(); i++) {
+            // Every term has to match somewhere; the last one may still be being typed
+            builder.add(termQuery(terms.get(i), i == terms.size() - 1), BooleanClause.Occur.MUST);
+        }
+
+        if (genre != null && !genre.isBlank()) {
+            builder.add(new TermQuery(new Term(GENRE_EXACT, genre.trim().toLowerCase())), BooleanClause.Occur.FILTER);
+        }
+        if (minBpm != null || maxBpm != null) {
+            builder.add(IntPoint.newRangeQuery(BPM,
+                    minBpm != null ? minBpm : Integer.MIN_VALUE,
+                    maxBpm != null ? maxBpm : Integer.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        if (startDate != null || endDate != null) {
+            builder.add(LongPoint.newRangeQuery(CREATED_AT,
+                    startDate != null ? toMillis(startDate) : Long.MIN_VALUE,
+                    endDate != null ? toMillis(endDate) : Long.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private Query termQuery(String term, boolean allowPrefix) {
+        BooleanQuery.Builder perField = new BooleanQuery.Builder();
+        for (Map.Entry<String, Float> field : FIELD_BOOSTS.entrySet()) {
+            Term fieldTerm = new Term(field.getKey(), term);
+            float boost = field.getValue();
+            perField.add(new BoostQuery(new TermQuery(fieldTerm), boost), BooleanClause.Occur.SHOULD);
+            if (allowPrefix && term.length() >= 2) {
+                perField.add(new BoostQuery(new PrefixQuery(fieldTerm), boost * 0.5f), BooleanClause.Occur.SHOULD);
+            }
+            if (term.length() >= 4) {
+                int maxEdits = term.length() >= 8 ? 2 : 1;
+                perField.add(new BoostQuery(new FuzzyQuery(fieldTerm, maxEdits), boost * 0.3f), BooleanClause.Occur.SHOULD);
+            }
+        }
+        return perField.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        try (TokenStream stream = analyzer.tokenStream(TITLE, text)) {
+            CharTermAttribute attribute = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                terms.add(attribute.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to analyze query", e);
+        }
+        return terms;
+    }
+
+    /**
+     * Maps the page sort onto indexed doc values, with the id as tie-breaker.
+     * Null means relevance order.
+     */
+    private static Sort toSort(Pageable pageable) {
+        return pageable.getSort().stream().findFirst().map(order -> {
+            boolean reverse = order.isDescending();
+            SortField tieBreaker = new SortField(ID, SortField.Type.LONG, reverse);
+            switch (order.getProperty()) {
+                case "createdAt":
+                    return new Sort(new SortField(CREATED_AT, SortField.Type.LONG, reverse), tieBreaker);
+                case "averageRating":
+                    return new Sort(new SortField(AVERAGE_RATING, SortField.Type.DOUBLE, reverse), tieBreaker);
+                case "playCount":
+                    return new Sort(new SortField(PLAY_COUNT, SortField.Type.LONG, reverse), tieBreaker);
+                case "relevance":
+                    return null;
+                default:
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Search does not support sortBy " + order.getProperty());
+            }
+        }).orElse(null);
+    }
+
+    private static Sort toKeysetSort(SubmissionSort sort) {
+        switch (sort) {
+            case RELEVANCE:
+                return new Sort(SortField.FIELD_SCORE, new SortField(ID, SortField.Type.LONG, true));
+            case NEWEST:
+            case OLDEST:
+                return new Sort(
+                        new SortField(CREATED_AT, SortField.Type.LONG, sort.isDescending()),
+                        new SortField(ID, SortField.Type.LONG, sort.isDescending()));
+            default:
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search does not support sort " + sort);
+        }
+    }
+
+    private static FieldDoc toFieldDoc(SubmissionSort sort, Cursor after) {
+        if (after == null) {
+            return null;
+        }
+        if (sort == SubmissionSort.RELEVANCE) {
+            float score = (Float) sort.parseKey(after.getKey());
+            return new FieldDoc(Integer.MAX_VALUE, score, new Object[]{score, after.getId()});
+        }
+        long createdAt = toMillis((LocalDateTime) sort.parseKey(after.getKey()));
+        return new FieldDoc(Integer.MAX_VALUE, Float.NaN, new Object[]{createdAt, after.getId()});
+    }
+
+    private static String toCursorKey(SubmissionSort sort, Object value) {
+        if (sort == SubmissionSort.RELEVANCE) {
+            return value.toString();
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli((Long) value), ZoneId.systemDefault()).toString();
+    }
+
+    private String commitData(String key) {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> entry : commitData) {
+            if (key.equals(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void commitWithMark() throws IOException {
+        writer.setLiveCommitData(Map.of(
+                SCHEMA_VERSION_KEY, SCHEMA_VERSION,
+                UPDATED_THROUGH_KEY, updatedThrough.toString()).entrySet());
+        writer.commit();
+    }
+
+    private static Document toDocument(Submission submission) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(submission.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID, submission.getId()));
+        addText(document, TITLE, submission.getTitle());
+        addText(document, ARTIST_NAME, submission.getArtistName());
+        addText(document, DESCRIPTION, submission.getDescription());
+        addText(document, LYRICS, submission.getLyrics());
+        addText(document, GENRE, submission.getGenre());
+        if (submission.getGenre() != null) {
+            document.add(new StringField(GENRE_EXACT, submission.getGenre().trim().toLowerCase(), Field.Store.NO));
+        }
+        if (submission.getBpm() != null) {
+            document.add(new IntPoint(BPM, submission.getBpm()));
+        }
+        document.add(new DoubleDocValuesField(AVERAGE_RATING,
+                submission.getAverageRating() != null ? submission.getAverageRating().doubleValue() : 0));
+        document.add(new NumericDocValuesField(PLAY_COUNT,
+                submission.getPlayCount() != null ? submission.getPlayCount() : 0));
+        LocalDateTime createdAt = submission.getCreatedAt() != null ? submission.getCreatedAt() : LocalDateTime.now();
+        document.add(new LongPoint(CREATED_AT, toMillis(createdAt)));
+        document.add(new NumericDocValuesField(CREATED_AT, toMillis(createdAt)));
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null && !value.isBlank()) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public static final class Result {
+        private final List<Long> ids;
+        private final long total;
+        private final List<String> keys;
+
+        Result(List<Long> ids, long total) {
+            this(ids, total, List.of());
+        }
+
+        Result(List<Long> ids, long total, List<String> keys) {
+            this.ids = ids;
+            this.total = total;
+            this.keys = keys;
+        }
+
+        public List<Long> getIds() {
+            return ids;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        /**
+         * Sort key of each hit, for building cursors; empty for offset searches.
+         */
+        public List<String> getKeys() {
+            return keys;
+        }
+    }
+}
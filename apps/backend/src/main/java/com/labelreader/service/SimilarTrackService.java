@@ -0,0 +1,334 @@
+package com.labelreader.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labelreader.dto.SubmissionSummaryDto;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import com.labelreader.index.HnswIndex;
+import com.labelreader.index.TrackFeatures;
+import com.labelreader.repository.SubmissionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * "More like this" recommendations. Every approved submission is stored in an
+ * in-memory {@link HnswIndex} as a {@link TrackFeatures} vector, kept current
+ * from submission and rating events, and a lookup returns the nearest tracks
+ * to a given one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SimilarTrackService {
+
+    private final SubmissionRepository submissionRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${similar.m:16}")
+    private int m;
+
+    @Value("${similar.ef-construction:100}")
+    private int efConstruction;
+
+    @Value("${similar.ef-search:64}")
+    private int efSearch;
+
+    @Value("${similar.max-results:50}")
+    private int maxResults;
+
+    @Value("${similar.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${similar.compact-ratio:0.3}")
+    private double compactRatio;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private HnswIndex index;
+    private Timer searchTimer;
+    private volatile boolean ready;
+    // Changes seen while a rebuild reads its snapshot, replayed on top of it; null vectors are removals
+    private Map<Long, float[]> changedDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        index = new HnswIndex(TrackFeatures.DIMENSIONS, m, efConstruction, 42L);
+        searchTimer = Timer.builder("similar.search")
+                .description("Nearest neighbour lookups in the similarity index")
+                .register(meterRegistry);
+
+        Gauge.builder("similar.index.size", this, service -> service.read(HnswIndex::size))
+                .description("Submissions in the similarity index")
+                .register(meterRegistry);
+        Gauge.builder("similar.index.deleted", this, service -> service.read(HnswIndex::deletedCount))
+                .description("Deleted nodes awaiting compaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Builds a fresh graph from the feature columns without holding the lock,
+     * then swaps it in; lookups keep using the old graph meanwhile.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        HnswIndex fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach((id, vector) -> apply(fresh, id, vector));
+            changedDuringRebuild = null;
+            index = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Similarity index built with {} submissions in {} ms",
+                fresh.size(), System.currentTimeMillis() - start);
+    }
+
+    private HnswIndex load() {
+        HnswIndex fresh = new HnswIndex(TrackFeatures.DIMENSIONS, m, efConstruction, 42L);
+        long lastId = 0;
+        List<Object[]> batch;
+        do {
+            batch = submissionRepository.findApprovedFeatureRows(lastId, PageRequest.of(0, batchSize));
+            for (Object[] row : batch) {
+                lastId = (Long) row[0];
+                BigDecimal averageRating = (BigDecimal) row[5];
+                fresh.add(lastId, vectorOf(
+                        (String) row[1],
+                        (String) row[2],
+                        (Integer) row[3],
+                        (String) row[4],
+                        averageRating,
+                        (Integer) row[6],
+                        (String) row[7]));
+            }
+        } while (batch.size() == batchSize);
+        return fresh;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<SubmissionSummaryDto> findSimilar(Long submissionId, int limit) {
+        if (!ready) {
+            throw new RuntimeException("Similarity index is still loading");
+        }
+        int k = Math.max(1, Math.min(limit, maxResults));
+
+        float[] vector;
+        lock.readLock().lock();
+        try {
+            vector = index.vector(submissionId);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (vector == null) {
+            // Tracks outside the index, such as pending ones, can still be compared
+            Submission submission = submissionRepository.findById(submissionId)
+                    .orElseThrow(() -> new RuntimeException("Submission not found"));
+            vector = vectorOf(submission);
+        }
+
+        float[] query = vector;
+        List<HnswIndex.Neighbour> neighbours = searchTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return index.search(query, k + 1, efSearch);
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+
+        List<Long> ids = new ArrayList<>(k);
+        for (HnswIndex.Neighbour neighbour : neighbours) {
+            if (neighbour.getId() != submissionId && ids.size() < k) {
+                ids.add(neighbour.getId());
+            }
+        }
+        return hydrate(ids);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        if (event.getChangeType() == SubmissionChangedEvent.ChangeType.DELETED) {
+            remove(event.getSubmission().getId());
+        } else {
+            update(event.getSubmission());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRated(SubmissionRatedEvent event) {
+        update(event.getSubmission());
+    }
+
+    private void update(Submission submission) {
+        if (submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+            remove(submission.getId());
+            return;
+        }
+        record(submission.getId(), vectorOf(submission));
+    }
+
+    private void remove(Long submissionId) {
+        record(submissionId, null);
+    }
+
+    private void record(Long submissionId, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(submissionId, vector);
+            }
+            if (apply(index, submissionId, vector)) {
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean apply(HnswIndex target, Long submissionId, float[] vector) {
+        if (vector != null) {
+            target.add(submissionId, vector);
+            return true;
+        }
+        return target.remove(submissionId);
+    }
+
+    private void compactIfNeeded() {
+        // Replaced and removed nodes only get marked, so rebuild once they pile up
+        if (index.deletedCount() > batchSize && index.deletedCount() > index.size() * compactRatio) {
+            long start = System.currentTimeMillis();
+            index.compact();
+            log.info("Similarity index compacted to {} submissions in {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private float[] vectorOf(Submission submission) {
+        return vectorOf(
+                submission.getGenre(),
+                submission.getSubGenre(),
+                submission.getBpm(),
+                submission.getKeySignature(),
+                submission.getAverageRating(),
+                submission.getTotalRatings(),
+                submission.getWaveformData());
+    }
+
+    private float[] vectorOf(String genre, String subGenre, Integer bpm, String keySignature,
+                             BigDecimal averageRating, Integer totalRatings, String waveformData) {
+        double[] audio = audioFeatures(waveformData);
+        int ratings = totalRatings != null ? totalRatings : 0;
+        Double rating = ratings > 0 && averageRating != null ? averageRating.doubleValue() : null;
+        return TrackFeatures.vector(
+                genre,
+                subGenre,
+                bpm,
+                keySignature,
+                rating,
+                audio != null ? audio[0] : null,
+                audio != null ? audio[1] : null);
+    }
+
+    /**
+     * Energy and dynamics from the waveform peaks, once audio analysis has
+     * filled them in: mean and spread of the peaks relative to the loudest one.
+     */
+    private double[] audioFeatures(String waveformData) {
+        if (waveformData == null || waveformData.isBlank()) {
+            return null;
+        }
+        double[] peaks;
+        try {
+            peaks = objectMapper.readValue(waveformData, double[].class);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+        double max = 0;
+        double sum = 0;
+        for (double peak : peaks) {
+            max = Math.max(max, Math.abs(peak));
+            sum += Math.abs(peak);
+        }
+        if (peaks.length == 0 || max == 0) {
+            return null;
+        }
+        double mean = sum / peaks.length;
+        double variance = 0;
+        for (double peak : peaks) {
+            double diff = Math.abs(peak) - mean;
+            variance += diff * diff;
+        }
+        double spread = Math.sqrt(variance / peaks.length);
+        return new double[]{mean / max, Math.min(1, 2 * spread / max)};
+    }
+
+    private List<SubmissionSummaryDto> hydrate(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, SubmissionSummaryDto> byId = submissionRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(SubmissionSummaryDto::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private double read(ToDoubleFunction<HnswIndex> metric) {
+        lock.readLock().lock();
+        try {
+            return metric.applyAsDouble(index);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
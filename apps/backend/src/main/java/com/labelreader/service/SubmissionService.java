@@ -1,15 +1,24 @@
 package com.labelreader.service;
 
+import com.labelreader.dto.CursorPageDto;
+import com.labelreader.dto.SliceDto;
 import com.labelreader.dto.SubmissionDto;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.dto.SubmissionRequest;
 import com.labelreader.entity.ArtistProfile;
 import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.pagination.Cursor;
+import com.labelreader.pagination.SubmissionSort;
 import com.labelreader.repository.ArtistProfileRepository;
+import com.labelreader.repository.SubmissionCriteria;
 import com.labelreader.repository.SubmissionRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -19,6 +28,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -27,6 +37,8 @@ public class SubmissionService {
 
     private final SubmissionRepository submissionRepository;
     private final ArtistProfileRepository artistProfileRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CountCacheService countCacheService;
 
     @Value("${file.upload.path:./uploads}")
     private String uploadPath;
@@ -91,12 +103,46 @@ public class SubmissionService {
             artistProfileRepository.save(profile);
         });
 
-        return mapToDto(submission);
+        eventPublisher.publishEvent(new SubmissionChangedEvent(submission, SubmissionChangedEvent.ChangeType.CREATED));
+
+        return SubmissionDto.fromEntity(submission);
+    }
+
+    public Page<SubmissionSummaryDto> getArtistSubmissions(Long artistId, Pageable pageable) {
+        return submissionRepository.findSummariesByArtistId(artistId, pageable);
     }
 
-    public Page<SubmissionDto> getArtistSubmissions(Long artistId, Pageable pageable) {
-        return submissionRepository.findByArtistId(artistId, pageable)
-                .map(this::mapToDto);
+    public SliceDto<SubmissionSummaryDto> getArtistSubmissionsSlice(Long artistId, Pageable pageable, boolean includeTotal) {
+        Slice<SubmissionSummaryDto> submissions = submissionRepository.findSummarySliceByArtistId(artistId, pageable);
+        Long total = includeTotal
+                ? countCacheService.count("artist-submissions",
+                        () -> submissionRepository.countByArtistId(artistId), "artistId", artistId)
+                : null;
+
+        return SliceDto.<SubmissionSummaryDto>builder()
+                .content(submissions.getContent())
+                .page(pageable.getPageNumber())
+                .size(pageable.getPageSize())
+                .hasNext(submissions.hasNext())
+                .approximateTotal(total)
+                .build();
+    }
+
+    public CursorPageDto<SubmissionSummaryDto> getArtistSubmissions(
+            Long artistId, SubmissionSort sort, String cursor, int size) {
+
+        SubmissionCriteria criteria = SubmissionCriteria.builder().artistId(artistId).build();
+        List<SubmissionSummaryDto> rows = submissionRepository.findPage(
+                criteria, sort, Cursor.decode(cursor, sort), size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<SubmissionSummaryDto> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorPageDto.<SubmissionSummaryDto>builder()
+                .content(page)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? Cursor.after(sort, page.get(page.size() - 1)).encode() : null)
+                .build();
     }
 
     public SubmissionDto getSubmission(Long submissionId, Long artistId) {
@@ -107,7 +153,7 @@ public class SubmissionService {
             throw new RuntimeException("Unauthorized access to submission");
         }
 
-        return mapToDto(submission);
+        return SubmissionDto.fromEntity(submission);
     }
 
     @Transactional
@@ -134,6 +180,8 @@ public class SubmissionService {
             profile.setTotalSubmissions(Math.max(0, profile.getTotalSubmissions() - 1));
             artistProfileRepository.save(profile);
         });
+
+        eventPublisher.publishEvent(new SubmissionChangedEvent(submission, SubmissionChangedEvent.ChangeType.DELETED));
     }
 
     private boolean isValidAudioFile(String contentType) {
@@ -143,29 +191,4 @@ public class SubmissionService {
                 contentType.equals("audio/flac") ||
                 contentType.equals("audio/x-flac");
     }
-
-    private SubmissionDto mapToDto(Submission submission) {
-        return SubmissionDto.builder()
-                .id(submission.getId())
-                .artistId(submission.getArtistId())
-                .title(submission.getTitle())
-                .artistName(submission.getArtistName())
-                .genre(submission.getGenre())
-                .subGenre(submission.getSubGenre())
-                .bpm(submission.getBpm())
-                .keySignature(submission.getKeySignature())
-                .filePath(submission.getFilePath())
-                .fileSizeBytes(submission.getFileSizeBytes())
-                .durationSeconds(submission.getDurationSeconds())
-                .description(submission.getDescription())
-                .lyrics(submission.getLyrics())
-                .isPublished(submission.getIsPublished())
-                .submissionStatus(submission.getSubmissionStatus().name())
-                .playCount(submission.getPlayCount())
-                .averageRating(submission.getAverageRating())
-                .totalRatings(submission.getTotalRatings())
-                .createdAt(submission.getCreatedAt())
-                .updatedAt(submission.getUpdatedAt())
-                .build();
-    }
 }
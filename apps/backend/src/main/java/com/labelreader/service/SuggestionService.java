@@ -0,0 +1,306 @@
+package com.labelreader.service;
+
+import com.labelreader.dto.SuggestionDto;
+import com.labelreader.entity.LabelProfile;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.LabelProfileChangedEvent;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.event.SubmissionPlayedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import com.labelreader.index.SuggestionTrie;
+import com.labelreader.repository.LabelProfileRepository;
+import com.labelreader.repository.SubmissionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Serves search box completions from an in-memory {@link SuggestionTrie} over
+ * approved submission titles, artist names and label names. Weights follow
+ * plays and ratings, and the trie is updated in place from domain events.
+ * A rebuild fills a fresh trie without holding the lock and swaps it in, so
+ * completions keep being served from the old one meanwhile.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SuggestionService {
+
+    static final String TITLE = "title";
+    static final String ARTIST = "artist";
+    static final String LABEL = "label";
+
+    private static final double RATING_WEIGHT = 5.0;
+
+    private final SubmissionRepository submissionRepository;
+    private final LabelProfileRepository labelProfileRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${suggest.max-entries:200000}")
+    private int maxEntries;
+
+    @Value("${suggest.cache-size:10}")
+    private int cacheSize;
+
+    @Value("${suggest.max-key-length:64}")
+    private int maxKeyLength;
+
+    @Value("${suggest.batch-size:1000}")
+    private int batchSize;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index;
+    // Changes seen while a rebuild reads its snapshot, replayed on top of it
+    private List<Consumer<Index>> changedDuringRebuild;
+
+    @PostConstruct
+    public void init() {
+        index = new Index(new SuggestionTrie(maxEntries, cacheSize, maxKeyLength));
+
+        Gauge.builder("suggest.index.entries", this, service -> service.read(SuggestionTrie::size))
+                .description("Entries in the typeahead index")
+                .register(meterRegistry);
+        Gauge.builder("suggest.index.nodes", this, service -> service.read(SuggestionTrie::nodeCount))
+                .register(meterRegistry);
+        Gauge.builder("suggest.index.bytes", this, service -> service.read(SuggestionTrie::estimatedBytes))
+                .description("Estimated heap used by the typeahead index")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index fresh;
+        try {
+            fresh = load();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild.forEach(change -> change.accept(fresh));
+            changedDuringRebuild = null;
+            index = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index built with {} entries (~{} KB) in {} ms",
+                fresh.trie.size(), fresh.trie.estimatedBytes() / 1024, System.currentTimeMillis() - start);
+    }
+
+    private Index load() {
+        Index fresh = new Index(new SuggestionTrie(maxEntries, cacheSize, maxKeyLength));
+        long lastId = 0;
+        List<Submission> batch;
+        do {
+            batch = submissionRepository.findBySubmissionStatusAndIdGreaterThanOrderByIdAsc(
+                    Submission.SubmissionStatus.APPROVED, lastId, PageRequest.of(0, batchSize));
+            for (Submission submission : batch) {
+                fresh.putSubmission(submission);
+                lastId = submission.getId();
+            }
+        } while (batch.size() == batchSize);
+
+        for (LabelProfile profile : labelProfileRepository.findAll()) {
+            fresh.putLabel(profile);
+        }
+        return fresh;
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        int size = Math.max(1, Math.min(limit, cacheSize));
+        lock.readLock().lock();
+        try {
+            return index.trie.complete(prefix, size).stream()
+                    .map(entry -> SuggestionDto.builder()
+                            .text(entry.getText())
+                            .type(entry.getType())
+                            .id(entry.getId())
+                            .build())
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        Submission submission = event.getSubmission();
+        if (event.getChangeType() == SubmissionChangedEvent.ChangeType.DELETED) {
+            record(index -> index.removeSubmission(submission));
+        } else {
+            record(index -> index.putSubmission(submission));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionPlayed(SubmissionPlayedEvent event) {
+        Submission submission = event.getSubmission();
+        record(index -> index.putSubmission(submission));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRated(SubmissionRatedEvent event) {
+        Submission submission = event.getSubmission();
+        record(index -> {
+            index.putSubmission(submission);
+            if (event.isNewRating()) {
+                index.addLabelReview(event.getLabelId());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLabelProfileChanged(LabelProfileChangedEvent event) {
+        LabelProfile profile = event.getProfile();
+        record(index -> index.putLabel(profile));
+    }
+
+    private void record(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(change);
+            }
+            change.accept(index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static double popularity(Submission submission) {
+        int plays = submission.getPlayCount() != null ? submission.getPlayCount() : 0;
+        int ratings = submission.getTotalRatings() != null ? submission.getTotalRatings() : 0;
+        return plays + RATING_WEIGHT * ratings;
+    }
+
+    private double read(ToDoubleFunction<SuggestionTrie> metric) {
+        lock.readLock().lock();
+        try {
+            return metric.applyAsDouble(index.trie);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The trie plus the per-artist totals derived from it. Artist weights are
+     * summed from every approved submission, whether or not its title is
+     * currently in the trie, so capacity evictions do not skew them.
+     */
+    private static final class Index {
+        private final SuggestionTrie trie;
+        private final Map<Long, ArtistWeight> artists = new HashMap<>();
+        private final Map<Long, Contribution> contributions = new HashMap<>();
+
+        private Index(SuggestionTrie trie) {
+            this.trie = trie;
+        }
+
+        private void putSubmission(Submission submission) {
+            if (submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+                removeSubmission(submission);
+                return;
+            }
+
+            double weight = popularity(submission);
+            trie.put(TITLE, submission.getId(), submission.getTitle(), weight);
+            if (submission.getArtistId() == null) {
+                return;
+            }
+
+            Contribution previous = contributions.put(submission.getId(),
+                    new Contribution(submission.getArtistId(), weight));
+            ArtistWeight artist = artists.computeIfAbsent(submission.getArtistId(), id -> new ArtistWeight());
+            if (previous == null) {
+                artist.submissions++;
+            }
+            artist.weight += weight - (previous != null ? previous.weight : 0);
+            trie.put(ARTIST, submission.getArtistId(), submission.getArtistName(), artist.weight);
+        }
+
+        private void removeSubmission(Submission submission) {
+            trie.remove(TITLE, submission.getId());
+            Contribution previous = contributions.remove(submission.getId());
+            if (previous == null) {
+                return;
+            }
+
+            ArtistWeight artist = artists.get(previous.artistId);
+            if (artist == null) {
+                return;
+            }
+            artist.weight -= previous.weight;
+            if (--artist.submissions <= 0) {
+                artists.remove(previous.artistId);
+                trie.remove(ARTIST, previous.artistId);
+                return;
+            }
+            SuggestionTrie.Entry entry = trie.get(ARTIST, previous.artistId);
+            if (entry != null) {
+                trie.put(ARTIST, entry.getId(), entry.getText(), artist.weight);
+            }
+        }
+
+        private void putLabel(LabelProfile profile) {
+            // Labels are keyed by user id, which is how ratings refer to them
+            int reviews = profile.getTotalReviews() != null ? profile.getTotalReviews() : 0;
+            trie.put(LABEL, profile.getUserId(), profile.getLabelName(), reviews);
+        }
+
+        private void addLabelReview(Long labelId) {
+            SuggestionTrie.Entry label = trie.get(LABEL, labelId);
+            if (label != null) {
+                trie.put(LABEL, label.getId(), label.getText(), label.getWeight() + 1);
+            }
+        }
+    }
+
+    private static final class ArtistWeight {
+        private double weight;
+        private int submissions;
+    }
+
+    private static final class Contribution {
+        private final Long artistId;
+        private final double weight;
+
+        private Contribution(Long artistId, double weight) {
+            this.artistId = artistId;
+            this.weight = weight;
+        }
+    }
+}
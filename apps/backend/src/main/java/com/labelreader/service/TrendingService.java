@@ -0,0 +1,396 @@
+package com.labelreader.service;
+
+import com.labelreader.dto.TrendingSubmissionDto;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.event.SubmissionPlayedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps an exponentially time-decayed activity score per approved submission.
+ * <p>
+ * Scores use forward decay: every increment is stored scaled by
+ * {@code exp(lambda * (t - epoch))}, so all scores decay by the same factor and
+ * their relative order only changes when a submission receives new activity.
+ * That lets the global and per-genre rankings be kept as sorted sets, updated
+ * in O(log n) per event and read in O(K) without re-sorting the catalog.
+ * Entries whose decayed score has dropped below {@code trending.min-score} are
+ * pruned periodically so the catalog only holds recently active submissions.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+
+    private static final int CHECKPOINT_VERSION = 1;
+    // Rescale stored scores before exp() gets anywhere near double overflow
+    private static final double MAX_EXPONENT = 64.0;
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingDouble((Entry entry) -> entry.score).reversed()
+            .thenComparingLong(entry -> entry.id);
+
+    @Value("${trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${trending.capacity:100}")
+    private int capacity;
+
+    @Value("${trending.play-weight:1.0}")
+    private double playWeight;
+
+    @Value("${trending.rating-weight:5.0}")
+    private double ratingWeight;
+
+    @Value("${trending.min-score:0.01}")
+    private double minScore;
+
+    @Value("${trending.checkpoint-path:./data/trending.bin}")
+    private String checkpointPath;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final NavigableSet<Entry> global = new TreeSet<>(RANKING);
+    private final Map<String, NavigableSet<Entry>> byGenre = new HashMap<>();
+    private double lambda;
+    private long epochMillis;
+    private long modifications;
+    private long checkpointedModifications;
+
+    @PostConstruct
+    public void init() {
+        lambda = Math.log(2) / (halfLifeHours * 3_600_000d);
+        epochMillis = System.currentTimeMillis();
+        loadCheckpoint();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionPlayed(SubmissionPlayedEvent event) {
+        recordActivity(event.getSubmission(), playWeight, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionRated(SubmissionRatedEvent event) {
+        double weight = ratingWeight * event.getRating() / 5.0;
+        recordActivity(event.getSubmission(), weight, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubmissionChanged(SubmissionChangedEvent event) {
+        Submission submission = event.getSubmission();
+        if (event.getChangeType() == SubmissionChangedEvent.ChangeType.DELETED
+                || submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+            remove(submission.getId());
+        } else {
+            update(submission);
+        }
+    }
+
+    public List<TrendingSubmissionDto> getTrending(String genre, int k) {
+        int limit = Math.max(1, Math.min(k, capacity));
+        lock.readLock().lock();
+        try {
+            NavigableSet<Entry> ranking = genre != null && !genre.isEmpty() ? byGenre.get(normalizeGenre(genre)) : global;
+            if (ranking == null) {
+                return List.of();
+            }
+
+            double decay = Math.exp(-lambda * (System.currentTimeMillis() - epochMillis));
+            List<TrendingSubmissionDto> result = new ArrayList<>(limit);
+            for (Entry entry : ranking) {
+                if (result.size() == limit) {
+                    break;
+                }
+                result.add(TrendingSubmissionDto.builder()
+                        .id(entry.id)
+                        .title(entry.title)
+                        .artistName(entry.artistName)
+                        .genre(entry.genre)
+                        .score(entry.score * decay)
+                        .build());
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void recordActivity(Submission submission, double weight, long atMillis) {
+        if (submission.getSubmissionStatus() != Submission.SubmissionStatus.APPROVED) {
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (lambda * (atMillis - epochMillis) > MAX_EXPONENT) {
+                rescale(atMillis);
+            }
+
+            Entry entry = entries.computeIfAbsent(submission.getId(), Entry::new);
+            unrank(entry);
+            entry.title = submission.getTitle();
+            entry.artistName = submission.getArtistName();
+            entry.genre = submission.getGenre();
+            entry.score += weight * Math.exp(lambda * (atMillis - epochMillis));
+            rank(entry);
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Picks up a new title, artist name or genre of a tracked submission,
+     * moving it to its new genre's ranking.
+     */
+    void update(Submission submission) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.get(submission.getId());
+            if (entry == null || (Objects.equals(entry.title, submission.getTitle())
+                    && Objects.equals(entry.artistName, submission.getArtistName())
+                    && Objects.equals(entry.genre, submission.getGenre()))) {
+                return;
+            }
+            unrank(entry);
+            entry.title = submission.getTitle();
+            entry.artistName = submission.getArtistName();
+            entry.genre = submission.getGenre();
+            rank(entry);
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Long submissionId) {
+        lock.writeLock().lock();
+        try {
+            Entry entry = entries.remove(submissionId);
+            if (entry == null) {
+                return;
+            }
+            unrank(entry);
+            modifications++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops entries whose decayed score is below the minimum; without new
+     * activity they only keep sinking.
+     */
+    @Scheduled(fixedDelayString = "${trending.prune-interval-ms:600000}")
+    public void prune() {
+        prune(System.currentTimeMillis());
+    }
+
+    int prune(long atMillis) {
+        lock.writeLock().lock();
+        try {
+            // Stored scores are scaled up by the decay since the epoch, so compare against the scaled minimum
+            double threshold = minScore * Math.exp(lambda * (atMillis - epochMillis));
+            int pruned = 0;
+            while (!global.isEmpty() && global.last().score < threshold) {
+                Entry entry = global.last();
+                unrank(entry);
+                entries.remove(entry.id);
+                pruned++;
+            }
+            if (pruned > 0) {
+                modifications++;
+                log.debug("Pruned {} inactive trending entries", pruned);
+            }
+            return pruned;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trending.checkpoint-interval-ms:60000}")
+    public void scheduledCheckpoint() {
+        checkpoint();
+    }
+
+    @PreDestroy
+    public synchronized void checkpoint() {
+        List<Entry> snapshot;
+        long snapshotEpoch;
+        long snapshotModifications;
+        lock.readLock().lock();
+        try {
+            if (modifications == checkpointedModifications) {
+                return;
+            }
+            snapshot = new ArrayList<>(entries.size());
+            for (Entry entry : entries.values()) {
+                snapshot.add(entry.copy());
+            }
+            snapshotEpoch = epochMillis;
+            snapshotModifications = modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Path target = Paths.get(checkpointPath);
+        try {
+            if (target.getParent() != null) {
+                Files.createDirectories(target.getParent());
+            }
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_VERSION);
+                out.writeLong(snapshotEpoch);
+                out.writeDouble(lambda);
+                out.writeInt(snapshot.size());
+                for (Entry entry : snapshot) {
+                    out.writeLong(entry.id);
+                    out.writeUTF(entry.title != null ? entry.title : "");
+                    out.writeUTF(entry.artistName != null ? entry.artistName : "");
+                    out.writeUTF(entry.genre != null ? entry.genre : "");
+                    out.writeDouble(entry.score);
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            lock.writeLock().lock();
+            try {
+                checkpointedModifications = snapshotModifications;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.debug("Trending checkpoint written with {} entries", snapshot.size());
+        } catch (IOException e) {
+            log.error("Failed to write trending checkpoint to {}: {}", target, e.getMessage());
+        }
+    }
+
+    private void loadCheckpoint() {
+        Path source = Paths.get(checkpointPath);
+        if (!Files.exists(source)) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source)))) {
+            if (in.readInt() != CHECKPOINT_VERSION) {
+                log.warn("Ignoring trending checkpoint {} with unknown version", source);
+                return;
+            }
+            long savedEpoch = in.readLong();
+            double savedLambda = in.readDouble();
+            int count = in.readInt();
+
+            lock.writeLock().lock();
+            try {
+                // Convert the saved scores to the current epoch and half-life
+                long now = System.currentTimeMillis();
+                for (int i = 0; i < count; i++) {
+                    Entry entry = new Entry(in.readLong());
+                    entry.title = in.readUTF();
+                    entry.artistName = in.readUTF();
+                    String genre = in.readUTF();
+                    entry.genre = genre.isEmpty() ? null : genre;
+                    double savedScore = in.readDouble();
+                    double current = savedScore * Math.exp(-savedLambda * (now - savedEpoch));
+                    entry.score = current * Math.exp(lambda * (now - epochMillis));
+                    entries.put(entry.id, entry);
+                }
+                rebuildRankings();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Restored {} trending entries from {}", count, source);
+        } catch (IOException e) {
+            log.error("Failed to read trending checkpoint {}: {}", source, e.getMessage());
+        }
+    }
+
+    private void rescale(long atMillis) {
+        double factor = Math.exp(-lambda * (atMillis - epochMillis));
+        for (Entry entry : entries.values()) {
+            entry.score *= factor;
+        }
+        epochMillis = atMillis;
+        rebuildRankings();
+    }
+
+    private void rebuildRankings() {
+        global.clear();
+        byGenre.clear();
+        for (Entry entry : entries.values()) {
+            rank(entry);
+        }
+    }
+
+    // Entries are ordered by score, so take them out of the rankings before changing it
+    private void unrank(Entry entry) {
+        global.remove(entry);
+        String genreKey = normalizeGenre(entry.genre);
+        NavigableSet<Entry> ranking = genreKey != null ? byGenre.get(genreKey) : null;
+        if (ranking != null) {
+            ranking.remove(entry);
+            if (ranking.isEmpty()) {
+                byGenre.remove(genreKey);
+            }
+        }
+    }
+
+    private void rank(Entry entry) {
+        global.add(entry);
+        String genreKey = normalizeGenre(entry.genre);
+        if (genreKey != null) {
+            byGenre.computeIfAbsent(genreKey, g -> new TreeSet<>(RANKING)).add(entry);
+        }
+    }
+
+    private static String normalizeGenre(String genre) {
+        return genre != null && !genre.isBlank() ? genre.trim().toLowerCase() : null;
+    }
+
+    private static final class Entry {
+        private final long id;
+        private String title;
+        private String artistName;
+        private String genre;
+        private double score;
+
+        private Entry(long id) {
+            this.id = id;
+        }
+
+        private Entry copy() {
+            Entry copy = new Entry(id);
+            copy.title = title;
+            copy.artistName = artistName;
+            copy.genre = genre;
+            copy.score = score;
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.labelreader.service;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.labelreader.entity.NotificationCounter;
+import com.labelreader.repository.NotificationCounterRepository;
+import com.labelreader.repository.NotificationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves each user's unread notification count from a counter row instead of
+ * counting their notifications. The counter is adjusted in the same
+ * transaction as the change it reflects and cached in memory; the cached
+ * value is dropped once that transaction commits. Counters are created on
+ * first use from the real count and checked against it periodically, so any
+ * drift is corrected.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCountService {
+
+    private final NotificationCounterRepository counterRepository;
+    private final NotificationRepository notificationRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.unread.cache-ttl-seconds:30}")
+    private long cacheTtlSeconds;
+
+    @Value("${notification.unread.cache-max-entries:100000}")
+    private long cacheMaxEntries;
+
+    @Value("${notification.unread.reconcile-batch-size:1000}")
+    private int reconcileBatchSize;
+
+    private LoadingCache<Long, Long> counts;
+    private TransactionTemplate newTransaction;
+    private Counter drift;
+
+    @PostConstruct
+    public void init() {
+        counts = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(cacheTtlSeconds))
+                .build(this::load);
+        // Counters may be created from a read-only request or after a commit
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        drift = Counter.builder("notification.unread.drift")
+                .description("Unread counters found out of step with the notifications and corrected")
+                .register(meterRegistry);
+    }
+
+    public long get(Long userId) {
+        return counts.get(userId);
+    }
+
+    /**
+     * Moves the user's counter by {@code delta} within the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        if (counterRepository.addToUnread(userId, delta) == 0) {
+            counterRepository.initialize(userId, delta);
+        }
+        invalidateOnCommit(userId);
+    }
+
+    /**
+     * Resets the user's counter to the real count within the caller's
+     * transaction, for changes that cannot tell how many unread
+     * notifications they touched. A missing counter is left to be created
+     * from the real count when first read.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recount(Long userId) {
+        counterRepository.recountUnread(userId);
+        invalidateOnCommit(userId);
+    }
+
+    private void invalidateOnCommit(Long userId) {
+        counts.invalidate(userId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counts.invalidate(userId);
+            }
+        });
+    }
+
+    /**
+     * Adds one to the counter of every user within the caller's transaction.
+     * Users without a counter yet are left alone; theirs is created from the
+     * real count, which includes the change, when first read.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void incrementAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        counterRepository.addToUnreadForUsers(userIds, 1);
+        counts.invalidateAll(userIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counts.invalidateAll(userIds);
+            }
+        });
+    }
+
+    private Long load(Long userId) {
+        return counterRepository.findById(userId)
+                .map(NotificationCounter::getUnreadCount)
+                .orElseGet(() -> newTransaction.execute(status -> {
+                    counterRepository.initialize(userId, 0);
+                    return counterRepository.findById(userId).map(NotificationCounter::getUnreadCount).orElse(0L);
+                }));
+    }
+
+    /**
+     * Compares every counter with the real count in batches and corrects the
+     * ones that differ. A differing counter is locked and recounted before it
+     * is overwritten, so changes in flight during the check are not lost.
+     */
+    @Scheduled(fixedDelayString = "${notification.unread.reconcile-interval-ms:3600000}",
+            initialDelayString = "${notification.unread.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        long corrected = 0;
+        long lastUserId = 0;
+        List<NotificationCounter> batch;
+        do {
+            batch = counterRepository.findByUserIdGreaterThanOrderByUserIdAsc(
+                    lastUserId, PageRequest.of(0, reconcileBatchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, Long> actual = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByUserIds(
+                    batch.stream().map(NotificationCounter::getUserId).toList())) {
+                actual.put((Long) row[0], (Long) row[1]);
+            }
+            for (NotificationCounter counter : batch) {
+                if (counter.getUnreadCount() != actual.getOrDefault(counter.getUserId(), 0L).longValue()) {
+                    corrected += correct(counter.getUserId());
+                }
+                lastUserId = counter.getUserId();
+            }
+        } while (batch.size() == reconcileBatchSize);
+
+        if (corrected > 0) {
+            log.info("Corrected {} unread notification counters", corrected);
+        }
+    }
+
+    private int correct(Long userId) {
+        Integer changed = newTransaction.execute(status -> counterRepository.lockByUserId(userId)
+                .map(counter -> {
+                    long unread = notificationRepository.countByUserIdAndIsRead(userId, false);
+                    if (counter.getUnreadCount() == unread) {
+                        return 0;
+                    }
+                    counterRepository.setUnread(userId, unread);
+                    return 1;
+                })
+                .orElse(0));
+        counts.invalidate(userId);
+        if (changed != null && changed > 0) {
+            drift.increment();
+            return changed;
+        }
+        return 0;
+    }
+}
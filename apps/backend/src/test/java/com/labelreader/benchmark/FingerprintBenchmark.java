@@ -0,0 +1,154 @@
+package com.labelreader.benchmark;
+
+import com.labelreader.index.AudioFingerprint;
+import com.labelreader.index.FingerprintIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fingerprint extraction time for a three minute track already decoded to
+ * 44.1 kHz mono, and near-duplicate lookup latency in the LSH index against a
+ * brute force scan at a million tracks. The share of planted duplicates the
+ * index finds is printed once per trial. Decoding itself depends on the codec
+ * and is not measured.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.labelreader.benchmark.FingerprintBenchmark}; the
+ * catalog needs a heap of about 2 GB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class FingerprintBenchmark {
+
+    private static final int SOURCE_RATE = 44_100;
+    private static final int MAX_DISTANCE = 64;
+    private static final int QUERIES = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Track {
+        private float[] samples;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            samples = new float[SOURCE_RATE * 180];
+            double frequency = 0;
+            for (int i = 0; i < samples.length; i++) {
+                if (i % (SOURCE_RATE / 2) == 0) {
+                    frequency = 100 + random.nextDouble() * 700;
+                }
+                samples[i] = (float) (0.3 * Math.sin(2 * Math.PI * frequency * i / SOURCE_RATE)
+                        + 0.02 * random.nextGaussian());
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+        @Param({"1000000"})
+        private int tracks;
+
+        @Param({"20"})
+        private int tables;
+
+        private FingerprintIndex index;
+        private long[][] queries;
+        private long[] duplicateIds;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            Random random = new Random(42);
+            index = new FingerprintIndex(AudioFingerprint.WORDS, tables, 16, 42L);
+            for (long id = 0; id < tracks; id++) {
+                index.add(id, randomFingerprint(random));
+            }
+            // Each query is a stored fingerprint with 40 of 512 bits flipped, as a re-encode would
+            queries = new long[QUERIES][];
+            duplicateIds = new long[QUERIES];
+            for (int i = 0; i < QUERIES; i++) {
+                long[] original = randomFingerprint(random);
+                duplicateIds[i] = tracks + i;
+                index.add(duplicateIds[i], original);
+                queries[i] = original.clone();
+                for (int bit = 0; bit < 40; bit++) {
+                    int position = random.nextInt(AudioFingerprint.BITS);
+                    queries[i][position / Long.SIZE] ^= 1L << (position % Long.SIZE);
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void reportRecall() {
+            int found = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                List<FingerprintIndex.Match> matches = index.search(queries[i], MAX_DISTANCE);
+                if (!matches.isEmpty() && matches.get(0).getId() == duplicateIds[i]) {
+                    found++;
+                }
+            }
+            System.out.printf("%nduplicates found with %d tracks, %d tables: %.3f%n",
+                    tracks, tables, found / (double) QUERIES);
+        }
+
+        private long[] nextQuery() {
+            next = (next + 1) % QUERIES;
+            return queries[next];
+        }
+    }
+
+    @Benchmark
+    public long[] fingerprint(Track track) {
+        AudioFingerprint.Downsampler downsampler = new AudioFingerprint.Downsampler(SOURCE_RATE, 900);
+        for (float sample : track.samples) {
+            downsampler.add(sample);
+        }
+        return AudioFingerprint.compute(downsampler.samples(), downsampler.length());
+    }
+
+    @Benchmark
+    public List<FingerprintIndex.Match> lshLookup(Catalog catalog) {
+        return catalog.index.search(catalog.nextQuery(), MAX_DISTANCE);
+    }
+
+    @Benchmark
+    public List<FingerprintIndex.Match> bruteForce(Catalog catalog) {
+        return catalog.index.searchExact(catalog.nextQuery(), MAX_DISTANCE);
+    }
+
+    private static long[] randomFingerprint(Random random) {
+        long[] fingerprint = new long[AudioFingerprint.WORDS];
+        for (int i = 0; i < fingerprint.length; i++) {
+            fingerprint[i] = random.nextLong();
+        }
+        return fingerprint;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FingerprintBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,101 @@
+package com.labelreader.benchmark;
+
+import com.labelreader.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token. {@code fiveParses}
+ * reproduces the former filter, which rebuilt the key and parser and parsed
+ * the token once for each claim it read; {@code singleParse} verifies once
+ * with the prebuilt parser; {@code cachedToken} is a repeat request served
+ * from the verified-token cache.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.labelreader.benchmark.JwtAuthBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-at-least-256-bits-long";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtUtil = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "accessTokenExpiration", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(jwtUtil, "refreshTokenExpiration", TimeUnit.DAYS.toMillis(7));
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxEntries", 10_000L);
+        jwtUtil.init();
+        token = jwtUtil.generateAccessToken(42L, "artist@example.com", "ARTIST");
+        jwtUtil.authenticate(token);
+    }
+
+    @Benchmark
+    public void fiveParses(Blackhole blackhole) {
+        boolean valid = legacyClaims(token) != null;
+        boolean expired = legacyClaims(token).getExpiration().before(new Date());
+        if (valid && !expired) {
+            blackhole.consume(Long.parseLong(legacyClaims(token).getSubject()));
+            blackhole.consume(legacyClaims(token).get("email", String.class));
+            blackhole.consume(legacyClaims(token).get("userType", String.class));
+        }
+    }
+
+    @Benchmark
+    public JwtUtil.AccessToken singleParse() {
+        return jwtUtil.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.AccessToken cachedToken() {
+        return jwtUtil.authenticate(token);
+    }
+
+    private static Claims legacyClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
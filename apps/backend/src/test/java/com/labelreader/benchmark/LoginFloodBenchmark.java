@@ -0,0 +1,125 @@
+package com.labelreader.benchmark;
+
+import com.labelreader.security.PasswordHasher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Latency of ordinary API work while a login flood runs alongside it. In the
+ * {@code direct} group every request thread hashes on its own, as logins did
+ * before; in {@code pooled} they go through {@link PasswordHasher}, which
+ * hashes on half the cores and refuses the overflow. Compare the
+ * {@code apiRequest} percentiles of the two groups; the flood threads should
+ * outnumber the cores of the machine running it.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.labelreader.benchmark.LoginFloodBenchmark}.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class LoginFloodBenchmark {
+
+    private static final String PASSWORD = "Password123";
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+    private int[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(10);
+        hash = encoder.encode(PASSWORD);
+        hasher = new PasswordHasher(encoder, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(hasher, "queueCapacity", 64);
+        ReflectionTestUtils.setField(hasher, "timeoutMs", 5000L);
+        hasher.init();
+
+        Random random = new Random(42);
+        payload = new int[4096];
+        for (int i = 0; i < payload.length; i++) {
+            payload[i] = random.nextInt();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(32)
+    public boolean directLogin() {
+        return encoder.matches(PASSWORD, hash);
+    }
+
+    @Benchmark
+    @Group("direct")
+    @GroupThreads(2)
+    public int[] directApiRequest() {
+        return apiWork();
+    }
+
+    @Benchmark
+    @Group("pooled")
+    @GroupThreads(32)
+    public boolean pooledLogin() {
+        try {
+            return hasher.matches(PASSWORD, hash);
+        } catch (ResponseStatusException e) {
+            // A refused client comes back after a round trip, not instantly
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+            return false;
+        }
+    }
+
+    @Benchmark
+    @Group("pooled")
+    @GroupThreads(2)
+    public int[] pooledApiRequest() {
+        return apiWork();
+    }
+
+    // Stand-in for a cheap endpoint: a few hundred microseconds of CPU
+    private int[] apiWork() {
+        int[] copy = Arrays.copyOf(payload, payload.length);
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoginFloodBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
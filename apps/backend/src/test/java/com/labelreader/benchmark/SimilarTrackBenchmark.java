@@ -0,0 +1,123 @@
+package com.labelreader.benchmark;
+
+import com.labelreader.index.HnswIndex;
+import com.labelreader.index.TrackFeatures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-10 similar track latency of the HNSW index against a brute force scan
+ * over catalogues of realistic track vectors. Recall of the index against the
+ * exact answer is printed once per trial.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.labelreader.benchmark.SimilarTrackBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SimilarTrackBenchmark {
+
+    private static final String[] GENRES = {
+            "House", "Techno", "Hip Hop", "Pop", "Rock", "Jazz", "Drum and Bass", "Ambient", "R&B", "Country"};
+    private static final String[] KEYS = {
+            "C", "G", "D", "A", "E", "B", "F#", "Db", "Ab", "Eb", "Bb", "F",
+            "Am", "Em", "Bm", "F#m", "C#m", "G#m", "Ebm", "Bbm", "Fm", "Cm", "Gm", "Dm"};
+    private static final int K = 10;
+    private static final int QUERIES = 256;
+
+    @Param({"10000", "100000"})
+    private int tracks;
+
+    @Param({"64"})
+    private int ef;
+
+    private HnswIndex index;
+    private float[][] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new HnswIndex(TrackFeatures.DIMENSIONS, 16, 100, 42L);
+        for (long id = 0; id < tracks; id++) {
+            index.add(id, randomTrack(random));
+        }
+        queries = new float[QUERIES][];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = randomTrack(random);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void reportRecall() {
+        int hits = 0;
+        for (float[] query : queries) {
+            Set<Long> exact = new HashSet<>();
+            index.searchExact(query, K).forEach(neighbour -> exact.add(neighbour.getId()));
+            for (HnswIndex.Neighbour neighbour : index.search(query, K, ef)) {
+                if (exact.contains(neighbour.getId())) {
+                    hits++;
+                }
+            }
+        }
+        System.out.printf("%nrecall@%d with %d tracks, ef=%d: %.3f%n", K, tracks, ef, hits / (double) (QUERIES * K));
+    }
+
+    @Benchmark
+    public List<HnswIndex.Neighbour> hnsw() {
+        return index.search(nextQuery(), K, ef);
+    }
+
+    @Benchmark
+    public List<HnswIndex.Neighbour> bruteForce() {
+        return index.searchExact(nextQuery(), K);
+    }
+
+    private float[] nextQuery() {
+        next = (next + 1) % QUERIES;
+        return queries[next];
+    }
+
+    private static float[] randomTrack(Random random) {
+        String genre = GENRES[random.nextInt(GENRES.length)];
+        return TrackFeatures.vector(
+                genre,
+                genre + " " + random.nextInt(6),
+                (int) Math.round(120 + random.nextGaussian() * 25),
+                KEYS[random.nextInt(KEYS.length)],
+                random.nextInt(4) == 0 ? null : 1 + random.nextDouble() * 4,
+                random.nextDouble(),
+                random.nextDouble());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SimilarTrackBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
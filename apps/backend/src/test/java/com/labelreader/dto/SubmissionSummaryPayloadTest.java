@@ -0,0 +1,82 @@
+package com.labelreader.dto;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labelreader.entity.Submission;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SubmissionSummaryPayloadTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void summaryPage_IsMuchSmallerThanFullPage() throws Exception {
+        List<SubmissionDto> full = new ArrayList<>();
+        List<SubmissionSummaryDto> summaries = new ArrayList<>();
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            Submission submission = submission(id);
+            full.add(SubmissionDto.fromEntity(submission));
+            summaries.add(summary(submission));
+        }
+
+        int fullBytes = objectMapper.writeValueAsBytes(full).length;
+        int summaryBytes = objectMapper.writeValueAsBytes(summaries).length;
+
+        // A typical page with lyrics and a long description drops by well over half
+        assertTrue(summaryBytes * 4 < fullBytes,
+                "summary page " + summaryBytes + " bytes vs full page " + fullBytes + " bytes");
+    }
+
+    private static Submission submission(long id) {
+        return Submission.builder()
+                .id(id)
+                .artistId(7L)
+                .title("Track " + id)
+                .artistName("Some Artist")
+                .genre("House")
+                .subGenre("Deep House")
+                .bpm(124)
+                .keySignature("A minor")
+                .filePath("uploads/" + id + "-3f1c2a9e-5b7d-4e21-9a43-0c8d1e6f7b20.wav")
+                .fileSizeBytes(48_000_000L)
+                .durationSeconds(372)
+                .description("Late night groove with warm pads and a rolling bassline. ".repeat(15))
+                .lyrics("Hold on to the night, we are moving with the light\n".repeat(60))
+                .isPublished(true)
+                .submissionStatus(Submission.SubmissionStatus.APPROVED)
+                .playCount(1200)
+                .averageRating(new BigDecimal("4.20"))
+                .totalRatings(35)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 10, 0))
+                .updatedAt(LocalDateTime.of(2024, 3, 2, 10, 0))
+                .build();
+    }
+
+    private static SubmissionSummaryDto summary(Submission submission) {
+        // Mirrors the columns selected by SubmissionRepository.SUMMARY_FIELDS
+        return new SubmissionSummaryDto(
+                submission.getId(),
+                submission.getArtistId(),
+                submission.getTitle(),
+                submission.getArtistName(),
+                submission.getGenre(),
+                submission.getSubGenre(),
+                submission.getBpm(),
+                submission.getKeySignature(),
+                submission.getDurationSeconds(),
+                submission.getDescription().substring(0, SubmissionSummaryDto.DESCRIPTION_SNIPPET_LENGTH),
+                submission.getSubmissionStatus(),
+                submission.getPlayCount(),
+                submission.getAverageRating(),
+                submission.getTotalRatings(),
+                submission.getCreatedAt());
+    }
+}
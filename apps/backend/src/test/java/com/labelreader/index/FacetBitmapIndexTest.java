@@ -0,0 +1,90 @@
+package com.labelreader.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FacetBitmapIndexTest {
+
+    private FacetBitmapIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetBitmapIndex();
+        index.upsert(new FacetBitmapIndex.Document(1, "Techno", "Minimal", "Am", 128, 4.50, 10));
+        index.upsert(new FacetBitmapIndex.Document(2, "Techno", "Peak Time", "Fm", 135, 3.75, 50));
+        index.upsert(new FacetBitmapIndex.Document(3, "House", "Deep", "Am", 122, 4.00, 5));
+        index.upsert(new FacetBitmapIndex.Document(4, "house", null, null, null, 0.0, 0));
+    }
+
+    private List<Integer> ids(RoaringBitmap bitmap) {
+        return index.page(bitmap, FacetBitmapIndex.SortKey.ID, true, 0, 100);
+    }
+
+    @Test
+    void evaluate_OrWithinFacetAndAcrossFacets() {
+        FacetQuery query = FacetQuery.builder()
+                .genres(List.of("techno", "HOUSE"))
+                .keySignatures(List.of("Am"))
+                .build();
+
+        assertEquals(List.of(1, 3), ids(index.evaluate(query)));
+    }
+
+    @Test
+    void evaluate_BpmRangeAndExactMinRating() {
+        FacetQuery query = FacetQuery.builder()
+                .minBpm(125)
+                .maxBpm(140)
+                .minRating(3.8)
+                .build();
+
+        assertEquals(List.of(1), ids(index.evaluate(query)));
+
+        FacetQuery boundary = FacetQuery.builder().minRating(3.75).build();
+        assertEquals(List.of(1, 2, 3), ids(index.evaluate(boundary)));
+    }
+
+    @Test
+    void facetCounts_ExcludeOwnConstraint() {
+        FacetQuery query = FacetQuery.builder().genres(List.of("Techno")).build();
+
+        Map<FacetBitmapIndex.Facet, Map<String, Integer>> counts = index.facetCounts(query);
+
+        assertEquals(Map.of("Techno", 2, "House", 2), counts.get(FacetBitmapIndex.Facet.GENRE));
+        assertEquals(Map.of("Am", 1, "Fm", 1), counts.get(FacetBitmapIndex.Facet.KEY_SIGNATURE));
+        assertEquals(Map.of("120-129", 1, "130-139", 1), counts.get(FacetBitmapIndex.Facet.BPM));
+    }
+
+    @Test
+    void upsert_MovesDocumentBetweenBitmaps() {
+        index.upsert(new FacetBitmapIndex.Document(2, "House", "Deep", "Fm", 124, 3.75, 50));
+
+        FacetQuery techno = FacetQuery.builder().genres(List.of("Techno")).build();
+        assertEquals(List.of(1), ids(index.evaluate(techno)));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_DropsDocumentFromAllFacets() {
+        index.remove(1);
+
+        FacetQuery query = FacetQuery.builder().keySignatures(List.of("Am")).build();
+        assertEquals(List.of(3), ids(index.evaluate(query)));
+        assertNull(index.get(1));
+    }
+
+    @Test
+    void page_SortsByValueAndAppliesOffset() {
+        RoaringBitmap all = index.evaluate(FacetQuery.builder().build());
+
+        assertEquals(List.of(2, 1), index.page(all, FacetBitmapIndex.SortKey.PLAY_COUNT, false, 0, 2));
+        assertEquals(List.of(3, 4), index.page(all, FacetBitmapIndex.SortKey.PLAY_COUNT, false, 2, 2));
+        assertEquals(List.of(4, 3), index.page(all, FacetBitmapIndex.SortKey.ID, false, 0, 2));
+    }
+}
@@ -0,0 +1,133 @@
+package com.labelreader.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FingerprintIndexTest {
+
+    /**
+     * Notes of random pitch and timbre over light noise, a new one every half
+     * second or so.
+     */
+    private static float[] synthesize(long seed, int seconds) {
+        Random random = new Random(seed);
+        float[] samples = new float[seconds * AudioFingerprint.SAMPLE_RATE];
+        double frequency = 0;
+        double amplitude = 0;
+        double[] harmonics = new double[3];
+        int nextNote = 0;
+        for (int i = 0; i < samples.length; i++) {
+            if (i == nextNote) {
+                frequency = 100 + random.nextDouble() * 700;
+                amplitude = 0.1 + random.nextDouble() * 0.4;
+                for (int h = 0; h < harmonics.length; h++) {
+                    harmonics[h] = random.nextDouble();
+                }
+                nextNote += AudioFingerprint.SAMPLE_RATE / 2 + random.nextInt(AudioFingerprint.SAMPLE_RATE);
+            }
+            double t = i / (double) AudioFingerprint.SAMPLE_RATE;
+            double value = 0;
+            for (int h = 0; h < harmonics.length; h++) {
+                value += harmonics[h] * Math.sin(2 * Math.PI * frequency * (h + 1) * t) / (h + 1);
+            }
+            samples[i] = (float) (amplitude * value * 0.3 + 0.02 * random.nextGaussian());
+        }
+        return samples;
+    }
+
+    /**
+     * Quieter, slightly low-passed and noisier copy behind some encoder padding.
+     */
+    private static float[] reencode(float[] samples, int padding) {
+        Random random = new Random(1);
+        float[] copy = new float[samples.length + padding];
+        float previous = 0;
+        for (int i = 0; i < samples.length; i++) {
+            float value = (float) (0.7 * samples[i] + 0.003 * random.nextGaussian());
+            previous = 0.5f * value + 0.5f * previous;
+            copy[padding + i] = previous;
+        }
+        return copy;
+    }
+
+    @Test
+    void compute_KeepsReencodesCloseAndSeparatesDifferentTracks() {
+        float[] original = synthesize(1, 40);
+        float[] reencoded = reencode(original, 150);
+        float[] other = synthesize(2, 40);
+
+        long[] fingerprint = AudioFingerprint.compute(original, original.length);
+        int sameTrack = AudioFingerprint.distance(fingerprint, AudioFingerprint.compute(reencoded, reencoded.length));
+        int otherTrack = AudioFingerprint.distance(fingerprint, AudioFingerprint.compute(other, other.length));
+
+        assertTrue(sameTrack < 40, "re-encode distance was " + sameTrack);
+        assertTrue(otherTrack > 150, "different track distance was " + otherTrack);
+    }
+
+    @Test
+    void compute_RejectsSilenceAndShortClips() {
+        assertNull(AudioFingerprint.compute(new float[AudioFingerprint.SAMPLE_RATE * 30], AudioFingerprint.SAMPLE_RATE * 30));
+        float[] clip = synthesize(3, 5);
+        assertNull(AudioFingerprint.compute(clip, clip.length));
+    }
+
+    @Test
+    void search_FindsNearDuplicatesAmongRandomFingerprints() {
+        Random random = new Random(7);
+        FingerprintIndex index = new FingerprintIndex(AudioFingerprint.WORDS, 20, 16, 1L);
+        long[][] stored = new long[20_000][];
+        for (int id = 0; id < stored.length; id++) {
+            stored[id] = randomFingerprint(random);
+            index.add(id, stored[id]);
+        }
+
+        int queries = 200;
+        int found = 0;
+        for (int q = 0; q < queries; q++) {
+            int id = random.nextInt(stored.length);
+            List<FingerprintIndex.Match> matches = index.search(flip(stored[id], 40, random), 64);
+            if (!matches.isEmpty() && matches.get(0).getId() == id) {
+                found++;
+            }
+        }
+        assertTrue(found >= queries * 0.95, "found " + found + " of " + queries);
+    }
+
+    @Test
+    void addAndRemove_ReplaceAndDropFingerprints() {
+        Random random = new Random(3);
+        FingerprintIndex index = new FingerprintIndex(AudioFingerprint.WORDS, 8, 12, 1L);
+        long[] first = randomFingerprint(random);
+        long[] second = randomFingerprint(random);
+        index.add(1L, first);
+        index.add(2L, second);
+
+        index.add(1L, second);
+        index.remove(2L);
+
+        assertEquals(1, index.size());
+        assertTrue(index.search(first, 0).isEmpty());
+        assertEquals(List.of(1L), index.search(second, 0).stream().map(FingerprintIndex.Match::getId).toList());
+    }
+
+    private static long[] randomFingerprint(Random random) {
+        long[] fingerprint = new long[AudioFingerprint.WORDS];
+        for (int i = 0; i < fingerprint.length; i++) {
+            fingerprint[i] = random.nextLong();
+        }
+        return fingerprint;
+    }
+
+    private static long[] flip(long[] fingerprint, int bits, Random random) {
+        long[] copy = fingerprint.clone();
+        for (int i = 0; i < bits; i++) {
+            int bit = random.nextInt(AudioFingerprint.BITS);
+            copy[bit / Long.SIZE] ^= 1L << (bit % Long.SIZE);
+        }
+        return copy;
+    }
+}
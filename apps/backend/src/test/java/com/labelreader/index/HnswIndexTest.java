@@ -0,0 +1,83 @@
+package com.labelreader.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HnswIndexTest {
+
+    private static float[] randomVector(Random random, int dimensions) {
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+
+    @Test
+    void search_MatchesBruteForceOnMostNeighbours() {
+        Random random = new Random(7);
+        HnswIndex index = new HnswIndex(TrackFeatures.DIMENSIONS, 16, 100, 1L);
+        for (long id = 0; id < 5000; id++) {
+            index.add(id, randomVector(random, TrackFeatures.DIMENSIONS));
+        }
+
+        int queries = 100;
+        int k = 10;
+        int hits = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = randomVector(random, TrackFeatures.DIMENSIONS);
+            Set<Long> exact = new HashSet<>();
+            index.searchExact(query, k).forEach(neighbour -> exact.add(neighbour.getId()));
+            for (HnswIndex.Neighbour neighbour : index.search(query, k, 64)) {
+                if (exact.contains(neighbour.getId())) {
+                    hits++;
+                }
+            }
+        }
+        double recall = hits / (double) (queries * k);
+        assertTrue(recall >= 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    void addAndRemove_SkipDeletedAndReplacedVectors() {
+        HnswIndex index = new HnswIndex(2, 4, 16, 1L);
+        index.add(1L, new float[]{0, 0});
+        index.add(2L, new float[]{1, 0});
+        index.add(3L, new float[]{5, 5});
+
+        index.remove(2L);
+        index.add(3L, new float[]{0.5f, 0});
+
+        List<HnswIndex.Neighbour> result = index.search(new float[]{1, 0}, 3, 10);
+        assertEquals(List.of(3L, 1L), result.stream().map(HnswIndex.Neighbour::getId).toList());
+        assertEquals(2, index.size());
+        assertEquals(2, index.deletedCount());
+
+        index.compact();
+        assertEquals(0, index.deletedCount());
+        assertEquals(List.of(3L, 1L), index.search(new float[]{1, 0}, 3, 10).stream()
+                .map(HnswIndex.Neighbour::getId).toList());
+    }
+
+    @Test
+    void trackFeatures_PlaceRelatedKeysAndGenresCloser() {
+        assertEquals(0, TrackFeatures.circleOfFifths("C"));
+        assertEquals(0, TrackFeatures.circleOfFifths("A minor"));
+        assertEquals(1, TrackFeatures.circleOfFifths("G"));
+        assertEquals(6, TrackFeatures.circleOfFifths("F#"));
+        assertEquals(TrackFeatures.circleOfFifths("Bb"), TrackFeatures.circleOfFifths("Gm"));
+        assertEquals(-1, TrackFeatures.circleOfFifths("unknown"));
+
+        float[] house = TrackFeatures.vector("House", "Deep House", 124, "Am", 4.0, null, null);
+        float[] similarHouse = TrackFeatures.vector("house", "Tech House", 126, "C", 3.5, null, null);
+        float[] jazz = TrackFeatures.vector("Jazz", "Bebop", 124, "Am", 4.0, null, null);
+
+        assertTrue(HnswIndex.distance(house, similarHouse) < HnswIndex.distance(house, jazz));
+    }
+}
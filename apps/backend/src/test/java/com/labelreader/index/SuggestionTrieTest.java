@@ -0,0 +1,79 @@
+package com.labelreader.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionTrieTest {
+
+    private List<Long> ids(List<SuggestionTrie.Entry> entries) {
+        return entries.stream().map(SuggestionTrie.Entry::getId).toList();
+    }
+
+    @Test
+    void complete_ReturnsHighestWeightFirst() {
+        SuggestionTrie trie = new SuggestionTrie(100, 3, 64);
+        trie.put("title", 1L, "Midnight Drive", 5);
+        trie.put("title", 2L, "Midas Touch", 20);
+        trie.put("title", 3L, "Mild Sauce", 1);
+        trie.put("title", 4L, "Sunrise", 50);
+
+        assertEquals(List.of(2L, 1L, 3L), ids(trie.complete("mi", 10)));
+        assertEquals(List.of(2L, 1L), ids(trie.complete("mid", 10)));
+        assertTrue(trie.complete("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void complete_MatchesLaterWordsAndIgnoresCaseAndAccents() {
+        SuggestionTrie trie = new SuggestionTrie(100, 5, 64);
+        trie.put("artist", 1L, "Beyoncé & The Band", 1);
+
+        assertEquals(List.of(1L), ids(trie.complete("BEYONCE", 5)));
+        assertEquals(List.of(1L), ids(trie.complete("band", 5)));
+        assertEquals(List.of(1L), ids(trie.complete("the b", 5)));
+    }
+
+    @Test
+    void put_UpdatesWeightAndRefillsCachesOnRemove() {
+        SuggestionTrie trie = new SuggestionTrie(100, 2, 64);
+        trie.put("title", 1L, "Alpha", 3);
+        trie.put("title", 2L, "Alpine", 2);
+        trie.put("title", 3L, "Altitude", 1);
+
+        trie.put("title", 3L, "Altitude", 10);
+        assertEquals(List.of(3L, 1L), ids(trie.complete("al", 5)));
+
+        trie.remove("title", 3L);
+        assertEquals(List.of(1L, 2L), ids(trie.complete("al", 5)));
+    }
+
+    @Test
+    void put_EvictsLowestWeightWhenFull() {
+        SuggestionTrie trie = new SuggestionTrie(2, 5, 64);
+        trie.put("title", 1L, "One", 1);
+        trie.put("title", 2L, "Two", 2);
+
+        assertFalse(trie.put("title", 3L, "Three", 0.5));
+        assertTrue(trie.put("title", 4L, "Four", 3));
+
+        assertEquals(2, trie.size());
+        assertNull(trie.get("title", 1L));
+        assertTrue(trie.complete("one", 5).isEmpty());
+    }
+
+    @Test
+    void remove_PrunesNodes() {
+        SuggestionTrie trie = new SuggestionTrie(100, 5, 64);
+        int emptyNodes = trie.nodeCount();
+        long emptyBytes = trie.estimatedBytes();
+
+        trie.put("label", 1L, "Night Shift Records", 1);
+        assertTrue(trie.estimatedBytes() > emptyBytes);
+
+        trie.remove("label", 1L);
+        assertEquals(emptyNodes, trie.nodeCount());
+        assertEquals(emptyBytes, trie.estimatedBytes());
+    }
+}
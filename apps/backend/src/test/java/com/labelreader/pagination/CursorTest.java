@@ -0,0 +1,46 @@
+package com.labelreader.pagination;
+
+import com.labelreader.dto.SubmissionSummaryDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorTest {
+
+    @Test
+    void encode_RoundTripsSortKeyAndId() {
+        SubmissionSummaryDto last = SubmissionSummaryDto.builder()
+                .id(42L)
+                .createdAt(LocalDateTime.of(2024, 5, 1, 12, 30, 15))
+                .averageRating(new BigDecimal("4.25"))
+                .build();
+
+        Cursor newest = Cursor.decode(Cursor.after(SubmissionSort.NEWEST, last).encode(), SubmissionSort.NEWEST);
+        Cursor topRated = Cursor.decode(Cursor.after(SubmissionSort.TOP_RATED, last).encode(), SubmissionSort.TOP_RATED);
+
+        assertEquals(42L, newest.getId());
+        assertEquals(LocalDateTime.of(2024, 5, 1, 12, 30, 15), SubmissionSort.NEWEST.parseKey(newest.getKey()));
+        assertEquals(new BigDecimal("4.25"), SubmissionSort.TOP_RATED.parseKey(topRated.getKey()));
+    }
+
+    @Test
+    void decode_RejectsCursorFromAnotherSortOrTamperedToken() {
+        SubmissionSummaryDto last = SubmissionSummaryDto.builder().id(1L).playCount(7).build();
+        String token = Cursor.after(SubmissionSort.MOST_PLAYED, last).encode();
+
+        assertNull(Cursor.decode(null, SubmissionSort.NEWEST));
+        assertThrows(ResponseStatusException.class, () -> Cursor.decode(token, SubmissionSort.NEWEST));
+        assertThrows(ResponseStatusException.class, () -> Cursor.decode("not-a-cursor", SubmissionSort.NEWEST));
+    }
+
+    @Test
+    void pageSort_RejectsUnindexedColumns() {
+        assertEquals(2, SubmissionSort.pageSort("createdAt", "DESC").stream().count());
+        assertThrows(ResponseStatusException.class, () -> SubmissionSort.pageSort("lyrics", "ASC"));
+        assertThrows(ResponseStatusException.class, () -> SubmissionSort.from("random"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.labelreader.push;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcNotificationPushRelayTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JdbcTemplate jdbcTemplate;
+    private JdbcNotificationPushRelay relay;
+    private final List<Long> received = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:pushrelay;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + JdbcNotificationPushRelay.TABLE);
+        relay = new JdbcNotificationPushRelay(jdbcTemplate, objectMapper, new SimpleMeterRegistry());
+        // Polls are driven by the test
+        ReflectionTestUtils.setField(relay, "pollIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "lookbackMs", 10_000L);
+        relay.init();
+        relay.subscribe(push -> received.add(push.getUserId()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.shutdown();
+    }
+
+    private void insert(long id, long userId) throws Exception {
+        String payload = objectMapper.writeValueAsString(
+                new NotificationPush(NotificationPush.TYPE_UNREAD, userId, null, 1));
+        jdbcTemplate.update("INSERT INTO " + JdbcNotificationPushRelay.TABLE + " (id, payload, created_at) VALUES (?, ?, ?)",
+                id, payload, System.currentTimeMillis());
+    }
+
+    @Test
+    void poll_DeliversRowsCommittedOutOfIdOrderOnce() throws Exception {
+        insert(2, 20L);
+        insert(3, 30L);
+        insert(4, 40L);
+        relay.poll();
+
+        // Id 1 was allocated first but commits after the others were read
+        insert(1, 10L);
+        relay.poll();
+        relay.poll();
+
+        assertEquals(List.of(20L, 30L, 40L, 10L), received);
+    }
+
+    @Test
+    void init_SkipsPushesFromBeforeStart() throws Exception {
+        insert(1, 10L);
+        JdbcNotificationPushRelay restarted = new JdbcNotificationPushRelay(
+                jdbcTemplate, objectMapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(restarted, "pollIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(restarted, "batchSize", 2);
+        ReflectionTestUtils.setField(restarted, "lookbackMs", 10_000L);
+        restarted.init();
+        List<Long> restartedReceived = new ArrayList<>();
+        restarted.subscribe(push -> restartedReceived.add(push.getUserId()));
+
+        insert(2, 20L);
+        restarted.poll();
+        restarted.shutdown();
+
+        assertEquals(List.of(20L), restartedReceived);
+    }
+}
@@ -0,0 +1,85 @@
+package com.labelreader.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitStoreTest {
+
+    private static RateLimitProperties.Policy policy(String name, long capacity) {
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setName(name);
+        policy.setPattern("/api/**");
+        policy.setCapacity(capacity);
+        policy.setPeriodSeconds(60);
+        return policy;
+    }
+
+    @Test
+    void localStore_LimitsEachKeySeparately() {
+        LocalRateLimitStore store = new LocalRateLimitStore(new RateLimitProperties());
+        RateLimitProperties.Policy policy = policy("auth", 2);
+
+        assertTrue(store.tryConsume("auth:user:1", policy).isAllowed());
+        assertTrue(store.tryConsume("auth:user:1", policy).isAllowed());
+        RateLimitStore.Result rejected = store.tryConsume("auth:user:1", policy);
+        assertTrue(store.tryConsume("auth:user:2", policy).isAllowed());
+
+        assertFalse(rejected.isAllowed());
+        assertTrue(rejected.getRetryAfterMillis() > 0);
+    }
+
+    @Test
+    void localStore_StaysWithinMaxKeys() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMaxKeys(100);
+        LocalRateLimitStore store = new LocalRateLimitStore(properties);
+        RateLimitProperties.Policy policy = policy("default", 10);
+
+        for (int i = 0; i < 10_000; i++) {
+            store.tryConsume("default:ip:" + i, policy);
+        }
+
+        assertTrue(store.size() <= 100, "tracked " + store.size());
+    }
+
+    @Test
+    void jdbcStore_SharesBucketsBetweenNodes() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:ratelimit;MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        RateLimitProperties properties = new RateLimitProperties();
+        JdbcRateLimitStore first = new JdbcRateLimitStore(new JdbcTemplate(dataSource), transactionManager,
+                properties, new SimpleMeterRegistry());
+        JdbcRateLimitStore second = new JdbcRateLimitStore(new JdbcTemplate(dataSource), transactionManager,
+                properties, new SimpleMeterRegistry());
+        first.init();
+        second.init();
+        RateLimitProperties.Policy policy = policy("auth", 3);
+
+        assertTrue(first.tryConsume("auth:user:1", policy).isAllowed());
+        assertTrue(second.tryConsume("auth:user:1", policy).isAllowed());
+        assertTrue(first.tryConsume("auth:user:1", policy).isAllowed());
+        RateLimitStore.Result rejected = second.tryConsume("auth:user:1", policy);
+
+        assertFalse(rejected.isAllowed());
+        assertEquals(0, rejected.getRemaining());
+        assertTrue(rejected.getRetryAfterMillis() > 0 && rejected.getRetryAfterMillis() <= 20_000);
+
+        first.purgeIdle();
+        assertEquals(1, first.size());
+    }
+
+    @Test
+    void refill_AddsTokensInProportionUpToCapacity() {
+        RateLimitProperties.Policy policy = policy("default", 60);
+
+        assertEquals(10.0, JdbcRateLimitStore.refill(0, 10_000, policy), 1e-9);
+        assertEquals(60.0, JdbcRateLimitStore.refill(30, 120_000, policy), 1e-9);
+        assertEquals(1000, JdbcRateLimitStore.millisUntilToken(0, policy));
+    }
+}
@@ -0,0 +1,55 @@
+package com.labelreader.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = create(900000L);
+    }
+
+    private static JwtUtil create(long accessTokenExpiration) {
+        JwtUtil util = new JwtUtil(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(util, "secret", "test-secret-key-that-is-at-least-256-bits-long");
+        ReflectionTestUtils.setField(util, "accessTokenExpiration", accessTokenExpiration);
+        ReflectionTestUtils.setField(util, "refreshTokenExpiration", 604800000L);
+        ReflectionTestUtils.setField(util, "cacheMaxEntries", 100L);
+        util.init();
+        return util;
+    }
+
+    @Test
+    void authenticate_ReturnsClaimsForAccessToken() {
+        String token = jwtUtil.generateAccessToken(7L, "artist@example.com", "ARTIST");
+
+        JwtUtil.AccessToken first = jwtUtil.authenticate(token);
+        JwtUtil.AccessToken second = jwtUtil.authenticate(token);
+
+        assertNotNull(first);
+        assertEquals(7L, first.getUserId());
+        assertEquals("artist@example.com", first.getEmail());
+        assertEquals("ARTIST", first.getUserType());
+        assertSame(first, second);
+    }
+
+    @Test
+    void authenticate_RejectsRefreshTamperedAndExpiredTokens() {
+        String refreshToken = jwtUtil.generateRefreshToken(7L);
+        String accessToken = jwtUtil.generateAccessToken(7L, "artist@example.com", "ARTIST");
+        String tampered = accessToken.substring(0, accessToken.length() - 2) + "xx";
+        String expired = create(-1000L).generateAccessToken(7L, "artist@example.com", "ARTIST");
+
+        assertNull(jwtUtil.authenticate(refreshToken));
+        assertNull(jwtUtil.authenticate(tampered));
+        assertNull(jwtUtil.authenticate(expired));
+        assertNull(jwtUtil.authenticate("not-a-token"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.labelreader.security;
+
+import com.labelreader.entity.User;
+import com.labelreader.event.UserChangedEvent;
+import com.labelreader.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserPrincipalCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserPrincipalCache cache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserPrincipalCache(userRepository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxEntries", 100L);
+        cache.init();
+
+        user = User.builder()
+                .id(1L)
+                .email("label@example.com")
+                .firstName("Test")
+                .lastName("Label")
+                .userType(User.UserType.LABEL)
+                .isActive(true)
+                .build();
+    }
+
+    @Test
+    void get_LoadsUserOnceUntilChanged() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        UserPrincipal first = cache.get(1L);
+        UserPrincipal second = cache.get(1L);
+        user.setIsActive(false);
+        cache.onUserChanged(new UserChangedEvent(1L));
+        UserPrincipal afterChange = cache.get(1L);
+
+        assertSame(first, second);
+        assertEquals(User.UserType.LABEL, first.getUserType());
+        assertTrue(first.isActive());
+        assertFalse(afterChange.isActive());
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void get_ReturnsNullForMissingUser() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertNull(cache.get(2L));
+    }
+}
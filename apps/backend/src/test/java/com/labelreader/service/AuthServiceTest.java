@@ -9,13 +9,17 @@ import com.labelreader.repository.ArtistProfileRepository;
 import com.labelreader.repository.LabelProfileRepository;
 import com.labelreader.repository.UserRepository;
 import com.labelreader.security.JwtUtil;
+import com.labelreader.security.PasswordHasher;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.util.Optional;
 
@@ -38,11 +42,20 @@ class AuthServiceTest {
     private LabelProfileRepository labelProfileRepository;
 
     @Mock
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private AuthService authService;
 
@@ -80,11 +93,11 @@ class AuthServiceTest {
     @Test
     void register_Success() {
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(passwordHasher.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(artistProfileRepository.save(any(ArtistProfile.class))).thenReturn(new ArtistProfile());
         when(jwtUtil.generateAccessToken(anyLong(), anyString(), anyString())).thenReturn("accessToken");
-        when(jwtUtil.generateRefreshToken(anyLong())).thenReturn("refreshToken");
+        when(refreshTokenService.issue(anyLong())).thenReturn("refreshToken");
 
         AuthResponse result = authService.register(registerRequest);
 
@@ -97,6 +110,22 @@ class AuthServiceTest {
         verify(artistProfileRepository, times(1)).save(any(ArtistProfile.class));
     }
 
+    @Test
+    void register_HashesPasswordBeforeTransactionStarts() {
+        when(userRepository.existsByEmail(anyString())).thenReturn(false);
+        when(passwordHasher.encode(anyString())).thenReturn("encodedPassword");
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(jwtUtil.generateAccessToken(anyLong(), anyString(), anyString())).thenReturn("accessToken");
+        when(refreshTokenService.issue(anyLong())).thenReturn("refreshToken");
+
+        authService.register(registerRequest);
+
+        InOrder inOrder = inOrder(passwordHasher, transactionManager, userRepository);
+        inOrder.verify(passwordHasher).encode("password123");
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(userRepository).save(any(User.class));
+    }
+
     @Test
     void register_EmailAlreadyExists_ThrowsException() {
         when(userRepository.existsByEmail(anyString())).thenReturn(true);
@@ -111,9 +140,9 @@ class AuthServiceTest {
     @Test
     void login_Success() {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(true);
         when(jwtUtil.generateAccessToken(anyLong(), anyString(), anyString())).thenReturn("accessToken");
-        when(jwtUtil.generateRefreshToken(anyLong())).thenReturn("refreshToken");
+        when(refreshTokenService.issue(anyLong())).thenReturn("refreshToken");
 
         AuthResponse result = authService.login(loginRequest);
 
@@ -127,7 +156,7 @@ class AuthServiceTest {
     @Test
     void login_InvalidPassword_ThrowsException() {
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(false);
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(false);
 
         assertThrows(RuntimeException.class, () -> {
             authService.login(loginRequest);
@@ -147,7 +176,7 @@ class AuthServiceTest {
     void login_InactiveUser_ThrowsException() {
         testUser.setIsActive(false);
         when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
-        when(passwordEncoder.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(true);
 
         assertThrows(RuntimeException.class, () -> {
             authService.login(loginRequest);
@@ -162,15 +191,53 @@ class AuthServiceTest {
         testUser.setUserType(User.UserType.LABEL);
 
         when(userRepository.existsByEmail(anyString())).thenReturn(false);
-        when(passwordEncoder.encode(anyString())).thenReturn("encodedPassword");
+        when(passwordHasher.encode(anyString())).thenReturn("encodedPassword");
         when(userRepository.save(any(User.class))).thenReturn(testUser);
         when(labelProfileRepository.save(any())).thenReturn(null);
         when(jwtUtil.generateAccessToken(anyLong(), anyString(), anyString())).thenReturn("accessToken");
-        when(jwtUtil.generateRefreshToken(anyLong())).thenReturn("refreshToken");
+        when(refreshTokenService.issue(anyLong())).thenReturn("refreshToken");
 
         AuthResponse result = authService.register(registerRequest);
 
         assertNotNull(result);
         verify(labelProfileRepository, times(1)).save(any());
     }
+
+    @Test
+    void refresh_RotatesTokenForActiveUser() {
+        when(refreshTokenService.redeem("oldToken")).thenReturn(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(jwtUtil.generateAccessToken(anyLong(), anyString(), anyString())).thenReturn("accessToken");
+        when(refreshTokenService.issue(1L)).thenReturn("newToken");
+
+        AuthResponse result = authService.refresh("oldToken");
+
+        assertEquals("accessToken", result.getAccessToken());
+        assertEquals("newToken", result.getRefreshToken());
+    }
+
+    @Test
+    void refresh_InactiveUser_ThrowsException() {
+        testUser.setIsActive(false);
+        when(refreshTokenService.redeem("oldToken")).thenReturn(1L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+
+        assertThrows(ResponseStatusException.class, () -> authService.refresh("oldToken"));
+        verify(refreshTokenService, never()).issue(anyLong());
+    }
+
+    @Test
+    void login_RehashesPasswordMadeWithOlderCost() {
+        when(userRepository.findByEmail(anyString())).thenReturn(Optional.of(testUser));
+        when(passwordHasher.matches(anyString(), anyString())).thenReturn(true);
+        when(passwordHasher.needsRehash("encodedPassword")).thenReturn(true);
+        when(passwordHasher.encode("password123")).thenReturn("strongerHash");
+        when(jwtUtil.generateAccessToken(anyLong(), anyString(), anyString())).thenReturn("accessToken");
+        when(refreshTokenService.issue(anyLong())).thenReturn("refreshToken");
+
+        authService.login(loginRequest);
+
+        assertEquals("strongerHash", testUser.getPasswordHash());
+        verify(userRepository).save(testUser);
+    }
 }
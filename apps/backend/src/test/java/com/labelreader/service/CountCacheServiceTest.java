@@ -0,0 +1,59 @@
+package com.labelreader.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheServiceTest {
+
+    private CountCacheService countCacheService;
+
+    @BeforeEach
+    void setUp() {
+        countCacheService = new CountCacheService();
+        ReflectionTestUtils.setField(countCacheService, "ttlSeconds", 60L);
+        ReflectionTestUtils.setField(countCacheService, "maxEntries", 2L);
+        countCacheService.init();
+    }
+
+    @Test
+    void count_ReusesTotalForEquivalentFilters() {
+        AtomicInteger queries = new AtomicInteger();
+
+        long first = countCacheService.count("filter", () -> 10 + queries.incrementAndGet(),
+                "genres", List.of("House", "Techno"), "minBpm", null);
+        long second = countCacheService.count("filter", () -> 10 + queries.incrementAndGet(),
+                "genres", List.of("techno", " house"), "minBpm", "");
+
+        assertEquals(11, first);
+        assertEquals(11, second);
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void count_SeparatesScopesAndStaysBounded() {
+        countCacheService.count("search", () -> 1, "query", "a");
+        countCacheService.count("search", () -> 2, "query", "b");
+        long filter = countCacheService.count("filter", () -> 3, "query", "a");
+
+        assertEquals(3, filter);
+        assertTrue(countCacheService.size() <= 2);
+    }
+
+    @Test
+    void count_ExpiresAfterTtl() {
+        ReflectionTestUtils.setField(countCacheService, "ttlSeconds", 0L);
+        countCacheService.init();
+        AtomicInteger queries = new AtomicInteger();
+
+        countCacheService.count("discover", queries::incrementAndGet);
+        countCacheService.count("discover", queries::incrementAndGet);
+
+        assertEquals(2, queries.get());
+    }
+}
@@ -0,0 +1,60 @@
+package com.labelreader.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardStreamServiceTest {
+
+    private DashboardStreamService dashboardStreamService;
+
+    @BeforeEach
+    void setUp() {
+        dashboardStreamService = new DashboardStreamService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(dashboardStreamService, "maxConnections", 3);
+        ReflectionTestUtils.setField(dashboardStreamService, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(dashboardStreamService, "bufferSize", 10);
+        ReflectionTestUtils.setField(dashboardStreamService, "dispatcherThreads", 1);
+        ReflectionTestUtils.setField(dashboardStreamService, "heartbeatSeconds", 60L);
+        ReflectionTestUtils.setField(dashboardStreamService, "timeoutMinutes", 1L);
+        dashboardStreamService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dashboardStreamService.shutdown();
+    }
+
+    @Test
+    void subscribe_EnforcesPerUserLimit() {
+        dashboardStreamService.subscribe(1L);
+        dashboardStreamService.subscribe(1L);
+
+        assertThrows(ResponseStatusException.class, () -> dashboardStreamService.subscribe(1L));
+        assertEquals(2, dashboardStreamService.getConnectionCount());
+    }
+
+    @Test
+    void subscribe_EnforcesTotalLimit() {
+        dashboardStreamService.subscribe(1L);
+        dashboardStreamService.subscribe(2L);
+        dashboardStreamService.subscribe(3L);
+
+        assertThrows(ResponseStatusException.class, () -> dashboardStreamService.subscribe(4L));
+        assertEquals(3, dashboardStreamService.getConnectionCount());
+    }
+
+    @Test
+    void subscribe_ReturnsEmitter() {
+        SseEmitter emitter = dashboardStreamService.subscribe(1L);
+
+        assertNotNull(emitter);
+        assertEquals(1, dashboardStreamService.getConnectionCount());
+    }
+}
@@ -0,0 +1,95 @@
+package com.labelreader.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SimpleMeterRegistry meterRegistry;
+    private EmailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new EmailDispatcher(mailSender, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "connections", 2);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 20);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "idleTimeoutSeconds", 30L);
+        ReflectionTestUtils.setField(dispatcher, "ratePerSecond", 1000L);
+        ReflectionTestUtils.setField(dispatcher, "sendTimeoutSeconds", 10L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private static SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@labelreader.com");
+        message.setTo("user" + i + "@example.com");
+        message.setSubject("Notification " + i);
+        message.setText("Body " + i);
+        return message;
+    }
+
+    @Test
+    void send_DeliversMessage() throws Exception {
+        dispatcher.send(message(1));
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals("Notification 1", greenMail.getReceivedMessages()[0].getSubject());
+    }
+
+    @Test
+    void send_ReusesConnectionsForBurst() {
+        ExecutorService callers = Executors.newFixedThreadPool(10);
+        try {
+            List<CompletableFuture<Void>> sends = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                int n = i;
+                sends.add(CompletableFuture.runAsync(() -> dispatcher.send(message(n)), callers));
+            }
+            sends.forEach(CompletableFuture::join);
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(50, greenMail.getReceivedMessages().length);
+        assertTrue(meterRegistry.counter("email.connections.opened").count() <= 2);
+    }
+
+    @Test
+    void send_ThrowsWhenRelayUnreachable() {
+        greenMail.stop();
+
+        assertThrows(MailSendException.class, () -> dispatcher.send(message(1)));
+        assertEquals(1.0, meterRegistry.counter("email.failed").count());
+    }
+}
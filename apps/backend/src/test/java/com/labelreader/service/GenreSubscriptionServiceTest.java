@@ -0,0 +1,144 @@
+package com.labelreader.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.repository.LabelGenreRepository;
+import com.labelreader.repository.LabelProfileRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenreSubscriptionServiceTest {
+
+    @Mock
+    private LabelGenreRepository labelGenreRepository;
+
+    @Mock
+    private LabelProfileRepository labelProfileRepository;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private GenreSubscriptionService genreSubscriptionService;
+
+    @BeforeEach
+    void setUp() {
+        genreSubscriptionService = new GenreSubscriptionService(labelGenreRepository, labelProfileRepository,
+                unreadCountService, jdbcTemplate, transactionManager, eventPublisher, new ObjectMapper(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(genreSubscriptionService, "loadBatchSize", 100);
+        ReflectionTestUtils.setField(genreSubscriptionService, "fanOutBatchSize", 2);
+        genreSubscriptionService.init();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private void replaceAndCommit(Long labelId, List<String> genres) {
+        genreSubscriptionService.replace(labelId, genres);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static Submission submission(String genre, Submission.SubmissionStatus status) {
+        return Submission.builder()
+                .id(5L)
+                .title("Night Drive")
+                .artistName("Artist")
+                .genre(genre)
+                .submissionStatus(status)
+                .build();
+    }
+
+    @Test
+    void replace_IndexesGenresOnceCommitted() {
+        genreSubscriptionService.replace(10L, List.of(" Techno ", "techno", "House"));
+        assertTrue(genreSubscriptionService.getInterestedLabels("techno").isEmpty());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Set.of(10L), genreSubscriptionService.getInterestedLabels("TECHNO"));
+        assertEquals(List.of("Techno", "House"), genreSubscriptionService.getGenres(10L));
+        assertEquals(Set.of("techno", "house"), genreSubscriptionService.getGenreKeys(10L));
+    }
+
+    @Test
+    void replace_DropsRemovedGenres() {
+        replaceAndCommit(10L, List.of("Techno", "House"));
+        replaceAndCommit(10L, List.of("House"));
+
+        assertTrue(genreSubscriptionService.getInterestedLabels("Techno").isEmpty());
+        assertEquals(Set.of(10L), genreSubscriptionService.getInterestedLabels("House"));
+    }
+
+    @Test
+    void announce_InsertsOneStatementPerBatch() {
+        replaceAndCommit(10L, List.of("Techno"));
+        replaceAndCommit(11L, List.of("techno"));
+        replaceAndCommit(12L, List.of("Techno", "Jazz"));
+        replaceAndCommit(13L, List.of("Jazz"));
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(2, 1);
+
+        int created = genreSubscriptionService.announce(submission("Techno", Submission.SubmissionStatus.APPROVED));
+
+        assertEquals(3, created);
+        verify(jdbcTemplate, times(2)).update(anyString(), any(Object[].class));
+        verify(unreadCountService).incrementAll(List.of(10L, 11L));
+        verify(unreadCountService).incrementAll(List.of(12L));
+        verify(eventPublisher, times(3)).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void onSubmissionChanged_IgnoresSubmissionsNotApproved() {
+        replaceAndCommit(10L, List.of("Techno"));
+
+        genreSubscriptionService.onSubmissionChanged(new SubmissionChangedEvent(
+                submission("Techno", Submission.SubmissionStatus.PENDING), SubmissionChangedEvent.ChangeType.CREATED));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void onSubmissionChanged_IgnoresUpdatesToApprovedSubmissions() {
+        replaceAndCommit(10L, List.of("Techno"));
+
+        genreSubscriptionService.onSubmissionChanged(new SubmissionChangedEvent(
+                submission("Techno", Submission.SubmissionStatus.APPROVED), SubmissionChangedEvent.ChangeType.UPDATED,
+                Submission.SubmissionStatus.APPROVED));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
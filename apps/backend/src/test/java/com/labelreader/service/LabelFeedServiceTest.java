@@ -0,0 +1,100 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.event.SubmissionRatedEvent;
+import com.labelreader.repository.RatingRepository;
+import com.labelreader.repository.SubmissionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LabelFeedServiceTest {
+
+    private static final Long LABEL_ID = 10L;
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private GenreSubscriptionService genreSubscriptionService;
+
+    private LabelFeedService labelFeedService;
+
+    @BeforeEach
+    void setUp() {
+        labelFeedService = new LabelFeedService(submissionRepository, ratingRepository, genreSubscriptionService,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(labelFeedService, "capacity", 10);
+        ReflectionTestUtils.setField(labelFeedService, "maxLabels", 10);
+        ReflectionTestUtils.setField(labelFeedService, "idleMinutes", 60L);
+        ReflectionTestUtils.setField(labelFeedService, "maxAgeMinutes", 30L);
+        ReflectionTestUtils.setField(labelFeedService, "freshnessHalfLifeDays", 14.0);
+        labelFeedService.init();
+
+        when(submissionRepository.findApprovedFeedRows()).thenReturn(List.of(
+                row(1L, "House"), row(2L, "Techno"), row(3L, "House"), row(4L, "Jazz")));
+        labelFeedService.loadCatalog();
+
+        when(genreSubscriptionService.getGenreKeys(LABEL_ID)).thenReturn(Set.of("techno"));
+        List<Object[]> signals = new ArrayList<>();
+        signals.add(new Object[]{3L, "House", null, 5, true});
+        when(ratingRepository.findFeedSignalsByLabelId(LABEL_ID)).thenReturn(signals);
+    }
+
+    private static Object[] row(Long id, String genre) {
+        return new Object[]{id, genre, null, BigDecimal.ZERO, 0, CREATED_AT};
+    }
+
+    private static Submission submission(Long id, String genre) {
+        return Submission.builder()
+                .id(id)
+                .genre(genre)
+                .submissionStatus(Submission.SubmissionStatus.APPROVED)
+                .averageRating(BigDecimal.ZERO)
+                .playCount(0)
+                .createdAt(CREATED_AT)
+                .build();
+    }
+
+    @Test
+    void page_RanksByInterestsAndHistoryAndSkipsRatedSubmissions() {
+        LabelFeedService.Result result = labelFeedService.page(LABEL_ID, 0, 10);
+
+        assertEquals(List.of(2L, 1L, 4L), result.getIds());
+        assertEquals(3, result.getTotal());
+        assertEquals(List.of(1L, 4L), labelFeedService.page(LABEL_ID, 1, 10).getIds());
+    }
+
+    @Test
+    void events_UpdateMaterializedFeedWithoutRebuilding() {
+        labelFeedService.page(LABEL_ID, 0, 10);
+
+        labelFeedService.onSubmissionRated(new SubmissionRatedEvent(submission(2L, "Techno"), LABEL_ID, 1, false, true));
+        assertEquals(List.of(1L, 4L), labelFeedService.page(LABEL_ID, 0, 10).getIds());
+
+        labelFeedService.onSubmissionChanged(new SubmissionChangedEvent(
+                submission(5L, "Techno"), SubmissionChangedEvent.ChangeType.CREATED));
+        assertEquals(List.of(5L, 1L, 4L), labelFeedService.page(LABEL_ID, 0, 10).getIds());
+
+        verify(ratingRepository, times(1)).findFeedSignalsByLabelId(LABEL_ID);
+    }
+}
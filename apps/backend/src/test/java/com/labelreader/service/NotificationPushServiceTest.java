@@ -0,0 +1,102 @@
+package com.labelreader.service;
+
+import com.labelreader.dto.NotificationDto;
+import com.labelreader.event.NotificationChangedEvent;
+import com.labelreader.push.LocalNotificationPushRelay;
+import com.labelreader.push.NotificationPush;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationPushServiceTest {
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    private NotificationPushService notificationPushService;
+
+    @BeforeEach
+    void setUp() {
+        notificationPushService = new NotificationPushService(
+                new LocalNotificationPushRelay(), unreadCountService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(notificationPushService, "maxConnections", 3);
+        ReflectionTestUtils.setField(notificationPushService, "maxConnectionsPerUser", 2);
+        ReflectionTestUtils.setField(notificationPushService, "bufferSize", 10);
+        ReflectionTestUtils.setField(notificationPushService, "dispatcherThreads", 1);
+        ReflectionTestUtils.setField(notificationPushService, "heartbeatSeconds", 60L);
+        ReflectionTestUtils.setField(notificationPushService, "timeoutMinutes", 1L);
+        ReflectionTestUtils.setField(notificationPushService, "longPollTimeoutSeconds", 30L);
+        notificationPushService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationPushService.shutdown();
+    }
+
+    @Test
+    void poll_AnswersAtOnceWhenCountChanged() {
+        when(unreadCountService.get(1L)).thenReturn(3L);
+
+        DeferredResult<ResponseEntity<NotificationPush>> result = notificationPushService.poll(1L, 2L);
+
+        assertTrue(result.hasResult());
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertEquals(3L, ((NotificationPush) response.getBody()).getUnreadCount());
+    }
+
+    @Test
+    void poll_WaitsForNextNotification() {
+        when(unreadCountService.get(1L)).thenReturn(2L, 3L);
+        DeferredResult<ResponseEntity<NotificationPush>> result = notificationPushService.poll(1L, 2L);
+        assertFalse(result.hasResult());
+
+        NotificationDto created = NotificationDto.builder().id(9L).title("New rating").build();
+        notificationPushService.onNotificationChanged(new NotificationChangedEvent(1L, created));
+
+        assertTrue(result.hasResult());
+        NotificationPush push = (NotificationPush) ((ResponseEntity<?>) result.getResult()).getBody();
+        assertEquals(NotificationPush.TYPE_NOTIFICATION, push.getType());
+        assertEquals(9L, push.getNotification().getId());
+        assertEquals(3L, push.getUnreadCount());
+    }
+
+    @Test
+    void poll_EnforcesPerUserLimit() {
+        notificationPushService.poll(1L, null);
+        notificationPushService.poll(1L, null);
+
+        assertThrows(ResponseStatusException.class, () -> notificationPushService.poll(1L, null));
+    }
+
+    @Test
+    void onNotificationChanged_SkipsUsersWithoutConnection() {
+        notificationPushService.onNotificationChanged(new NotificationChangedEvent(1L, null));
+
+        verifyNoInteractions(unreadCountService);
+    }
+
+    @Test
+    void subscribe_EnforcesTotalLimit() {
+        when(unreadCountService.get(anyLong())).thenReturn(0L);
+        notificationPushService.subscribe(1L);
+        notificationPushService.subscribe(2L);
+        notificationPushService.subscribe(3L);
+
+        assertThrows(ResponseStatusException.class, () -> notificationPushService.subscribe(4L));
+        assertEquals(3, notificationPushService.getConnectionCount());
+    }
+}
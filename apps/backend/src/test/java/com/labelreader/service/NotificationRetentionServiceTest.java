@@ -0,0 +1,81 @@
+package com.labelreader.service;
+
+import com.labelreader.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationRetentionServiceTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationRetentionService retentionService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        retentionService = new NotificationRetentionService(
+                notificationRepository, unreadCountService, transactionManager, meterRegistry);
+        ReflectionTestUtils.setField(retentionService, "maxPerUser", 100L);
+        ReflectionTestUtils.setField(retentionService, "batchSize", 2);
+        ReflectionTestUtils.setField(retentionService, "pauseMs", 0L);
+        retentionService.init();
+    }
+
+    @Test
+    void purgeReadBefore_WalksKeysetInBatches() throws Exception {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(90);
+        when(notificationRepository.findMaxIdCreatedBefore(cutoff)).thenReturn(50L);
+        when(notificationRepository.findReadIdsCreatedBefore(0L, 50L, cutoff, 2)).thenReturn(List.of(3L, 7L));
+        when(notificationRepository.findReadIdsCreatedBefore(7L, 50L, cutoff, 2)).thenReturn(List.of(12L));
+        when(notificationRepository.deleteByIds(List.of(3L, 7L))).thenReturn(2);
+        when(notificationRepository.deleteByIds(List.of(12L))).thenReturn(1);
+
+        assertEquals(3, retentionService.purgeReadBefore(cutoff));
+        assertEquals(3.0, meterRegistry.counter("notification.retention.purged", "reason", "age").count());
+        assertEquals(2, meterRegistry.timer("notification.retention.batch").count());
+    }
+
+    @Test
+    void purgeReadBefore_SkipsWhenNothingOldEnough() throws Exception {
+        when(notificationRepository.findMaxIdCreatedBefore(any())).thenReturn(null);
+
+        assertEquals(0, retentionService.purgeReadBefore(LocalDateTime.now()));
+        verify(notificationRepository, never()).deleteByIds(any());
+    }
+
+    @Test
+    void purgeBeyondCap_DeletesOldestAndAdjustsUnreadCount() throws Exception {
+        when(notificationRepository.findUserIdsWithMoreThan(100L)).thenReturn(List.of(1L));
+        when(notificationRepository.findIdBeyondNewest(1L, 100L)).thenReturn(9L);
+        List<Object[]> rows = List.of(new Object[]{4L, true}, new Object[]{9L, false});
+        when(notificationRepository.findIdsAndReadUpTo(eq(1L), eq(9L), any()))
+                .thenReturn(rows)
+                .thenReturn(List.of());
+        when(notificationRepository.deleteByIds(List.of(4L, 9L))).thenReturn(2);
+
+        assertEquals(2, retentionService.purgeBeyondCap());
+        verify(unreadCountService).adjust(1L, -1L);
+    }
+}
@@ -0,0 +1,106 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Notification;
+import com.labelreader.event.NotificationChangedEvent;
+import com.labelreader.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private UnreadCountService unreadCountService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private NotificationService notificationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(notificationService, "maxBatchIds", 3);
+    }
+
+    @Test
+    void markAsRead_UpdatesOnlyOwnUnreadNotifications() {
+        List<Long> ids = List.of(4L, 5L, 6L);
+        when(notificationRepository.markAsReadForUser(ids, USER_ID)).thenReturn(2);
+
+        assertEquals(2, notificationService.markAsRead(ids, USER_ID));
+
+        verify(unreadCountService).adjust(USER_ID, -2);
+        verify(eventPublisher).publishEvent(new NotificationChangedEvent(USER_ID, null));
+        verify(notificationRepository, never()).findById(any());
+    }
+
+    @Test
+    void markAsRead_SingleThrowsWhenNotOwned() {
+        when(notificationRepository.markAsReadForUser(List.of(4L), USER_ID)).thenReturn(0);
+        when(notificationRepository.findByIdAndUserId(4L, USER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> notificationService.markAsRead(4L, USER_ID));
+        verifyNoInteractions(unreadCountService, eventPublisher);
+    }
+
+    @Test
+    void markAsRead_SingleReturnsNotification() {
+        when(notificationRepository.markAsReadForUser(List.of(4L), USER_ID)).thenReturn(1);
+        when(notificationRepository.findByIdAndUserId(4L, USER_ID)).thenReturn(Optional.of(Notification.builder()
+                .id(4L)
+                .type(Notification.NotificationType.SYSTEM)
+                .title("Welcome")
+                .isRead(true)
+                .build()));
+
+        assertTrue(notificationService.markAsRead(4L, USER_ID).getIsRead());
+        verify(unreadCountService).adjust(USER_ID, -1);
+    }
+
+    @Test
+    void deleteNotifications_DeletesInOneStatementAndRecounts() {
+        List<Long> ids = List.of(4L, 5L, 6L);
+        when(notificationRepository.deleteForUser(ids, USER_ID)).thenReturn(3);
+
+        assertEquals(3, notificationService.deleteNotifications(ids, USER_ID));
+
+        verify(notificationRepository, times(1)).deleteForUser(ids, USER_ID);
+        verify(unreadCountService).recount(USER_ID);
+    }
+
+    @Test
+    void deleteNotification_ThrowsWhenNotOwned() {
+        when(notificationRepository.deleteForUser(anyList(), eq(USER_ID))).thenReturn(0);
+
+        assertThrows(RuntimeException.class, () -> notificationService.deleteNotification(4L, USER_ID));
+        verifyNoInteractions(unreadCountService);
+    }
+
+    @Test
+    void deleteNotifications_RejectsOversizedBatch() {
+        assertThrows(ResponseStatusException.class,
+                () -> notificationService.deleteNotifications(Collections.nCopies(4, 1L), USER_ID));
+        verifyNoInteractions(notificationRepository);
+    }
+}
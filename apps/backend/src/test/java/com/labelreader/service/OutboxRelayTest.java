@@ -0,0 +1,91 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.OutboxEvent;
+import com.labelreader.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private OutboxHandler handler;
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(handler.getEventType()).thenReturn("test.event");
+        relay = new OutboxRelay(outboxEventRepository, transactionManager, List.of(handler), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(relay, "threads", 1);
+        ReflectionTestUtils.setField(relay, "maxAttempts", 3);
+        ReflectionTestUtils.setField(relay, "initialBackoffSeconds", 30L);
+        ReflectionTestUtils.setField(relay, "maxBackoffSeconds", 3600L);
+        relay.init();
+    }
+
+    private static OutboxEvent event(int attempts) {
+        return OutboxEvent.builder()
+                .id(7L)
+                .eventType("test.event")
+                .payload("{}")
+                .attempts(attempts)
+                .availableAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    void dispatch_DeletesHandledEvent() throws Exception {
+        relay.dispatch(event(0));
+
+        verify(handler).handle("{}");
+        verify(outboxEventRepository).deleteHandled(7L);
+    }
+
+    @Test
+    void dispatch_SchedulesRetryWithBackoffOnFailure() throws Exception {
+        doThrow(new IllegalStateException("smtp down")).when(handler).handle("{}");
+
+        relay.dispatch(event(1));
+
+        verify(outboxEventRepository).scheduleRetry(eq(7L), eq(2), any(LocalDateTime.class), contains("smtp down"));
+        verify(outboxEventRepository, never()).deleteHandled(anyLong());
+    }
+
+    @Test
+    void dispatch_DeadLettersAfterLastAttempt() throws Exception {
+        doThrow(new IllegalStateException("smtp down")).when(handler).handle("{}");
+
+        relay.dispatch(event(2));
+
+        verify(outboxEventRepository).markDead(eq(7L), eq(3), contains("smtp down"));
+        verify(outboxEventRepository, never()).scheduleRetry(anyLong(), anyInt(), any(), any());
+    }
+
+    @Test
+    void backoff_DoublesUpToCap() {
+        assertEquals(Duration.ofSeconds(30), OutboxRelay.backoff(1, 30, 3600));
+        assertEquals(Duration.ofSeconds(120), OutboxRelay.backoff(3, 30, 3600));
+        assertEquals(Duration.ofSeconds(3600), OutboxRelay.backoff(20, 30, 3600));
+    }
+}
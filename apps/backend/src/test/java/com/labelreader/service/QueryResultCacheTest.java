@@ -0,0 +1,123 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryResultCacheTest {
+
+    private static final String HOUSE_APPROVED = QueryResultCache.tag("House", Submission.SubmissionStatus.APPROVED);
+    private static final String TECHNO_APPROVED = QueryResultCache.tag("Techno", Submission.SubmissionStatus.APPROVED);
+
+    private QueryResultCache queryResultCache;
+
+    @BeforeEach
+    void setUp() {
+        queryResultCache = new QueryResultCache(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(queryResultCache, "maxEntries", 100L);
+        ReflectionTestUtils.setField(queryResultCache, "ttlSeconds", 60L);
+        queryResultCache.init();
+    }
+
+    @Test
+    void get_ReusesCachedPage() {
+        AtomicInteger loads = new AtomicInteger();
+
+        queryResultCache.get("house", List.of(HOUSE_APPROVED), () -> load(loads, 1L, 2L));
+        QueryResultCache.Entry second = queryResultCache.get("house", List.of(HOUSE_APPROVED), () -> load(loads, 3L));
+
+        assertEquals(List.of(1L, 2L), second.getIds());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void onSubmissionChanged_EvictsOnlyMatchingTags() {
+        AtomicInteger loads = new AtomicInteger();
+        queryResultCache.get("house", List.of(HOUSE_APPROVED), () -> load(loads, 1L));
+        queryResultCache.get("techno", List.of(TECHNO_APPROVED), () -> load(loads, 2L));
+        queryResultCache.get("all", List.of(QueryResultCache.tag(null, null)), () -> load(loads, 1L, 2L));
+
+        Submission submission = Submission.builder()
+                .id(3L)
+                .genre("house")
+                .submissionStatus(Submission.SubmissionStatus.APPROVED)
+                .build();
+        queryResultCache.onSubmissionChanged(
+                new SubmissionChangedEvent(submission, SubmissionChangedEvent.ChangeType.CREATED));
+
+        assertEquals(1, queryResultCache.size());
+        QueryResultCache.Entry techno = queryResultCache.get("techno", List.of(TECHNO_APPROVED), () -> load(loads, 9L));
+        assertEquals(List.of(2L), techno.getIds());
+    }
+
+    @Test
+    void onSubmissionChanged_EvictsPreviousGenreOnGenreChange() {
+        AtomicInteger loads = new AtomicInteger();
+        queryResultCache.get("house", List.of(HOUSE_APPROVED), () -> load(loads, 1L));
+        queryResultCache.get("techno", List.of(TECHNO_APPROVED), () -> load(loads, 2L));
+
+        Submission submission = Submission.builder()
+                .id(1L)
+                .genre("techno")
+                .submissionStatus(Submission.SubmissionStatus.APPROVED)
+                .build();
+        queryResultCache.onSubmissionChanged(new SubmissionChangedEvent(submission,
+                SubmissionChangedEvent.ChangeType.UPDATED, Submission.SubmissionStatus.APPROVED, "house"));
+
+        assertEquals(0, queryResultCache.size());
+    }
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<QueryResultCache.Entry> first = executor.submit(() ->
+                    queryResultCache.get("house", List.of(HOUSE_APPROVED), () -> {
+                        loading.countDown();
+                        await(release);
+                        return load(loads, 1L);
+                    }));
+            loading.await(5, TimeUnit.SECONDS);
+
+            Future<QueryResultCache.Entry> second = executor.submit(() ->
+                    queryResultCache.get("house", List.of(HOUSE_APPROVED), () -> load(loads, 2L)));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals(List.of(1L), first.get(5, TimeUnit.SECONDS).getIds());
+            assertEquals(List.of(1L), second.get(5, TimeUnit.SECONDS).getIds());
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static QueryResultCache.Entry load(AtomicInteger loads, Long... ids) {
+        loads.incrementAndGet();
+        return new QueryResultCache.Entry(List.of(ids), ids.length);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
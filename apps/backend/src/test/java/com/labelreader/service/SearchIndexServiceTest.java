@@ -0,0 +1,142 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import com.labelreader.repository.SubmissionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchIndexServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private SubmissionRepository submissionRepository;
+
+    @InjectMocks
+    private SearchIndexService searchIndexService;
+
+    private final Pageable relevance = PageRequest.of(0, 10, Sort.by("relevance"));
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(searchIndexService, "indexPath", tempDir.toString());
+        ReflectionTestUtils.setField(searchIndexService, "bulkBatchSize", 2);
+        ReflectionTestUtils.setField(searchIndexService, "bulkThreads", 2);
+
+        when(submissionRepository.findBySubmissionStatusAndIdGreaterThanOrderByIdAsc(
+                eq(Submission.SubmissionStatus.APPROVED), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(
+                        submission(1L, "Midnight Drive", "Nova", "Techno", 128),
+                        submission(2L, "Sunrise", "Midnight Collective", "House", 122)))
+                .thenReturn(List.of(submission(3L, "Deep Water", "Kora", "Techno", 140)))
+                .thenReturn(List.of());
+
+        searchIndexService.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchIndexService.close();
+    }
+
+    private Submission submission(long id, String title, String artistName, String genre, int bpm) {
+        return Submission.builder()
+                .id(id)
+                .title(title)
+                .artistName(artistName)
+                .genre(genre)
+                .bpm(bpm)
+                .submissionStatus(Submission.SubmissionStatus.APPROVED)
+                .createdAt(LocalDateTime.now().minusDays(id))
+                .build();
+    }
+
+    @Test
+    void search_RanksTitleMatchesAboveArtistMatches() {
+        SearchIndexService.Result result = searchIndexService.search(
+                "midnight", null, null, null, null, null, relevance);
+
+        assertEquals(2, result.getTotal());
+        assertEquals(List.of(1L, 2L), result.getIds());
+    }
+
+    @Test
+    void search_ToleratesTyposAndPrefixes() {
+        assertEquals(List.of(3L), searchIndexService.search(
+                "deep watr", null, null, null, null, null, relevance).getIds());
+        assertEquals(List.of(2L), searchIndexService.search(
+                "sunr", null, null, null, null, null, relevance).getIds());
+    }
+
+    @Test
+    void search_AppliesGenreAndBpmFilters() {
+        SearchIndexService.Result result = searchIndexService.search(
+                null, "techno", 130, null, null, null, relevance);
+
+        assertEquals(List.of(3L), result.getIds());
+    }
+
+    @Test
+    void onSubmissionChanged_UpdatesAfterRefresh() {
+        Submission deleted = submission(1L, "Midnight Drive", "Nova", "Techno", 128);
+        searchIndexService.onSubmissionChanged(
+                new SubmissionChangedEvent(deleted, SubmissionChangedEvent.ChangeType.DELETED));
+        searchIndexService.onSubmissionChanged(new SubmissionChangedEvent(
+                submission(4L, "Midnight Run", "Vela", "Techno", 130), SubmissionChangedEvent.ChangeType.CREATED));
+        searchIndexService.refresh();
+
+        assertEquals(List.of(4L, 2L), searchIndexService.search(
+                "midnight", null, null, null, null, null, relevance).getIds());
+    }
+
+    @Test
+    void search_SortsByPlayCount() {
+        Submission played = submission(3L, "Deep Water", "Kora", "Techno", 140);
+        played.setPlayCount(50);
+        searchIndexService.onSubmissionChanged(
+                new SubmissionChangedEvent(played, SubmissionChangedEvent.ChangeType.UPDATED));
+        searchIndexService.refresh();
+
+        assertEquals(List.of(3L, 2L, 1L), searchIndexService.search(null, null, null, null, null, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "playCount", "id"))).getIds());
+    }
+
+    @Test
+    void open_CatchesUpOnSubmissionsChangedWhileClosed() throws Exception {
+        searchIndexService.close();
+        Submission added = submission(4L, "Midnight Run", "Vela", "Techno", 130);
+        added.setUpdatedAt(LocalDateTime.now());
+        Submission rejected = submission(1L, "Midnight Drive", "Nova", "Techno", 128);
+        rejected.setSubmissionStatus(Submission.SubmissionStatus.REJECTED);
+        rejected.setUpdatedAt(LocalDateTime.now());
+        when(submissionRepository.findUpdatedSince(any(LocalDateTime.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(added, rejected))
+                .thenReturn(List.of());
+
+        searchIndexService.open();
+
+        assertEquals(List.of(4L, 2L), searchIndexService.search(
+                "midnight", null, null, null, null, null, relevance).getIds());
+    }
+}
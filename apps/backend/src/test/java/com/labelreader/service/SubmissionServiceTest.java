@@ -2,6 +2,7 @@ package com.labelreader.service;
 
 import com.labelreader.dto.SubmissionDto;
 import com.labelreader.dto.SubmissionRequest;
+import com.labelreader.dto.SubmissionSummaryDto;
 import com.labelreader.entity.ArtistProfile;
 import com.labelreader.entity.Submission;
 import com.labelreader.repository.ArtistProfileRepository;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -39,6 +41,9 @@ class SubmissionServiceTest {
     @Mock
     private ArtistProfileRepository artistProfileRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SubmissionService submissionService;
 
@@ -161,11 +166,14 @@ class SubmissionServiceTest {
     @Test
     void getArtistSubmissions_Success() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Submission> page = new PageImpl<>(List.of(testSubmission));
+        Page<SubmissionSummaryDto> page = new PageImpl<>(List.of(SubmissionSummaryDto.builder()
+                .id(testSubmission.getId())
+                .title(testSubmission.getTitle())
+                .build()));
 
-        when(submissionRepository.findByArtistId(anyLong(), any(Pageable.class))).thenReturn(page);
+        when(submissionRepository.findSummariesByArtistId(anyLong(), any(Pageable.class))).thenReturn(page);
 
-        Page<SubmissionDto> result = submissionService.getArtistSubmissions(1L, pageable);
+        Page<SubmissionSummaryDto> result = submissionService.getArtistSubmissions(1L, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getTotalElements());
@@ -0,0 +1,166 @@
+package com.labelreader.service;
+
+import com.labelreader.dto.TrendingSubmissionDto;
+import com.labelreader.entity.Submission;
+import com.labelreader.event.SubmissionChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingServiceTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @TempDir
+    Path tempDir;
+
+    private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        trendingService = newService();
+    }
+
+    private TrendingService newService() {
+        TrendingService service = new TrendingService();
+        ReflectionTestUtils.setField(service, "halfLifeHours", 24.0);
+        ReflectionTestUtils.setField(service, "capacity", 3);
+        ReflectionTestUtils.setField(service, "playWeight", 1.0);
+        ReflectionTestUtils.setField(service, "ratingWeight", 5.0);
+        ReflectionTestUtils.setField(service, "minScore", 0.01);
+        ReflectionTestUtils.setField(service, "checkpointPath", tempDir.resolve("trending.bin").toString());
+        service.init();
+        return service;
+    }
+
+    private Submission submission(long id, String genre, Submission.SubmissionStatus status) {
+        return Submission.builder()
+                .id(id)
+                .title("Track " + id)
+                .artistName("Artist " + id)
+                .genre(genre)
+                .submissionStatus(status)
+                .build();
+    }
+
+    @Test
+    void getTrending_OrdersBySum() {
+        long now = System.currentTimeMillis();
+        Submission a = submission(1L, "Techno", Submission.SubmissionStatus.APPROVED);
+        Submission b = submission(2L, "House", Submission.SubmissionStatus.APPROVED);
+
+        trendingService.recordActivity(a, 1.0, now);
+        trendingService.recordActivity(b, 1.0, now);
+        trendingService.recordActivity(b, 1.0, now);
+
+        List<TrendingSubmissionDto> result = trendingService.getTrending(null, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    void getTrending_RecentActivityOutranksOlderActivity() {
+        long now = System.currentTimeMillis();
+        Submission old = submission(1L, "Techno", Submission.SubmissionStatus.APPROVED);
+        Submission recent = submission(2L, "Techno", Submission.SubmissionStatus.APPROVED);
+
+        // Three plays two days ago decay to 0.75, below a single fresh play
+        trendingService.recordActivity(old, 3.0, now - 48 * HOUR);
+        trendingService.recordActivity(recent, 1.0, now);
+
+        List<TrendingSubmissionDto> result = trendingService.getTrending("techno", 10);
+
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(0.75, result.get(1).getScore(), 0.01);
+    }
+
+    @Test
+    void getTrending_FiltersByGenreAndRespectsCapacity() {
+        long now = System.currentTimeMillis();
+        for (long id = 1; id <= 5; id++) {
+            trendingService.recordActivity(submission(id, "Techno", Submission.SubmissionStatus.APPROVED), id, now);
+        }
+        trendingService.recordActivity(submission(6L, "House", Submission.SubmissionStatus.APPROVED), 1.0, now);
+
+        List<TrendingSubmissionDto> techno = trendingService.getTrending("Techno", 10);
+        List<TrendingSubmissionDto> house = trendingService.getTrending("House", 10);
+
+        assertEquals(List.of(5L, 4L, 3L), techno.stream().map(TrendingSubmissionDto::getId).toList());
+        assertEquals(1, house.size());
+    }
+
+    @Test
+    void recordActivity_IgnoresUnapprovedSubmissions() {
+        trendingService.recordActivity(submission(1L, "Techno", Submission.SubmissionStatus.PENDING), 1.0,
+                System.currentTimeMillis());
+
+        assertTrue(trendingService.getTrending(null, 10).isEmpty());
+    }
+
+    @Test
+    void remove_RefillsFromRemainingEntries() {
+        long now = System.currentTimeMillis();
+        for (long id = 1; id <= 4; id++) {
+            trendingService.recordActivity(submission(id, "Techno", Submission.SubmissionStatus.APPROVED), id, now);
+        }
+
+        trendingService.remove(4L);
+
+        assertEquals(List.of(3L, 2L, 1L),
+                trendingService.getTrending(null, 10).stream().map(TrendingSubmissionDto::getId).toList());
+    }
+
+    @Test
+    void onSubmissionChanged_MovesEntryToNewGenre() {
+        long now = System.currentTimeMillis();
+        Submission track = submission(1L, "Techno", Submission.SubmissionStatus.APPROVED);
+        trendingService.recordActivity(track, 1.0, now);
+
+        track.setGenre("House");
+        trendingService.onSubmissionChanged(
+                new SubmissionChangedEvent(track, SubmissionChangedEvent.ChangeType.UPDATED));
+
+        assertTrue(trendingService.getTrending("techno", 10).isEmpty());
+        assertEquals(1L, trendingService.getTrending("house", 10).get(0).getId());
+        assertEquals("House", trendingService.getTrending(null, 10).get(0).getGenre());
+    }
+
+    @Test
+    void prune_DropsEntriesThatDecayedBelowMinimum() {
+        long now = System.currentTimeMillis();
+        // Seven half-lives take a single play below 0.01
+        trendingService.recordActivity(submission(1L, "Techno", Submission.SubmissionStatus.APPROVED), 1.0,
+                now - 7 * 24 * HOUR);
+        trendingService.recordActivity(submission(2L, "Techno", Submission.SubmissionStatus.APPROVED), 1.0, now);
+
+        assertEquals(1, trendingService.prune(now));
+
+        assertEquals(List.of(2L),
+                trendingService.getTrending("techno", 10).stream().map(TrendingSubmissionDto::getId).toList());
+    }
+
+    @Test
+    void checkpoint_RestoresStateAfterRestart() {
+        long now = System.currentTimeMillis();
+        trendingService.recordActivity(submission(1L, "Techno", Submission.SubmissionStatus.APPROVED), 2.0, now);
+        trendingService.recordActivity(submission(2L, "House", Submission.SubmissionStatus.APPROVED), 1.0, now);
+        trendingService.checkpoint();
+
+        TrendingService restarted = newService();
+        List<TrendingSubmissionDto> result = restarted.getTrending(null, 10);
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals("Track 1", result.get(0).getTitle());
+        assertEquals(2.0, result.get(0).getScore(), 0.01);
+        assertEquals(1, restarted.getTrending("house", 10).size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.labelreader.service;
+
+import com.labelreader.entity.NotificationCounter;
+import com.labelreader.repository.NotificationCounterRepository;
+import com.labelreader.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCountServiceTest {
+
+    @Mock
+    private NotificationCounterRepository counterRepository;
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UnreadCountService unreadCountService;
+
+    @BeforeEach
+    void setUp() {
+        unreadCountService = new UnreadCountService(
+                counterRepository, notificationRepository, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(unreadCountService, "cacheTtlSeconds", 30L);
+        ReflectionTestUtils.setField(unreadCountService, "cacheMaxEntries", 100L);
+        ReflectionTestUtils.setField(unreadCountService, "reconcileBatchSize", 10);
+        unreadCountService.init();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static NotificationCounter counter(long userId, long unreadCount) {
+        return NotificationCounter.builder().userId(userId).unreadCount(unreadCount).build();
+    }
+
+    @Test
+    void get_ServesCachedCounter() {
+        when(counterRepository.findById(1L)).thenReturn(Optional.of(counter(1L, 4L)));
+
+        assertEquals(4L, unreadCountService.get(1L));
+        assertEquals(4L, unreadCountService.get(1L));
+
+        verify(counterRepository, times(1)).findById(1L);
+        verifyNoInteractions(notificationRepository);
+    }
+
+    @Test
+    void adjust_CreatesMissingCounter() {
+        when(counterRepository.addToUnread(1L, 1L)).thenReturn(0);
+
+        unreadCountService.adjust(1L, 1L);
+
+        verify(counterRepository).initialize(1L, 1L);
+    }
+
+    @Test
+    void adjust_DropsCachedValueAfterCommit() {
+        when(counterRepository.findById(1L))
+                .thenReturn(Optional.of(counter(1L, 4L)), Optional.of(counter(1L, 5L)));
+        when(counterRepository.addToUnread(1L, 1L)).thenReturn(1);
+        assertEquals(4L, unreadCountService.get(1L));
+
+        unreadCountService.adjust(1L, 1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+
+        assertEquals(5L, unreadCountService.get(1L));
+        verify(counterRepository, never()).initialize(anyLong(), anyLong());
+    }
+
+    @Test
+    void recount_ResetsCounterAndDropsCachedValueAfterCommit() {
+        when(counterRepository.findById(1L))
+                .thenReturn(Optional.of(counter(1L, 4L)), Optional.of(counter(1L, 2L)));
+        assertEquals(4L, unreadCountService.get(1L));
+
+        unreadCountService.recount(1L);
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+
+        verify(counterRepository).recountUnread(1L);
+        assertEquals(2L, unreadCountService.get(1L));
+    }
+
+    @Test
+    void reconcile_CorrectsOnlyDriftedCounters() {
+        when(counterRepository.findByUserIdGreaterThanOrderByUserIdAsc(eq(0L), any()))
+                .thenReturn(List.of(counter(1L, 5L), counter(2L, 3L)));
+        when(notificationRepository.countUnreadByUserIds(List.of(1L, 2L)))
+                .thenReturn(List.of(new Object[]{1L, 5L}, new Object[]{2L, 1L}));
+        when(counterRepository.lockByUserId(2L)).thenReturn(Optional.of(counter(2L, 3L)));
+        when(notificationRepository.countByUserIdAndIsRead(2L, false)).thenReturn(1L);
+
+        unreadCountService.reconcile();
+
+        verify(counterRepository).setUnread(2L, 1L);
+        verify(counterRepository, never()).setUnread(eq(1L), anyLong());
+    }
+}
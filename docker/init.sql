@@ -17,6 +17,7 @@ CREATE TABLE IF NOT EXISTS users (
     country VARCHAR(100),
     is_verified BOOLEAN DEFAULT FALSE,
     is_active BOOLEAN DEFAULT TRUE,
+    email_digest BOOLEAN DEFAULT FALSE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     last_login TIMESTAMP NULL,
@@ -59,6 +60,17 @@ CREATE TABLE IF NOT EXISTS label_profiles (
     INDEX idx_country (country)
 ) ENGINE=InnoDB;
 
+-- Genres each label is interested in, looked up by genre to route new submissions
+CREATE TABLE IF NOT EXISTS label_genres (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    genre VARCHAR(100) NOT NULL,
+    genre_key VARCHAR(100) NOT NULL,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_label_genre (user_id, genre_key),
+    INDEX idx_genre_key (genre_key)
+) ENGINE=InnoDB;
+
 -- Music submissions
 CREATE TABLE IF NOT EXISTS submissions (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -81,6 +93,8 @@ CREATE TABLE IF NOT EXISTS submissions (
     play_count INT DEFAULT 0,
     average_rating DECIMAL(3,2) DEFAULT 0.00,
     total_ratings INT DEFAULT 0,
+    duplicate_of_id BIGINT NULL,
+    duplicate_similarity DOUBLE NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (artist_id) REFERENCES users(id) ON DELETE CASCADE,
@@ -89,9 +103,25 @@ CREATE TABLE IF NOT EXISTS submissions (
     INDEX idx_status (submission_status),
     INDEX idx_created_at (created_at),
     INDEX idx_average_rating (average_rating),
+    -- Keyset pagination orders, each ending in the id tie-breaker
+    INDEX idx_status_created_id (submission_status, created_at, id),
+    INDEX idx_status_rating_id (submission_status, average_rating, id),
+    INDEX idx_status_plays_id (submission_status, play_count, id),
+    INDEX idx_genre_status_created_id (genre, submission_status, created_at, id),
+    INDEX idx_artist_created_id (artist_id, created_at, id),
+    -- Search index catch-up scans rows changed since its high-water mark
+    INDEX idx_updated_id (updated_at, id),
     FULLTEXT INDEX ft_title_artist (title, artist_name, description)
 ) ENGINE=InnoDB;
 
+-- Acoustic fingerprints for near-duplicate detection
+CREATE TABLE IF NOT EXISTS submission_fingerprints (
+    submission_id BIGINT PRIMARY KEY,
+    fingerprint VARBINARY(64) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (submission_id) REFERENCES submissions(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
 -- Ratings and reviews
 CREATE TABLE IF NOT EXISTS ratings (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -132,12 +162,13 @@ CREATE TABLE IF NOT EXISTS signing_requests (
     INDEX idx_status (request_status)
 ) ENGINE=InnoDB;
 
--- Refresh tokens for JWT
+-- Refresh tokens for JWT; token holds the SHA-256 of the issued token
 CREATE TABLE IF NOT EXISTS refresh_tokens (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL,
     token VARCHAR(500) NOT NULL UNIQUE,
     expires_at TIMESTAMP NOT NULL,
+    revoked_at TIMESTAMP NULL,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_token (token),
@@ -145,22 +176,61 @@ CREATE TABLE IF NOT EXISTS refresh_tokens (
     INDEX idx_expires_at (expires_at)
 ) ENGINE=InnoDB;
 
+-- Token buckets shared by all nodes when rate-limit.backend=jdbc
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    bucket_key VARCHAR(191) PRIMARY KEY,
+    tokens DOUBLE NOT NULL,
+    refilled_at BIGINT NOT NULL,
+    INDEX idx_refilled_at (refilled_at)
+) ENGINE=InnoDB;
+
 -- Notifications
 CREATE TABLE IF NOT EXISTS notifications (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT NOT NULL,
-    type ENUM('NEW_RATING', 'SIGNING_REQUEST', 'REQUEST_RESPONSE', 'SYSTEM') NOT NULL,
+    type ENUM('NEW_RATING', 'SIGNING_REQUEST', 'REQUEST_RESPONSE', 'NEW_SUBMISSION', 'SYSTEM') NOT NULL,
     title VARCHAR(255) NOT NULL,
     message TEXT NOT NULL,
     link_url VARCHAR(500),
     is_read BOOLEAN DEFAULT FALSE,
+    email_pending BOOLEAN DEFAULT FALSE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_is_read (is_read),
+    INDEX idx_user_is_read (user_id, is_read),
+    INDEX idx_user_email_pending (user_id, email_pending),
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB;
 
+-- Unread notification count per user, kept in step with the notifications
+CREATE TABLE IF NOT EXISTS notification_counters (
+    user_id BIGINT PRIMARY KEY,
+    unread_count BIGINT NOT NULL DEFAULT 0,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+-- Notification pushes relayed between nodes
+CREATE TABLE IF NOT EXISTS notification_push_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    payload TEXT NOT NULL,
+    created_at BIGINT NOT NULL,
+    INDEX idx_created_at (created_at)
+) ENGINE=InnoDB;
+
+-- Transactional outbox: side effects written with the change and relayed in the background
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INT NOT NULL DEFAULT 0,
+    available_at DATETIME(6) NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_status_available (status, available_at)
+) ENGINE=InnoDB;
+
 -- Play history/analytics
 CREATE TABLE IF NOT EXISTS play_history (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
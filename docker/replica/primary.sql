@@ -0,0 +1,3 @@
+-- Account the replica connects with
+CREATE USER IF NOT EXISTS 'repl'@'%' IDENTIFIED BY 'repl_pass';
+GRANT REPLICATION SLAVE ON *.* TO 'repl'@'%';
@@ -0,0 +1,16 @@
+-- Runs once on the replica's first start: follow the primary from its first
+-- transaction using GTID auto-positioning.
+SET SESSION sql_log_bin = 0;
+
+-- Lets the backend read SHOW REPLICA STATUS for its lag check
+GRANT REPLICATION CLIENT ON *.* TO 'labelreader_user'@'%';
+
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'mysql',
+    SOURCE_PORT = 3306,
+    SOURCE_USER = 'repl',
+    SOURCE_PASSWORD = 'repl_pass',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+
+START REPLICA;